@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one advised call: 'in' and 'out' (or 'error') events of {@code SimpleLogger} with MDC around them.
+ * {@link #direct} is the baseline of the same call on the target bean without proxy.
+ * <p>
+ * Run with {@link BenchmarkRunner} to get allocation rate in bytes/op alongside ns/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdvisedCallBenchmark {
+
+    @Benchmark
+    public Dto direct(CallState state) {
+        return state.call.apply(state.target);
+    }
+
+    @Benchmark
+    public Dto advised(CallState state) {
+        return state.call.apply(state.proxy);
+    }
+
+    @Benchmark
+    public Object advisedError(BenchmarkState state) {
+        try {
+            return state.proxy.failing(BenchmarkState.ARGUMENT);
+        } catch (AdvisedService.Failure e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.benchmark;
+
+import ru.tinkoff.eclair.annotation.Log;
+import ru.tinkoff.eclair.annotation.Mdc;
+
+import static org.springframework.boot.logging.LogLevel.DEBUG;
+import static org.springframework.boot.logging.LogLevel.INFO;
+
+/**
+ * Advised bean of the benchmarks: one method per printer and argument count.
+ * Every method is logged with {@code level = INFO, verbose = DEBUG}, so the effective level of its logger selects the mode:
+ * {@code WARN} - disabled, {@code INFO} - enabled without arguments, {@code DEBUG} - enabled and verbose.
+ */
+@SuppressWarnings("unused")
+public class AdvisedService {
+
+    static final Failure FAILURE = new Failure();
+
+    @Mdc(key = "benchmark", value = "'static'")
+    @Log(level = INFO, verbose = DEBUG, printer = "toStringPrinter")
+    public Dto toString0() {
+        return BenchmarkState.RESULT;
+    }
+
+    @Mdc(key = "benchmark", value = "'static'")
+    @Log(level = INFO, verbose = DEBUG, printer = "toStringPrinter")
+    public Dto toString1(Dto a) {
+        return a;
+    }
+
+    @Mdc(key = "benchmark", value = "'static'")
+    @Log(level = INFO, verbose = DEBUG, printer = "toStringPrinter")
+    public Dto toString3(Dto a, Dto b, Dto c) {
+        return a;
+    }
+
+    @Mdc(key = "benchmark", value = "'static'")
+    @Log(level = INFO, verbose = DEBUG, printer = "jacksonPrinter")
+    public Dto jackson0() {
+        return BenchmarkState.RESULT;
+    }
+
+    @Mdc(key = "benchmark", value = "'static'")
+    @Log(level = INFO, verbose = DEBUG, printer = "jacksonPrinter")
+    public Dto jackson1(Dto a) {
+        return a;
+    }
+
+    @Mdc(key = "benchmark", value = "'static'")
+    @Log(level = INFO, verbose = DEBUG, printer = "jacksonPrinter")
+    public Dto jackson3(Dto a, Dto b, Dto c) {
+        return a;
+    }
+
+    @Mdc(key = "benchmark", value = "'static'")
+    @Log(level = INFO, verbose = DEBUG, printer = "jaxb2Printer")
+    public Dto jaxb20() {
+        return BenchmarkState.RESULT;
+    }
+
+    @Mdc(key = "benchmark", value = "'static'")
+    @Log(level = INFO, verbose = DEBUG, printer = "jaxb2Printer")
+    public Dto jaxb21(Dto a) {
+        return a;
+    }
+
+    @Mdc(key = "benchmark", value = "'static'")
+    @Log(level = INFO, verbose = DEBUG, printer = "jaxb2Printer")
+    public Dto jaxb23(Dto a, Dto b, Dto c) {
+        return a;
+    }
+
+    @Mdc(key = "benchmark", value = "'static'")
+    @Log(level = INFO, verbose = DEBUG)
+    @Log.error(level = INFO, verbose = DEBUG)
+    public Dto failing(Dto a) {
+        throw FAILURE;
+    }
+
+    /**
+     * Pre-allocated and stackless, so that only the logging of 'error'-event is measured.
+     */
+    static final class Failure extends RuntimeException {
+
+        private Failure() {
+            super("failure", null, false, false);
+        }
+    }
+}
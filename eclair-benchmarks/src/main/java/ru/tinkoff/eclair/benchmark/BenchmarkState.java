@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import ru.tinkoff.eclair.autoconfigure.EclairAutoConfiguration;
+
+/**
+ * Application context with {@link EclairAutoConfiguration} and a proxied {@link AdvisedService}.
+ * The proxy is built by {@code EclairProxyCreator}, so each call passes {@code MdcAdvisor}, {@code LogAdvisor}
+ * and {@code SimpleLogger} exactly as in a real application.
+ * Only the effective level is parameterized here, see {@link CallState} for the rest.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkState {
+
+    static final Dto ARGUMENT = new Dto(42, "argument");
+    static final Dto RESULT = new Dto(0, "result");
+
+    private static final LoggingSystem loggingSystem = LoggingSystem.get(BenchmarkState.class.getClassLoader());
+
+    /**
+     * Effective level of {@link AdvisedService} loggers: {@code WARN} - disabled, {@code INFO} - enabled, {@code DEBUG} - verbose.
+     */
+    @Param({"WARN", "INFO", "DEBUG"})
+    public LogLevel level;
+
+    AdvisedService target;
+    AdvisedService proxy;
+
+    private AnnotationConfigApplicationContext applicationContext;
+
+    @Setup
+    public void setUp() {
+        applicationContext = new AnnotationConfigApplicationContext(BenchmarkConfiguration.class, EclairAutoConfiguration.class);
+        target = new AdvisedService();
+        proxy = applicationContext.getBean(AdvisedService.class);
+        loggingSystem.setLogLevel(AdvisedService.class.getName(), level);
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggingSystem.setLogLevel(AdvisedService.class.getName(), null);
+        applicationContext.close();
+    }
+
+    @Configuration
+    static class BenchmarkConfiguration {
+
+        @Bean
+        public ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        public Jaxb2Marshaller jaxb2Marshaller() {
+            Jaxb2Marshaller jaxb2Marshaller = new Jaxb2Marshaller();
+            jaxb2Marshaller.setClassesToBeBound(Dto.class);
+            return jaxb2Marshaller;
+        }
+
+        @Bean
+        public AdvisedService advisedService() {
+            return new AdvisedService();
+        }
+    }
+}
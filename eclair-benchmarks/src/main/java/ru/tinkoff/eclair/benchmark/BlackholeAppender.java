@@ -0,0 +1,33 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.benchmark;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+/**
+ * Formats every event like a real appender would, but writes nothing.
+ * Keeps the cost of message formatting (and of everything deferred to it) inside the measurement.
+ */
+public class BlackholeAppender extends AppenderBase<ILoggingEvent> {
+
+    private static volatile int sink;
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        sink += event.getFormattedMessage().length() + event.getMDCPropertyMap().size();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.function.Function;
+
+/**
+ * {@link BenchmarkState} complemented by printer and argument count of the invoked {@link AdvisedService} method.
+ */
+@State(Scope.Benchmark)
+public class CallState extends BenchmarkState {
+
+    @Param({"toString", "jackson", "jaxb2"})
+    public String printer;
+
+    @Param({"0", "1", "3"})
+    public int arguments;
+
+    Function<AdvisedService, Dto> call;
+
+    @Setup
+    public void resolveCall() {
+        call = resolveCall(printer, arguments, ARGUMENT);
+    }
+
+    private static Function<AdvisedService, Dto> resolveCall(String printer, int arguments, Dto dto) {
+        switch (printer + arguments) {
+            case "toString0":
+                return AdvisedService::toString0;
+            case "toString1":
+                return service -> service.toString1(dto);
+            case "toString3":
+                return service -> service.toString3(dto, dto, dto);
+            case "jackson0":
+                return AdvisedService::jackson0;
+            case "jackson1":
+                return service -> service.jackson1(dto);
+            case "jackson3":
+                return service -> service.jackson3(dto, dto, dto);
+            case "jaxb20":
+                return AdvisedService::jaxb20;
+            case "jaxb21":
+                return service -> service.jaxb21(dto);
+            case "jaxb23":
+                return service -> service.jaxb23(dto, dto, dto);
+            default:
+                throw new IllegalArgumentException("Unexpected benchmark parameters: " + printer + ", " + arguments);
+        }
+    }
+}
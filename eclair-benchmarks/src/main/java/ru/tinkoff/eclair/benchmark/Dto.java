@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.benchmark;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * Payload printable by each of {@code ToStringPrinter}, {@code JacksonPrinter} and {@code Jaxb2Printer}.
+ */
+@XmlRootElement
+@XmlType(name = "dto")
+@SuppressWarnings("unused")
+public class Dto {
+
+    private int i;
+    private String s;
+
+    public Dto() {
+    }
+
+    Dto(int i, String s) {
+        this.i = i;
+        this.s = s;
+    }
+
+    public int getI() {
+        return i;
+    }
+
+    public void setI(int i) {
+        this.i = i;
+    }
+
+    public String getS() {
+        return s;
+    }
+
+    public void setS(String s) {
+        this.s = s;
+    }
+
+    @Override
+    public String toString() {
+        return "Dto{i=" + i + ", s='" + s + "'}";
+    }
+}
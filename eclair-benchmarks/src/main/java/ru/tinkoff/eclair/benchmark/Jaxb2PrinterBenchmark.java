@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import ru.tinkoff.eclair.printer.Jaxb2Printer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Printing by {@link Jaxb2Printer} with reused marshallers compared with new {@code Marshaller} for each printing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Jaxb2PrinterBenchmark {
+
+    private Jaxb2Printer printer;
+    private Jaxb2Printer reusingPrinter;
+    private Dto dto;
+
+    @Setup
+    public void setUp() {
+        Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
+        marshaller.setClassesToBeBound(Dto.class);
+        printer = new Jaxb2Printer(marshaller);
+        reusingPrinter = new Jaxb2Printer(marshaller);
+        reusingPrinter.setReuseMarshallers(true);
+        dto = new Dto(42, "string");
+    }
+
+    @Benchmark
+    public String newMarshaller() {
+        return printer.print(dto);
+    }
+
+    @Benchmark
+    public String reusedMarshaller() {
+        return reusingPrinter.print(dto);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.tinkoff.eclair.printer.processor.PrinterPostProcessor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Masking of printed output by single-pass {@code SensitiveDataScrubber} compared with {@link #regexChain},
+ * which scans the string once per rule and copies it on each {@link java.util.regex.Matcher#replaceAll}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScrubberBenchmark {
+
+    @Benchmark
+    public String scrubber(ScrubberState state) {
+        return state.scrubber.process(state.string);
+    }
+
+    @Benchmark
+    public String regexChain(ScrubberState state) {
+        String string = state.string;
+        for (PrinterPostProcessor postProcessor : state.regexChain) {
+            string = postProcessor.process(string);
+        }
+        return string;
+    }
+}
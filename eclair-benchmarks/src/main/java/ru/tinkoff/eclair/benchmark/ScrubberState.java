@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.tinkoff.eclair.printer.processor.PrinterPostProcessor;
+import ru.tinkoff.eclair.printer.processor.SensitiveDataScrubber;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Arrays.asList;
+
+/**
+ * The same rules configured as {@link SensitiveDataScrubber} and as the chain of regex-based post-processors.
+ * Input is a {@code toString()} of a typical DTO with or without sensitive data.
+ */
+@State(Scope.Benchmark)
+public class ScrubberState {
+
+    private static final String REPLACEMENT = "********";
+
+    /**
+     * {@code clean} - nothing to mask, {@code dirty} - each rule matches once.
+     */
+    @Param({"clean", "dirty"})
+    public String input;
+
+    String string;
+    SensitiveDataScrubber scrubber;
+    List<PrinterPostProcessor> regexChain;
+
+    @Setup
+    public void setUp() {
+        string = "clean".equals(input) ?
+                "PaymentRequest(id=42, amount=1000.00, currency=RUB, card=CardDto(holder=IVAN IVANOV, expiry=12/25), " +
+                        "phone=null, comment=Monthly payment for the internet, authorization=null, createdAt=2018-05-17T12:00:00)" :
+                "PaymentRequest(id=42, amount=1000.00, currency=RUB, card=CardDto(pan=4111111111111111, expiry=12/25), " +
+                        "phone=+79001234567, comment=Monthly payment for the internet, authorization=Bearer abc.def.ghi, password=qwerty)";
+        scrubber = new SensitiveDataScrubber()
+                .maskCardNumbers()
+                .maskDigits(11, 11, false)
+                .maskAfterPrefixes("Bearer ")
+                .maskValuesOfKeys("password", "token")
+                .setReplacement(REPLACEMENT);
+        regexChain = asList(
+                new CardNumberMasker(),
+                new RegexMasker("(?<!\\d)\\d{11}(?!\\d)", REPLACEMENT),
+                new RegexMasker("(Bearer )[^\\s,;&\"'()\\[\\]{}<>]+", "$1" + REPLACEMENT),
+                new RegexMasker("\\b((?:password|token)\\s*[=:]\\s*)[^\\s,;&\"'()\\[\\]{}<>]+", "$1" + REPLACEMENT)
+        );
+    }
+
+    private static class RegexMasker implements PrinterPostProcessor {
+
+        private final Pattern pattern;
+        private final String replacement;
+
+        RegexMasker(String regex, String replacement) {
+            this.pattern = Pattern.compile(regex);
+            this.replacement = replacement;
+        }
+
+        @Override
+        public String process(String string) {
+            return pattern.matcher(string).replaceAll(replacement);
+        }
+    }
+
+    private static class CardNumberMasker implements PrinterPostProcessor {
+
+        private final Pattern pattern = Pattern.compile("(?<!\\d)\\d{13,19}(?!\\d)");
+
+        @Override
+        public String process(String string) {
+            Matcher matcher = pattern.matcher(string);
+            StringBuffer buffer = new StringBuffer(string.length());
+            while (matcher.find()) {
+                matcher.appendReplacement(buffer, isLuhnValid(matcher.group()) ? REPLACEMENT : "$0");
+            }
+            return matcher.appendTail(buffer).toString();
+        }
+
+        private static boolean isLuhnValid(String digits) {
+            int sum = 0;
+            for (int a = digits.length() - 1, position = 0; a >= 0; a--, position++) {
+                int digit = digits.charAt(a) - '0';
+                if (position % 2 == 1) {
+                    digit = digit * 2 > 9 ? digit * 2 - 9 : digit * 2;
+                }
+                sum += digit;
+            }
+            return sum % 10 == 0;
+        }
+    }
+}
@@ -82,6 +82,35 @@ public @interface Log {
      */
     String printer() default "";
 
+    /**
+     * Maximum length of each printed argument/return value, the rest is truncated.
+     * Overrides the maximum length of the printer. Not limited by this attribute by default.
+     */
+    int maxLength() default 0;
+
+    /**
+     * Probability to log invocations, from {@code 0} (never) to {@code 1} (always, by default).
+     * Beginning and ending of the same invocation are sampled together.
+     * Note: sampling attributes are ignored for annotated {@link Parameter}.
+     */
+    double sampleRate() default 1;
+
+    /**
+     * Maximum count of invocations logged per second. Unlimited by default.
+     */
+    int rateLimit() default 0;
+
+    /**
+     * Count of the first invocations logged before {@link #every} is applied. Ignored by default.
+     */
+    int first() default 0;
+
+    /**
+     * Logs only every N-th invocation after {@link #first} ones. Logs every one by default.
+     * Note: all the sampling attributes are applied together, suppressed events are counted and reported periodically.
+     */
+    int every() default 1;
+
     /**
      * Determines {@link EclairLogger} implementation by specified bean name (or alias) which should process this annotation.
      * Note: if not specified single candidate or {@link Primary} bean will be used for processing.
@@ -132,6 +161,34 @@ public @interface Log {
          */
         String printer() default "";
 
+        /**
+         * Maximum length of each printed argument value, the rest is truncated.
+         * Overrides the maximum length of the printer. Not limited by this attribute by default.
+         */
+        int maxLength() default 0;
+
+        /**
+         * Probability to log invocations, from {@code 0} (never) to {@code 1} (always, by default).
+         * Ending of the invocation is logged only if its beginning is.
+         */
+        double sampleRate() default 1;
+
+        /**
+         * Maximum count of invocations logged per second. Unlimited by default.
+         */
+        int rateLimit() default 0;
+
+        /**
+         * Count of the first invocations logged before {@link #every} is applied. Ignored by default.
+         */
+        int first() default 0;
+
+        /**
+         * Logs only every N-th invocation after {@link #first} ones. Logs every one by default.
+         * Note: all the sampling attributes are applied together, suppressed events are counted and reported periodically.
+         */
+        int every() default 1;
+
         /**
          * Determines {@link EclairLogger} implementation by specified bean name (or alias) which should process this annotation.
          * Note: if not specified single candidate or {@link Primary} bean will be used for processing.
@@ -182,6 +239,34 @@ public @interface Log {
          */
         String printer() default "";
 
+        /**
+         * Maximum length of printed return value, the rest is truncated.
+         * Overrides the maximum length of the printer. Not limited by this attribute by default.
+         */
+        int maxLength() default 0;
+
+        /**
+         * Probability to log invocations, from {@code 0} (never) to {@code 1} (always, by default).
+         * Ignored if 'in'-event is defined for the same 'logger': its sampling is applied to both events.
+         */
+        double sampleRate() default 1;
+
+        /**
+         * Maximum count of invocations logged per second. Unlimited by default.
+         */
+        int rateLimit() default 0;
+
+        /**
+         * Count of the first invocations logged before {@link #every} is applied. Ignored by default.
+         */
+        int first() default 0;
+
+        /**
+         * Logs only every N-th invocation after {@link #first} ones. Logs every one by default.
+         * Note: all the sampling attributes are applied together, suppressed events are counted and reported periodically.
+         */
+        int every() default 1;
+
         /**
          * Determines {@link EclairLogger} implementation by specified bean name (or alias) which should process this annotation.
          * Note: if not specified single candidate or {@link Primary} bean will be used for processing.
@@ -238,6 +323,28 @@ public @interface Log {
          */
         Class<? extends Throwable>[] exclude() default {};
 
+        /**
+         * Probability to log emergency endings, from {@code 0} (never) to {@code 1} (always, by default).
+         * Applied only to invocations, which 'in'- and 'out'-events are suppressed or not defined for the same 'logger'.
+         */
+        double sampleRate() default 1;
+
+        /**
+         * Maximum count of emergency endings logged per second. Unlimited by default.
+         */
+        int rateLimit() default 0;
+
+        /**
+         * Count of the first emergency endings logged before {@link #every} is applied. Ignored by default.
+         */
+        int first() default 0;
+
+        /**
+         * Logs only every N-th emergency ending after {@link #first} ones. Logs every one by default.
+         * Note: all the sampling attributes are applied together, suppressed events are counted and reported periodically.
+         */
+        int every() default 1;
+
         /**
          * Determines {@link EclairLogger} implementation by specified bean name (or alias) which should process this annotation.
          * Note: if not specified single candidate or {@link Primary} bean will be used for processing.
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.annotation;
+
+import ru.tinkoff.eclair.printer.JacksonMasking;
+import ru.tinkoff.eclair.printer.JacksonPrinter;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks the property (field or getter) whose value should not be rendered by {@link JacksonPrinter}.
+ * Applied only if the printer is configured with {@link JacksonMasking}.
+ */
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Masked {
+}
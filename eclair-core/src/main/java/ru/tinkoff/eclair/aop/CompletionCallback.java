@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.aop;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+import ru.tinkoff.eclair.definition.method.MethodLog;
+import ru.tinkoff.eclair.definition.method.ResultType;
+import ru.tinkoff.eclair.logger.EclairLogger;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Logs 'out'- or 'error'-event of the asynchronous result on its completion without blocking the invoker.
+ * MDC of the invoker is restored for the time of logging, if the result is completed by another thread.
+ */
+final class CompletionCallback implements BiConsumer<Object, Throwable>, ListenableFutureCallback<Object> {
+
+    private final EclairLogger eclairLogger;
+    private final MethodInvocation invocation;
+    private final MethodLog methodLog;
+    private final MethodSampler methodSampler;
+    private final boolean sampled;
+    private final Map<String, String> mdc;
+
+    /**
+     * @param methodSampler may be {@code null} if every event should be logged
+     * @param mdc           may be {@code null} if the result is already completed
+     */
+    private CompletionCallback(EclairLogger eclairLogger,
+                               MethodInvocation invocation,
+                               MethodLog methodLog,
+                               MethodSampler methodSampler,
+                               boolean sampled,
+                               Map<String, String> mdc) {
+        this.eclairLogger = eclairLogger;
+        this.invocation = invocation;
+        this.methodLog = methodLog;
+        this.methodSampler = methodSampler;
+        this.sampled = sampled;
+        this.mdc = mdc;
+    }
+
+    /**
+     * Registers the callback to the result of the specified type.
+     */
+    @SuppressWarnings("unchecked")
+    static void register(EclairLogger eclairLogger,
+                         MethodInvocation invocation,
+                         MethodLog methodLog,
+                         ResultType resultType,
+                         Object result,
+                         MethodSampler methodSampler,
+                         boolean sampled) {
+        boolean done = result instanceof Future && ((Future<?>) result).isDone();
+        Map<String, String> mdc = done ? null : MdcSnapshot.capture();
+        CompletionCallback callback = new CompletionCallback(eclairLogger, invocation, methodLog, methodSampler, sampled, mdc);
+        switch (resultType) {
+            case COMPLETION_STAGE:
+                ((CompletionStage<Object>) result).whenComplete(callback);
+                break;
+            case LISTENABLE_FUTURE:
+                ((ListenableFuture<Object>) result).addCallback(callback);
+                break;
+            default:
+                throw new IllegalArgumentException("Unexpected result type: " + resultType);
+        }
+    }
+
+    @Override
+    public void accept(Object value, Throwable throwable) {
+        if (isNull(throwable)) {
+            onSuccess(value);
+        } else {
+            onFailure(throwable instanceof CompletionException && nonNull(throwable.getCause()) ? throwable.getCause() : throwable);
+        }
+    }
+
+    @Override
+    public void onSuccess(Object value) {
+        if (!sampled) {
+            return;
+        }
+        Map<String, String> previous = enterMdc();
+        try {
+            eclairLogger.logOutIfNecessary(invocation, methodLog, value);
+        } finally {
+            exitMdc(previous);
+        }
+    }
+
+    @Override
+    public void onFailure(Throwable throwable) {
+        if (nonNull(methodSampler) && !methodSampler.sampleError(methodLog, throwable, sampled)) {
+            return;
+        }
+        Map<String, String> previous = enterMdc();
+        try {
+            eclairLogger.logErrorIfNecessary(invocation, methodLog, throwable);
+        } finally {
+            exitMdc(previous);
+        }
+    }
+
+    private Map<String, String> enterMdc() {
+        return isNull(mdc) ? null : MdcSnapshot.apply(mdc);
+    }
+
+    private void exitMdc(Map<String, String> previous) {
+        if (nonNull(mdc)) {
+            MdcSnapshot.restore(previous);
+        }
+    }
+}
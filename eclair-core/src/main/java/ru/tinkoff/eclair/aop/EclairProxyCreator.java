@@ -20,8 +20,11 @@ import org.springframework.aop.TargetSource;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.framework.autoproxy.AbstractAutoProxyCreator;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.expression.ParseException;
 import org.springframework.util.ClassUtils;
 import ru.tinkoff.eclair.core.*;
 import ru.tinkoff.eclair.definition.*;
@@ -31,6 +34,7 @@ import ru.tinkoff.eclair.definition.method.factory.MethodLogFactory;
 import ru.tinkoff.eclair.definition.method.factory.MethodMdcFactory;
 import ru.tinkoff.eclair.logger.EclairLogger;
 import ru.tinkoff.eclair.printer.resolver.PrinterResolver;
+import ru.tinkoff.eclair.validate.AnnotationUsageException;
 import ru.tinkoff.eclair.validate.MethodValidator;
 import ru.tinkoff.eclair.validate.log.group.*;
 import ru.tinkoff.eclair.validate.log.single.LogErrorValidator;
@@ -39,11 +43,10 @@ import ru.tinkoff.eclair.validate.mdc.group.MdcsValidator;
 import ru.tinkoff.eclair.validate.mdc.group.MergedMdcsValidator;
 import ru.tinkoff.eclair.validate.mdc.group.MethodMdcsValidator;
 
-import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Stream;
 
+import static java.lang.String.format;
 import static java.util.Collections.singletonList;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
@@ -54,12 +57,13 @@ import static java.util.stream.Collectors.toMap;
 /**
  * @author Vyacheslav Klapatnyuk
  */
-public class EclairProxyCreator extends AbstractAutoProxyCreator {
+public class EclairProxyCreator extends AbstractAutoProxyCreator implements SmartInitializingSingleton, DisposableBean {
 
     private static final Object[] EMPTY_ARRAY = new Object[0];
 
     private final Map<String, Class<?>> beanClassCache = new ConcurrentHashMap<>();
     private final Map<Class<?>, Object[]> advisorsCache = new ConcurrentHashMap<>();
+    private final Set<String> warmUpExpressions = ConcurrentHashMap.newKeySet();
 
     private final GenericApplicationContext applicationContext;
     private final AnnotationDefinitionFactory annotationDefinitionFactory;
@@ -69,9 +73,11 @@ public class EclairProxyCreator extends AbstractAutoProxyCreator {
 
     private final LoggerBeanNamesResolver loggerBeanNamesResolver = LoggerBeanNamesResolver.getInstance();
     private final AnnotationExtractor annotationExtractor = AnnotationExtractor.getInstance();
-    private final ParameterNameResolver parameterNameResolver = new ParameterNameResolver();
 
+    private AnnotatedClassIndex annotatedClassIndex;
     private boolean validate = false;
+    private int mdcWarmUpEvaluations = 0;
+    private volatile boolean singletonsInstantiated = false;
 
     /**
      * @param orderedLoggers in order of execution, if necessary
@@ -86,6 +92,7 @@ public class EclairProxyCreator extends AbstractAutoProxyCreator {
         this.loggers = BeanFactoryHelper.getInstance().collectToOrderedMap(applicationContext, EclairLogger.class, orderedLoggers);
         this.expressionEvaluator = expressionEvaluator;
         this.methodValidator = initMethodValidator(printerResolver);
+        this.annotatedClassIndex = AnnotatedClassIndex.load(applicationContext.getClassLoader());
     }
 
     private MethodValidator initMethodValidator(PrinterResolver printerResolver) {
@@ -121,73 +128,132 @@ public class EclairProxyCreator extends AbstractAutoProxyCreator {
         if (nonNull(cachedAdvisors)) {
             return cachedAdvisors.length == 0 ? AbstractAutoProxyCreator.DO_NOT_PROXY : cachedAdvisors;
         }
-        if (!supports(targetClass)) {
+        if (!annotatedClassIndex.mayBeAnnotated(targetClass)) {
+            advisorsCache.put(targetClass, EMPTY_ARRAY);
+            return AbstractAutoProxyCreator.DO_NOT_PROXY;
+        }
+        ClassMetadata classMetadata = annotationExtractor.getClassMetadata(targetClass);
+        if (!classMetadata.isAnnotated()) {
             advisorsCache.put(targetClass, EMPTY_ARRAY);
             return AbstractAutoProxyCreator.DO_NOT_PROXY;
         }
         if (validate) {
-            annotationExtractor.getCandidateMethods(targetClass).forEach(methodValidator::validate);
+            classMetadata.getMethods().forEach(methodValidator::validate);
         }
-        MdcAdvisor mdcAdvisor = getMdcAdvisor(targetClass);
-        List<LogAdvisor> logAdvisors = getLoggingAdvisors(targetClass);
+        MdcAdvisor mdcAdvisor = getMdcAdvisor(classMetadata);
+        List<LogAdvisor> logAdvisors = getLoggingAdvisors(classMetadata);
         Object[] composedAdvisors = composeAdvisors(mdcAdvisor, logAdvisors);
         advisorsCache.put(targetClass, composedAdvisors);
         return composedAdvisors.length == 0 ? AbstractAutoProxyCreator.DO_NOT_PROXY : composedAdvisors;
     }
 
-    private boolean supports(Class<?> targetClass) {
-        return annotationExtractor.getCandidateMethods(targetClass).stream().anyMatch(method ->
-                annotationExtractor.hasAnyAnnotation(method) || Stream.of(method.getParameters()).anyMatch(annotationExtractor::hasAnyAnnotation)
-        );
-    }
-
     @Override
     protected boolean advisorsPreFiltered() {
         return true;
     }
 
-    private MdcAdvisor getMdcAdvisor(Class<?> beanClass) {
-        List<MethodMdc> methodMdcs = annotationExtractor.getCandidateMethods(beanClass).stream()
+    private MdcAdvisor getMdcAdvisor(ClassMetadata classMetadata) {
+        List<MethodMdc> methodMdcs = classMetadata.getMethods().stream()
                 .map(this::getMethodMdc)
                 .filter(Objects::nonNull)
                 .collect(toList());
+        methodMdcs.forEach(this::prepareExpressions);
         return MdcAdvisor.newInstance(methodMdcs, expressionEvaluator);
     }
 
-    private MethodMdc getMethodMdc(Method method) {
-        List<String> parameterNames = parameterNameResolver.tryToResolve(method);
-        Set<ParameterMdc> methodParameterMdcs = annotationDefinitionFactory.buildMethodParameterMdcs(method);
-        List<Set<ParameterMdc>> parameterMdcs = annotationDefinitionFactory.buildParameterMdcs(method);
-        return MethodMdcFactory.newInstance(method, parameterNames, methodParameterMdcs, parameterMdcs);
+    /**
+     * Parses expressions at startup instead of the first invocations.
+     * Expressions independent of arguments and free of side effects are also remembered to be evaluated in advance.
+     */
+    private void prepareExpressions(MethodMdc methodMdc) {
+        for (MethodMdc.Entry entry : methodMdc.getEntries()) {
+            String expressionString = entry.getExpressionString();
+            if (expressionString.isEmpty()) {
+                continue;
+            }
+            try {
+                expressionEvaluator.prepare(expressionString);
+            } catch (ParseException e) {
+                if (validate) {
+                    throw new AnnotationUsageException(methodMdc.getMethod(),
+                            format("Invalid expression '%s' of MDC with 'key = %s': %s", expressionString, entry.getKey(), e.getMessage()),
+                            "Fix the expression or define the string literal in quotes");
+                }
+                continue;
+            }
+            if (entry.getArgumentIndex() == MethodMdc.Entry.NO_ARGUMENT && mdcWarmUpEvaluations > 0
+                    && expressionEvaluator.isSideEffectFree(expressionString)
+                    && warmUpExpressions.add(expressionString) && singletonsInstantiated) {
+                warmUp(expressionString);
+            }
+        }
     }
 
-    private List<LogAdvisor> getLoggingAdvisors(Class<?> beanClass) {
+    /**
+     * Beans referenced by expressions are available only after instantiation of singletons.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        singletonsInstantiated = true;
+        warmUpExpressions.forEach(this::warmUp);
+    }
+
+    /**
+     * Reports invocations suppressed by sampling since the last report, otherwise they are reported only with next events.
+     */
+    @Override
+    public void destroy() {
+        for (Object[] advisors : advisorsCache.values()) {
+            for (Object advisor : advisors) {
+                if (advisor instanceof LogAdvisor) {
+                    ((LogAdvisor) advisor).reportSuppressed();
+                }
+            }
+        }
+    }
+
+    private void warmUp(String expressionString) {
+        try {
+            for (int a = 0; a < mdcWarmUpEvaluations; a++) {
+                expressionEvaluator.evaluate(expressionString);
+            }
+        } catch (RuntimeException e) {
+            // the expression fails the same way at invocation time
+        }
+    }
+
+    private MethodMdc getMethodMdc(MethodMetadata metadata) {
+        Set<ParameterMdc> methodParameterMdcs = annotationDefinitionFactory.buildMethodParameterMdcs(metadata);
+        List<Set<ParameterMdc>> parameterMdcs = annotationDefinitionFactory.buildParameterMdcs(metadata);
+        return MethodMdcFactory.newInstance(metadata.getMethod(), metadata.getParameterNames(), methodParameterMdcs, parameterMdcs);
+    }
+
+    private List<LogAdvisor> getLoggingAdvisors(ClassMetadata classMetadata) {
         return loggers.entrySet().stream()
-                .map(entry -> getLogAdvisor(beanClass, entry.getKey(), entry.getValue()))
+                .map(entry -> getLogAdvisor(classMetadata, entry.getKey(), entry.getValue()))
                 .filter(Objects::nonNull)
                 .collect(toList());
     }
 
-    private LogAdvisor getLogAdvisor(Class<?> beanClass, String loggerName, EclairLogger eclairLogger) {
-        List<MethodLog> methodLogs = getMethodLogs(beanClass, loggerName);
+    private LogAdvisor getLogAdvisor(ClassMetadata classMetadata, String loggerName, EclairLogger eclairLogger) {
+        List<MethodLog> methodLogs = getMethodLogs(classMetadata, loggerName);
         return LogAdvisor.newInstance(eclairLogger, methodLogs);
     }
 
-    private List<MethodLog> getMethodLogs(Class<?> beanClass, String loggerName) {
+    private List<MethodLog> getMethodLogs(ClassMetadata classMetadata, String loggerName) {
         Set<String> loggerNames = loggerBeanNamesResolver.resolve(applicationContext, loggerName);
-        return annotationExtractor.getCandidateMethods(beanClass).stream()
+        return classMetadata.getMethods().stream()
                 .map(method -> getMethodLog(loggerNames, method))
                 .filter(Objects::nonNull)
                 .collect(toList());
     }
 
-    private MethodLog getMethodLog(Set<String> loggerNames, Method method) {
-        List<String> parameterNames = parameterNameResolver.tryToResolve(method);
-        InLog inLog = annotationDefinitionFactory.buildInLog(loggerNames, method);
-        List<ParameterLog> parameterLogs = annotationDefinitionFactory.buildParameterLogs(loggerNames, method);
-        OutLog outLog = annotationDefinitionFactory.buildOutLog(loggerNames, method);
-        Set<ErrorLog> errorLogs = annotationDefinitionFactory.buildErrorLogs(loggerNames, method);
-        return MethodLogFactory.newInstance(method, parameterNames, inLog, parameterLogs, outLog, errorLogs);
+    private MethodLog getMethodLog(Set<String> loggerNames, MethodMetadata metadata) {
+        InLog inLog = annotationDefinitionFactory.buildInLog(loggerNames, metadata);
+        List<ParameterLog> parameterLogs = annotationDefinitionFactory.buildParameterLogs(loggerNames, metadata);
+        OutLog outLog = annotationDefinitionFactory.buildOutLog(loggerNames, metadata);
+        Set<ErrorLog> errorLogs = annotationDefinitionFactory.buildErrorLogs(loggerNames, metadata);
+        return MethodLogFactory.newInstance(metadata.getMethod(), metadata.getParameterNames(), inLog, parameterLogs, outLog, errorLogs);
     }
 
     private Object[] composeAdvisors(MdcAdvisor mdcAdvisor, List<LogAdvisor> logAdvisors) {
@@ -199,10 +265,27 @@ public class EclairProxyCreator extends AbstractAutoProxyCreator {
         return advisors.toArray();
     }
 
+    /**
+     * @param annotatedClassIndex index consulted to skip scanning of classes not annotated for sure,
+     *                            {@link AnnotatedClassIndex#empty()} to scan all the classes
+     */
+    public void setAnnotatedClassIndex(AnnotatedClassIndex annotatedClassIndex) {
+        this.annotatedClassIndex = annotatedClassIndex;
+    }
+
     public void setValidate(boolean validate) {
         this.validate = validate;
     }
 
+    /**
+     * @param mdcWarmUpEvaluations count of evaluations of each MDC expression independent of arguments,
+     *                             performed after instantiation of singletons to get it compiled by SpEL.
+     *                             Expressions calling methods (e.g. {@code @bean.nextId()}) are never evaluated in advance
+     */
+    public void setMdcWarmUpEvaluations(int mdcWarmUpEvaluations) {
+        this.mdcWarmUpEvaluations = mdcWarmUpEvaluations;
+    }
+
     Map<String, Class<?>> getBeanClassCache() {
         return beanClassCache;
     }
@@ -17,9 +17,17 @@ package ru.tinkoff.eclair.aop;
 
 import org.aopalliance.intercept.MethodInvocation;
 import ru.tinkoff.eclair.definition.method.MethodLog;
+import ru.tinkoff.eclair.definition.method.ResultType;
 import ru.tinkoff.eclair.logger.EclairLogger;
 
+import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * @author Vyacheslav Klapatnyuk
@@ -27,11 +35,44 @@ import java.util.List;
 final class LogAdvisor extends AbstractAdvisor<MethodLog> {
 
     private final EclairLogger eclairLogger;
+    private final Map<Method, MethodSampler> methodSamplers;
+    private final Map<Method, ResultType> asyncResultTypes;
 
     private LogAdvisor(List<MethodLog> methodLogs,
                        EclairLogger eclairLogger) {
         super(methodLogs);
         this.eclairLogger = eclairLogger;
+        this.methodSamplers = buildMethodSamplers(methodLogs);
+        this.asyncResultTypes = buildAsyncResultTypes(methodLogs);
+    }
+
+    private static Map<Method, MethodSampler> buildMethodSamplers(List<MethodLog> methodLogs) {
+        Map<Method, MethodSampler> result = new HashMap<>();
+        for (MethodLog methodLog : methodLogs) {
+            MethodSampler methodSampler = MethodSampler.newInstance(methodLog);
+            if (nonNull(methodSampler)) {
+                result.put(methodLog.getMethod(), methodSampler);
+            }
+        }
+        return result.isEmpty() ? emptyMap() : result;
+    }
+
+    private static Map<Method, ResultType> buildAsyncResultTypes(List<MethodLog> methodLogs) {
+        Map<Method, ResultType> result = new HashMap<>();
+        for (MethodLog methodLog : methodLogs) {
+            ResultType resultType = methodLog.getResultType();
+            if (isSupportedAsync(resultType)) {
+                result.put(methodLog.getMethod(), resultType);
+            }
+        }
+        return result.isEmpty() ? emptyMap() : result;
+    }
+
+    private static boolean isSupportedAsync(ResultType resultType) {
+        if (isNull(resultType) || !resultType.isAsync()) {
+            return false;
+        }
+        return !resultType.isReactive() || nonNull(ReactiveResultHandler.getInstance());
     }
 
     static LogAdvisor newInstance(EclairLogger eclairLogger, List<MethodLog> methodLogs) {
@@ -41,6 +82,21 @@ final class LogAdvisor extends AbstractAdvisor<MethodLog> {
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
         MethodLog methodLog = methodDefinitions.get(invocation.getMethod());
+        MethodSampler methodSampler = methodSamplers.isEmpty() ? null : methodSamplers.get(invocation.getMethod());
+        ResultType asyncResultType = asyncResultTypes.isEmpty() ? null : asyncResultTypes.get(invocation.getMethod());
+        if (nonNull(asyncResultType)) {
+            if (asyncResultType.isReactive()) {
+                return invokeReactive(invocation, methodLog, methodSampler, asyncResultType);
+            }
+            return invokeAsync(invocation, methodLog, methodSampler, asyncResultType);
+        }
+        if (isNull(methodSampler)) {
+            return invoke(invocation, methodLog);
+        }
+        return invoke(invocation, methodLog, methodSampler);
+    }
+
+    private Object invoke(MethodInvocation invocation, MethodLog methodLog) throws Throwable {
         eclairLogger.logInIfNecessary(invocation, methodLog);
         Object result;
         try {
@@ -53,7 +109,103 @@ final class LogAdvisor extends AbstractAdvisor<MethodLog> {
         return result;
     }
 
+    /**
+     * Sampling decisions are made before any printing and pair 'in'-event with 'out'- or 'error'-event.
+     */
+    private Object invoke(MethodInvocation invocation, MethodLog methodLog, MethodSampler methodSampler) throws Throwable {
+        boolean sampled = methodSampler.sampleInvocation();
+        if (sampled) {
+            eclairLogger.logInIfNecessary(invocation, methodLog);
+        }
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable throwable) {
+            if (methodSampler.sampleError(methodLog, throwable, sampled)) {
+                eclairLogger.logErrorIfNecessary(invocation, methodLog, throwable);
+            }
+            throw throwable;
+        }
+        if (sampled) {
+            eclairLogger.logOutIfNecessary(invocation, methodLog, result);
+        }
+        return result;
+    }
+
+    /**
+     * 'out'- or 'error'-event of the returned result is logged on its completion.
+     * Exception thrown by the method itself and {@code null} result are logged immediately.
+     *
+     * @param methodSampler may be {@code null} if every event should be logged
+     */
+    private Object invokeAsync(MethodInvocation invocation,
+                               MethodLog methodLog,
+                               MethodSampler methodSampler,
+                               ResultType resultType) throws Throwable {
+        boolean sampled = isNull(methodSampler) || methodSampler.sampleInvocation();
+        if (sampled) {
+            eclairLogger.logInIfNecessary(invocation, methodLog);
+        }
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable throwable) {
+            if (isNull(methodSampler) || methodSampler.sampleError(methodLog, throwable, sampled)) {
+                eclairLogger.logErrorIfNecessary(invocation, methodLog, throwable);
+            }
+            throw throwable;
+        }
+        if (nonNull(result)) {
+            CompletionCallback.register(eclairLogger, invocation, methodLog, resultType, result, methodSampler, sampled);
+        } else if (sampled) {
+            eclairLogger.logOutIfNecessary(invocation, methodLog, null);
+        }
+        return result;
+    }
+
+    /**
+     * Events of the returned publisher are logged on each subscription by {@link ReactiveResultHandler}.
+     * Exception thrown by the method itself and {@code null} result are logged immediately.
+     *
+     * @param methodSampler may be {@code null} if every event should be logged
+     */
+    private Object invokeReactive(MethodInvocation invocation,
+                                  MethodLog methodLog,
+                                  MethodSampler methodSampler,
+                                  ResultType resultType) throws Throwable {
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable throwable) {
+            boolean sampled = isNull(methodSampler) || methodSampler.sampleInvocation();
+            if (sampled) {
+                eclairLogger.logInIfNecessary(invocation, methodLog);
+            }
+            if (isNull(methodSampler) || methodSampler.sampleError(methodLog, throwable, sampled)) {
+                eclairLogger.logErrorIfNecessary(invocation, methodLog, throwable);
+            }
+            throw throwable;
+        }
+        if (isNull(result)) {
+            if (isNull(methodSampler) || methodSampler.sampleInvocation()) {
+                eclairLogger.logInIfNecessary(invocation, methodLog);
+                eclairLogger.logOutIfNecessary(invocation, methodLog, null);
+            }
+            return null;
+        }
+        return ReactiveResultHandler.getInstance()
+                .log(result, resultType, eclairLogger, invocation, methodLog, methodSampler, MdcSnapshot.capture());
+    }
+
+    void reportSuppressed() {
+        methodSamplers.values().forEach(MethodSampler::reportSuppressed);
+    }
+
     EclairLogger getEclairLogger() {
         return eclairLogger;
     }
+
+    Map<Method, MethodSampler> getMethodSamplers() {
+        return methodSamplers;
+    }
 }
@@ -16,15 +16,16 @@
 package ru.tinkoff.eclair.aop;
 
 import org.aopalliance.intercept.MethodInvocation;
-import org.slf4j.MDC;
 import ru.tinkoff.eclair.core.ExpressionEvaluator;
-import ru.tinkoff.eclair.definition.ParameterMdc;
 import ru.tinkoff.eclair.definition.method.MethodMdc;
+import ru.tinkoff.eclair.definition.method.ResultType;
 
-import java.util.HashSet;
+import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
+import static java.util.Collections.emptyMap;
 import static java.util.Objects.isNull;
 
 /**
@@ -32,12 +33,30 @@ import static java.util.Objects.isNull;
  */
 class MdcAdvisor extends AbstractAdvisor<MethodMdc> {
 
+    private static final ThreadLocal<MdcScope> scopes = ThreadLocal.withInitial(MdcScope::new);
+
     private final ExpressionEvaluator expressionEvaluator;
+    private final Map<Method, ResultType> reactiveResultTypes;
 
     private MdcAdvisor(List<MethodMdc> methodMdcs,
                        ExpressionEvaluator expressionEvaluator) {
         super(methodMdcs);
         this.expressionEvaluator = expressionEvaluator;
+        this.reactiveResultTypes = buildReactiveResultTypes(methodMdcs);
+    }
+
+    private static Map<Method, ResultType> buildReactiveResultTypes(List<MethodMdc> methodMdcs) {
+        if (isNull(ReactiveResultHandler.getInstance())) {
+            return emptyMap();
+        }
+        Map<Method, ResultType> result = new HashMap<>();
+        for (MethodMdc methodMdc : methodMdcs) {
+            ResultType resultType = ResultType.resolve(methodMdc.getMethod().getReturnType());
+            if (resultType.isReactive()) {
+                result.put(methodMdc.getMethod(), resultType);
+            }
+        }
+        return result.isEmpty() ? emptyMap() : result;
     }
 
     static MdcAdvisor newInstance(List<MethodMdc> methodMdcs,
@@ -47,86 +66,45 @@ class MdcAdvisor extends AbstractAdvisor<MethodMdc> {
 
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
-        Set<String> localKeys = new HashSet<>();
-        try (LocalKeysHolder ignored = new LocalKeysHolder(localKeys)) {
-            MethodMdc methodMdc = methodDefinitions.get(invocation.getMethod());
-            processMethodDefinitions(invocation, methodMdc, localKeys);
-            processParameterDefinitions(invocation, methodMdc, localKeys);
-            return invocation.proceed();
-        }
-    }
-
-    void processMethodDefinitions(MethodInvocation invocation, MethodMdc methodMdc, Set<String> localKeys) {
-        for (ParameterMdc definition : methodMdc.getMethodDefinitions()) {
-            String key = definition.getKey();
-            if (key.isEmpty()) {
-                key = invocation.getMethod().getName();
-            }
-            String expressionString = definition.getExpressionString();
-            if (expressionString.isEmpty()) {
-                Object[] arguments = invocation.getArguments();
-                List<String> parameterNames = methodMdc.getParameterNames();
-                for (int a = 0; a < arguments.length; a++) {
-                    String parameterName = parameterNames.get(a);
-                    if (isNull(parameterName)) {
-                        putMdc(synthesizeKey(key, a), arguments[a], definition, localKeys);
-                    } else if (definition.getKey().isEmpty()) {
-                        putMdc(parameterName, arguments[a], definition, localKeys);
-                    } else {
-                        putMdc(synthesizeKey(key, parameterName), arguments[a], definition, localKeys);
-                    }
-                }
-            } else {
-                Object value = expressionEvaluator.evaluate(expressionString);
-                putMdc(key, value, definition, localKeys);
-            }
-        }
-    }
-
-    void processParameterDefinitions(MethodInvocation invocation, MethodMdc methodMdc, Set<String> localKeys) {
-        Object[] arguments = invocation.getArguments();
-        for (int a = 0; a < arguments.length; a++) {
-            for (ParameterMdc definition : methodMdc.getParameterDefinitions().get(a)) {
-                String key = definition.getKey();
-                if (key.isEmpty()) {
-                    key = methodMdc.getParameterNames().get(a);
-                    if (isNull(key)) {
-                        key = synthesizeKey(invocation.getMethod().getName(), a);
-                    }
-                }
-                String expressionString = definition.getExpressionString();
-                Object value = expressionString.isEmpty() ? arguments[a] : expressionEvaluator.evaluate(expressionString, arguments[a]);
-                putMdc(key, value, definition, localKeys);
+        MethodMdc methodMdc = methodDefinitions.get(invocation.getMethod());
+        MdcScope scope = scopes.get();
+        int mark = scope.mark();
+        try {
+            processEntries(invocation, methodMdc, scope);
+            ResultType reactiveResultType = reactiveResultTypes.isEmpty() ? null : reactiveResultTypes.get(invocation.getMethod());
+            if (isNull(reactiveResultType)) {
+                return invocation.proceed();
             }
+            return proceedReactive(invocation, reactiveResultType);
+        } finally {
+            scope.restore(mark);
         }
     }
 
-    String synthesizeKey(String prefix, int index) {
-        return synthesizeKey(prefix, String.valueOf(index));
-    }
-
-    String synthesizeKey(String prefix, String name) {
-        return prefix + "[" + name + "]";
+    /**
+     * MDC is set while the publisher is assembled and carried in its subscriber context for the signals handling.
+     */
+    private Object proceedReactive(MethodInvocation invocation, ResultType resultType) throws Throwable {
+        Map<String, String> mdc = MdcSnapshot.capture();
+        Object result = invocation.proceed();
+        return isNull(result) ? null : ReactiveResultHandler.getInstance().withMdc(result, resultType, mdc);
     }
 
-    void putMdc(String key, Object value, ParameterMdc definition, Set<String> localKeys) {
-        if (!definition.isGlobal()) {
-            localKeys.add(key);
+    private void processEntries(MethodInvocation invocation, MethodMdc methodMdc, MdcScope scope) {
+        Object[] arguments = invocation.getArguments();
+        for (MethodMdc.Entry entry : methodMdc.getEntries()) {
+            Object value = evaluate(entry, arguments);
+            scope.put(entry.getKey(), isNull(value) ? null : value.toString(), entry.isGlobal());
         }
-        MDC.put(key, isNull(value) ? null : value.toString());
     }
 
-    private static final class LocalKeysHolder implements AutoCloseable {
-
-        private final Set<String> localKeys;
-
-        private LocalKeysHolder(Set<String> localKeys) {
-            this.localKeys = localKeys;
-        }
-
-        @Override
-        public void close() throws Exception {
-            localKeys.forEach(MDC::remove);
+    private Object evaluate(MethodMdc.Entry entry, Object[] arguments) {
+        String expressionString = entry.getExpressionString();
+        int argumentIndex = entry.getArgumentIndex();
+        if (argumentIndex == MethodMdc.Entry.NO_ARGUMENT) {
+            return expressionEvaluator.evaluate(expressionString);
         }
+        Object argument = arguments[argumentIndex];
+        return expressionString.isEmpty() ? argument : expressionEvaluator.evaluate(expressionString, argument);
     }
 }
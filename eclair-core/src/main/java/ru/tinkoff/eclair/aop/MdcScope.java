@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.aop;
+
+import org.slf4j.MDC;
+
+import java.util.Arrays;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Per-thread stack of MDC values overwritten by local keys of the nested {@link MdcAdvisor} invocations.
+ * Arrays are reused, so each invocation costs only the pushes of keys actually set.
+ */
+final class MdcScope {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private String[] previousValues = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @return position to {@link #restore(int)} the MDC to
+     */
+    int mark() {
+        return size;
+    }
+
+    /**
+     * Puts the value into MDC. Local key is remembered with its previous value.
+     */
+    void put(String key, String value, boolean global) {
+        if (!global) {
+            push(key, MDC.get(key));
+        }
+        MDC.put(key, value);
+    }
+
+    /**
+     * Restores values of the local keys set since the {@code mark} in reverse order,
+     * so the key set several times gets the value it had before the first put.
+     */
+    void restore(int mark) {
+        for (int a = size - 1; a >= mark; a--) {
+            String key = keys[a];
+            String previousValue = previousValues[a];
+            if (isNull(previousValue)) {
+                MDC.remove(key);
+            } else {
+                MDC.put(key, previousValue);
+            }
+            keys[a] = null;
+            previousValues[a] = null;
+        }
+        size = mark;
+    }
+
+    private void push(String key, String previousValue) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            previousValues = Arrays.copyOf(previousValues, size * 2);
+        }
+        keys[size] = key;
+        previousValues[size] = previousValue;
+        size++;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.aop;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Objects.isNull;
+
+/**
+ * Transfers MDC of the invoker to the thread logging events of asynchronous result.
+ */
+final class MdcSnapshot {
+
+    private MdcSnapshot() {
+    }
+
+    /**
+     * @return copy of the current MDC, never {@code null}
+     */
+    static Map<String, String> capture() {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return isNull(mdc) ? emptyMap() : mdc;
+    }
+
+    /**
+     * Replaces the current MDC by the specified one.
+     *
+     * @return previous MDC to {@link #restore(Map)}, may be {@code null}
+     */
+    static Map<String, String> apply(Map<String, String> mdc) {
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        MDC.setContextMap(mdc);
+        return previous;
+    }
+
+    static void restore(Map<String, String> previous) {
+        if (isNull(previous)) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(previous);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.aop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.tinkoff.eclair.definition.ErrorLog;
+import ru.tinkoff.eclair.definition.Sampling;
+import ru.tinkoff.eclair.definition.method.MethodLog;
+
+import java.lang.reflect.Method;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Samples events of the single {@link MethodLog}.
+ * 'in'- and 'out'-events of the invocation are sampled together by 'in'-event settings (or 'out'-event ones if 'in' is absent).
+ * 'error'-event of the sampled invocation is logged to pair its 'in'-event,
+ * otherwise it is sampled by settings of the resolved {@link ErrorLog}.
+ * <p>
+ * Count of suppressed invocations is reported on the next event after {@link #REPORT_INTERVAL_NANOS} since the last report,
+ * so invocations suppressed before a pause are reported with the first event after it, or by {@link #reportSuppressed()} on shutdown.
+ */
+final class MethodSampler {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodSampler.class);
+
+    static final long REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Method method;
+    private final boolean paired;
+    private final Sampler invocationSampler;
+    private final Map<ErrorLog, Sampler> errorSamplers;
+    private final LongSupplier nanoClock;
+
+    private final LongAdder suppressedCounter = new LongAdder();
+    private final AtomicLong reportTime;
+
+    private MethodSampler(Method method,
+                          boolean paired,
+                          Sampler invocationSampler,
+                          Map<ErrorLog, Sampler> errorSamplers,
+                          LongSupplier nanoClock) {
+        this.method = method;
+        this.paired = paired;
+        this.invocationSampler = invocationSampler;
+        this.errorSamplers = errorSamplers;
+        this.nanoClock = nanoClock;
+        this.reportTime = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * @return new instance or {@code null} if every event of the {@code methodLog} should be logged
+     */
+    static MethodSampler newInstance(MethodLog methodLog) {
+        return newInstance(methodLog, System::nanoTime);
+    }
+
+    static MethodSampler newInstance(MethodLog methodLog, LongSupplier nanoClock) {
+        Sampling invocationSampling = nonNull(methodLog.getInLog()) ? methodLog.getInLog().getSampling() :
+                nonNull(methodLog.getOutLog()) ? methodLog.getOutLog().getSampling() : Sampling.ALL;
+        Sampler invocationSampler = invocationSampling.isAll() ? null : new Sampler(invocationSampling, nanoClock);
+
+        Map<ErrorLog, Sampler> errorSamplers = new IdentityHashMap<>();
+        for (ErrorLog errorLog : methodLog.getErrorLogs()) {
+            if (!errorLog.getSampling().isAll()) {
+                errorSamplers.put(errorLog, new Sampler(errorLog.getSampling(), nanoClock));
+            }
+        }
+
+        if (isNull(invocationSampler) && errorSamplers.isEmpty()) {
+            return null;
+        }
+        boolean paired = nonNull(methodLog.getInLog()) || nonNull(methodLog.getOutLog());
+        return new MethodSampler(methodLog.getMethod(), paired, invocationSampler, errorSamplers, nanoClock);
+    }
+
+    /**
+     * Decides for 'in'- and 'out'-events of the current invocation.
+     */
+    boolean sampleInvocation() {
+        return isNull(invocationSampler) || count(invocationSampler.sample());
+    }
+
+    /**
+     * Decides for 'error'-event of the current invocation.
+     *
+     * @param invocationSampled result of {@link #sampleInvocation()} for the same invocation
+     */
+    boolean sampleError(MethodLog methodLog, Throwable throwable, boolean invocationSampled) {
+        if (invocationSampled && paired) {
+            return true;
+        }
+        ErrorLog errorLog = methodLog.findErrorLog(throwable.getClass());
+        if (isNull(errorLog)) {
+            return invocationSampled;
+        }
+        Sampler errorSampler = errorSamplers.get(errorLog);
+        if (isNull(errorSampler)) {
+            return true;
+        }
+        // suppressed invocation is already counted
+        return invocationSampled ? count(errorSampler.sample()) : errorSampler.sample();
+    }
+
+    private boolean count(boolean sampled) {
+        if (!sampled) {
+            suppressedCounter.increment();
+        }
+        reportIfNecessary();
+        return sampled;
+    }
+
+    private void reportIfNecessary() {
+        long now = nanoClock.getAsLong();
+        long last = reportTime.get();
+        if (now - last < REPORT_INTERVAL_NANOS || !reportTime.compareAndSet(last, now)) {
+            return;
+        }
+        reportSuppressed();
+    }
+
+    /**
+     * Reports invocations suppressed since the last report regardless of the interval.
+     */
+    void reportSuppressed() {
+        long suppressed = suppressedCounter.sumThenReset();
+        if (suppressed > 0) {
+            logger.info("{} invocations of {}.{} not logged due to sampling", suppressed, method.getDeclaringClass().getName(), method.getName());
+        }
+    }
+
+    long getSuppressedCount() {
+        return suppressedCounter.sum();
+    }
+}
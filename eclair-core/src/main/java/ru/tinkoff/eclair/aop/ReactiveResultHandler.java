@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.aop;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+import ru.tinkoff.eclair.definition.method.MethodLog;
+import ru.tinkoff.eclair.definition.method.ResultType;
+import ru.tinkoff.eclair.logger.EclairLogger;
+
+import java.util.Map;
+
+/**
+ * Decorates reactive results ({@link ResultType#isReactive()}) to log events and carry MDC along with signals.
+ * Implementation for Reactor is loaded only if Reactor 3.4+ is present in classpath,
+ * otherwise reactive results are logged as synchronous ones.
+ */
+abstract class ReactiveResultHandler {
+
+    /**
+     * Subscriber context API used by the implementation appeared in Reactor 3.4.
+     */
+    private static final String REACTOR_CLASS_NAME = "reactor.util.context.ContextView";
+    private static final String IMPLEMENTATION_CLASS_NAME = "ru.tinkoff.eclair.aop.ReactorResultHandler";
+
+    private static final ReactiveResultHandler instance = load();
+
+    /**
+     * @return implementation or {@code null} if reactive results are not supported
+     */
+    static ReactiveResultHandler getInstance() {
+        return instance;
+    }
+
+    private static ReactiveResultHandler load() {
+        ClassLoader classLoader = ReactiveResultHandler.class.getClassLoader();
+        if (!ClassUtils.isPresent(REACTOR_CLASS_NAME, classLoader) || !ClassUtils.isPresent(IMPLEMENTATION_CLASS_NAME, classLoader)) {
+            return null;
+        }
+        Class<?> implementationClass = ClassUtils.resolveClassName(IMPLEMENTATION_CLASS_NAME, classLoader);
+        return (ReactiveResultHandler) BeanUtils.instantiateClass(implementationClass);
+    }
+
+    /**
+     * Decorates the publisher to log 'in'-event on each subscription and 'out'- or 'error'-event on its termination or cancellation.
+     * 'out'-event contains the value of {@code Mono} or count of elements of {@code Flux},
+     * cancelled {@code Mono} is logged as empty one and cancelled {@code Flux} with count of elements emitted before.
+     *
+     * @param methodSampler may be {@code null} if every event should be logged
+     * @param invokerMdc    MDC used if the subscriber context does not contain one set by {@link #withMdc(Object, ResultType, Map)}
+     */
+    abstract Object log(Object publisher,
+                        ResultType resultType,
+                        EclairLogger eclairLogger,
+                        MethodInvocation invocation,
+                        MethodLog methodLog,
+                        MethodSampler methodSampler,
+                        Map<String, String> invokerMdc);
+
+    /**
+     * Decorates the publisher to carry the MDC in the subscriber context instead of {@link ThreadLocal}.
+     * Entries are added to the ones carried by the context already.
+     */
+    abstract Object withMdc(Object publisher, ResultType resultType, Map<String, String> mdc);
+}
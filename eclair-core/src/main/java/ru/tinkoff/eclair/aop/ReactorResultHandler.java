@@ -0,0 +1,190 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.aop;
+
+import org.aopalliance.intercept.MethodInvocation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+import ru.tinkoff.eclair.definition.method.MethodLog;
+import ru.tinkoff.eclair.definition.method.ResultType;
+import ru.tinkoff.eclair.logger.EclairLogger;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Reactor implementation of {@link ReactiveResultHandler}.
+ * MDC is carried by the subscriber {@link Context} and applied to the thread only for logging of events,
+ * so elements pass through without any MDC changes.
+ */
+final class ReactorResultHandler extends ReactiveResultHandler {
+
+    private static final String MDC_KEY = ReactorResultHandler.class.getName() + ".MDC";
+
+    @Override
+    @SuppressWarnings("unchecked")
+    Object log(Object publisher,
+               ResultType resultType,
+               EclairLogger eclairLogger,
+               MethodInvocation invocation,
+               MethodLog methodLog,
+               MethodSampler methodSampler,
+               Map<String, String> invokerMdc) {
+        switch (resultType) {
+            case MONO:
+                Mono<Object> mono = (Mono<Object>) publisher;
+                return Mono.deferContextual(context -> {
+                    SubscriptionLogger logger = new SubscriptionLogger(eclairLogger, invocation, methodLog, methodSampler, getMdc(context, invokerMdc));
+                    return mono.doOnSubscribe(subscription -> logger.onSubscribe())
+                            .doOnSuccess(logger::onComplete)
+                            .doOnError(logger::onError)
+                            .doOnCancel(() -> logger.onComplete(null));
+                });
+            case FLUX:
+                Flux<Object> flux = (Flux<Object>) publisher;
+                return Flux.deferContextual(context -> {
+                    SubscriptionLogger logger = new SubscriptionLogger(eclairLogger, invocation, methodLog, methodSampler, getMdc(context, invokerMdc));
+                    return flux.doOnSubscribe(subscription -> logger.onSubscribe())
+                            .doOnNext(element -> logger.onNext())
+                            .doOnComplete(logger::onComplete)
+                            .doOnError(logger::onError)
+                            .doOnCancel(logger::onComplete);
+                });
+            default:
+                throw new IllegalArgumentException("Unexpected result type: " + resultType);
+        }
+    }
+
+    private Map<String, String> getMdc(ContextView context, Map<String, String> invokerMdc) {
+        return context.getOrDefault(MDC_KEY, invokerMdc);
+    }
+
+    @Override
+    Object withMdc(Object publisher, ResultType resultType, Map<String, String> mdc) {
+        switch (resultType) {
+            case MONO:
+                return ((Mono<?>) publisher).contextWrite(context -> putMdc(context, mdc));
+            case FLUX:
+                return ((Flux<?>) publisher).contextWrite(context -> putMdc(context, mdc));
+            default:
+                throw new IllegalArgumentException("Unexpected result type: " + resultType);
+        }
+    }
+
+    /**
+     * Merges once per subscription, so the map is not copied for each signal.
+     */
+    private Context putMdc(Context context, Map<String, String> mdc) {
+        Map<String, String> outerMdc = context.getOrDefault(MDC_KEY, null);
+        if (isNull(outerMdc) || outerMdc.isEmpty()) {
+            return context.put(MDC_KEY, mdc);
+        }
+        Map<String, String> merged = new HashMap<>(outerMdc);
+        merged.putAll(mdc);
+        return context.put(MDC_KEY, unmodifiableMap(merged));
+    }
+
+    /**
+     * Signals of the single subscription are serialized, so the state is not synchronized.
+     * Cancellation may follow the termination (e.g. of {@code Mono} by its value), so the 'out'-event is logged once.
+     */
+    private static final class SubscriptionLogger {
+
+        private final EclairLogger eclairLogger;
+        private final MethodInvocation invocation;
+        private final MethodLog methodLog;
+        private final MethodSampler methodSampler;
+        private final Map<String, String> mdc;
+
+        private boolean sampled;
+        private boolean terminated;
+        private long count;
+
+        private SubscriptionLogger(EclairLogger eclairLogger,
+                                   MethodInvocation invocation,
+                                   MethodLog methodLog,
+                                   MethodSampler methodSampler,
+                                   Map<String, String> mdc) {
+            this.eclairLogger = eclairLogger;
+            this.invocation = invocation;
+            this.methodLog = methodLog;
+            this.methodSampler = methodSampler;
+            this.mdc = mdc;
+        }
+
+        void onSubscribe() {
+            sampled = isNull(methodSampler) || methodSampler.sampleInvocation();
+            if (sampled) {
+                Map<String, String> previous = MdcSnapshot.apply(mdc);
+                try {
+                    eclairLogger.logInIfNecessary(invocation, methodLog);
+                } finally {
+                    MdcSnapshot.restore(previous);
+                }
+            }
+        }
+
+        void onNext() {
+            count++;
+        }
+
+        /**
+         * 'out'-event of {@code Mono} contains its value ({@code null} if empty).
+         */
+        void onComplete(Object value) {
+            logOut(value);
+        }
+
+        /**
+         * 'out'-event of {@code Flux} contains count of emitted elements.
+         */
+        void onComplete() {
+            logOut(count);
+        }
+
+        private void logOut(Object result) {
+            if (!sampled || terminated) {
+                return;
+            }
+            terminated = true;
+            Map<String, String> previous = MdcSnapshot.apply(mdc);
+            try {
+                eclairLogger.logOutIfNecessary(invocation, methodLog, result);
+            } finally {
+                MdcSnapshot.restore(previous);
+            }
+        }
+
+        void onError(Throwable throwable) {
+            terminated = true;
+            if (nonNull(methodSampler) && !methodSampler.sampleError(methodLog, throwable, sampled)) {
+                return;
+            }
+            Map<String, String> previous = MdcSnapshot.apply(mdc);
+            try {
+                eclairLogger.logErrorIfNecessary(invocation, methodLog, throwable);
+            } finally {
+                MdcSnapshot.restore(previous);
+            }
+        }
+    }
+}
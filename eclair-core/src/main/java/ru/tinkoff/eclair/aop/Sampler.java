@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.aop;
+
+import ru.tinkoff.eclair.definition.Sampling;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free state of the {@link Sampling} applied to the events of a single method.
+ * Criteria are checked from the cheapest to the most expensive one: 'first' and 'every' counter,
+ * then 'sampleRate' probability, then 'rateLimit' permit, so the permits are not spent on otherwise suppressed events.
+ */
+final class Sampler {
+
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Sampling sampling;
+    private final LongSupplier nanoClock;
+    private final AtomicLong counter = new AtomicLong();
+    /**
+     * Theoretical arrival time of the next permitted event (generic cell rate algorithm).
+     */
+    private final AtomicLong arrivalTime;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    Sampler(Sampling sampling) {
+        this(sampling, System::nanoTime);
+    }
+
+    Sampler(Sampling sampling, LongSupplier nanoClock) {
+        this.sampling = sampling;
+        this.nanoClock = nanoClock;
+        int rateLimit = sampling.getRateLimit();
+        this.intervalNanos = rateLimit > 0 ? SECOND_NANOS / rateLimit : 0;
+        this.toleranceNanos = rateLimit > 0 ? intervalNanos * (rateLimit - 1) : 0;
+        this.arrivalTime = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    boolean sample() {
+        return count() && draw() && acquire();
+    }
+
+    private boolean count() {
+        int every = sampling.getEvery();
+        if (every <= 1) {
+            return true;
+        }
+        long index = counter.getAndIncrement();
+        int first = sampling.getFirst();
+        return index < first || (index - first + 1) % every == 0;
+    }
+
+    private boolean draw() {
+        double rate = sampling.getRate();
+        return rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private boolean acquire() {
+        if (intervalNanos == 0) {
+            return true;
+        }
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long current = arrivalTime.get();
+            if (current - now > toleranceNanos) {
+                return false;
+            }
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            if (arrivalTime.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+}
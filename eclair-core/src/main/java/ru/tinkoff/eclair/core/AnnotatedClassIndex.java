@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.core;
+
+import org.springframework.util.ClassUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.util.*;
+
+import static java.util.Collections.emptySet;
+import static java.util.Objects.isNull;
+
+/**
+ * Index of classes annotated by Eclair, generated at compile time by {@code eclair-processor}
+ * into {@value #INDEX_LOCATION} of each jar or directory.
+ * Classes of jars and directories without the index are considered possibly annotated.
+ */
+public final class AnnotatedClassIndex {
+
+    public static final String INDEX_LOCATION = "META-INF/eclair.index";
+
+    private static final AnnotatedClassIndex EMPTY = new AnnotatedClassIndex(emptySet(), emptySet());
+
+    private final Set<String> locations;
+    private final Set<String> classNames;
+
+    AnnotatedClassIndex(Set<String> locations, Set<String> classNames) {
+        this.locations = locations;
+        this.classNames = classNames;
+    }
+
+    public static AnnotatedClassIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @throws IllegalStateException if any of the found indexes could not be read
+     */
+    public static AnnotatedClassIndex load(ClassLoader classLoader) {
+        ClassLoader loader = isNull(classLoader) ? ClassUtils.getDefaultClassLoader() : classLoader;
+        Set<String> locations = new HashSet<>();
+        Set<String> classNames = new HashSet<>();
+        try {
+            Enumeration<URL> urls = isNull(loader) ? ClassLoader.getSystemResources(INDEX_LOCATION) : loader.getResources(INDEX_LOCATION);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                String urlString = url.toString();
+                locations.add(normalize(urlString.substring(0, urlString.length() - INDEX_LOCATION.length())));
+                readClassNames(url, classNames);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to load indexes from location '" + INDEX_LOCATION + "'", e);
+        }
+        return locations.isEmpty() ? EMPTY : new AnnotatedClassIndex(locations, classNames);
+    }
+
+    private static void readClassNames(URL url, Set<String> classNames) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String className = line.trim();
+                if (!className.isEmpty() && !className.startsWith("#")) {
+                    classNames.add(className);
+                }
+            }
+        }
+    }
+
+    /**
+     * Brings URLs of jar or directory containing the index and containing the class to the same form,
+     * e.g. 'jar:file:/app.jar!/' and 'file:/app.jar'.
+     */
+    static String normalize(String location) {
+        String result = location.startsWith("jar:") ? location.substring("jar:".length()) : location;
+        return result.endsWith("!/") ? result.substring(0, result.length() - "!/".length()) : result;
+    }
+
+    /**
+     * @return {@code true} if at least one index is found
+     */
+    public boolean isPresent() {
+        return !locations.isEmpty();
+    }
+
+    /**
+     * Annotations are inherited from overridden methods, so the class is checked together with its superclasses and interfaces.
+     *
+     * @return {@code false} if neither the class nor its supertypes could be annotated
+     */
+    public boolean mayBeAnnotated(Class<?> clazz) {
+        return !isPresent() || mayBeAnnotated(clazz, new HashSet<>());
+    }
+
+    private boolean mayBeAnnotated(Class<?> clazz, Set<Class<?>> visited) {
+        if (isNull(clazz) || clazz == Object.class || !visited.add(clazz)) {
+            return false;
+        }
+        if (classNames.contains(clazz.getName()) || !isIndexed(clazz)) {
+            return true;
+        }
+        if (mayBeAnnotated(clazz.getSuperclass(), visited)) {
+            return true;
+        }
+        for (Class<?> anInterface : clazz.getInterfaces()) {
+            if (mayBeAnnotated(anInterface, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Classes loaded by bootstrap class loader are not annotated by Eclair, so they are considered indexed.
+     */
+    private boolean isIndexed(Class<?> clazz) {
+        CodeSource codeSource;
+        try {
+            codeSource = clazz.getProtectionDomain().getCodeSource();
+        } catch (SecurityException e) {
+            return false;
+        }
+        if (isNull(codeSource) || isNull(codeSource.getLocation())) {
+            return isNull(clazz.getClassLoader());
+        }
+        return locations.contains(normalize(codeSource.getLocation().toString()));
+    }
+}
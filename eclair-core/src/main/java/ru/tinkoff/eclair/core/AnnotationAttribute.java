@@ -26,7 +26,12 @@ public enum AnnotationAttribute {
     LEVEL("level"),
     IF_ENABLED("ifEnabled"),
     LOGGER("logger"),
-    PRINTER("printer");
+    PRINTER("printer"),
+    MAX_LENGTH("maxLength"),
+    SAMPLE_RATE("sampleRate"),
+    RATE_LIMIT("rateLimit"),
+    FIRST("first"),
+    EVERY("every");
 
     private final String name;
 
@@ -16,18 +16,21 @@
 package ru.tinkoff.eclair.core;
 
 import ru.tinkoff.eclair.annotation.Log;
+import ru.tinkoff.eclair.annotation.Mdc;
 import ru.tinkoff.eclair.definition.*;
 import ru.tinkoff.eclair.definition.factory.*;
+import ru.tinkoff.eclair.definition.method.ResultType;
 import ru.tinkoff.eclair.printer.Printer;
+import ru.tinkoff.eclair.printer.RuntimeTypePrinter;
 import ru.tinkoff.eclair.printer.resolver.PrinterResolver;
 
 import java.lang.reflect.Method;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
-import java.util.List;
-import java.util.Set;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
+import static java.util.Collections.unmodifiableCollection;
 import static java.util.Collections.unmodifiableSet;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
@@ -40,32 +43,73 @@ public final class AnnotationDefinitionFactory {
 
     private final AnnotationExtractor annotationExtractor = AnnotationExtractor.getInstance();
     private final PrinterResolver printerResolver;
+    /**
+     * Shared by all the methods with the same printer name, so each cache is filled once.
+     */
+    private final Map<String, RuntimeTypePrinter> runtimeTypePrinters = new ConcurrentHashMap<>();
+
+    private boolean runtimeTypeDispatch;
 
     public AnnotationDefinitionFactory(PrinterResolver printerResolver) {
         this.printerResolver = printerResolver;
     }
 
+    public boolean isRuntimeTypeDispatch() {
+        return runtimeTypeDispatch;
+    }
+
+    /**
+     * Affects definitions built afterwards only.
+     *
+     * @param runtimeTypeDispatch resolve printers of values declared as {@link Object}, interface, abstract or any other
+     *                            non-final class by their runtime class on each logging
+     * @see RuntimeTypePrinter
+     */
+    public void setRuntimeTypeDispatch(boolean runtimeTypeDispatch) {
+        this.runtimeTypeDispatch = runtimeTypeDispatch;
+    }
+
+    /**
+     * @return printers dispatching by runtime class created so far, one per printer name
+     */
+    public Collection<RuntimeTypePrinter> getRuntimeTypePrinters() {
+        return unmodifiableCollection(runtimeTypePrinters.values());
+    }
+
     public InLog buildInLog(Set<String> loggerNames, Method method) {
-        Log.in logIn = annotationExtractor.findLogIn(method, loggerNames);
+        return buildInLog(loggerNames, annotationExtractor.getMethodMetadata(method));
+    }
+
+    public InLog buildInLog(Set<String> loggerNames, MethodMetadata metadata) {
+        Log.in logIn = annotationExtractor.findLogIn(metadata, loggerNames);
         if (nonNull(logIn)) {
-            return buildInLog(method, logIn);
+            return buildInLog(metadata.getMethod(), logIn);
         }
-        Log log = annotationExtractor.findLog(method, loggerNames);
+        Log log = annotationExtractor.findLog(metadata, loggerNames);
         if (nonNull(log)) {
-            return buildInLog(method, annotationExtractor.synthesizeLogIn(log));
+            return buildInLog(metadata.getMethod(), annotationExtractor.synthesizeLogIn(log));
         }
         return null;
     }
 
     private InLog buildInLog(Method method, Log.in logIn) {
-        List<Printer> printers = printerResolver.resolveOrDefault(logIn.printer(), method.getParameterTypes());
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        List<Printer> printers = new ArrayList<>(printerResolver.resolveOrDefault(logIn.printer(), parameterTypes));
+        for (int a = 0; a < parameterTypes.length; a++) {
+            Printer printer = dispatch(printers.get(a), logIn.printer(), parameterTypes[a]);
+            printers.set(a, limit(printer, logIn.maxLength()));
+        }
         return InLogFactory.newInstance(logIn, printers);
     }
 
     public List<ParameterLog> buildParameterLogs(Set<String> loggerNames, Method method) {
-        List<Log> logs = annotationExtractor.findParameterLogs(method, loggerNames);
+        return buildParameterLogs(loggerNames, annotationExtractor.getMethodMetadata(method));
+    }
+
+    public List<ParameterLog> buildParameterLogs(Set<String> loggerNames, MethodMetadata metadata) {
+        List<Log> logs = annotationExtractor.findParameterLogs(metadata, loggerNames);
         Iterator<Log> logIterator = logs.iterator();
-        return Stream.of(method.getParameterTypes())
+        return Stream.of(metadata.getMethod().getParameterTypes())
                 .map(clazz -> buildParameterLog(logIterator.next(), clazz))
                 .collect(toList());
     }
@@ -74,42 +118,87 @@ public final class AnnotationDefinitionFactory {
         if (isNull(log)) {
             return null;
         }
-        Printer printer = printerResolver.resolveOrDefault(log.printer(), parameterType);
-        return ParameterLogFactory.newInstance(log, printer);
+        Printer printer = dispatch(printerResolver.resolveOrDefault(log.printer(), parameterType), log.printer(), parameterType);
+        return ParameterLogFactory.newInstance(log, limit(printer, log.maxLength()));
     }
 
     public OutLog buildOutLog(Set<String> loggerNames, Method method) {
-        Log.out logOut = annotationExtractor.findLogOut(method, loggerNames);
+        return buildOutLog(loggerNames, annotationExtractor.getMethodMetadata(method));
+    }
+
+    public OutLog buildOutLog(Set<String> loggerNames, MethodMetadata metadata) {
+        Log.out logOut = annotationExtractor.findLogOut(metadata, loggerNames);
         if (nonNull(logOut)) {
-            return buildOutLog(method, logOut);
+            return buildOutLog(metadata.getMethod(), logOut);
         }
-        Log log = annotationExtractor.findLog(method, loggerNames);
+        Log log = annotationExtractor.findLog(metadata, loggerNames);
         if (nonNull(log)) {
-            return buildOutLog(method, annotationExtractor.synthesizeLogOut(log));
+            return buildOutLog(metadata.getMethod(), annotationExtractor.synthesizeLogOut(log));
         }
         return null;
     }
 
+    /**
+     * Asynchronous results are logged on completion, so the printer is resolved by the type of the completion value.
+     */
     private OutLog buildOutLog(Method method, Log.out logOut) {
-        Printer printer = printerResolver.resolveOrDefault(logOut.printer(), method.getReturnType());
-        return OutLogFactory.newInstance(logOut, printer);
+        Class<?> loggedType = ResultType.resolveLoggedType(method);
+        Printer printer = dispatch(printerResolver.resolveOrDefault(logOut.printer(), loggedType), logOut.printer(), loggedType);
+        return OutLogFactory.newInstance(logOut, limit(printer, logOut.maxLength()));
+    }
+
+    /**
+     * Values of final classes (including primitives and arrays) are always printed by the printer of the declared type.
+     */
+    private Printer dispatch(Printer printer, String printerName, Class<?> declaredType) {
+        if (!runtimeTypeDispatch || declaredType.isPrimitive() || Modifier.isFinal(declaredType.getModifiers())) {
+            return printer;
+        }
+        return runtimeTypePrinters.computeIfAbsent(printerName, name -> new RuntimeTypePrinter(printerResolver, name));
+    }
+
+    private Printer limit(Printer printer, int maxLength) {
+        return maxLength > 0 ? printer.withMaxLength(maxLength) : printer;
     }
 
     public Set<ErrorLog> buildErrorLogs(Set<String> loggerNames, Method method) {
-        return annotationExtractor.findLogErrors(method, loggerNames).stream()
+        return buildErrorLogs(loggerNames, annotationExtractor.getMethodMetadata(method));
+    }
+
+    public Set<ErrorLog> buildErrorLogs(Set<String> loggerNames, MethodMetadata metadata) {
+        return annotationExtractor.findLogErrors(metadata, loggerNames).stream()
                 .map(ErrorLogFactory::newInstance)
                 .collect(toCollection(LinkedHashSet::new));
     }
 
     public Set<ParameterMdc> buildMethodParameterMdcs(Method method) {
-        return annotationExtractor.getMdcs(method).stream()
-                .map(ParameterMdcFactory::newInstance)
-                .collect(toSet());
+        return buildParameterMdcs(annotationExtractor.getMdcs(method));
+    }
+
+    public Set<ParameterMdc> buildMethodParameterMdcs(MethodMetadata metadata) {
+        return buildParameterMdcs(metadata.getMdcs());
     }
 
     public List<Set<ParameterMdc>> buildParameterMdcs(Method method) {
-        return annotationExtractor.getParametersMdcs(method).stream()
-                .map(mdcs -> unmodifiableSet(mdcs.stream().map(ParameterMdcFactory::newInstance).collect(toSet())))
+        return buildParameterMdcs(annotationExtractor.getParametersMdcs(method));
+    }
+
+    public List<Set<ParameterMdc>> buildParameterMdcs(MethodMetadata metadata) {
+        return buildParameterMdcs(metadata.getParameterMdcs());
+    }
+
+    private List<Set<ParameterMdc>> buildParameterMdcs(List<Set<Mdc>> parameterMdcs) {
+        return parameterMdcs.stream()
+                .map(mdcs -> unmodifiableSet(buildParameterMdcs(mdcs)))
                 .collect(toList());
     }
+
+    /**
+     * Keeps the order of declaration, so MDC keys are put in the same order on each invocation.
+     */
+    private Set<ParameterMdc> buildParameterMdcs(Set<Mdc> mdcs) {
+        return mdcs.stream()
+                .map(ParameterMdcFactory::newInstance)
+                .collect(toCollection(LinkedHashSet::new));
+    }
 }
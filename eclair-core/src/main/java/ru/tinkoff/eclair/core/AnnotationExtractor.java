@@ -22,14 +22,12 @@ import ru.tinkoff.eclair.annotation.Mdc;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
-import java.util.Collection;
-import java.util.LinkedHashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.stream.Collectors.*;
 import static org.springframework.core.annotation.AnnotatedElementUtils.findMergedRepeatableAnnotations;
@@ -62,8 +60,11 @@ public class AnnotationExtractor {
     );
 
     private static final ReversedBridgeMethodResolver bridgeMethodResolver = ReversedBridgeMethodResolver.getInstance();
+    private static final Method[] NO_METHODS = new Method[0];
     private static final AnnotationExtractor instance = new AnnotationExtractor();
 
+    private final ParameterNameResolver parameterNameResolver = new ParameterNameResolver();
+
     private AnnotationExtractor() {
     }
 
@@ -78,6 +79,91 @@ public class AnnotationExtractor {
                 .collect(toSet());
     }
 
+    /**
+     * Collects all the annotations of candidate methods and their parameters in a single pass.
+     * Bridge methods are looked up only if the class is annotated at all, each declaring class is listed once.
+     *
+     * @see #getCandidateMethods(Class)
+     */
+    public ClassMetadata getClassMetadata(Class<?> clazz) {
+        List<MethodMetadata> methods = getCandidateMethods(clazz).stream()
+                .map(this::findAnnotations)
+                .collect(toList());
+        if (methods.stream().anyMatch(MethodMetadata::isAnnotated)) {
+            Map<Class<?>, Method[]> bridgeMethods = new HashMap<>();
+            methods = methods.stream()
+                    .map(metadata -> findAnnotationsOnBridge(metadata, bridgeMethods.computeIfAbsent(
+                            metadata.getMethod().getDeclaringClass(), AnnotationExtractor::getDeclaredBridgeMethods)))
+                    .collect(toList());
+        }
+        return new ClassMetadata(clazz, methods);
+    }
+
+    public MethodMetadata getMethodMetadata(Method method) {
+        return findAnnotationsOnBridge(findAnnotations(method), getDeclaredBridgeMethods(method.getDeclaringClass()));
+    }
+
+    private static Method[] getDeclaredBridgeMethods(Class<?> clazz) {
+        Method[] bridgeMethods = Stream.of(clazz.getDeclaredMethods())
+                .filter(Method::isBridge)
+                .toArray(Method[]::new);
+        return bridgeMethods.length == 0 ? NO_METHODS : bridgeMethods;
+    }
+
+    private MethodMetadata findAnnotations(Method method) {
+        Set<Log> logs = findAnnotationOnMethod(method, Log.class);
+        Set<Log.in> logIns = findAnnotationOnMethod(method, Log.in.class);
+        Set<Log.out> logOuts = findAnnotationOnMethod(method, Log.out.class);
+        Set<Log.error> logErrors = findAnnotationOnMethod(method, Log.error.class);
+        Set<Mdc> mdcs = findAnnotationOnMethod(method, Mdc.class);
+        boolean annotated = !(logs.isEmpty() && logIns.isEmpty() && logOuts.isEmpty() && logErrors.isEmpty() && mdcs.isEmpty());
+
+        Parameter[] parameters = method.getParameters();
+        List<Set<Log>> parameterLogs = new ArrayList<>(parameters.length);
+        List<Set<Mdc>> parameterMdcs = new ArrayList<>(parameters.length);
+        for (Parameter parameter : parameters) {
+            Set<Log> parameterLog = findAnnotationOnParameter(parameter, Log.class);
+            Set<Mdc> parameterMdc = findAnnotationOnParameter(parameter, Mdc.class);
+            annotated |= !(parameterLog.isEmpty() && parameterMdc.isEmpty());
+            parameterLogs.add(parameterLog);
+            parameterMdcs.add(parameterMdc);
+        }
+        return new MethodMetadata(method, null, logs, logIns, logOuts, logErrors, mdcs, parameterLogs, parameterMdcs,
+                annotated, parameterNameResolver);
+    }
+
+    /**
+     * Same as {@link #findAnnotationOnMethodOrBridge} for each kind of method annotations.
+     */
+    private MethodMetadata findAnnotationsOnBridge(MethodMetadata metadata, Method[] bridgeMethods) {
+        if (bridgeMethods.length == 0) {
+            return metadata;
+        }
+        Set<Log> logs = metadata.getLogs();
+        Set<Log.in> logIns = metadata.getLogIns();
+        Set<Log.out> logOuts = metadata.getLogOuts();
+        Set<Log.error> logErrors = metadata.getLogErrors();
+        Set<Mdc> mdcs = metadata.getMdcs();
+        if (!(logs.isEmpty() || logIns.isEmpty() || logOuts.isEmpty() || logErrors.isEmpty() || mdcs.isEmpty())) {
+            return metadata;
+        }
+        Method method = metadata.getMethod();
+        Method bridgeMethod = bridgeMethodResolver.findBridgeMethod(method, bridgeMethods);
+        if (isNull(bridgeMethod)) {
+            return metadata;
+        }
+        return new MethodMetadata(method, bridgeMethod,
+                logs.isEmpty() ? findAnnotationOnMethod(bridgeMethod, Log.class) : logs,
+                logIns.isEmpty() ? findAnnotationOnMethod(bridgeMethod, Log.in.class) : logIns,
+                logOuts.isEmpty() ? findAnnotationOnMethod(bridgeMethod, Log.out.class) : logOuts,
+                logErrors.isEmpty() ? findAnnotationOnMethod(bridgeMethod, Log.error.class) : logErrors,
+                mdcs.isEmpty() ? findAnnotationOnMethod(bridgeMethod, Mdc.class) : mdcs,
+                metadata.getParameterLogs(),
+                metadata.getParameterMdcs(),
+                metadata.isAnnotated(),
+                parameterNameResolver);
+    }
+
     public boolean hasAnyAnnotation(Method method) {
         return METHOD_TARGET_ANNOTATION_CLASSES.stream()
                 .anyMatch(annotationClass -> !findMergedRepeatableAnnotations(method, annotationClass).isEmpty());
@@ -161,6 +247,28 @@ public class AnnotationExtractor {
                 .collect(toList());
     }
 
+    Log findLog(MethodMetadata metadata, Set<String> loggers) {
+        return filterAndFindFirstAnnotation(metadata.getLogs(), loggers);
+    }
+
+    Log.in findLogIn(MethodMetadata metadata, Set<String> loggers) {
+        return filterAndFindFirstAnnotation(metadata.getLogIns(), loggers);
+    }
+
+    Log.out findLogOut(MethodMetadata metadata, Set<String> loggers) {
+        return filterAndFindFirstAnnotation(metadata.getLogOuts(), loggers);
+    }
+
+    Set<Log.error> findLogErrors(MethodMetadata metadata, Set<String> loggers) {
+        return filterAnnotations(metadata.getLogErrors(), loggers);
+    }
+
+    List<Log> findParameterLogs(MethodMetadata metadata, Set<String> loggers) {
+        return metadata.getParameterLogs().stream()
+                .map(logs -> filterAndFindFirstAnnotation(logs, loggers))
+                .collect(toList());
+    }
+
     private <T extends Annotation> T filterAndFindFirstAnnotation(Collection<T> annotations, Set<?> loggers) {
         return annotations.stream()
                 .filter(getLoggerPredicate(loggers))
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.core;
+
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * {@link MethodMetadata} of all the candidate methods of the class.
+ * @see AnnotationExtractor#getClassMetadata(Class)
+ */
+public final class ClassMetadata {
+
+    private final Class<?> clazz;
+    private final List<MethodMetadata> methods;
+    private final boolean annotated;
+
+    ClassMetadata(Class<?> clazz, List<MethodMetadata> methods) {
+        this.clazz = clazz;
+        this.methods = unmodifiableList(methods);
+        this.annotated = methods.stream().anyMatch(MethodMetadata::isAnnotated);
+    }
+
+    public Class<?> getClazz() {
+        return clazz;
+    }
+
+    public List<MethodMetadata> getMethods() {
+        return methods;
+    }
+
+    /**
+     * @return {@code true} if any of the methods or their parameters is annotated
+     */
+    public boolean isAnnotated() {
+        return annotated;
+    }
+}
@@ -17,33 +17,57 @@ package ru.tinkoff.eclair.core;
 
 import org.springframework.expression.*;
 import org.springframework.expression.common.LiteralExpression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.*;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
+import org.springframework.util.ReflectionUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
+ * Evaluates simple navigation chains (e.g. {@code client.inn} or {@code getRequest().getId()}) by cached
+ * {@link MethodHandle}s, if the evaluation context resolves properties and methods only reflectively.
+ * All other expressions are evaluated by {@link ExpressionParser} configured.
+ *
  * @author Vyacheslav Klapatnyuk
  */
 public class ExpressionEvaluator {
 
     private static final ParserContext parserContext = null;
+    private static final Field compiledAstField = findCompiledAstField();
+    private static final int COMPILED_SAMPLING_PERIOD = 1024;
 
     private final ExpressionParser expressionParser;
     private final EvaluationContext evaluationContext;
+    private final boolean fastPathEnabled;
+
+    private final Map<String, CachedExpression> expressionCache = new ConcurrentHashMap<>();
+    private final Map<String, PropertyChain> propertyChainCache = new ConcurrentHashMap<>();
 
-    private final Map<String, Expression> expressionCache = new ConcurrentHashMap<>();
+    private final LongAdder fastPathCounter = new LongAdder();
+    private final LongAdder compiledCounter = new LongAdder();
+    private final LongAdder interpretedCounter = new LongAdder();
 
     public ExpressionEvaluator(ExpressionParser expressionParser,
                                EvaluationContext evaluationContext) {
         this.expressionParser = expressionParser;
         this.evaluationContext = evaluationContext;
+        this.fastPathEnabled = isReflectiveOnly(evaluationContext);
     }
 
     public Object evaluate(String expressionString) {
         try {
-            return expressionCache.computeIfAbsent(expressionString, this::parse).getValue(evaluationContext);
+            return evaluateExpression(getExpression(expressionString), null);
         } catch (EvaluationException e) {
             return expressionString;
         }
@@ -53,18 +77,178 @@ public class ExpressionEvaluator {
         if (isNull(rootObject)) {
             return null;
         }
+        if (fastPathEnabled) {
+            MethodHandle accessor = getPropertyChain(expressionString).getAccessor(rootObject.getClass());
+            if (nonNull(accessor)) {
+                fastPathCounter.increment();
+                try {
+                    return (Object) accessor.invokeExact(rootObject);
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable throwable) {
+                    // SpEL fails on 'null' intermediate values and wraps exceptions of accessors as well
+                    return expressionString;
+                }
+            }
+        }
         try {
-            return expressionCache.computeIfAbsent(expressionString, this::parse).getValue(evaluationContext, rootObject);
+            return evaluateExpression(getExpression(expressionString), rootObject);
         } catch (EvaluationException e) {
             return expressionString;
         }
     }
 
-    private Expression parse(String expressionString) {
+    /**
+     * Parses and caches the expression before its first evaluation.
+     * Invalid expression is cached as literal anyway, so it is evaluated as is.
+     *
+     * @throws ParseException if the expression is not valid
+     */
+    public void prepare(String expressionString) throws ParseException {
+        getPropertyChain(expressionString);
+        CachedExpression cachedExpression = expressionCache.get(expressionString);
+        if (nonNull(cachedExpression) && !(cachedExpression.expression instanceof LiteralExpression)) {
+            return;
+        }
         try {
-            return expressionParser.parseExpression(expressionString, parserContext);
+            expressionCache.putIfAbsent(expressionString, new CachedExpression(expressionParser.parseExpression(expressionString, parserContext)));
         } catch (ParseException e) {
-            return new LiteralExpression(expressionString);
+            expressionCache.putIfAbsent(expressionString, new CachedExpression(new LiteralExpression(expressionString)));
+            throw e;
+        }
+    }
+
+    /**
+     * Methods, constructors and functions are never called by such expressions, and nothing is assigned or incremented.
+     * Property getters are supposed to be free of side effects.
+     *
+     * @return {@code true} if the expression is a literal or SpEL one without side effects
+     */
+    public boolean isSideEffectFree(String expressionString) {
+        Expression expression = getExpression(expressionString).expression;
+        if (expression instanceof LiteralExpression) {
+            return true;
+        }
+        return expression instanceof SpelExpression && isSideEffectFree(((SpelExpression) expression).getAST());
+    }
+
+    /**
+     * @return count of evaluations by {@link MethodHandle}s of simple navigation chains
+     */
+    public long getFastPathCount() {
+        return fastPathCounter.sum();
+    }
+
+    /**
+     * Evaluations are counted by the state sampled before each of them until the expression is compiled,
+     * and before every {@value #COMPILED_SAMPLING_PERIOD}th one after that, since SpEL may fall back to interpretation.
+     *
+     * @return count of evaluations by compiled {@link SpelExpression}s
+     */
+    public long getCompiledCount() {
+        return compiledCounter.sum();
+    }
+
+    /**
+     * @return count of evaluations by expressions not compiled (or not SpEL ones)
+     * @see #getCompiledCount()
+     */
+    public long getInterpretedCount() {
+        return interpretedCounter.sum();
+    }
+
+    private Object evaluateExpression(CachedExpression cachedExpression, Object rootObject) {
+        if (cachedExpression.sampleCompiled()) {
+            compiledCounter.increment();
+        } else {
+            interpretedCounter.increment();
+        }
+        Expression expression = cachedExpression.expression;
+        return isNull(rootObject) ? expression.getValue(evaluationContext) : expression.getValue(evaluationContext, rootObject);
+    }
+
+    private CachedExpression getExpression(String expressionString) {
+        CachedExpression cachedExpression = expressionCache.get(expressionString);
+        return nonNull(cachedExpression) ? cachedExpression : expressionCache.computeIfAbsent(expressionString, this::parse);
+    }
+
+    private PropertyChain getPropertyChain(String expressionString) {
+        PropertyChain propertyChain = propertyChainCache.get(expressionString);
+        return nonNull(propertyChain) ? propertyChain : propertyChainCache.computeIfAbsent(expressionString, PropertyChain::parse);
+    }
+
+    private CachedExpression parse(String expressionString) {
+        try {
+            return new CachedExpression(expressionParser.parseExpression(expressionString, parserContext));
+        } catch (ParseException e) {
+            return new CachedExpression(new LiteralExpression(expressionString));
+        }
+    }
+
+    private static boolean isSideEffectFree(SpelNode node) {
+        if (node instanceof MethodReference || node instanceof ConstructorReference || node instanceof FunctionReference
+                || node instanceof Assign || node instanceof OpInc || node instanceof OpDec) {
+            return false;
+        }
+        for (int a = 0; a < node.getChildCount(); a++) {
+            if (!isSideEffectFree(node.getChild(a))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code null} if the field is absent or not accessible in the SpEL version used
+     */
+    private static Field findCompiledAstField() {
+        Field field = ReflectionUtils.findField(SpelExpression.class, "compiledAst");
+        if (isNull(field)) {
+            return null;
+        }
+        try {
+            ReflectionUtils.makeAccessible(field);
+            return field;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isReflectiveOnly(EvaluationContext evaluationContext) {
+        List<PropertyAccessor> propertyAccessors = evaluationContext.getPropertyAccessors();
+        List<MethodResolver> methodResolvers = evaluationContext.getMethodResolvers();
+        return propertyAccessors.size() == 1 && propertyAccessors.get(0).getClass() == ReflectivePropertyAccessor.class
+                && methodResolvers.size() == 1 && methodResolvers.get(0).getClass() == ReflectiveMethodResolver.class;
+    }
+
+    private static final class CachedExpression {
+
+        private final Expression expression;
+        private final boolean compilable;
+        /**
+         * Fields are not synchronized, a stale value only shifts the counters between compiled and interpreted ones.
+         */
+        private boolean compiled;
+        private int evaluationsSinceSample;
+
+        private CachedExpression(Expression expression) {
+            this.expression = expression;
+            this.compilable = nonNull(compiledAstField) && expression instanceof SpelExpression;
+        }
+
+        private boolean sampleCompiled() {
+            if (!compilable) {
+                return false;
+            }
+            if (!compiled || ++evaluationsSinceSample >= COMPILED_SAMPLING_PERIOD) {
+                evaluationsSinceSample = 0;
+                try {
+                    compiled = nonNull(ReflectionUtils.getField(compiledAstField, expression));
+                } catch (RuntimeException e) {
+                    compiled = false;
+                }
+            }
+            return compiled;
         }
     }
 }
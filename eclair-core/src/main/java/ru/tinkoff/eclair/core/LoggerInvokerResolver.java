@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.core;
+
+import ru.tinkoff.eclair.logger.ManualLogger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the invoker of {@link ManualLogger} by the current stack trace.
+ * Note: Overridden by {@link StackWalker}-based implementation for Java 9+ in multi-release jar.
+ */
+final class LoggerInvokerResolver {
+
+    private static final LoggerInvokerResolver instance = new LoggerInvokerResolver();
+    private static final int MIN_CURRENT_DEPTH = 3;
+
+    private final Map<String, Boolean> manualLoggerClassNames = new ConcurrentHashMap<>();
+
+    private LoggerInvokerResolver() {
+    }
+
+    static LoggerInvokerResolver getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return first frame invoking the nearest {@link ManualLogger} implementation
+     */
+    StackTraceElement resolve() {
+        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
+        int length = stackTrace.length;
+        String previousName = "";
+        for (int a = MIN_CURRENT_DEPTH; a < length; a++) {
+            String className = stackTrace[a].getClassName();
+            if (className.equals(previousName)) {
+                continue;
+            }
+            previousName = className;
+            if (isManualLogger(className)) {
+                for (int b = a + 1; b < length; b++) {
+                    className = stackTrace[b].getClassName();
+                    if (className.equals(previousName)) {
+                        continue;
+                    }
+                    if (!isManualLogger(className)) {
+                        return stackTrace[b];
+                    }
+                    previousName = className;
+                }
+                break;
+            }
+        }
+        throw new IllegalArgumentException("Invalid stacktrace");
+    }
+
+    private boolean isManualLogger(String className) {
+        Boolean result = manualLoggerClassNames.get(className);
+        if (result == null) {
+            result = ManualLogger.class.isAssignableFrom(forName(className));
+            manualLoggerClassNames.put(className, result);
+        }
+        return result;
+    }
+
+    private Class<?> forName(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
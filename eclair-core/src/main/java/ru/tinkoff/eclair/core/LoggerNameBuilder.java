@@ -16,7 +16,6 @@
 package ru.tinkoff.eclair.core;
 
 import org.aopalliance.intercept.MethodInvocation;
-import ru.tinkoff.eclair.logger.ManualLogger;
 
 import java.lang.reflect.Method;
 
@@ -26,7 +25,8 @@ import java.lang.reflect.Method;
 public final class LoggerNameBuilder {
 
     private static final LoggerNameBuilder instance = new LoggerNameBuilder();
-    private static final int MIN_CURRENT_DEPTH = 3;
+
+    private final LoggerInvokerResolver loggerInvokerResolver = LoggerInvokerResolver.getInstance();
 
     private LoggerNameBuilder() {
     }
@@ -44,50 +44,16 @@ public final class LoggerNameBuilder {
     }
 
     /**
-     * Note: Uses information about current {@link StackTraceElement}, so not recommended if high execution speed is important.
+     * Note: Uses information about current {@link StackTraceElement}s: on Java 9+ only necessary frames are walked,
+     * on Java 8 the whole stack trace is built, so not recommended if high execution speed is important.
      *
      * @return dynamically built logger name
      */
     public String buildByInvoker() {
-        StackTraceElement invoker = resolveLoggerInvoker();
+        StackTraceElement invoker = loggerInvokerResolver.resolve();
         return build(invoker.getClassName(), invoker.getMethodName());
     }
 
-    private StackTraceElement resolveLoggerInvoker() {
-        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-        int length = stackTrace.length;
-        String previousName = "";
-        for (int a = MIN_CURRENT_DEPTH; a < length; a++) {
-            String className = stackTrace[a].getClassName();
-            if (className.equals(previousName)) {
-                continue;
-            }
-            previousName = className;
-            if (ManualLogger.class.isAssignableFrom(forName(className))) {
-                for (int b = a + 1; b < length; b++) {
-                    className = stackTrace[b].getClassName();
-                    if (className.equals(previousName)) {
-                        continue;
-                    }
-                    if (!ManualLogger.class.isAssignableFrom(forName(className))) {
-                        return stackTrace[b];
-                    }
-                    previousName = className;
-                }
-                break;
-            }
-        }
-        throw new IllegalArgumentException("Invalid stacktrace");
-    }
-
-    private Class<?> forName(String className) {
-        try {
-            return Class.forName(className);
-        } catch (ClassNotFoundException e) {
-            throw new IllegalArgumentException(e);
-        }
-    }
-
     private String build(String className, String methodName) {
         return className + '.' + methodName;
     }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.core;
+
+import ru.tinkoff.eclair.annotation.Log;
+import ru.tinkoff.eclair.annotation.Mdc;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.isNull;
+
+/**
+ * All the Eclair annotations of the {@link Method} and its parameters found in a single pass.
+ * Method annotations missing on the method itself are taken from its bridge method, if any.
+ * @see AnnotationExtractor#getMethodMetadata(Method)
+ */
+public final class MethodMetadata {
+
+    private final Method method;
+    private final Method bridgeMethod;
+    private final Set<Log> logs;
+    private final Set<Log.in> logIns;
+    private final Set<Log.out> logOuts;
+    private final Set<Log.error> logErrors;
+    private final Set<Mdc> mdcs;
+    private final List<Set<Log>> parameterLogs;
+    private final List<Set<Mdc>> parameterMdcs;
+    private final boolean annotated;
+    private final ParameterNameResolver parameterNameResolver;
+
+    private volatile List<String> parameterNames;
+
+    MethodMetadata(Method method,
+                   Method bridgeMethod,
+                   Set<Log> logs,
+                   Set<Log.in> logIns,
+                   Set<Log.out> logOuts,
+                   Set<Log.error> logErrors,
+                   Set<Mdc> mdcs,
+                   List<Set<Log>> parameterLogs,
+                   List<Set<Mdc>> parameterMdcs,
+                   boolean annotated,
+                   ParameterNameResolver parameterNameResolver) {
+        this.method = method;
+        this.bridgeMethod = bridgeMethod;
+        this.logs = unmodifiableSet(logs);
+        this.logIns = unmodifiableSet(logIns);
+        this.logOuts = unmodifiableSet(logOuts);
+        this.logErrors = unmodifiableSet(logErrors);
+        this.mdcs = unmodifiableSet(mdcs);
+        this.parameterLogs = unmodifiableList(parameterLogs);
+        this.parameterMdcs = unmodifiableList(parameterMdcs);
+        this.annotated = annotated;
+        this.parameterNameResolver = parameterNameResolver;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * @return bridge method the missing annotations are taken from or {@code null}
+     */
+    public Method getBridgeMethod() {
+        return bridgeMethod;
+    }
+
+    public Set<Log> getLogs() {
+        return logs;
+    }
+
+    public Set<Log.in> getLogIns() {
+        return logIns;
+    }
+
+    public Set<Log.out> getLogOuts() {
+        return logOuts;
+    }
+
+    public Set<Log.error> getLogErrors() {
+        return logErrors;
+    }
+
+    public Set<Mdc> getMdcs() {
+        return mdcs;
+    }
+
+    public List<Set<Log>> getParameterLogs() {
+        return parameterLogs;
+    }
+
+    public List<Set<Mdc>> getParameterMdcs() {
+        return parameterMdcs;
+    }
+
+    /**
+     * @return {@code true} if the method itself (not its bridge) or any of its parameters is annotated
+     */
+    public boolean isAnnotated() {
+        return annotated;
+    }
+
+    /**
+     * Resolved on the first call only, because discovering of names may require reading of class files.
+     */
+    public List<String> getParameterNames() {
+        List<String> parameterNames = this.parameterNames;
+        if (isNull(parameterNames)) {
+            parameterNames = unmodifiableList(parameterNameResolver.tryToResolve(method));
+            this.parameterNames = parameterNames;
+        }
+        return parameterNames;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.core;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.isNull;
+
+/**
+ * Navigation chain like {@code id}, {@code client.inn} or {@code getRequest().getId()},
+ * evaluated by {@link MethodHandle}s instead of SpEL.
+ * Properties are resolved by public getters of declared (not runtime) types, as {@code ReflectivePropertyAccessor} does.
+ * If any segment can't be resolved this way, the chain has no accessor and SpEL should be used.
+ */
+final class PropertyChain {
+
+    static final PropertyChain NONE = new PropertyChain(null, emptyList());
+
+    private static final Pattern SEGMENT = Pattern.compile("[A-Za-z_$][\\w$]*(\\(\\))?");
+    private static final String METHOD_SUFFIX = "()";
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+    /**
+     * SpEL literals and operators, which are not treated as properties (case-insensitively).
+     */
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+            "null", "true", "false", "new", "t", "and", "or", "not", "div", "mod",
+            "lt", "gt", "le", "ge", "eq", "ne", "instanceof", "matches", "between"
+    ));
+
+    private final String expressionString;
+    private final List<Segment> segments;
+    private final ClassValue<Optional<MethodHandle>> accessors = new ClassValue<Optional<MethodHandle>>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(Class<?> type) {
+            return Optional.ofNullable(compile(type));
+        }
+    };
+
+    private PropertyChain(String expressionString, List<Segment> segments) {
+        this.expressionString = expressionString;
+        this.segments = unmodifiableList(segments);
+    }
+
+    /**
+     * @return parsed chain or {@link #NONE} if the expression is not a simple navigation chain
+     */
+    static PropertyChain parse(String expressionString) {
+        if (isNull(expressionString) || expressionString.isEmpty()) {
+            return NONE;
+        }
+        String[] parts = StringUtils.delimitedListToStringArray(expressionString, ".");
+        List<Segment> segments = new ArrayList<>(parts.length);
+        for (String part : parts) {
+            if (!SEGMENT.matcher(part).matches()) {
+                return NONE;
+            }
+            boolean method = part.endsWith(METHOD_SUFFIX);
+            String name = method ? part.substring(0, part.length() - METHOD_SUFFIX.length()) : part;
+            if (KEYWORDS.contains(name.toLowerCase())) {
+                return NONE;
+            }
+            segments.add(new Segment(name, method));
+        }
+        return new PropertyChain(expressionString, segments);
+    }
+
+    String getExpressionString() {
+        return expressionString;
+    }
+
+    List<Segment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * @return handle of type {@code (Object)Object} throwing {@link NullPointerException} on {@code null} intermediate value,
+     * or {@code null} if the chain is not applicable to the specified root type
+     */
+    MethodHandle getAccessor(Class<?> rootClass) {
+        if (segments.isEmpty()) {
+            return null;
+        }
+        return accessors.get(rootClass).orElse(null);
+    }
+
+    private MethodHandle compile(Class<?> rootClass) {
+        if (rootClass == Class.class) {
+            // SpEL resolves static members of type references
+            return null;
+        }
+        MethodHandle accessor = null;
+        Class<?> type = rootClass;
+        for (Segment segment : segments) {
+            Method method = segment.isMethod() ? findMethod(type, segment.getName()) : findGetter(type, segment.getName());
+            if (isNull(method)) {
+                return null;
+            }
+            MethodHandle handle = unreflect(method);
+            if (isNull(handle)) {
+                return null;
+            }
+            Class<?> returnType = ClassUtils.resolvePrimitiveIfNecessary(method.getReturnType());
+            handle = handle.asType(MethodType.methodType(returnType, type));
+            accessor = isNull(accessor) ? handle : MethodHandles.filterReturnValue(accessor, handle);
+            type = returnType;
+        }
+        return accessor.asType(ACCESSOR_TYPE);
+    }
+
+    private Method findGetter(Class<?> type, String name) {
+        String suffix = StringUtils.capitalize(name);
+        Method getter = findMethod(type, "get" + suffix);
+        if (isNull(getter)) {
+            getter = findMethod(type, "is" + suffix);
+            if (isNull(getter) || ClassUtils.resolvePrimitiveIfNecessary(getter.getReturnType()) != Boolean.class) {
+                return null;
+            }
+        }
+        return getter;
+    }
+
+    private Method findMethod(Class<?> type, String name) {
+        try {
+            Method method = type.getMethod(name);
+            if (Modifier.isStatic(method.getModifiers()) || method.getReturnType() == void.class) {
+                return null;
+            }
+            return method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private MethodHandle unreflect(Method method) {
+        try {
+            if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            return MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    static final class Segment {
+
+        private final String name;
+        private final boolean method;
+
+        Segment(String name, boolean method) {
+            this.name = name;
+            this.method = method;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        boolean isMethod() {
+            return method;
+        }
+    }
+}
@@ -36,7 +36,14 @@ public final class ReversedBridgeMethodResolver {
     }
 
     Method findBridgeMethod(Method original) {
-        List<Method> candidates = Stream.of(original.getDeclaringClass().getDeclaredMethods())
+        return findBridgeMethod(original, original.getDeclaringClass().getDeclaredMethods());
+    }
+
+    /**
+     * @param declaredMethods methods declared by the class of the original method, may be reused for all its methods
+     */
+    Method findBridgeMethod(Method original, Method[] declaredMethods) {
+        List<Method> candidates = Stream.of(declaredMethods)
                 .filter(Method::isBridge)
                 .filter(candidate -> byName(original, candidate))
                 .filter(candidate -> byParameters(original, candidate))
@@ -38,12 +38,18 @@ public class ErrorLog implements LogDefinition {
     private final LogLevel ifEnabledLevel;
     private final LogLevel verboseLevel;
     private final Filter filter;
+    private final Sampling sampling;
 
     public ErrorLog(LogLevel level, LogLevel ifEnabledLevel, LogLevel verboseLevel, Filter filter) {
+        this(level, ifEnabledLevel, verboseLevel, filter, Sampling.ALL);
+    }
+
+    public ErrorLog(LogLevel level, LogLevel ifEnabledLevel, LogLevel verboseLevel, Filter filter, Sampling sampling) {
         this.level = level;
         this.ifEnabledLevel = ifEnabledLevel;
         this.verboseLevel = verboseLevel;
         this.filter = filter;
+        this.sampling = sampling;
     }
 
     @Override
@@ -61,6 +67,10 @@ public class ErrorLog implements LogDefinition {
         return verboseLevel;
     }
 
+    public Sampling getSampling() {
+        return sampling;
+    }
+
     public Set<Class<? extends Throwable>> getIncludes() {
         return filter.getIncludes();
     }
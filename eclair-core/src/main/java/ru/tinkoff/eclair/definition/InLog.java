@@ -34,12 +34,18 @@ public class InLog implements LogDefinition {
     private final LogLevel ifEnabledLevel;
     private final LogLevel verboseLevel;
     private final List<Printer> printers;
+    private final Sampling sampling;
 
     public InLog(LogLevel level, LogLevel ifEnabledLevel, LogLevel verboseLevel, List<Printer> printers) {
+        this(level, ifEnabledLevel, verboseLevel, printers, Sampling.ALL);
+    }
+
+    public InLog(LogLevel level, LogLevel ifEnabledLevel, LogLevel verboseLevel, List<Printer> printers, Sampling sampling) {
         this.level = level;
         this.ifEnabledLevel = ifEnabledLevel;
         this.verboseLevel = verboseLevel;
         this.printers = unmodifiableList(printers);
+        this.sampling = sampling;
     }
 
     @Override
@@ -57,6 +63,10 @@ public class InLog implements LogDefinition {
         return verboseLevel;
     }
 
+    public Sampling getSampling() {
+        return sampling;
+    }
+
     public List<Printer> getPrinters() {
         return printers;
     }
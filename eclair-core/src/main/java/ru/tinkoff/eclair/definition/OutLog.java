@@ -30,12 +30,18 @@ public class OutLog implements LogDefinition {
     private final LogLevel ifEnabledLevel;
     private final LogLevel verboseLevel;
     private final Printer printer;
+    private final Sampling sampling;
 
     public OutLog(LogLevel level, LogLevel ifEnabledLevel, LogLevel verboseLevel, Printer printer) {
+        this(level, ifEnabledLevel, verboseLevel, printer, Sampling.ALL);
+    }
+
+    public OutLog(LogLevel level, LogLevel ifEnabledLevel, LogLevel verboseLevel, Printer printer, Sampling sampling) {
         this.level = level;
         this.ifEnabledLevel = ifEnabledLevel;
         this.verboseLevel = verboseLevel;
         this.printer = printer;
+        this.sampling = sampling;
     }
 
     @Override
@@ -53,6 +59,10 @@ public class OutLog implements LogDefinition {
         return verboseLevel;
     }
 
+    public Sampling getSampling() {
+        return sampling;
+    }
+
     public Printer getPrinter() {
         return printer;
     }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.definition;
+
+/**
+ * Simple DTO matches to sampling attributes of @Log, @Log.in, @Log.out and @Log.error annotations.
+ * @see ru.tinkoff.eclair.annotation.Log#sampleRate()
+ */
+public class Sampling {
+
+    /**
+     * Sampling that logs every event.
+     */
+    public static final Sampling ALL = new Sampling(1, 0, 0, 1);
+
+    private final double rate;
+    private final int rateLimit;
+    private final int first;
+    private final int every;
+
+    public Sampling(double rate, int rateLimit, int first, int every) {
+        this.rate = rate;
+        this.rateLimit = rateLimit;
+        this.first = first;
+        this.every = every;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public int getRateLimit() {
+        return rateLimit;
+    }
+
+    public int getFirst() {
+        return first;
+    }
+
+    public int getEvery() {
+        return every;
+    }
+
+    /**
+     * @return {@code true} if every event should be logged
+     */
+    public boolean isAll() {
+        return rate >= 1 && rateLimit <= 0 && every <= 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Sampling sampling = (Sampling) o;
+        return Double.compare(sampling.rate, rate) == 0 &&
+                rateLimit == sampling.rateLimit &&
+                first == sampling.first &&
+                every == sampling.every;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(rate);
+        result = 31 * result + rateLimit;
+        result = 31 * result + first;
+        result = 31 * result + every;
+        return result;
+    }
+}
@@ -32,7 +32,8 @@ public class ErrorLogFactory {
                 AnnotationAttribute.LEVEL.extract(logError),
                 logError.ifEnabled(),
                 logError.verbose(),
-                errorFilterFactory.buildErrorFilter(logError.ofType(), logError.exclude())
+                errorFilterFactory.buildErrorFilter(logError.ofType(), logError.exclude()),
+                SamplingFactory.newInstance(logError)
         );
     }
 }
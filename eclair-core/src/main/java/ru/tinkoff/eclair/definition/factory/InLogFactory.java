@@ -32,7 +32,8 @@ public class InLogFactory {
                 AnnotationAttribute.LEVEL.extract(logIn),
                 logIn.ifEnabled(),
                 logIn.verbose(),
-                printers
+                printers,
+                SamplingFactory.newInstance(logIn)
         );
     }
 }
@@ -30,7 +30,8 @@ public class OutLogFactory {
                 AnnotationAttribute.LEVEL.extract(logOut),
                 logOut.ifEnabled(),
                 logOut.verbose(),
-                printer
+                printer,
+                SamplingFactory.newInstance(logOut)
         );
     }
 }
@@ -59,6 +59,7 @@ public class MethodLog implements MethodDefinition {
     private final List<ParameterLog> parameterLogs;
     private final OutLog outLog;
     private final Set<ErrorLog> errorLogs;
+    private final ResultType resultType;
 
     public MethodLog(Method method,
                      List<String> parameterNames,
@@ -72,6 +73,7 @@ public class MethodLog implements MethodDefinition {
         this.parameterLogs = unmodifiableList(parameterLogs);
         this.outLog = outLog;
         this.errorLogs = unmodifiableSet(errorLogs);
+        this.resultType = ResultType.resolve(method.getReturnType());
     }
 
     @Override
@@ -95,6 +97,17 @@ public class MethodLog implements MethodDefinition {
         return outLog;
     }
 
+    public Set<ErrorLog> getErrorLogs() {
+        return errorLogs;
+    }
+
+    /**
+     * @return kind of the declared return type, which determines the moment of 'out'- and 'error'-events logging
+     */
+    public ResultType getResultType() {
+        return resultType;
+    }
+
     public ErrorLog findErrorLog(Class<? extends Throwable> causeClass) {
         ErrorLog found = errorLogCache.get(causeClass);
         if (nonNull(found)) {
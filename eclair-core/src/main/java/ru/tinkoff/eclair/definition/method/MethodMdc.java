@@ -20,11 +20,13 @@ import ru.tinkoff.eclair.definition.ParameterMdc;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
 import static java.util.Collections.unmodifiableList;
 import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.isNull;
 
 /**
  * Composite DTO matches to set of @Mdc annotations defined on {@link Method} and its {@link Parameter}s.
@@ -38,6 +40,7 @@ public class MethodMdc implements MethodDefinition {
     private final List<String> parameterNames;
     private final Set<ParameterMdc> methodDefinitions;
     private final List<Set<ParameterMdc>> parameterDefinitions;
+    private final List<Entry> entries;
 
     public MethodMdc(Method method,
                      List<String> parameterNames,
@@ -47,6 +50,57 @@ public class MethodMdc implements MethodDefinition {
         this.parameterNames = unmodifiableList(parameterNames);
         this.methodDefinitions = unmodifiableSet(methodDefinitions);
         this.parameterDefinitions = unmodifiableList(parameterDefinitions);
+        this.entries = unmodifiableList(buildEntries());
+    }
+
+    /**
+     * Keys are synthesized once in the same order as MDC is populated at invocation time:
+     * method-level definitions first, then parameter-level ones.
+     */
+    private List<Entry> buildEntries() {
+        List<Entry> result = new ArrayList<>();
+        String methodName = method.getName();
+        for (ParameterMdc definition : methodDefinitions) {
+            String key = definition.getKey().isEmpty() ? methodName : definition.getKey();
+            String expressionString = definition.getExpressionString();
+            if (!expressionString.isEmpty()) {
+                result.add(new Entry(key, expressionString, Entry.NO_ARGUMENT, definition.isGlobal()));
+                continue;
+            }
+            for (int a = 0; a < method.getParameterCount(); a++) {
+                String parameterName = getParameterName(a);
+                String argumentKey;
+                if (isNull(parameterName)) {
+                    argumentKey = synthesizeKey(key, String.valueOf(a));
+                } else if (definition.getKey().isEmpty()) {
+                    argumentKey = parameterName;
+                } else {
+                    argumentKey = synthesizeKey(key, parameterName);
+                }
+                result.add(new Entry(argumentKey, expressionString, a, definition.isGlobal()));
+            }
+        }
+        for (int a = 0; a < parameterDefinitions.size(); a++) {
+            for (ParameterMdc definition : parameterDefinitions.get(a)) {
+                String key = definition.getKey();
+                if (key.isEmpty()) {
+                    key = getParameterName(a);
+                    if (isNull(key)) {
+                        key = synthesizeKey(methodName, String.valueOf(a));
+                    }
+                }
+                result.add(new Entry(key, definition.getExpressionString(), a, definition.isGlobal()));
+            }
+        }
+        return result;
+    }
+
+    private String getParameterName(int index) {
+        return index < parameterNames.size() ? parameterNames.get(index) : null;
+    }
+
+    private String synthesizeKey(String prefix, String name) {
+        return prefix + "[" + name + "]";
     }
 
     @Override
@@ -65,4 +119,54 @@ public class MethodMdc implements MethodDefinition {
     public List<Set<ParameterMdc>> getParameterDefinitions() {
         return parameterDefinitions;
     }
+
+    /**
+     * @return flat list of MDC entries with final keys in order of population
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Single MDC key-value pair populated on the method invocation.
+     */
+    public static final class Entry {
+
+        public static final int NO_ARGUMENT = -1;
+
+        private final String key;
+        private final String expressionString;
+        private final int argumentIndex;
+        private final boolean global;
+
+        Entry(String key, String expressionString, int argumentIndex, boolean global) {
+            this.key = key;
+            this.expressionString = expressionString;
+            this.argumentIndex = argumentIndex;
+            this.global = global;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return expression to evaluate (with the argument as root object if {@link #getArgumentIndex()} is specified),
+         * empty string to use the argument itself
+         */
+        public String getExpressionString() {
+            return expressionString;
+        }
+
+        /**
+         * @return index of the argument or {@link #NO_ARGUMENT}
+         */
+        public int getArgumentIndex() {
+            return argumentIndex;
+        }
+
+        public boolean isGlobal() {
+            return global;
+        }
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.definition.method;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Kind of the declared return type of the loggable method.
+ * Asynchronous results are logged on completion instead of return.
+ */
+public enum ResultType {
+
+    SYNCHRONOUS(false),
+    /**
+     * {@link CompletionStage} and its implementations, e.g. {@link java.util.concurrent.CompletableFuture}.
+     */
+    COMPLETION_STAGE(true),
+    LISTENABLE_FUTURE(true),
+    /**
+     * {@code reactor.core.publisher.Mono}, resolved only if Reactor 3.4+ is present in classpath.
+     */
+    MONO(true),
+    /**
+     * {@code reactor.core.publisher.Flux}, resolved only if Reactor 3.4+ is present in classpath.
+     */
+    FLUX(true);
+
+    private static final boolean reactorPresent = nonNull(findClass("reactor.util.context.ContextView"));
+    private static final Class<?> monoClass = reactorPresent ? findClass("reactor.core.publisher.Mono") : null;
+    private static final Class<?> fluxClass = reactorPresent ? findClass("reactor.core.publisher.Flux") : null;
+
+    private final boolean async;
+
+    ResultType(boolean async) {
+        this.async = async;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public boolean isReactive() {
+        return this == MONO || this == FLUX;
+    }
+
+    public static ResultType resolve(Class<?> returnType) {
+        if (CompletionStage.class.isAssignableFrom(returnType)) {
+            return COMPLETION_STAGE;
+        }
+        if (ListenableFuture.class.isAssignableFrom(returnType)) {
+            return LISTENABLE_FUTURE;
+        }
+        if (nonNull(monoClass) && monoClass.isAssignableFrom(returnType)) {
+            return MONO;
+        }
+        if (nonNull(fluxClass) && fluxClass.isAssignableFrom(returnType)) {
+            return FLUX;
+        }
+        return SYNCHRONOUS;
+    }
+
+    /**
+     * Resolves the type of the value logged by 'out'-event of the method, which is the declared return type of synchronous
+     * results, the type of the value of {@link CompletionStage}, {@link ListenableFuture} or {@code Mono},
+     * and {@link Long} count of elements of {@code Flux}.
+     *
+     * @return {@link Object} if the type of the asynchronous value is not declared
+     */
+    public static Class<?> resolveLoggedType(Method method) {
+        Class<?> returnType = method.getReturnType();
+        ResultType resultType = resolve(returnType);
+        switch (resultType) {
+            case SYNCHRONOUS:
+                return returnType;
+            case FLUX:
+                return Long.class;
+            default:
+                Class<?> asyncClass = resultType == COMPLETION_STAGE ? CompletionStage.class :
+                        resultType == LISTENABLE_FUTURE ? ListenableFuture.class : monoClass;
+                Class<?> valueType = ResolvableType.forMethodReturnType(method).as(asyncClass).resolveGeneric(0);
+                return isNull(valueType) ? Object.class : valueType;
+        }
+    }
+
+    private static Class<?> findClass(String className) {
+        ClassLoader classLoader = ResultType.class.getClassLoader();
+        return ClassUtils.isPresent(className, classLoader) ? ClassUtils.resolveClassName(className, classLoader) : null;
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.logging.LogLevel;
+import ru.tinkoff.eclair.definition.method.MethodLog;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * {@link EclairLogger} performing the logging of 'in'-, 'out'- and 'error'-events by background threads,
+ * so that printing of arguments and results does not delay the loggable method.
+ * Levels are checked by the invoking thread, which puts the invocation snapshot with the copy of {@link MDC}
+ * into the bounded ring of pre-allocated snapshots. Then it is logged by {@link SimpleLogger} in the background.
+ * <p>
+ * Each invoking thread is bound to the single ring and background thread, so events of one thread are logged in order.
+ * If the ring is full, snapshot is processed according to {@link OverflowPolicy}.
+ * On {@link #destroy()} accepted snapshots are drained and all further events are logged synchronously.
+ * <p>
+ * Note: arguments and results are printed in the state at the moment of printing,
+ * thread name and timestamp of logging events are ones of background threads.
+ * The time of the event itself is put into {@link MDC} by {@link #setTimestampMdcKey(String)} in ISO-8601 format.
+ * Manual logging is always performed synchronously.
+ *
+ * @see SimpleLogger
+ */
+public class AsyncLogger extends EclairLogger implements ManualLogger, DisposableBean {
+
+    /**
+     * Behavior of the invoking thread when the ring is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait for space in the ring.
+         */
+        BLOCK,
+        /**
+         * Discard the new event.
+         */
+        DROP_NEWEST,
+        /**
+         * Discard the oldest event of the ring.
+         */
+        DROP_OLDEST,
+        /**
+         * Log the new event by the invoking thread.
+         */
+        SYNCHRONOUS
+    }
+
+    public static final String DEFAULT_TIMESTAMP_MDC_KEY = "eclair.timestamp";
+
+    private static final String THREAD_NAME_PREFIX = "eclair-async-logger-";
+
+    private final SimpleLogger simpleLogger;
+    private final InvocationRing[] rings;
+    private final Thread[] threads;
+
+    private final LongAdder droppedCounter = new LongAdder();
+    private final LongAdder synchronousCounter = new LongAdder();
+    private final LongAdder failedCounter = new LongAdder();
+
+    private long shutdownTimeoutMillis = TimeUnit.SECONDS.toMillis(10);
+    private String timestampMdcKey = DEFAULT_TIMESTAMP_MDC_KEY;
+
+    public AsyncLogger(SimpleLogger simpleLogger) {
+        this(simpleLogger, 1024, 1, OverflowPolicy.SYNCHRONOUS);
+    }
+
+    /**
+     * @param simpleLogger   logger performing the logging in the background
+     * @param bufferSize     capacity of the ring of each thread
+     * @param threads        count of background threads
+     * @param overflowPolicy behavior of the invoking thread when the ring is full
+     */
+    public AsyncLogger(SimpleLogger simpleLogger, int bufferSize, int threads, OverflowPolicy overflowPolicy) {
+        if (bufferSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("Buffer size and count of threads should be positive");
+        }
+        this.simpleLogger = simpleLogger;
+        this.rings = new InvocationRing[threads];
+        this.threads = new Thread[threads];
+        for (int a = 0; a < threads; a++) {
+            InvocationRing ring = new InvocationRing(bufferSize, overflowPolicy, droppedCounter);
+            Thread thread = new Thread(() -> consume(ring), THREAD_NAME_PREFIX + a);
+            thread.setDaemon(true);
+            rings[a] = ring;
+            this.threads[a] = thread;
+        }
+        for (Thread thread : this.threads) {
+            thread.start();
+        }
+    }
+
+    /**
+     * @param shutdownTimeoutMillis maximum time to drain accepted events on {@link #destroy()}
+     */
+    public void setShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    /**
+     * @param timestampMdcKey MDC key of the time of the event captured by the invoking thread, {@code null} to omit it
+     */
+    public void setTimestampMdcKey(String timestampMdcKey) {
+        this.timestampMdcKey = timestampMdcKey;
+    }
+
+    /**
+     * @return count of events discarded by {@link OverflowPolicy#DROP_NEWEST} or {@link OverflowPolicy#DROP_OLDEST}
+     */
+    public long getDroppedCount() {
+        return droppedCounter.sum();
+    }
+
+    /**
+     * @return count of events logged by invoking threads because of overflow or shutdown
+     */
+    public long getSynchronousCount() {
+        return synchronousCounter.sum();
+    }
+
+    /**
+     * @return count of events failed to be logged in the background
+     */
+    public long getFailedCount() {
+        return failedCounter.sum();
+    }
+
+    @Override
+    public boolean isLogEnabled(LogLevel level) {
+        return simpleLogger.isLogEnabled(level);
+    }
+
+    @Override
+    public void log(LogLevel level, LogLevel ifEnabledLevel, String format, Object... arguments) {
+        simpleLogger.log(level, ifEnabledLevel, format, arguments);
+    }
+
+    @Override
+    protected String getLoggerName(MethodInvocation invocation) {
+        return simpleLogger.getLoggerName(invocation);
+    }
+
+    @Override
+    protected boolean isLogInNecessary(MethodInvocation invocation, MethodLog methodLog) {
+        return simpleLogger.isLogInEnabled(invocation, methodLog);
+    }
+
+    @Override
+    protected void logIn(MethodInvocation invocation, MethodLog methodLog) {
+        if (!offer(InvocationSnapshot.Event.IN, invocation, methodLog, null, null)) {
+            simpleLogger.logIn(invocation, methodLog);
+        }
+    }
+
+    @Override
+    protected boolean isLogOutNecessary(MethodInvocation invocation, MethodLog methodLog) {
+        return simpleLogger.isLogOutEnabled(invocation, methodLog);
+    }
+
+    @Override
+    protected void logOut(MethodInvocation invocation, MethodLog methodLog, Object result) {
+        if (!offer(InvocationSnapshot.Event.OUT, invocation, methodLog, result, null)) {
+            simpleLogger.logOut(invocation, methodLog, result);
+        }
+    }
+
+    @Override
+    protected boolean isLogErrorNecessary(MethodInvocation invocation, MethodLog methodLog, Throwable throwable) {
+        return simpleLogger.isLogErrorEnabled(invocation, methodLog, throwable);
+    }
+
+    @Override
+    protected void logError(MethodInvocation invocation, MethodLog methodLog, Throwable throwable) {
+        if (!offer(InvocationSnapshot.Event.ERROR, invocation, methodLog, null, throwable)) {
+            simpleLogger.logError(invocation, methodLog, throwable);
+        }
+    }
+
+    /**
+     * @return {@code false} if the event should be logged synchronously
+     */
+    private boolean offer(InvocationSnapshot.Event event, MethodInvocation invocation, MethodLog methodLog,
+                          Object result, Throwable throwable) {
+        InvocationRing ring = rings[(int) (Thread.currentThread().getId() % rings.length)];
+        InvocationRing.Offer offer = ring.offer(event, invocation, methodLog, result, throwable, MDC.getCopyOfContextMap());
+        if (offer == InvocationRing.Offer.REJECTED) {
+            synchronousCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private void consume(InvocationRing ring) {
+        InvocationSnapshot snapshot = new InvocationSnapshot();
+        try {
+            while (ring.take(snapshot)) {
+                log(snapshot);
+                snapshot.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Any failure of the event (e.g. {@link StackOverflowError} of cyclic {@code toString()}) is only counted,
+     * so that the thread keeps consuming the ring and invoking threads are never blocked by it forever.
+     */
+    private void log(InvocationSnapshot snapshot) {
+        try {
+            Map<String, String> mdc = snapshot.getMdc();
+            if (isNull(mdc)) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(mdc);
+            }
+            if (nonNull(timestampMdcKey)) {
+                MDC.put(timestampMdcKey, Instant.ofEpochMilli(snapshot.getTimestamp()).toString());
+            }
+            switch (snapshot.getEvent()) {
+                case IN:
+                    simpleLogger.logIn(snapshot, snapshot.getMethodLog());
+                    break;
+                case OUT:
+                    simpleLogger.logOut(snapshot, snapshot.getMethodLog(), snapshot.getResult());
+                    break;
+                case ERROR:
+                    simpleLogger.logError(snapshot, snapshot.getMethodLog(), snapshot.getThrowable());
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected event: " + snapshot.getEvent());
+            }
+        } catch (Throwable throwable) {
+            failedCounter.increment();
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    /**
+     * Stops accepting events, waits for background threads to log already accepted ones and destroys delegate logger.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        for (InvocationRing ring : rings) {
+            ring.close();
+        }
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMillis;
+        for (Thread thread : threads) {
+            thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            if (thread.isAlive()) {
+                thread.interrupt();
+            }
+        }
+        simpleLogger.destroy();
+    }
+}
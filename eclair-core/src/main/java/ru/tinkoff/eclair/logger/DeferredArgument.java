@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger;
+
+import ru.tinkoff.eclair.printer.Printer;
+import ru.tinkoff.eclair.printer.resolver.PrinterResolver;
+
+/**
+ * Logging event argument printed by {@link #toString()}, i.e. only when (and where) the event is formatted by appender.
+ * Printed value is memoized, so several appenders do not repeat the printing.
+ *
+ * @see SimpleLogger#setDeferredRendering(boolean)
+ */
+final class DeferredArgument {
+
+    private final Printer printer;
+
+    private Object value;
+    private String printed;
+
+    DeferredArgument(Printer printer, Object value) {
+        this.printer = printer;
+        this.value = value;
+    }
+
+    @Override
+    public String toString() {
+        String result = printed;
+        if (result == null) {
+            synchronized (this) {
+                result = printed;
+                if (result == null) {
+                    result = print(value);
+                    printed = result;
+                    value = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    private String print(Object value) {
+        try {
+            return printer.print(value);
+        } catch (Exception e) {
+            return PrinterResolver.defaultPrinter.print(value);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger;
+
+import org.springframework.boot.logging.LogLevel;
+import ru.tinkoff.eclair.definition.InLog;
+import ru.tinkoff.eclair.definition.OutLog;
+import ru.tinkoff.eclair.definition.ParameterLog;
+import ru.tinkoff.eclair.definition.method.MethodLog;
+import ru.tinkoff.eclair.logger.facade.LoggerFacade;
+import ru.tinkoff.eclair.logger.level.EffectiveLevelCache;
+import ru.tinkoff.eclair.printer.Printer;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static ru.tinkoff.eclair.logger.LevelSensitiveLogger.expectedLevelResolver;
+
+/**
+ * Immutable per-method result of all {@link SimpleLogger} decisions that do not depend on the current invocation:
+ * logger name with its bound {@link LoggerFacade} and {@link EffectiveLevelCache.Entry}, expected levels,
+ * parameter names and printers.
+ * Compiled once by the first invocation of the method, so that each next one only checks levels and prints arguments.
+ *
+ * @see SimpleLogger
+ */
+final class InvocationPlan {
+
+    private final String loggerName;
+    private final LoggerFacade loggerFacade;
+    private final EffectiveLevelCache.Entry effectiveLevelEntry;
+
+    private final InLog inLog;
+    private final LogLevel inLogExpectedLevel;
+
+    private final int[] loggableParameterIndexes;
+    private final boolean parameterLogFound;
+    private final ParameterLog[] parameterLogs;
+    private final LogLevel[] parameterLogExpectedLevels;
+    private final Printer[] printers;
+    private final String[] parameterNames;
+    private final String[] parameterIndexes;
+
+    private final OutLog outLog;
+    private final LogLevel outLogExpectedLevel;
+    private final boolean voidReturnType;
+
+    private InvocationPlan(String loggerName,
+                           LoggerFacade loggerFacade,
+                           EffectiveLevelCache.Entry effectiveLevelEntry,
+                           MethodLog methodLog,
+                           Method method) {
+        this.loggerName = loggerName;
+        this.loggerFacade = loggerFacade;
+        this.effectiveLevelEntry = effectiveLevelEntry;
+
+        this.inLog = methodLog.getInLog();
+        this.inLogExpectedLevel = isNull(inLog) ? null : expectedLevelResolver.apply(inLog);
+
+        List<ParameterLog> parameterLogList = methodLog.getParameterLogs();
+        List<String> parameterNameList = methodLog.getParameterNames();
+        int count = parameterLogList.size();
+        this.parameterLogs = parameterLogList.toArray(new ParameterLog[count]);
+        this.parameterLogExpectedLevels = new LogLevel[count];
+        this.printers = new Printer[count];
+        this.parameterNames = new String[count];
+        this.parameterIndexes = new String[count];
+        boolean parameterLogFound = false;
+        for (int a = 0; a < count; a++) {
+            ParameterLog parameterLog = parameterLogs[a];
+            if (nonNull(parameterLog)) {
+                parameterLogFound = true;
+                parameterLogExpectedLevels[a] = expectedLevelResolver.apply(parameterLog);
+                printers[a] = parameterLog.getPrinter();
+            } else if (nonNull(inLog) && a < inLog.getPrinters().size()) {
+                printers[a] = inLog.getPrinters().get(a);
+            }
+            parameterNames[a] = isNull(parameterNameList) ? null : parameterNameList.get(a);
+            parameterIndexes[a] = Integer.toString(a);
+        }
+        this.parameterLogFound = parameterLogFound;
+        // without 'inLog' only parameters annotated by themselves could be logged
+        this.loggableParameterIndexes = IntStream.range(0, count)
+                .filter(a -> nonNull(inLog) || nonNull(parameterLogs[a]))
+                .toArray();
+
+        this.outLog = methodLog.getOutLog();
+        this.outLogExpectedLevel = isNull(outLog) ? null : expectedLevelResolver.apply(outLog);
+        Class<?> returnType = method.getReturnType();
+        this.voidReturnType = returnType == void.class || returnType == Void.class;
+    }
+
+    static InvocationPlan compile(String loggerName,
+                                  LoggerFacade loggerFacade,
+                                  EffectiveLevelCache.Entry effectiveLevelEntry,
+                                  MethodLog methodLog,
+                                  Method method) {
+        return new InvocationPlan(loggerName, loggerFacade, effectiveLevelEntry, methodLog, method);
+    }
+
+    String getLoggerName() {
+        return loggerName;
+    }
+
+    LoggerFacade getLoggerFacade() {
+        return loggerFacade;
+    }
+
+    /**
+     * @return cache entry of the logger or {@code null} if levels are not cached
+     */
+    EffectiveLevelCache.Entry getEffectiveLevelEntry() {
+        return effectiveLevelEntry;
+    }
+
+    InLog getInLog() {
+        return inLog;
+    }
+
+    LogLevel getInLogExpectedLevel() {
+        return inLogExpectedLevel;
+    }
+
+    /**
+     * @return ascending indexes of parameters which could be logged with some level configuration
+     */
+    int[] getLoggableParameterIndexes() {
+        return loggableParameterIndexes;
+    }
+
+    boolean isParameterLogFound() {
+        return parameterLogFound;
+    }
+
+    ParameterLog getParameterLog(int index) {
+        return parameterLogs[index];
+    }
+
+    LogLevel getParameterLogExpectedLevel(int index) {
+        return parameterLogExpectedLevels[index];
+    }
+
+    Printer getPrinter(int index) {
+        return printers[index];
+    }
+
+    String getParameterName(int index) {
+        return parameterNames[index];
+    }
+
+    String getParameterIndex(int index) {
+        return parameterIndexes[index];
+    }
+
+    OutLog getOutLog() {
+        return outLog;
+    }
+
+    LogLevel getOutLogExpectedLevel() {
+        return outLogExpectedLevel;
+    }
+
+    boolean isVoidReturnType() {
+        return voidReturnType;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger;
+
+import org.aopalliance.intercept.MethodInvocation;
+import ru.tinkoff.eclair.definition.method.MethodLog;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ring of pre-allocated {@link InvocationSnapshot}s with single consumer.
+ *
+ * @see AsyncLogger
+ */
+final class InvocationRing {
+
+    enum Offer {
+        /**
+         * Snapshot is put into the ring.
+         */
+        ACCEPTED,
+        /**
+         * Snapshot is dropped according to overflow policy.
+         */
+        DROPPED,
+        /**
+         * Ring is full or closed, snapshot should be logged by invoker.
+         */
+        REJECTED
+    }
+
+    private final InvocationSnapshot[] snapshots;
+    private final AsyncLogger.OverflowPolicy overflowPolicy;
+    private final LongAdder droppedCounter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private int head;
+    private int tail;
+    private int count;
+    private boolean closed;
+
+    InvocationRing(int capacity, AsyncLogger.OverflowPolicy overflowPolicy, LongAdder droppedCounter) {
+        this.snapshots = new InvocationSnapshot[capacity];
+        for (int a = 0; a < capacity; a++) {
+            snapshots[a] = new InvocationSnapshot();
+        }
+        this.overflowPolicy = overflowPolicy;
+        this.droppedCounter = droppedCounter;
+    }
+
+    Offer offer(InvocationSnapshot.Event event, MethodInvocation invocation, MethodLog methodLog, Object result,
+                Throwable throwable, Map<String, String> mdc) {
+        lock.lock();
+        try {
+            while (!closed && count == snapshots.length) {
+                switch (overflowPolicy) {
+                    case BLOCK:
+                        try {
+                            notFull.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return Offer.REJECTED;
+                        }
+                        break;
+                    case DROP_NEWEST:
+                        droppedCounter.increment();
+                        return Offer.DROPPED;
+                    case DROP_OLDEST:
+                        snapshots[head].clear();
+                        head = next(head);
+                        count--;
+                        droppedCounter.increment();
+                        break;
+                    case SYNCHRONOUS:
+                        return Offer.REJECTED;
+                    default:
+                        throw new IllegalStateException("Unexpected overflow policy: " + overflowPolicy);
+                }
+            }
+            if (closed) {
+                return Offer.REJECTED;
+            }
+            snapshots[tail].set(event, invocation, methodLog, result, throwable, mdc);
+            tail = next(tail);
+            count++;
+            notEmpty.signal();
+            return Offer.ACCEPTED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the oldest snapshot into the specified one, waiting if necessary.
+     *
+     * @return {@code false} if the ring is closed and drained
+     */
+    boolean take(InvocationSnapshot snapshot) throws InterruptedException {
+        lock.lock();
+        try {
+            while (count == 0) {
+                if (closed) {
+                    return false;
+                }
+                notEmpty.await();
+            }
+            snapshots[head].moveTo(snapshot);
+            head = next(head);
+            count--;
+            notFull.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rejects all further offers, but leaves already accepted snapshots for draining.
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int next(int index) {
+        return index + 1 == snapshots.length ? 0 : index + 1;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger;
+
+import org.aopalliance.intercept.MethodInvocation;
+import ru.tinkoff.eclair.definition.method.MethodLog;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Reusable snapshot of the loggable method invocation, which is enough for {@link SimpleLogger} to log it later.
+ * Note: arguments and result are held by reference and printed in the state at the moment of printing,
+ * while the time of the event is captured by the invoking thread.
+ *
+ * @see AsyncLogger
+ */
+final class InvocationSnapshot implements MethodInvocation {
+
+    enum Event {
+        IN, OUT, ERROR
+    }
+
+    private Event event;
+    private Method method;
+    private Object[] arguments;
+    private Object target;
+    private MethodLog methodLog;
+    private Object result;
+    private Throwable throwable;
+    private Map<String, String> mdc;
+    private long timestamp;
+
+    void set(Event event, MethodInvocation invocation, MethodLog methodLog, Object result, Throwable throwable,
+             Map<String, String> mdc) {
+        this.event = event;
+        this.method = invocation.getMethod();
+        this.arguments = event == Event.IN ? invocation.getArguments().clone() : invocation.getArguments();
+        this.target = invocation.getThis();
+        this.methodLog = methodLog;
+        this.result = result;
+        this.throwable = throwable;
+        this.mdc = mdc;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    void moveTo(InvocationSnapshot snapshot) {
+        snapshot.event = event;
+        snapshot.method = method;
+        snapshot.arguments = arguments;
+        snapshot.target = target;
+        snapshot.methodLog = methodLog;
+        snapshot.result = result;
+        snapshot.throwable = throwable;
+        snapshot.mdc = mdc;
+        snapshot.timestamp = timestamp;
+        clear();
+    }
+
+    void clear() {
+        event = null;
+        method = null;
+        arguments = null;
+        target = null;
+        methodLog = null;
+        result = null;
+        throwable = null;
+        mdc = null;
+        timestamp = 0;
+    }
+
+    Event getEvent() {
+        return event;
+    }
+
+    MethodLog getMethodLog() {
+        return methodLog;
+    }
+
+    Object getResult() {
+        return result;
+    }
+
+    Throwable getThrowable() {
+        return throwable;
+    }
+
+    Map<String, String> getMdc() {
+        return mdc;
+    }
+
+    /**
+     * @return milliseconds since the epoch at the moment of the event
+     */
+    long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public Method getMethod() {
+        return method;
+    }
+
+    @Override
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public Object proceed() {
+        throw new UnsupportedOperationException("Snapshot of invocation could not be proceeded");
+    }
+
+    @Override
+    public Object getThis() {
+        return target;
+    }
+
+    @Override
+    public AccessibleObject getStaticPart() {
+        return method;
+    }
+}
@@ -16,6 +16,7 @@
 package ru.tinkoff.eclair.logger;
 
 import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.boot.logging.LogLevel;
 import org.springframework.boot.logging.LoggingSystem;
 import ru.tinkoff.eclair.core.LoggerNameBuilder;
@@ -28,11 +29,19 @@ import ru.tinkoff.eclair.logger.collector.*;
 import ru.tinkoff.eclair.logger.facade.LoggerFacade;
 import ru.tinkoff.eclair.logger.facade.LoggerFacadeFactory;
 import ru.tinkoff.eclair.logger.facade.Slf4JLoggerFacadeFactory;
+import ru.tinkoff.eclair.logger.level.EffectiveLevelCache;
 import ru.tinkoff.eclair.printer.Printer;
 import ru.tinkoff.eclair.printer.resolver.PrinterResolver;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
+import static java.util.Arrays.copyOf;
+import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static org.springframework.boot.logging.LogLevel.OFF;
@@ -41,12 +50,15 @@ import static org.springframework.boot.logging.LogLevel.OFF;
  * Standard {@link EclairLogger} implementation for AOP and manual level-specific logging.
  * Performs logging into target defined by {@link #loggerFacadeFactory}.
  * Determines context-specific configuration using {@link #loggingSystem}.
+ * Effective levels may be cached by {@link EffectiveLevelCache} set via {@link #setEffectiveLevelCache(EffectiveLevelCache)}
+ * or checked natively by {@link LoggerFacade} if {@link #setLoggerFacadeLevelCheck(boolean)} is enabled.
  *
  * @author Vyacheslav Klapatnyuk
  * @see LoggerFacadeFactory
  * @see LoggingSystem
+ * @see EffectiveLevelCache
  */
-public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger {
+public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger, DisposableBean {
 
     /**
      * Token indicating 'in'-event (beginning of method execution) in the log.
@@ -64,6 +76,10 @@ public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger {
      * Token indicating manual logging event.
      */
     private static final String MANUAL = "-";
+    /**
+     * Placeholder of deferred argument in the format string.
+     */
+    private static final String PLACEHOLDER = "{}";
 
     private final LoggerNameBuilder loggerNameBuilder = LoggerNameBuilder.getInstance();
 
@@ -72,6 +88,14 @@ public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger {
     private final LogInCollectorFactory<?> logInCollectorFactory;
     private final LogOutCollector<?> logOutCollector;
 
+    private final Map<MethodLog, InvocationPlan> invocationPlanCache = new ConcurrentHashMap<>();
+
+    private EffectiveLevelCache effectiveLevelCache;
+    private boolean loggerFacadeLevelCheck;
+    private boolean deferredInRendering;
+    private boolean deferredOutRendering;
+    private ClassValue<Boolean> eagerlyRenderedTypes = new EagerlyRenderedTypes(emptyList());
+
     public SimpleLogger() {
         this(new Slf4JLoggerFacadeFactory(), LoggingSystem.get(SimpleLogger.class.getClassLoader()));
     }
@@ -89,6 +113,65 @@ public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger {
         this.logOutCollector = logOutCollector;
     }
 
+    /**
+     * Enables caching of effective levels instead of {@link LoggingSystem} lookup on every check.
+     * Note: specified cache should be invalidated on each change of levels at runtime, it is closed on {@link #destroy()}.
+     *
+     * @param effectiveLevelCache cache of effective levels resolved by {@link #loggingSystem}, {@code null} to disable
+     */
+    public void setEffectiveLevelCache(EffectiveLevelCache effectiveLevelCache) {
+        this.effectiveLevelCache = effectiveLevelCache;
+        this.invocationPlanCache.clear();
+    }
+
+    /**
+     * Enables level checks by {@link LoggerFacade#isEnabled(LogLevel)} instead of {@link #loggingSystem}.
+     * Takes precedence over {@link EffectiveLevelCache}.
+     *
+     * @param loggerFacadeLevelCheck {@code true} to check levels by underlying loggers natively
+     */
+    public void setLoggerFacadeLevelCheck(boolean loggerFacadeLevelCheck) {
+        this.loggerFacadeLevelCheck = loggerFacadeLevelCheck;
+    }
+
+    /**
+     * Enables deferred printing of arguments and results.
+     * Instead of printed values, placeholders are collected into the message format and values are passed as arguments,
+     * which are printed by {@link Printer}s only when the event is formatted, so events filtered out are never printed.
+     * Note: the formatting is still performed by the invoking thread, even by asynchronous appenders
+     * (e.g. Logback {@code AsyncAppender} prepares events for deferred processing before queueing them),
+     * so printing is moved off the invoking thread only by {@link AsyncLogger}, which is compatible with this mode.
+     * Note: deferred printing requires collectors producing {@link CharSequence}s and collecting values as is,
+     * values are printed immediately by any other collector.
+     * Note: deferred values are printed in the state at the moment of formatting,
+     * so mutable types should be listed in {@link #setEagerlyRenderedTypes(Collection)}.
+     *
+     * @param deferredRendering {@code true} to defer printing
+     */
+    public void setDeferredRendering(boolean deferredRendering) {
+        this.deferredInRendering = deferredRendering && logInCollectorFactory.create().collect() instanceof CharSequence;
+        this.deferredOutRendering = deferredRendering && logOutCollector.collect(PLACEHOLDER) instanceof CharSequence;
+    }
+
+    /**
+     * Snapshot policy of deferred rendering: values of specified types (and subtypes) are printed immediately.
+     *
+     * @param eagerlyRenderedTypes types of values printed without deferring
+     */
+    public void setEagerlyRenderedTypes(Collection<Class<?>> eagerlyRenderedTypes) {
+        this.eagerlyRenderedTypes = new EagerlyRenderedTypes(new ArrayList<>(eagerlyRenderedTypes));
+    }
+
+    /**
+     * Closes the cache of effective levels, so that it is not invalidated anymore after the logger is discarded.
+     */
+    @Override
+    public void destroy() {
+        if (nonNull(effectiveLevelCache)) {
+            effectiveLevelCache.close();
+        }
+    }
+
     /**
      * Determines if specified log level is enabled for logger by current invocation context.
      * Note: Uses information about current {@link StackTraceElement}, so not recommended if high execution speed is important.
@@ -98,7 +181,7 @@ public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger {
      */
     @Override
     public boolean isLogEnabled(LogLevel level) {
-        return level != OFF && isLogEnabled(loggerNameBuilder.buildByInvoker(), level);
+        return !isDisabledForAll(level) && isLogEnabled(loggerNameBuilder.buildByInvoker(), level);
     }
 
     /**
@@ -111,6 +194,9 @@ public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger {
      */
     @Override
     public void log(LogLevel level, LogLevel ifEnabledLevel, String format, Object... arguments) {
+        if (isDisabledForAll(level) || isDisabledForAll(ifEnabledLevel)) {
+            return;
+        }
         String loggerName = loggerNameBuilder.buildByInvoker();
         if (isLogEnabled(loggerName, level) && isLogEnabled(loggerName, ifEnabledLevel)) {
             String message = MANUAL + " " + format;
@@ -119,6 +205,17 @@ public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger {
         }
     }
 
+    /**
+     * Cheap check performed before the resolution of manual logger invoker.
+     *
+     * @param level checkable level
+     * @return {@code true} if level is known to be disabled for any logger, {@code false} if check by logger name is necessary
+     */
+    private boolean isDisabledForAll(LogLevel level) {
+        return level == OFF ||
+                (nonNull(effectiveLevelCache) && level.ordinal() < effectiveLevelCache.getLowestEffectiveLevel().ordinal());
+    }
+
     /**
      * Unwraps Java 8 {@link Supplier}s if necessary.
      *
@@ -159,8 +256,36 @@ public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger {
      */
     @Override
     protected boolean isLogEnabled(String loggerName, LogLevel level) {
-        return level != OFF &&
-                level.ordinal() >= loggingSystem.getLoggerConfiguration(loggerName).getEffectiveLevel().ordinal();
+        if (loggerFacadeLevelCheck) {
+            return level != OFF && loggerFacadeFactory.getLoggerFacade(loggerName).isEnabled(level);
+        }
+        return level != OFF && level.ordinal() >= getEffectiveLevel(loggerName).ordinal();
+    }
+
+    private LogLevel getEffectiveLevel(String loggerName) {
+        if (nonNull(effectiveLevelCache)) {
+            return effectiveLevelCache.getEffectiveLevel(loggerName);
+        }
+        return loggingSystem.getLoggerConfiguration(loggerName).getEffectiveLevel();
+    }
+
+    /**
+     * Determines if log level is enabled for logger of the plan.
+     * Checks {@link LoggerFacade} or cache entry held by the plan directly, so that no lookup by logger name is performed.
+     *
+     * @param plan  compiled plan of the invoked method
+     * @param level checkable level
+     * @return {@code true} if enabled, {@code false} otherwise
+     */
+    private boolean isLogEnabled(InvocationPlan plan, LogLevel level) {
+        if (loggerFacadeLevelCheck) {
+            return level != OFF && plan.getLoggerFacade().isEnabled(level);
+        }
+        EffectiveLevelCache.Entry effectiveLevelEntry = plan.getEffectiveLevelEntry();
+        if (isNull(effectiveLevelEntry)) {
+            return isLogEnabled(plan.getLoggerName(), level);
+        }
+        return level != OFF && level.ordinal() >= effectiveLevelEntry.getEffectiveLevel().ordinal();
     }
 
     /**
@@ -183,34 +308,46 @@ public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger {
      */
     @Override
     protected void logIn(MethodInvocation invocation, MethodLog methodLog) {
-        String loggerName = getLoggerName(invocation);
+        InvocationPlan plan = getInvocationPlan(invocation, methodLog);
         LogLevel level = null;
 
         // initialize 'inLog' attributes
-        InLog inLog = methodLog.getInLog();
+        InLog inLog = plan.getInLog();
         boolean isInLogLogEnabled = false;
         boolean isInLogVerboseLogEnabled = false;
         if (nonNull(inLog)) {
             LogLevel inLogLevel = inLog.getLevel();
-            isInLogLogEnabled = (inLogLevel != OFF) && isLogEnabled(loggerName, expectedLevelResolver.apply(inLog));
+            isInLogLogEnabled = (inLogLevel != OFF) && isLogEnabled(plan, plan.getInLogExpectedLevel());
             if (isInLogLogEnabled) {
                 level = inLogLevel;
-                isInLogVerboseLogEnabled = isLogEnabled(loggerName, inLog.getVerboseLevel());
+                isInLogVerboseLogEnabled = isLogEnabled(plan, inLog.getVerboseLevel());
             }
         }
+        if (!isInLogLogEnabled && !plan.isParameterLogFound()) {
+            return;
+        }
 
         boolean isParameterLogVerboseFound = false;
         boolean isParameterLogSkippedFound = false;
         Object[] arguments = invocation.getArguments();
-        LogInCollector<?> logInCollector = logInCollectorFactory.create();
-        for (int a = 0; a < arguments.length; a++) {
-            ParameterLog parameterLog = methodLog.getParameterLogs().get(a);
+        // created lazily: pooled collectors should not be abandoned without collecting
+        LogInCollector<?> logInCollector = null;
+        Object[] deferredArguments = deferredInRendering ? new Object[plan.getLoggableParameterIndexes().length] : null;
+        int deferredArgumentCount = 0;
+        int previousIndex = -1;
+        for (int a : plan.getLoggableParameterIndexes()) {
+            if (a != previousIndex + 1) {
+                isParameterLogSkippedFound = true;
+            }
+            previousIndex = a;
+
+            ParameterLog parameterLog = plan.getParameterLog(a);
             boolean isParameterLogDefined = nonNull(parameterLog);
 
             // filter argument
             if (isParameterLogDefined) {
                 LogLevel parameterLogLevel = parameterLog.getLevel();
-                if (parameterLogLevel == OFF || !isLogEnabled(loggerName, expectedLevelResolver.apply(parameterLog))) {
+                if (parameterLogLevel == OFF || !isLogEnabled(plan, plan.getParameterLogExpectedLevel(a))) {
                     isParameterLogSkippedFound = true;
                     continue;
                 }
@@ -228,34 +365,41 @@ public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger {
 
             // get parameter name
             String parameterName = null;
-            if (!isParameterLogDefined || isLogEnabled(loggerName, parameterLog.getVerboseLevel())) {
-                parameterName = methodLog.getParameterNames().get(a);
+            if (!isParameterLogDefined || isLogEnabled(plan, parameterLog.getVerboseLevel())) {
+                parameterName = plan.getParameterName(a);
                 if (isNull(parameterName) && isParameterLogSkippedFound) {
-                    parameterName = Integer.toString(a);
+                    parameterName = plan.getParameterIndex(a);
                 }
             }
 
-            // get parameter value
+            if (isNull(logInCollector)) {
+                logInCollector = logInCollectorFactory.create();
+            }
             Object argument = arguments[a];
-            String parameterValue;
-            if (isNull(argument)) {
-                parameterValue = null;
-            } else if (isParameterLogDefined) {
-                parameterValue = printArgument(parameterLog.getPrinter(), argument);
+            if (deferredInRendering && nonNull(argument)) {
+                logInCollector.addParameter(parameterName, PLACEHOLDER);
+                deferredArguments[deferredArgumentCount++] = deferArgument(plan.getPrinter(a), argument);
             } else {
-                parameterValue = printArgument(inLog.getPrinters().get(a), argument);
+                addParameter(logInCollector, parameterName, plan.getPrinter(a), argument);
             }
-
-            logInCollector.addParameter(parameterName, parameterValue);
         }
 
         if (isInLogLogEnabled || isParameterLogVerboseFound) {
-            LoggerFacade loggerFacade = loggerFacadeFactory.getLoggerFacade(loggerName);
+            if (isNull(logInCollector)) {
+                logInCollector = logInCollectorFactory.create();
+            }
+            LoggerFacade loggerFacade = plan.getLoggerFacade();
             Object collected = logInCollector.collect();
             if (collected instanceof CharSequence) {
                 String collectedString = collected.toString();
                 String message = collectedString.isEmpty() ? IN : IN + " " + collectedString;
-                loggerFacade.log(level, message);
+                if (deferredArgumentCount > 0) {
+                    Object[] messageArguments = deferredArgumentCount == deferredArguments.length ?
+                            deferredArguments : copyOf(deferredArguments, deferredArgumentCount);
+                    loggerFacade.log(level, message, messageArguments);
+                } else {
+                    loggerFacade.log(level, message);
+                }
             } else {
                 loggerFacade.log(level, IN, collected);
             }
@@ -283,33 +427,38 @@ public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger {
      */
     @Override
     protected void logOut(MethodInvocation invocation, MethodLog methodLog, Object result) {
-        OutLog outLog = methodLog.getOutLog();
-        if (isNull(outLog)) {
+        if (isNull(methodLog.getOutLog())) {
             return;
         }
-        String loggerName = getLoggerName(invocation);
-        if (!isLogEnabled(loggerName, expectedLevelResolver.apply(outLog))) {
+        InvocationPlan plan = getInvocationPlan(invocation, methodLog);
+        if (!isLogEnabled(plan, plan.getOutLogExpectedLevel())) {
             return;
         }
 
-        Object collected = logOutCollector.collect(buildResultClause(invocation, outLog, result, loggerName));
-        LoggerFacade loggerFacade = loggerFacadeFactory.getLoggerFacade(loggerName);
+        OutLog outLog = plan.getOutLog();
+        boolean deferred = deferredOutRendering && nonNull(result) && isLogEnabled(plan, outLog.getVerboseLevel());
+        String resultClause = deferred ? PLACEHOLDER : buildResultClause(plan, outLog, result);
+        Object collected = logOutCollector.collect(resultClause);
+        LoggerFacade loggerFacade = plan.getLoggerFacade();
         if (collected instanceof CharSequence) {
             String collectedString = collected.toString();
             String message = collectedString.isEmpty() ? OUT : OUT + " " + collectedString;
-            loggerFacade.log(outLog.getLevel(), message);
+            if (deferred) {
+                loggerFacade.log(outLog.getLevel(), message, deferArgument(outLog.getPrinter(), result));
+            } else {
+                loggerFacade.log(outLog.getLevel(), message);
+            }
         } else {
             loggerFacade.log(outLog.getLevel(), OUT, collected);
         }
     }
 
-    private String buildResultClause(MethodInvocation invocation, OutLog outLog, Object result, String loggerName) {
-        if (isLogEnabled(loggerName, outLog.getVerboseLevel())) {
+    private String buildResultClause(InvocationPlan plan, OutLog outLog, Object result) {
+        if (isLogEnabled(plan, outLog.getVerboseLevel())) {
             if (nonNull(result)) {
                 return printArgument(outLog.getPrinter(), result);
             }
-            Class<?> returnType = invocation.getMethod().getReturnType();
-            if (returnType != void.class && returnType != Void.class) {
+            if (!plan.isVoidReturnType()) {
                 return null;
             }
         }
@@ -340,29 +489,110 @@ public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger {
     public void logError(MethodInvocation invocation, MethodLog methodLog, Throwable throwable) {
         ErrorLog errorLog = methodLog.findErrorLog(throwable.getClass());
         if (nonNull(errorLog)) {
-            String loggerName = getLoggerName(invocation);
-            if (isLogEnabled(loggerName, expectedLevelResolver.apply(errorLog))) {
-                String message = ERROR + buildCauseClause(errorLog, throwable, loggerName);
-                loggerFacadeFactory.getLoggerFacade(loggerName).log(errorLog.getLevel(), message, throwable);
+            InvocationPlan plan = getInvocationPlan(invocation, methodLog);
+            if (isLogEnabled(plan, expectedLevelResolver.apply(errorLog))) {
+                String message = ERROR + buildCauseClause(plan, errorLog, throwable);
+                plan.getLoggerFacade().log(errorLog.getLevel(), message, throwable);
             }
-        } else {
-            OutLog outLog = methodLog.getOutLog();
-            if (nonNull(outLog)) {
-                String loggerName = getLoggerName(invocation);
-                if (isLogEnabled(loggerName, expectedLevelResolver.apply(outLog))) {
-                    loggerFacadeFactory.getLoggerFacade(loggerName).log(outLog.getLevel(), ERROR);
-                }
+        } else if (nonNull(methodLog.getOutLog())) {
+            InvocationPlan plan = getInvocationPlan(invocation, methodLog);
+            if (isLogEnabled(plan, plan.getOutLogExpectedLevel())) {
+                plan.getLoggerFacade().log(plan.getOutLog().getLevel(), ERROR);
             }
         }
     }
 
-    private String buildCauseClause(ErrorLog errorLog, Throwable throwable, String loggerName) {
-        if (isLogEnabled(loggerName, errorLog.getVerboseLevel())) {
+    private String buildCauseClause(InvocationPlan plan, ErrorLog errorLog, Throwable throwable) {
+        if (isLogEnabled(plan, errorLog.getVerboseLevel())) {
             return " " + throwable.toString();
         }
         return "";
     }
 
+    /**
+     * Determines if 'in'-event of the invocation would be logged by {@link #logIn(MethodInvocation, MethodLog)}.
+     */
+    boolean isLogInEnabled(MethodInvocation invocation, MethodLog methodLog) {
+        InvocationPlan plan = getInvocationPlan(invocation, methodLog);
+        InLog inLog = plan.getInLog();
+        if (nonNull(inLog) && inLog.getLevel() != OFF && isLogEnabled(plan, plan.getInLogExpectedLevel())) {
+            return true;
+        }
+        if (plan.isParameterLogFound()) {
+            for (int a : plan.getLoggableParameterIndexes()) {
+                ParameterLog parameterLog = plan.getParameterLog(a);
+                if (nonNull(parameterLog) && parameterLog.getLevel() != OFF &&
+                        isLogEnabled(plan, plan.getParameterLogExpectedLevel(a))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines if 'out'-event of the invocation would be logged by {@link #logOut(MethodInvocation, MethodLog, Object)}.
+     */
+    boolean isLogOutEnabled(MethodInvocation invocation, MethodLog methodLog) {
+        if (isNull(methodLog.getOutLog())) {
+            return false;
+        }
+        InvocationPlan plan = getInvocationPlan(invocation, methodLog);
+        return isLogEnabled(plan, plan.getOutLogExpectedLevel());
+    }
+
+    /**
+     * Determines if 'error'-event of the invocation would be logged by {@link #logError(MethodInvocation, MethodLog, Throwable)}.
+     */
+    boolean isLogErrorEnabled(MethodInvocation invocation, MethodLog methodLog, Throwable throwable) {
+        ErrorLog errorLog = methodLog.findErrorLog(throwable.getClass());
+        if (nonNull(errorLog)) {
+            return isLogEnabled(getInvocationPlan(invocation, methodLog), expectedLevelResolver.apply(errorLog));
+        }
+        return isLogOutEnabled(invocation, methodLog);
+    }
+
+    /**
+     * Returns {@link InvocationPlan} of the invoked method, compiling it on the first invocation.
+     * Note: logger name is built by {@link #getLoggerName(MethodInvocation)} only once per {@link MethodLog}.
+     *
+     * @param invocation current loggable method invocation
+     * @param methodLog  definition of invoked method logging
+     * @return compiled plan
+     */
+    private InvocationPlan getInvocationPlan(MethodInvocation invocation, MethodLog methodLog) {
+        InvocationPlan plan = invocationPlanCache.get(methodLog);
+        if (nonNull(plan)) {
+            return plan;
+        }
+        return invocationPlanCache.computeIfAbsent(methodLog, key -> {
+            String loggerName = getLoggerName(invocation);
+            LoggerFacade loggerFacade = loggerFacadeFactory.getLoggerFacade(loggerName);
+            EffectiveLevelCache.Entry effectiveLevelEntry =
+                    isNull(effectiveLevelCache) ? null : effectiveLevelCache.getEntry(loggerName);
+            return InvocationPlan.compile(loggerName, loggerFacade, effectiveLevelEntry, methodLog, invocation.getMethod());
+        });
+    }
+
+    private void addParameter(LogInCollector<?> logInCollector, String parameterName, Printer printer, Object argument) {
+        if (isNull(argument)) {
+            logInCollector.addParameter(parameterName, null);
+            return;
+        }
+        try {
+            logInCollector.addParameter(parameterName, printer, argument);
+        } catch (Exception e) {
+            logInCollector.addParameter(parameterName, PrinterResolver.defaultPrinter.print(argument));
+        }
+    }
+
+    private Object deferArgument(Printer printer, Object argument) {
+        if (eagerlyRenderedTypes.get(argument.getClass())) {
+            return printArgument(printer, argument);
+        }
+        return new DeferredArgument(printer, argument);
+    }
+
     private String printArgument(Printer printer, Object argument) {
         try {
             return printer.print(argument);
@@ -374,4 +604,23 @@ public class SimpleLogger extends LevelSensitiveLogger implements ManualLogger {
     LoggerFacadeFactory getLoggerFacadeFactory() {
         return loggerFacadeFactory;
     }
+
+    private static class EagerlyRenderedTypes extends ClassValue<Boolean> {
+
+        private final List<Class<?>> types;
+
+        private EagerlyRenderedTypes(List<Class<?>> types) {
+            this.types = types;
+        }
+
+        @Override
+        protected Boolean computeValue(Class<?> clazz) {
+            for (Class<?> type : types) {
+                if (type.isAssignableFrom(clazz)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
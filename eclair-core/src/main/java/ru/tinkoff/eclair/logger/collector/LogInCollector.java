@@ -2,11 +2,25 @@ package ru.tinkoff.eclair.logger.collector;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import ru.tinkoff.eclair.printer.Printer;
 
 public interface LogInCollector<T> {
 
     void addParameter(@Nullable String parameterName, @Nullable String value);
 
+    /**
+     * Adds parameter printed by specified printer.
+     * Implementations backed by a buffer may print directly into it via {@link Printer#print(Object, Appendable)}.
+     * If printer throws an exception, collector should stay unchanged.
+     *
+     * @param parameterName name of the parameter
+     * @param printer       printer of the value
+     * @param value         never {@code null}
+     */
+    default void addParameter(@Nullable String parameterName, @NotNull Printer printer, @NotNull Object value) {
+        addParameter(parameterName, printer.print(value));
+    }
+
     @NotNull
     T collect();
 
@@ -0,0 +1,64 @@
+package ru.tinkoff.eclair.logger.collector;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.tinkoff.eclair.printer.Printer;
+
+/**
+ * Appends parameters in place into the reusable {@link StringBuilder}.
+ * Instances are pooled by {@link ThreadLocalLogInCollectorFactory}, so they should not be used after {@link #collect()}.
+ */
+public class StringBuilderLogInCollector implements LogInCollector<String> {
+
+    private static final String DELIMITER = ", ";
+
+    private final ThreadLocalLogInCollectorFactory factory;
+
+    private StringBuilder builder;
+
+    StringBuilderLogInCollector(ThreadLocalLogInCollectorFactory factory) {
+        this.factory = factory;
+        this.builder = new StringBuilder(factory.getInitialCapacity());
+    }
+
+    @Override
+    public void addParameter(@Nullable String parameterName, @Nullable String value) {
+        appendName(parameterName);
+        builder.append(value);
+    }
+
+    @Override
+    public void addParameter(@Nullable String parameterName, @NotNull Printer printer, @NotNull Object value) {
+        int length = builder.length();
+        appendName(parameterName);
+        try {
+            printer.print(value, builder);
+        } catch (RuntimeException e) {
+            // partially printed value should not get into the log
+            builder.setLength(length);
+            throw e;
+        }
+    }
+
+    private void appendName(String parameterName) {
+        if (builder.length() > 0) {
+            builder.append(DELIMITER);
+        }
+        if (parameterName != null) {
+            builder.append(parameterName).append('=');
+        }
+    }
+
+    @Override
+    public String collect() {
+        String result = builder.toString();
+        if (builder.capacity() > factory.getMaxCapacity()) {
+            builder = new StringBuilder(factory.getInitialCapacity());
+        } else {
+            builder.setLength(0);
+        }
+        factory.release(this);
+        return result;
+    }
+
+}
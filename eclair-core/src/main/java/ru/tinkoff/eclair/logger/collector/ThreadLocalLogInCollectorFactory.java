@@ -0,0 +1,53 @@
+package ru.tinkoff.eclair.logger.collector;
+
+/**
+ * Reuses one {@link StringBuilderLogInCollector} per thread.
+ * The collector is taken from the thread on {@link #create()} and returned on {@link StringBuilderLogInCollector#collect()},
+ * so re-entrant calls (e.g. logged method invoked by printer) get their own collectors.
+ * Buffers grown beyond {@link #maxCapacity} are replaced after use.
+ */
+public class ThreadLocalLogInCollectorFactory implements LogInCollectorFactory<String> {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 256;
+    private static final int DEFAULT_MAX_CAPACITY = 64 * 1024;
+
+    private final ThreadLocal<StringBuilderLogInCollector> collectors = new ThreadLocal<>();
+
+    private final int initialCapacity;
+    private final int maxCapacity;
+
+    public ThreadLocalLogInCollectorFactory() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_MAX_CAPACITY);
+    }
+
+    public ThreadLocalLogInCollectorFactory(int initialCapacity, int maxCapacity) {
+        if (initialCapacity < 0 || maxCapacity < initialCapacity) {
+            throw new IllegalArgumentException("Invalid capacities: " + initialCapacity + ", " + maxCapacity);
+        }
+        this.initialCapacity = initialCapacity;
+        this.maxCapacity = maxCapacity;
+    }
+
+    @Override
+    public LogInCollector<String> create() {
+        StringBuilderLogInCollector collector = collectors.get();
+        if (collector == null) {
+            return new StringBuilderLogInCollector(this);
+        }
+        collectors.set(null);
+        return collector;
+    }
+
+    void release(StringBuilderLogInCollector collector) {
+        collectors.set(collector);
+    }
+
+    int getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+}
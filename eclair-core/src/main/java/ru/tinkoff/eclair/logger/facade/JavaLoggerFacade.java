@@ -54,4 +54,9 @@ public class JavaLoggerFacade implements LoggerFacade {
         Throwable throwable = formattingTuple.getThrowable();
         logger.log(LEVELS.get(level), message, throwable);
     }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return level != LogLevel.OFF && logger.isLoggable(LEVELS.get(level));
+    }
 }
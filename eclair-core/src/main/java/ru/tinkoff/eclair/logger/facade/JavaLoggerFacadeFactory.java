@@ -15,15 +15,27 @@
 
 package ru.tinkoff.eclair.logger.facade;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
+import static java.util.Objects.nonNull;
+
 /**
+ * Caches created {@link LoggerFacade}s by logger name.
+ *
  * @author Vyacheslav Klapatnyuk
  */
 public class JavaLoggerFacadeFactory implements LoggerFacadeFactory {
 
+    private final Map<String, LoggerFacade> loggerFacades = new ConcurrentHashMap<>();
+
     @Override
     public LoggerFacade getLoggerFacade(String loggerName) {
-        return new JavaLoggerFacade(Logger.getLogger(loggerName));
+        LoggerFacade loggerFacade = loggerFacades.get(loggerName);
+        if (nonNull(loggerFacade)) {
+            return loggerFacade;
+        }
+        return loggerFacades.computeIfAbsent(loggerName, name -> new JavaLoggerFacade(Logger.getLogger(name)));
     }
 }
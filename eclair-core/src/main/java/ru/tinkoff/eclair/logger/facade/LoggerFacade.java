@@ -23,4 +23,15 @@ import org.springframework.boot.logging.LogLevel;
 public interface LoggerFacade {
 
     void log(LogLevel level, String format, Object... arguments);
+
+    /**
+     * Native check of the underlying logger.
+     * Default implementation enables all the levels except {@link LogLevel#OFF} and leaves filtering to {@link #log}.
+     *
+     * @param level checkable level
+     * @return {@code true} if enabled, {@code false} otherwise (always for {@link LogLevel#OFF})
+     */
+    default boolean isEnabled(LogLevel level) {
+        return level != LogLevel.OFF;
+    }
 }
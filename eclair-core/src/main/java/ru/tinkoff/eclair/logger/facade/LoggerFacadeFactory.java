@@ -16,6 +16,9 @@
 package ru.tinkoff.eclair.logger.facade;
 
 /**
+ * Note: implementations are expected to return the same {@link LoggerFacade} for the same logger name,
+ * so that it could be cached by callers.
+ *
  * @author Vyacheslav Klapatnyuk
  */
 public interface LoggerFacadeFactory {
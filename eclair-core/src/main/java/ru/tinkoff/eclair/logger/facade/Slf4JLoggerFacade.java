@@ -54,4 +54,25 @@ public class Slf4JLoggerFacade implements LoggerFacade {
                 throw new IllegalArgumentException("Unexpected logging level: " + level);
         }
     }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        switch (level) {
+            case OFF:
+                return false;
+            case FATAL:
+            case ERROR:
+                return logger.isErrorEnabled();
+            case WARN:
+                return logger.isWarnEnabled();
+            case INFO:
+                return logger.isInfoEnabled();
+            case DEBUG:
+                return logger.isDebugEnabled();
+            case TRACE:
+                return logger.isTraceEnabled();
+            default:
+                throw new IllegalArgumentException("Unexpected logging level: " + level);
+        }
+    }
 }
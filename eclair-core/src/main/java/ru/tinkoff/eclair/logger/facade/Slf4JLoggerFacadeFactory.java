@@ -17,13 +17,26 @@ package ru.tinkoff.eclair.logger.facade;
 
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.nonNull;
+
 /**
+ * Caches created {@link LoggerFacade}s by logger name.
+ *
  * @author Vyacheslav Klapatnyuk
  */
 public class Slf4JLoggerFacadeFactory implements LoggerFacadeFactory {
 
+    private final Map<String, LoggerFacade> loggerFacades = new ConcurrentHashMap<>();
+
     @Override
     public LoggerFacade getLoggerFacade(String loggerName) {
-        return new Slf4JLoggerFacade(LoggerFactory.getLogger(loggerName));
+        LoggerFacade loggerFacade = loggerFacades.get(loggerName);
+        if (nonNull(loggerFacade)) {
+            return loggerFacade;
+        }
+        return loggerFacades.computeIfAbsent(loggerName, name -> new Slf4JLoggerFacade(LoggerFactory.getLogger(name)));
     }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger.level;
+
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Caches effective {@link LogLevel} per logger name resolved by {@link LoggingSystem}.
+ * Every cached value is stamped with the global epoch and becomes stale as soon as the epoch is incremented by {@link #invalidate()}.
+ * So a valid check costs two volatile reads, without any {@link LoggingSystem} calls or allocations.
+ * <p>
+ * Note: cache stays consistent only if {@link #invalidate()} is invoked after each change of levels at runtime.
+ * For Logback it is done automatically by {@link LogbackLevelChangeListener}.
+ *
+ * @see LogbackLevelChangeListener
+ */
+public class EffectiveLevelCache {
+
+    private static final AtomicIntegerFieldUpdater<EffectiveLevelCache> EPOCH =
+            AtomicIntegerFieldUpdater.newUpdater(EffectiveLevelCache.class, "epoch");
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LoggingSystem loggingSystem;
+    /**
+     * Entry without logger name holds the lowest effective level of all the loggers.
+     */
+    private final Entry lowestEntry = new Entry(null);
+
+    private volatile int epoch;
+    private volatile Runnable closeAction;
+
+    public EffectiveLevelCache(LoggingSystem loggingSystem) {
+        this.loggingSystem = loggingSystem;
+    }
+
+    /**
+     * @param loggerName name of the logger
+     * @return cached or freshly resolved effective level
+     */
+    public LogLevel getEffectiveLevel(String loggerName) {
+        return getEntry(loggerName).getEffectiveLevel();
+    }
+
+    /**
+     * Returns the permanent cache entry of specified logger, so that it could be held by caller to skip map lookups.
+     *
+     * @param loggerName name of the logger
+     * @return cache entry
+     */
+    public Entry getEntry(String loggerName) {
+        Entry entry = entries.get(loggerName);
+        return nonNull(entry) ? entry : entries.computeIfAbsent(loggerName, Entry::new);
+    }
+
+    /**
+     * Levels below the returned one are disabled for every logger, including not yet created ones:
+     * they inherit effective level of existing ancestors, and explicitly set level invalidates the cache.
+     *
+     * @return the lowest effective level among all loggers
+     */
+    public LogLevel getLowestEffectiveLevel() {
+        return lowestEntry.getEffectiveLevel();
+    }
+
+    /**
+     * Marks all cached levels as stale. Should be invoked after any change of levels.
+     */
+    public void invalidate() {
+        EPOCH.incrementAndGet(this);
+    }
+
+    /**
+     * Detaches the cache from the source of invalidation (e.g. {@link LogbackLevelChangeListener}), if any.
+     * Should be invoked by the owner of the cache on its destruction.
+     */
+    public void close() {
+        Runnable action = closeAction;
+        closeAction = null;
+        if (nonNull(action)) {
+            action.run();
+        }
+    }
+
+    void setCloseAction(Runnable closeAction) {
+        this.closeAction = closeAction;
+    }
+
+    int getEpoch() {
+        return epoch;
+    }
+
+    private LogLevel resolve(String loggerName) {
+        if (isNull(loggerName)) {
+            return resolveLowest();
+        }
+        return loggingSystem.getLoggerConfiguration(loggerName).getEffectiveLevel();
+    }
+
+    private LogLevel resolveLowest() {
+        LogLevel lowest = null;
+        for (LoggerConfiguration configuration : loggingSystem.getLoggerConfigurations()) {
+            LogLevel level = configuration.getEffectiveLevel();
+            if (isNull(lowest) || level.ordinal() < lowest.ordinal()) {
+                lowest = level;
+            }
+        }
+        return isNull(lowest) ? LogLevel.TRACE : lowest;
+    }
+
+    /**
+     * Effective level of one logger stamped with the epoch of its resolution.
+     */
+    public final class Entry {
+
+        private static final long UNRESOLVED = -1L;
+
+        private final String loggerName;
+
+        /**
+         * Epoch in the high 32 bits, {@link LogLevel#ordinal()} in the low ones.
+         */
+        private volatile long state = UNRESOLVED;
+
+        private Entry(String loggerName) {
+            this.loggerName = loggerName;
+        }
+
+        public LogLevel getEffectiveLevel() {
+            // epoch should be read before resolution: level changed concurrently will be stamped with already stale epoch
+            int currentEpoch = epoch;
+            long currentState = state;
+            if (currentState != UNRESOLVED && (int) (currentState >>> 32) == currentEpoch) {
+                return LEVELS[(int) currentState];
+            }
+            LogLevel level = resolve(loggerName);
+            state = ((long) currentEpoch << 32) | level.ordinal();
+            return level;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger.level;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggerContextListener;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.LoggingSystem;
+
+/**
+ * Invalidates {@link EffectiveLevelCache} on every change of Logback configuration:
+ * {@link LoggingSystem#setLogLevel}, Spring Boot 'loggers' endpoint, JMX, reconfiguration etc.
+ * Survives {@link LoggerContext#reset()}.
+ */
+public class LogbackLevelChangeListener implements LoggerContextListener {
+
+    private final EffectiveLevelCache effectiveLevelCache;
+
+    public LogbackLevelChangeListener(EffectiveLevelCache effectiveLevelCache) {
+        this.effectiveLevelCache = effectiveLevelCache;
+    }
+
+    /**
+     * Creates {@link EffectiveLevelCache} invalidated by Logback, if Logback is the current Slf4J binding.
+     *
+     * The listener is removed from {@link LoggerContext} by {@link EffectiveLevelCache#close()}.
+     *
+     * @param loggingSystem resolver of effective levels
+     * @return registered cache or {@code null} if Logback is not used
+     */
+    public static EffectiveLevelCache registerCache(LoggingSystem loggingSystem) {
+        ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        if (!(loggerFactory instanceof LoggerContext)) {
+            return null;
+        }
+        LoggerContext loggerContext = (LoggerContext) loggerFactory;
+        EffectiveLevelCache effectiveLevelCache = new EffectiveLevelCache(loggingSystem);
+        LogbackLevelChangeListener listener = new LogbackLevelChangeListener(effectiveLevelCache);
+        loggerContext.addListener(listener);
+        effectiveLevelCache.setCloseAction(() -> loggerContext.removeListener(listener));
+        return effectiveLevelCache;
+    }
+
+    @Override
+    public boolean isResetResistant() {
+        return true;
+    }
+
+    @Override
+    public void onStart(LoggerContext context) {
+        effectiveLevelCache.invalidate();
+    }
+
+    @Override
+    public void onReset(LoggerContext context) {
+        effectiveLevelCache.invalidate();
+    }
+
+    @Override
+    public void onStop(LoggerContext context) {
+        effectiveLevelCache.invalidate();
+    }
+
+    @Override
+    public void onLevelChange(Logger logger, Level level) {
+        effectiveLevelCache.invalidate();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.printer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * {@link Writer} view of any {@link Appendable} for serializers that accept {@link Writer}s only.
+ * Never closes the target.
+ */
+final class AppendableWriter extends Writer {
+
+    private final Appendable target;
+
+    AppendableWriter(Appendable target) {
+        this.target = target;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        target.append((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        if (target instanceof StringBuilder) {
+            ((StringBuilder) target).append(cbuf, off, len);
+        } else if (target instanceof Writer) {
+            ((Writer) target).write(cbuf, off, len);
+        } else {
+            target.append(CharBuffer.wrap(cbuf, off, len));
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        target.append(str, off, off + len);
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        target.append(csq);
+        return this;
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        target.append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (target instanceof Writer) {
+            ((Writer) target).flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        // target is owned by invoker
+    }
+}
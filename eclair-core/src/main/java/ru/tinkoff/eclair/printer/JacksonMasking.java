@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.printer;
+
+import ru.tinkoff.eclair.annotation.Masked;
+
+import java.util.*;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * Rules of properties masked by {@link JacksonPrinter} during serialization, so their values are never rendered.
+ * A property is masked if it is annotated by {@link Masked}, has one of the masked names or matches one of the paths.
+ * Entries of {@link Map}s are masked by names and paths too, keys are used as their names.
+ * <p>
+ * Path is JSON-pointer-like: names of properties (or indexes of array elements) from the root of the printed value,
+ * each prefixed by {@code /}, e.g. {@code /user/password} or {@code /users/*}{@code /token}.
+ * Segment {@code *} matches any name or index.
+ */
+public final class JacksonMasking {
+
+    private final Set<String> properties = new LinkedHashSet<>();
+    private final List<String[]> paths = new ArrayList<>();
+    private String replacement = "********";
+
+    /**
+     * @param names names of properties masked at any depth
+     */
+    public JacksonMasking maskProperties(String... names) {
+        properties.addAll(Arrays.asList(names));
+        return this;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a path is not absolute or contains empty segments
+     */
+    public JacksonMasking maskPaths(String... paths) {
+        for (String path : paths) {
+            if (!path.startsWith("/") || path.length() == 1 || path.contains("//") || path.endsWith("/")) {
+                throw new IllegalArgumentException("Invalid path: " + path);
+            }
+            this.paths.add(path.substring(1).split("/"));
+        }
+        return this;
+    }
+
+    /**
+     * @param replacement rendered instead of masked values, {@code null} is rendered as JSON {@code null}
+     */
+    public JacksonMasking setReplacement(String replacement) {
+        this.replacement = replacement;
+        return this;
+    }
+
+    Set<String> getProperties() {
+        return unmodifiableSet(new HashSet<>(properties));
+    }
+
+    List<String[]> getPaths() {
+        return unmodifiableList(new ArrayList<>(paths));
+    }
+
+    String getReplacement() {
+        return replacement;
+    }
+}
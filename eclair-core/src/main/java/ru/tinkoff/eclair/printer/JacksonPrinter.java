@@ -18,6 +18,9 @@ package ru.tinkoff.eclair.printer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * @author Vyacheslav Klapatnyuk
  */
@@ -29,6 +32,18 @@ public class JacksonPrinter extends Printer {
         this.objectMapper = objectMapper;
     }
 
+    /**
+     * Masks properties while serializing, so no post-processing of the output is needed.
+     * The specified mapper is copied and stays untouched.
+     */
+    public JacksonPrinter(ObjectMapper objectMapper, JacksonMasking masking) {
+        ObjectMapper copy = objectMapper.copy();
+        MaskingSerializerModifier modifier = new MaskingSerializerModifier(masking);
+        copy.setSerializerFactory(copy.getSerializerFactory().withSerializerModifier(modifier));
+        copy.setFilterProvider(modifier.wrap(copy.getSerializationConfig().getFilterProvider()));
+        this.objectMapper = copy;
+    }
+
     @Override
     protected String serialize(Object input) throws IllegalArgumentException {
         try {
@@ -37,4 +52,18 @@ public class JacksonPrinter extends Printer {
             throw new IllegalArgumentException(e);
         }
     }
+
+    /**
+     * Generates JSON directly into the target without intermediate {@link String}.
+     */
+    @Override
+    protected void serialize(Object input, Appendable target) throws IllegalArgumentException, UncheckedIOException {
+        try {
+            objectMapper.writeValue(new AppendableWriter(target), input);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
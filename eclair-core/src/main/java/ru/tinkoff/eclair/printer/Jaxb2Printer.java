@@ -15,27 +15,297 @@
 
 package ru.tinkoff.eclair.printer;
 
+import org.springframework.oxm.MarshallingFailureException;
+import org.springframework.oxm.UncategorizedMappingException;
+import org.springframework.oxm.ValidationFailureException;
 import org.springframework.oxm.XmlMappingException;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import org.springframework.util.ReflectionUtils;
 
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.MarshalException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.ValidationException;
 import javax.xml.transform.stream.StreamResult;
-import java.io.StringWriter;
+import java.io.*;
+import java.lang.reflect.Method;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
+ * Prints by {@link Jaxb2Marshaller}.
+ * <p>
+ * By default, each printing is delegated to {@link Jaxb2Marshaller#marshal}, which creates and configures
+ * new {@link Marshaller}. If marshallers are reused, each thread keeps its own configured {@link Marshaller}
+ * and buffer. Fragment and formatted output options are applied to the own marshallers of the printer only,
+ * so the shared {@link Jaxb2Marshaller} stays intact.
+ * Own marshallers are created by non-public {@code Jaxb2Marshaller#createMarshaller()}. If it is not accessible
+ * (e.g. removed or encapsulated), printing falls back to {@link Jaxb2Marshaller#marshal} and these options are ignored.
+ *
  * @author Vyacheslav Klapatnyuk
  */
 public class Jaxb2Printer extends Printer {
 
+    private static final int INITIAL_BUFFER_CAPACITY = 256;
+    private static final int MAX_BUFFER_CAPACITY = 64 * 1024;
+
     private final Jaxb2Marshaller jaxb2Marshaller;
+    /**
+     * Creates {@link Marshaller} configured with properties, listener, schema and adapters of {@link Jaxb2Marshaller}.
+     */
+    private final Method createMarshallerMethod;
+    private final ThreadLocal<MarshallerHolder> marshallerHolders = new ThreadLocal<>();
+
+    private boolean reuseMarshallers;
+    private boolean fragment;
+    private Boolean formattedOutput;
 
     public Jaxb2Printer(Jaxb2Marshaller jaxb2Marshaller) {
+        this(jaxb2Marshaller, CreateMarshallerMethod.instance);
+    }
+
+    Jaxb2Printer(Jaxb2Marshaller jaxb2Marshaller, Method createMarshallerMethod) {
         this.jaxb2Marshaller = jaxb2Marshaller;
+        this.createMarshallerMethod = createMarshallerMethod;
+    }
+
+    /**
+     * @param reuseMarshallers keep configured {@link Marshaller} and buffer for each thread instead of creating new ones
+     */
+    public void setReuseMarshallers(boolean reuseMarshallers) {
+        this.reuseMarshallers = reuseMarshallers;
+    }
+
+    /**
+     * @param fragment print without XML declaration
+     * @see Marshaller#JAXB_FRAGMENT
+     */
+    public void setFragment(boolean fragment) {
+        this.fragment = fragment;
+    }
+
+    /**
+     * @param formattedOutput print with line feeds and indentation, {@code null} to keep configured by {@link Jaxb2Marshaller}
+     * @see Marshaller#JAXB_FORMATTED_OUTPUT
+     */
+    public void setFormattedOutput(Boolean formattedOutput) {
+        this.formattedOutput = formattedOutput;
     }
 
     @Override
     protected String serialize(Object input) throws XmlMappingException {
-        StringWriter writer = new StringWriter();
-        jaxb2Marshaller.marshal(input, new StreamResult(writer));
-        return writer.toString();
+        if (!isOwnMarshallers()) {
+            StringWriter writer = new StringWriter();
+            jaxb2Marshaller.marshal(input, new StreamResult(writer));
+            return writer.toString();
+        }
+        MarshallerHolder holder = acquire();
+        if (isNull(holder)) {
+            StringWriter writer = new StringWriter();
+            marshal(createMarshaller(), input, writer);
+            return writer.toString();
+        }
+        boolean released = false;
+        try {
+            marshal(holder, input, holder.bufferWriter);
+            String result = holder.buffer.toString();
+            release(holder);
+            released = true;
+            return result;
+        } finally {
+            if (!released) {
+                discard(holder);
+            }
+        }
+    }
+
+    /**
+     * Marshals directly into the target without intermediate {@link String}.
+     */
+    @Override
+    protected void serialize(Object input, Appendable target) throws XmlMappingException {
+        Writer writer = target instanceof Writer ? (Writer) target : new AppendableWriter(target);
+        if (!isOwnMarshallers()) {
+            jaxb2Marshaller.marshal(input, new StreamResult(writer));
+            return;
+        }
+        MarshallerHolder holder = acquire();
+        if (isNull(holder)) {
+            marshal(createMarshaller(), input, writer);
+            return;
+        }
+        boolean released = false;
+        try {
+            marshal(holder, input, writer);
+            release(holder);
+            released = true;
+        } finally {
+            if (!released) {
+                discard(holder);
+            }
+        }
+    }
+
+    private boolean isOwnMarshallers() {
+        return nonNull(createMarshallerMethod) && (reuseMarshallers || fragment || nonNull(formattedOutput));
+    }
+
+    /**
+     * @return marshaller of the current thread or {@code null} if marshallers are not reused or already in use by
+     * reentrant printing
+     */
+    private MarshallerHolder acquire() {
+        if (!reuseMarshallers) {
+            return null;
+        }
+        MarshallerHolder holder = marshallerHolders.get();
+        if (isNull(holder)) {
+            holder = new MarshallerHolder(createMarshaller());
+            marshallerHolders.set(holder);
+        } else if (holder.inUse) {
+            return null;
+        }
+        holder.inUse = true;
+        return holder;
+    }
+
+    private void release(MarshallerHolder holder) {
+        if (holder.buffer.capacity() > MAX_BUFFER_CAPACITY) {
+            marshallerHolders.set(new MarshallerHolder(holder.marshaller, holder.bufferedWriter, holder.targetWriter));
+        } else {
+            holder.buffer.setLength(0);
+            holder.inUse = false;
+        }
+    }
+
+    /**
+     * Marshaller interrupted by failure or output limit is not reused.
+     */
+    private void discard(MarshallerHolder holder) {
+        if (marshallerHolders.get() == holder) {
+            marshallerHolders.remove();
+        }
+    }
+
+    private Marshaller createMarshaller() throws XmlMappingException {
+        Marshaller marshaller = (Marshaller) ReflectionUtils.invokeMethod(createMarshallerMethod, jaxb2Marshaller);
+        try {
+            if (fragment) {
+                marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            }
+            if (nonNull(formattedOutput)) {
+                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formattedOutput);
+            }
+        } catch (JAXBException e) {
+            throw convertJaxbException(e);
+        }
+        return marshaller;
+    }
+
+    /**
+     * JAXB wraps each unbuffered {@link Writer} into new {@link BufferedWriter}, so the buffered one is reused.
+     */
+    private void marshal(MarshallerHolder holder, Object input, Writer writer) throws XmlMappingException {
+        holder.targetWriter.target = writer;
+        marshal(holder.marshaller, input, holder.bufferedWriter);
+        try {
+            holder.bufferedWriter.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        holder.targetWriter.target = null;
+    }
+
+    private void marshal(Marshaller marshaller, Object input, Writer writer) throws XmlMappingException {
+        try {
+            marshaller.marshal(input, writer);
+        } catch (JAXBException e) {
+            throw convertJaxbException(e);
+        }
+    }
+
+    /**
+     * Same as protected {@code Jaxb2Marshaller#convertJaxbException} for marshalling.
+     */
+    private XmlMappingException convertJaxbException(JAXBException e) {
+        if (e instanceof ValidationException) {
+            return new ValidationFailureException("JAXB validation exception", e);
+        }
+        if (e instanceof MarshalException) {
+            return new MarshallingFailureException("JAXB marshalling exception", e);
+        }
+        return new UncategorizedMappingException(e.getMessage(), e);
+    }
+
+    /**
+     * @return accessible method or {@code null} if it is absent or could not be made accessible
+     */
+    static Method findCreateMarshallerMethod(Class<?> marshallerClass) {
+        try {
+            Method method = marshallerClass.getDeclaredMethod("createMarshaller");
+            ReflectionUtils.makeAccessible(method);
+            return method;
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Resolved lazily, so the printer is usable without own marshallers if the method is not accessible.
+     */
+    private static final class CreateMarshallerMethod {
+
+        private static final Method instance = findCreateMarshallerMethod(Jaxb2Marshaller.class);
+    }
+
+    private static final class MarshallerHolder {
+
+        private final Marshaller marshaller;
+        private final BufferedWriter bufferedWriter;
+        private final TargetWriter targetWriter;
+        private final StringBuilder buffer = new StringBuilder(INITIAL_BUFFER_CAPACITY);
+        private final Writer bufferWriter = new AppendableWriter(buffer);
+        private boolean inUse;
+
+        private MarshallerHolder(Marshaller marshaller) {
+            this.marshaller = marshaller;
+            this.targetWriter = new TargetWriter();
+            this.bufferedWriter = new BufferedWriter(targetWriter);
+        }
+
+        private MarshallerHolder(Marshaller marshaller, BufferedWriter bufferedWriter, TargetWriter targetWriter) {
+            this.marshaller = marshaller;
+            this.bufferedWriter = bufferedWriter;
+            this.targetWriter = targetWriter;
+        }
+    }
+
+    /**
+     * Redirects reused {@link BufferedWriter} to the target of the current printing.
+     */
+    private static final class TargetWriter extends Writer {
+
+        private Writer target;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            target.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            target.write(str, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public void close() {
+            // target is owned by invoker
+        }
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.printer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Passes chars to the target until the limit is reached, then appends the fitting part and aborts serialization
+ * by {@link LengthExceededException}. Serializers may wrap the exception, so {@link #isExceeded()} should be checked.
+ */
+final class LengthLimitedWriter extends Writer {
+
+    private final Appendable target;
+    private final int maxLength;
+
+    private int length;
+    private boolean exceeded;
+
+    LengthLimitedWriter(Appendable target, int maxLength) {
+        this.target = target;
+        this.maxLength = maxLength;
+    }
+
+    Appendable getTarget() {
+        return target;
+    }
+
+    boolean isExceeded() {
+        return exceeded;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        checkExceeded();
+        if (length == maxLength) {
+            exceed();
+        }
+        target.append((char) c);
+        length++;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        checkExceeded();
+        int fitting = Math.min(len, maxLength - length);
+        if (target instanceof StringBuilder) {
+            ((StringBuilder) target).append(cbuf, off, fitting);
+        } else if (target instanceof Writer) {
+            ((Writer) target).write(cbuf, off, fitting);
+        } else {
+            for (int a = off; a < off + fitting; a++) {
+                target.append(cbuf[a]);
+            }
+        }
+        length += fitting;
+        if (fitting < len) {
+            exceed();
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        append(str, off, off + len);
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        CharSequence sequence = String.valueOf(csq);
+        return append(sequence, 0, sequence.length());
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        checkExceeded();
+        int fitting = Math.min(end - start, maxLength - length);
+        target.append(csq, start, start + fitting);
+        length += fitting;
+        if (fitting < end - start) {
+            exceed();
+        }
+        return this;
+    }
+
+    @Override
+    public Writer append(char c) throws IOException {
+        write(c);
+        return this;
+    }
+
+    private void checkExceeded() throws LengthExceededException {
+        if (exceeded) {
+            throw new LengthExceededException();
+        }
+    }
+
+    private void exceed() throws LengthExceededException {
+        exceeded = true;
+        throw new LengthExceededException();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (target instanceof Writer) {
+            ((Writer) target).flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        // target is owned by invoker
+    }
+
+    /**
+     * Exception without stack trace, it only interrupts serialization.
+     */
+    private static final class LengthExceededException extends IOException {
+
+        private LengthExceededException() {
+            super("Maximum length of printed value is exceeded", null);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
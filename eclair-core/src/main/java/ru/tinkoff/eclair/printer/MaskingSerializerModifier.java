@@ -0,0 +1,232 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.printer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.*;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.std.MapSerializer;
+import com.fasterxml.jackson.databind.type.MapType;
+import ru.tinkoff.eclair.annotation.Masked;
+
+import java.io.IOException;
+import java.util.*;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Replaces writers of masked properties when Jackson builds the serializer of the bean class.
+ * Serializers are cached by Jackson, so the rules are resolved once per class.
+ * Only paths are checked during serialization, and only for properties named as their last segments.
+ * <p>
+ * Entries of {@link Map}s have no writers, so map serializers are bound to the filter masking entries by their keys.
+ * The filter is resolved by {@link #wrap(FilterProvider)}, which has to be registered in the mapper.
+ */
+class MaskingSerializerModifier extends BeanSerializerModifier {
+
+    private static final String ANY = "*";
+    private static final String FILTER_ID = MaskingSerializerModifier.class.getName();
+
+    private final Set<String> properties;
+    private final Map<String, List<String[]>> pathsByLastSegment = new HashMap<>();
+    private final String replacement;
+
+    MaskingSerializerModifier(JacksonMasking masking) {
+        this.properties = masking.getProperties();
+        for (String[] path : masking.getPaths()) {
+            pathsByLastSegment.computeIfAbsent(path[path.length - 1], key -> new ArrayList<>()).add(path);
+        }
+        this.replacement = masking.getReplacement();
+    }
+
+    @Override
+    public List<BeanPropertyWriter> changeProperties(SerializationConfig config,
+                                                     BeanDescription beanDesc,
+                                                     List<BeanPropertyWriter> beanProperties) {
+        for (int a = 0; a < beanProperties.size(); a++) {
+            BeanPropertyWriter writer = beanProperties.get(a);
+            if (nonNull(writer.getAnnotation(Masked.class)) || properties.contains(writer.getName())) {
+                beanProperties.set(a, new MaskedPropertyWriter(writer, replacement, null));
+                continue;
+            }
+            List<String[]> paths = getPaths(writer.getName());
+            if (!paths.isEmpty()) {
+                beanProperties.set(a, new MaskedPropertyWriter(writer, replacement, paths));
+            }
+        }
+        return beanProperties;
+    }
+
+    @Override
+    public JsonSerializer<?> modifyMapSerializer(SerializationConfig config,
+                                                 MapType valueType,
+                                                 BeanDescription beanDesc,
+                                                 JsonSerializer<?> serializer) {
+        if (serializer instanceof MapSerializer && (!properties.isEmpty() || !pathsByLastSegment.isEmpty())) {
+            return ((MapSerializer) serializer).withFilterId(FILTER_ID);
+        }
+        return serializer;
+    }
+
+    /**
+     * @param filterProvider provider of the mapper, may be {@code null}
+     * @return provider resolving the filter of map entries and delegating other filters to the specified provider
+     */
+    FilterProvider wrap(FilterProvider filterProvider) {
+        return new MaskingFilterProvider(filterProvider, new MaskedEntryFilter());
+    }
+
+    private List<String[]> getPaths(String name) {
+        List<String[]> result = new ArrayList<>();
+        result.addAll(pathsByLastSegment.getOrDefault(name, Collections.emptyList()));
+        result.addAll(pathsByLastSegment.getOrDefault(ANY, Collections.emptyList()));
+        return result;
+    }
+
+    /**
+     * Delegates to the original writer, which may be specific to the data format, if the property is not masked.
+     */
+    private static final class MaskedPropertyWriter extends BeanPropertyWriter {
+
+        private final BeanPropertyWriter delegate;
+        private final String replacement;
+        private final List<String[]> paths;
+
+        /**
+         * @param paths {@code null} if the property is always masked
+         */
+        private MaskedPropertyWriter(BeanPropertyWriter delegate, String replacement, List<String[]> paths) {
+            super(delegate);
+            this.delegate = delegate;
+            this.replacement = replacement;
+            this.paths = paths;
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (!isMasked(gen.getOutputContext())) {
+                delegate.serializeAsField(bean, gen, prov);
+                return;
+            }
+            gen.writeFieldName(_name);
+            writeReplacement(gen, replacement);
+        }
+
+        @Override
+        public void serializeAsElement(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (!isMasked(gen.getOutputContext())) {
+                delegate.serializeAsElement(bean, gen, prov);
+                return;
+            }
+            writeReplacement(gen, replacement);
+        }
+
+        private boolean isMasked(JsonStreamContext beanContext) {
+            return isNull(paths) || matchesAny(paths, beanContext);
+        }
+    }
+
+    /**
+     * Masks entries of maps, the name of the entry is its key.
+     */
+    private final class MaskedEntryFilter extends SimpleBeanPropertyFilter {
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider, PropertyWriter writer) throws Exception {
+            if (!isMasked(writer.getName(), gen.getOutputContext())) {
+                writer.serializeAsField(pojo, gen, provider);
+                return;
+            }
+            gen.writeFieldName(writer.getName());
+            writeReplacement(gen, replacement);
+        }
+
+        private boolean isMasked(String name, JsonStreamContext mapContext) {
+            return properties.contains(name) || matchesAny(getPaths(name), mapContext);
+        }
+    }
+
+    private static final class MaskingFilterProvider extends FilterProvider {
+
+        private final FilterProvider delegate;
+        private final SimpleBeanPropertyFilter filter;
+
+        private MaskingFilterProvider(FilterProvider delegate, SimpleBeanPropertyFilter filter) {
+            this.delegate = delegate;
+            this.filter = filter;
+        }
+
+        @Override
+        @Deprecated
+        public BeanPropertyFilter findFilter(Object filterId) {
+            if (FILTER_ID.equals(filterId)) {
+                return filter;
+            }
+            return isNull(delegate) ? null : delegate.findFilter(filterId);
+        }
+
+        @Override
+        public PropertyFilter findPropertyFilter(Object filterId, Object valueToFilter) {
+            if (FILTER_ID.equals(filterId)) {
+                return filter;
+            }
+            return isNull(delegate) ? null : delegate.findPropertyFilter(filterId, valueToFilter);
+        }
+    }
+
+    private static void writeReplacement(JsonGenerator gen, String replacement) throws IOException {
+        if (isNull(replacement)) {
+            gen.writeNull();
+        } else {
+            gen.writeString(replacement);
+        }
+    }
+
+    private static boolean matchesAny(List<String[]> paths, JsonStreamContext context) {
+        for (String[] path : paths) {
+            if (matches(path, context)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares segments of the path except the last one with names and indexes of enclosing contexts.
+     */
+    private static boolean matches(String[] path, JsonStreamContext context) {
+        int index = path.length - 2;
+        JsonStreamContext parent = context.getParent();
+        while (nonNull(parent) && !parent.inRoot()) {
+            if (index < 0) {
+                return false;
+            }
+            String segment = parent.inArray() ? Integer.toString(parent.getCurrentIndex()) : parent.getCurrentName();
+            if (!ANY.equals(path[index]) && !path[index].equals(segment)) {
+                return false;
+            }
+            index--;
+            parent = parent.getParent();
+        }
+        return index < 0;
+    }
+}
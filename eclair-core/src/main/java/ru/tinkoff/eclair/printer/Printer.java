@@ -18,10 +18,19 @@ package ru.tinkoff.eclair.printer;
 import ru.tinkoff.eclair.printer.processor.PrinterPostProcessor;
 import ru.tinkoff.eclair.printer.processor.PrinterPreProcessor;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
+ * Output may be limited by {@link #setMaxLength(int)} or by {@link #withMaxLength(int)} views.
+ * Limited serialization is aborted as soon as the limit is exceeded, so the cost of printing does not depend on
+ * the size of the input. Truncated output is ended by the marker from {@link #getTruncationMarker(Object)}.
+ *
  * @author Vyacheslav Klapatnyuk
  */
 public abstract class Printer {
@@ -29,6 +38,8 @@ public abstract class Printer {
     private final List<PrinterPreProcessor> preProcessors = new ArrayList<>();
     private final List<PrinterPostProcessor> postProcessors = new ArrayList<>();
 
+    private int maxLength;
+
     public boolean supports(Class<?> clazz) {
         return true;
     }
@@ -43,25 +54,198 @@ public abstract class Printer {
         return this;
     }
 
+    /**
+     * @param maxLength maximum count of serialized chars (excluding truncation marker), {@code 0} - unlimited (by default).
+     *                  Post-processors receive already truncated output.
+     */
+    public void setMaxLength(int maxLength) {
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("Maximum length should not be negative: " + maxLength);
+        }
+        this.maxLength = maxLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * @return view of this printer with the same processors and own maximum length
+     * @see #setMaxLength(int)
+     */
+    public Printer withMaxLength(int maxLength) {
+        LengthLimitedPrinter printer = new LengthLimitedPrinter(this);
+        printer.setMaxLength(maxLength);
+        return printer;
+    }
+
     /**
      * @param input never {@code null}
      * @throws RuntimeException Any thrown exceptions should be handled by invoker.
      */
     public String print(Object input) throws RuntimeException {
+        return print(input, maxLength);
+    }
+
+    private String print(Object input, int maxLength) {
+        Object original = input;
         for (PrinterPreProcessor preProcessor : preProcessors) {
             input = preProcessor.process(input);
         }
-        String string = serialize(input);
+        String string;
+        if (maxLength > 0) {
+            StringBuilder builder = new StringBuilder();
+            serialize(input, original, new LengthLimitedWriter(builder, maxLength));
+            string = builder.toString();
+        } else {
+            string = serialize(input);
+        }
         for (PrinterPostProcessor postProcessor : postProcessors) {
             string = postProcessor.process(string);
         }
         return string;
     }
 
+    /**
+     * Writes printed input straight into the target, skipping intermediate {@link String}s if possible.
+     * Note: if any {@link PrinterPostProcessor} is added, input is printed by {@link #print(Object)} and then appended.
+     *
+     * @param input  never {@code null}
+     * @param target destination of printed input
+     * @throws RuntimeException Any thrown exceptions should be handled by invoker.
+     *                          In that case target may contain partially printed input.
+     */
+    public void print(Object input, Appendable target) throws RuntimeException {
+        print(input, target, maxLength);
+    }
+
+    private void print(Object input, Appendable target, int maxLength) {
+        if (!postProcessors.isEmpty()) {
+            append(target, print(input, maxLength));
+            return;
+        }
+        Object original = input;
+        for (PrinterPreProcessor preProcessor : preProcessors) {
+            input = preProcessor.process(input);
+        }
+        if (maxLength > 0) {
+            serialize(input, original, new LengthLimitedWriter(target, maxLength));
+        } else {
+            serialize(input, target);
+        }
+    }
+
+    private void serialize(Object input, Object original, LengthLimitedWriter writer) {
+        try {
+            serialize(input, writer);
+        } catch (RuntimeException e) {
+            // serializers wrap the exception aborting serialization in their own ones
+            if (!writer.isExceeded()) {
+                throw e;
+            }
+        }
+        if (writer.isExceeded()) {
+            append(writer.getTarget(), getTruncationMarker(original));
+        }
+    }
+
+    /**
+     * Describes the size of the input if it is cheap to know: length of {@link CharSequence}, count of elements of
+     * array or {@link Collection}, count of entries of {@link Map}.
+     *
+     * @param input original input, before pre-processing
+     */
+    protected String getTruncationMarker(Object input) {
+        if (input instanceof CharSequence) {
+            return "...(truncated, " + ((CharSequence) input).length() + " chars)";
+        }
+        if (input.getClass().isArray()) {
+            return "...(truncated, " + Array.getLength(input) + " elements)";
+        }
+        if (input instanceof Collection) {
+            return "...(truncated, " + ((Collection<?>) input).size() + " elements)";
+        }
+        if (input instanceof Map) {
+            return "...(truncated, " + ((Map<?, ?>) input).size() + " entries)";
+        }
+        return "...(truncated)";
+    }
+
     /**
      * TODO: parameterize?
      *
      * @throws RuntimeException Any thrown exceptions should be handled by invoker.
      */
     protected abstract String serialize(Object input) throws RuntimeException;
+
+    /**
+     * Should be overridden by implementations which are able to write into the target directly.
+     *
+     * @throws RuntimeException Any thrown exceptions should be handled by invoker.
+     */
+    protected void serialize(Object input, Appendable target) throws RuntimeException {
+        append(target, serialize(input));
+    }
+
+    protected static void append(Appendable target, CharSequence charSequence) throws UncheckedIOException {
+        try {
+            target.append(charSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Shares processors and serialization with the original printer.
+     */
+    private static final class LengthLimitedPrinter extends Printer {
+
+        private final Printer printer;
+
+        private LengthLimitedPrinter(Printer printer) {
+            this.printer = printer;
+        }
+
+        @Override
+        public boolean supports(Class<?> clazz) {
+            return printer.supports(clazz);
+        }
+
+        @Override
+        public Printer addPreProcessor(PrinterPreProcessor preProcessor) {
+            printer.addPreProcessor(preProcessor);
+            return this;
+        }
+
+        @Override
+        public Printer addPostProcessor(PrinterPostProcessor postProcessor) {
+            printer.addPostProcessor(postProcessor);
+            return this;
+        }
+
+        @Override
+        public String print(Object input) throws RuntimeException {
+            return printer.print(input, getMaxLength());
+        }
+
+        @Override
+        public void print(Object input, Appendable target) throws RuntimeException {
+            printer.print(input, target, getMaxLength());
+        }
+
+        @Override
+        protected String getTruncationMarker(Object input) {
+            return printer.getTruncationMarker(input);
+        }
+
+        @Override
+        protected String serialize(Object input) throws RuntimeException {
+            return printer.serialize(input);
+        }
+
+        @Override
+        protected void serialize(Object input, Appendable target) throws RuntimeException {
+            printer.serialize(input, target);
+        }
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.printer;
+
+import ru.tinkoff.eclair.printer.resolver.PrinterResolver;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prints each value by the printer resolved for its runtime class instead of the declared one.
+ * Resolved printers are cached per class, so {@link Printer#supports} is not called for the same class twice.
+ */
+public class RuntimeTypePrinter extends Printer {
+
+    private final PrinterResolver printerResolver;
+    private final String printerName;
+    private final ClassValue<Printer> printers = new ClassValue<Printer>() {
+        @Override
+        protected Printer computeValue(Class<?> clazz) {
+            missCounter.increment();
+            return printerResolver.resolveOrDefault(printerName, clazz);
+        }
+    };
+
+    private final LongAdder lookupCounter = new LongAdder();
+    private final LongAdder missCounter = new LongAdder();
+
+    /**
+     * @param printerName name or alias of the preferred printer, which is used if it supports the runtime class
+     */
+    public RuntimeTypePrinter(PrinterResolver printerResolver, String printerName) {
+        this.printerResolver = printerResolver;
+        this.printerName = printerName;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return true;
+    }
+
+    public Printer getPrinter(Class<?> clazz) {
+        lookupCounter.increment();
+        return printers.get(clazz);
+    }
+
+    /**
+     * @return count of printer lookups by runtime class
+     */
+    public long getLookupCount() {
+        return lookupCounter.sum();
+    }
+
+    /**
+     * @return count of lookups resolved by {@link PrinterResolver} instead of the cache
+     */
+    public long getMissCount() {
+        return missCounter.sum();
+    }
+
+    @Override
+    protected String serialize(Object input) {
+        return getPrinter(input.getClass()).print(input);
+    }
+
+    @Override
+    protected void serialize(Object input, Appendable target) {
+        getPrinter(input.getClass()).print(input, target);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.printer;
+
+import ru.tinkoff.eclair.printer.resolver.PrinterResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Prints arrays, {@link Collection}s and {@link Map}s by the first elements only, e.g. {@code [1, 2, 3, ...](1000 elements)}.
+ * Each element is printed by the printer resolved for its runtime class.
+ * Byte arrays are previewed in hex, e.g. {@code 0x0a1b2c...(1024 bytes)}.
+ * Small containers printed entirely look like their {@code toString()}.
+ * <p>
+ * Printer is selected by the declared type of the logged value. If the runtime type of the value is not a container,
+ * the value is printed by the printer resolved for its class.
+ */
+public class SummarizingPrinter extends Printer {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Supplier<PrinterResolver> printerResolverSupplier;
+    private final ClassValue<Printer> elementPrinters = new ClassValue<Printer>() {
+        @Override
+        protected Printer computeValue(Class<?> clazz) {
+            PrinterResolver printerResolver = printerResolverSupplier.get();
+            return isNull(printerResolver) ? PrinterResolver.defaultPrinter : printerResolver.resolveOrDefault(null, clazz);
+        }
+    };
+
+    private int maxElements = 10;
+    private int maxBytes = 32;
+
+    /**
+     * @param printerResolverSupplier provides resolver of element printers on the first printing,
+     *                                so the resolver may contain this printer itself
+     */
+    public SummarizingPrinter(Supplier<PrinterResolver> printerResolverSupplier) {
+        this.printerResolverSupplier = printerResolverSupplier;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return clazz.isArray() || Collection.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * @param maxElements count of printed elements of arrays (except {@code byte[]}), collections and maps
+     */
+    public void setMaxElements(int maxElements) {
+        this.maxElements = maxElements;
+    }
+
+    /**
+     * @param maxBytes count of printed bytes of {@code byte[]}
+     */
+    public void setMaxBytes(int maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    protected String serialize(Object input) {
+        StringBuilder builder = new StringBuilder();
+        serialize(input, builder);
+        return builder.toString();
+    }
+
+    @Override
+    protected void serialize(Object input, Appendable target) {
+        try {
+            if (input instanceof byte[]) {
+                serializeBytes((byte[]) input, target);
+            } else if (input.getClass().isArray()) {
+                serializeArray(input, target);
+            } else if (input instanceof Collection) {
+                serializeCollection((Collection<?>) input, target);
+            } else if (input instanceof Map) {
+                serializeMap((Map<?, ?>) input, target);
+            } else {
+                serializeElement(input, target);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void serializeBytes(byte[] bytes, Appendable target) throws IOException {
+        int count = Math.min(bytes.length, maxBytes);
+        target.append("0x");
+        for (int a = 0; a < count; a++) {
+            target.append(HEX_DIGITS[(bytes[a] >> 4) & 0xF]).append(HEX_DIGITS[bytes[a] & 0xF]);
+        }
+        if (count < bytes.length) {
+            target.append("...(").append(Integer.toString(bytes.length)).append(" bytes)");
+        }
+    }
+
+    private void serializeArray(Object array, Appendable target) throws IOException {
+        int length = Array.getLength(array);
+        int count = Math.min(length, maxElements);
+        target.append('[');
+        for (int a = 0; a < count; a++) {
+            if (a > 0) {
+                target.append(", ");
+            }
+            serializeElement(Array.get(array, a), target);
+        }
+        appendRest(target, ']', count, length, " elements");
+    }
+
+    private void serializeCollection(Collection<?> collection, Appendable target) throws IOException {
+        int size = collection.size();
+        int count = 0;
+        target.append('[');
+        for (Iterator<?> iterator = collection.iterator(); iterator.hasNext() && count < maxElements; count++) {
+            if (count > 0) {
+                target.append(", ");
+            }
+            Object element = iterator.next();
+            if (element == collection) {
+                target.append("(this Collection)");
+            } else {
+                serializeElement(element, target);
+            }
+        }
+        appendRest(target, ']', count, size, " elements");
+    }
+
+    private void serializeMap(Map<?, ?> map, Appendable target) throws IOException {
+        int size = map.size();
+        int count = 0;
+        target.append('{');
+        for (Iterator<? extends Map.Entry<?, ?>> iterator = map.entrySet().iterator(); iterator.hasNext() && count < maxElements; count++) {
+            if (count > 0) {
+                target.append(", ");
+            }
+            Map.Entry<?, ?> entry = iterator.next();
+            serializeElement(entry.getKey() == map ? "(this Map)" : entry.getKey(), target);
+            target.append('=');
+            serializeElement(entry.getValue() == map ? "(this Map)" : entry.getValue(), target);
+        }
+        appendRest(target, '}', count, size, " entries");
+    }
+
+    private void appendRest(Appendable target, char closing, int count, int size, String unit) throws IOException {
+        if (count < size) {
+            target.append(count > 0 ? ", ..." : "...");
+            target.append(closing).append('(').append(Integer.toString(size)).append(unit).append(')');
+        } else {
+            target.append(closing);
+        }
+    }
+
+    /**
+     * Falls back to {@link PrinterResolver#defaultPrinter} like the logger does for failed printers.
+     */
+    private void serializeElement(Object element, Appendable target) throws IOException {
+        if (isNull(element)) {
+            target.append("null");
+            return;
+        }
+        Printer printer = elementPrinters.get(element.getClass());
+        try {
+            printer.print(element, target);
+        } catch (RuntimeException e) {
+            // if the output is limited and already exceeded, the fallback fails too and aborts serialization
+            PrinterResolver.defaultPrinter.print(element, target);
+        }
+    }
+}
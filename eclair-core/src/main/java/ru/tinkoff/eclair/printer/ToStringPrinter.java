@@ -15,18 +15,167 @@
 
 package ru.tinkoff.eclair.printer;
 
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * @author Vyacheslav Klapatnyuk
  */
 public class ToStringPrinter extends Printer {
 
+    /**
+     * Classes with {@code toString()} inherited from {@link AbstractCollection} or {@link AbstractMap}.
+     */
+    private static final ClassValue<Boolean> streamableClasses = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (!Collection.class.isAssignableFrom(type) && !Map.class.isAssignableFrom(type)) {
+                return false;
+            }
+            Method toString = ReflectionUtils.findMethod(type, "toString");
+            Class<?> declaringClass = isNull(toString) ? null : toString.getDeclaringClass();
+            return declaringClass == AbstractCollection.class || declaringClass == AbstractMap.class;
+        }
+    };
+
+    /**
+     * Subclasses customizing serialization into {@link String} are not bypassed by writing into the target directly.
+     */
+    private final boolean streaming = isNotOverridden("serialize", Object.class)
+            && isNotOverridden("serialize", Object.class, boolean.class);
+
+    private boolean isNotOverridden(String name, Class<?>... parameterTypes) {
+        Method method = ReflectionUtils.findMethod(getClass(), name, parameterTypes);
+        return nonNull(method) && method.getDeclaringClass() == ToStringPrinter.class;
+    }
+
     @Override
     protected String serialize(Object input) {
         return serialize(input, true);
     }
 
+    @Override
+    protected void serialize(Object input, Appendable target) {
+        if (!streaming) {
+            append(target, serialize(input));
+            return;
+        }
+        if (input instanceof String) {
+            try {
+                target.append('"').append((String) input).append('"');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return;
+        }
+        if (target instanceof LengthLimitedWriter) {
+            if (input.getClass().isArray()) {
+                serializeArray(input, target);
+                return;
+            }
+            if (isStreamable(input.getClass())) {
+                try {
+                    appendToString(input, target);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+        }
+        append(target, serialize(input, true));
+    }
+
+    /**
+     * Appends elements one by one in format of {@link Arrays#toString}, so limited output is aborted without printing
+     * of the whole array. Unlimited output is built by {@link Arrays#toString} itself, which avoids boxing.
+     */
+    private void serializeArray(Object array, Appendable target) {
+        try {
+            target.append('[');
+            int length = Array.getLength(array);
+            for (int a = 0; a < length; a++) {
+                if (a > 0) {
+                    target.append(", ");
+                }
+                appendToString(Array.get(array, a), target);
+            }
+            target.append(']');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Collections and maps formatted by {@link AbstractCollection#toString()} and {@link AbstractMap#toString()}
+     * are iterated into the target in the same format, so limited output is aborted without printing of all the elements.
+     * Other values are appended by {@link String#valueOf(Object)}.
+     */
+    private static void appendToString(Object value, Appendable target) throws IOException {
+        if (value instanceof Collection && isStreamable(value.getClass())) {
+            appendCollection((Collection<?>) value, target);
+        } else if (value instanceof Map && isStreamable(value.getClass())) {
+            appendMap((Map<?, ?>) value, target);
+        } else {
+            target.append(String.valueOf(value));
+        }
+    }
+
+    private static void appendCollection(Collection<?> collection, Appendable target) throws IOException {
+        target.append('[');
+        boolean first = true;
+        for (Object element : collection) {
+            if (!first) {
+                target.append(", ");
+            }
+            first = false;
+            if (element == collection) {
+                target.append("(this Collection)");
+            } else {
+                appendToString(element, target);
+            }
+        }
+        target.append(']');
+    }
+
+    private static void appendMap(Map<?, ?> map, Appendable target) throws IOException {
+        target.append('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                target.append(", ");
+            }
+            first = false;
+            appendMapMember(map, entry.getKey(), target);
+            target.append('=');
+            appendMapMember(map, entry.getValue(), target);
+        }
+        target.append('}');
+    }
+
+    private static void appendMapMember(Map<?, ?> map, Object member, Appendable target) throws IOException {
+        if (member == map) {
+            target.append("(this Map)");
+        } else {
+            appendToString(member, target);
+        }
+    }
+
+    private static boolean isStreamable(Class<?> clazz) {
+        return streamableClasses.get(clazz);
+    }
+
     protected String serialize(Object input, boolean wrapStrings) {
         if (input instanceof String) {
             if (wrapStrings) {
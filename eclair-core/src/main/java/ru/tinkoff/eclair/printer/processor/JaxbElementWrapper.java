@@ -34,33 +34,33 @@ import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
+import static java.util.Collections.synchronizedMap;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static org.springframework.util.StringUtils.hasText;
 
 /**
+ * Wraps objects without {@link XmlRootElement} into {@link JAXBElement}s by {@link XmlElementDecl} factory methods
+ * of {@link XmlRegistry} classes known to the {@link Jaxb2Marshaller}.
+ * Factory methods are indexed by parameter type once on the first wrapping and the index is shared by all the wrappers
+ * of the same marshaller.
+ *
  * @author Vyacheslav Klapatnyuk
  */
 public class JaxbElementWrapper implements PrinterPreProcessor {
 
-    /**
-     * Incorrect method for empty cache stub.
-     */
-    private static final Method EMPTY_METHOD = BeanUtils.findMethod(JaxbElementWrapper.class, "process", Object.class);
-
     private static final ResourcePatternResolver resourcePatternResolver = new PathMatchingResourcePatternResolver();
     private static final MetadataReaderFactory metadataReaderFactory = new CachingMetadataReaderFactory(resourcePatternResolver);
 
-    private final Map<Class<?>, Method> wrapperMethodCache = new ConcurrentHashMap<>();
-    private final Map<Class<?>, Object> wrapperCache = new ConcurrentHashMap<>();
+    private static final Map<Jaxb2Marshaller, ObjectFactoryIndex> indexes = synchronizedMap(new WeakHashMap<>());
 
     private final Jaxb2Marshaller jaxb2Marshaller;
 
+    private volatile ObjectFactoryIndex index;
+
     public JaxbElementWrapper(Jaxb2Marshaller jaxb2Marshaller) {
         this.jaxb2Marshaller = jaxb2Marshaller;
     }
@@ -73,38 +73,23 @@ public class JaxbElementWrapper implements PrinterPreProcessor {
         if (nonNull(input.getClass().getAnnotation(XmlRootElement.class))) {
             return input;
         }
-        return wrap(jaxb2Marshaller, input);
+        return getIndex().wrap(input);
     }
 
     Map<Class<?>, Object> getWrapperCache() {
-        return wrapperCache;
+        return getIndex().wrappers;
     }
 
-    private Object wrap(Jaxb2Marshaller jaxb2Marshaller, Object input) {
-        Class<?> clazz = input.getClass();
-
-        Object cached = wrapperMethodCache.get(clazz);
-        if (nonNull(cached)) {
-            return cached == EMPTY_METHOD ? input : wrap(input, (Method) cached);
-        }
-
-        Class<?>[] wrapperClasses = findWrapperClasses(jaxb2Marshaller);
-        if (isNull(wrapperClasses)) {
-            wrapperMethodCache.put(clazz, EMPTY_METHOD);
-            return input;
+    private ObjectFactoryIndex getIndex() {
+        ObjectFactoryIndex index = this.index;
+        if (isNull(index)) {
+            index = indexes.computeIfAbsent(jaxb2Marshaller, marshaller -> new ObjectFactoryIndex(findWrapperClasses(marshaller)));
+            this.index = index;
         }
-
-        Method method = findMethod(wrapperClasses, clazz);
-        if (isNull(method)) {
-            wrapperMethodCache.put(clazz, EMPTY_METHOD);
-            return input;
-        }
-
-        wrapperMethodCache.put(clazz, method);
-        return wrap(input, method);
+        return index;
     }
 
-    private Class<?>[] findWrapperClasses(Jaxb2Marshaller jaxb2Marshaller) {
+    private static Class<?>[] findWrapperClasses(Jaxb2Marshaller jaxb2Marshaller) {
         String contextPath = jaxb2Marshaller.getContextPath();
         if (!hasText(contextPath)) {
             return jaxb2Marshaller.getClassesToBeBound();
@@ -120,7 +105,7 @@ public class JaxbElementWrapper implements PrinterPreProcessor {
         return classes.toArray(new Class[classes.size()]);
     }
 
-    private Resource[] pathToResources(String path) {
+    private static Resource[] pathToResources(String path) {
         String resourcePath = ClassUtils.convertClassNameToResourcePath(SystemPropertyUtils.resolvePlaceholders(path));
         String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + resourcePath + "/*.class";
         try {
@@ -130,7 +115,7 @@ public class JaxbElementWrapper implements PrinterPreProcessor {
         }
     }
 
-    private Class<?> forName(Resource resource) {
+    private static Class<?> forName(Resource resource) {
         try {
             String className = metadataReaderFactory.getMetadataReader(resource).getClassMetadata().getClassName();
             return Class.forName(className);
@@ -139,44 +124,59 @@ public class JaxbElementWrapper implements PrinterPreProcessor {
         }
     }
 
-    private Method findMethod(Class<?>[] classes, Class<?> parameterClass) {
-        for (Class<?> clazz : classes) {
-            if (nonNull(clazz.getAnnotation(XmlRegistry.class))) {
-                for (Method method : ReflectionUtils.getAllDeclaredMethods(clazz)) {
-                    if (byParameterType(method, parameterClass) && byReturnType(method, parameterClass) && byAnnotation(method)) {
-                        return method;
+    /**
+     * {@link XmlElementDecl} factory methods by parameter type and lazily instantiated {@link XmlRegistry} objects.
+     */
+    private static final class ObjectFactoryIndex {
+
+        private final Map<Class<?>, Method> methods = new HashMap<>();
+        private final Map<Class<?>, Object> wrappers = new ConcurrentHashMap<>();
+
+        private ObjectFactoryIndex(Class<?>[] classes) {
+            if (isNull(classes)) {
+                return;
+            }
+            for (Class<?> clazz : classes) {
+                if (nonNull(clazz.getAnnotation(XmlRegistry.class))) {
+                    for (Method method : ReflectionUtils.getAllDeclaredMethods(clazz)) {
+                        Class<?> parameterClass = getParameterClass(method);
+                        if (nonNull(parameterClass)) {
+                            // the first found method wins
+                            methods.putIfAbsent(parameterClass, method);
+                        }
                     }
                 }
             }
         }
-        return null;
-    }
 
-    private boolean byParameterType(Method method, Class<?> parameterClass) {
-        return method.getParameterCount() == 1 && method.getParameterTypes()[0].equals(parameterClass);
-    }
+        private Object wrap(Object input) {
+            Method method = methods.get(input.getClass());
+            if (isNull(method)) {
+                return input;
+            }
+            Object wrapper = wrappers.computeIfAbsent(method.getDeclaringClass(), BeanUtils::instantiate);
+            return ReflectionUtils.invokeMethod(method, wrapper, input);
+        }
 
-    private boolean byReturnType(Method method, Class<?> parameterClass) {
-        Type genericReturnType = method.getGenericReturnType();
-        if (genericReturnType instanceof ParameterizedType) {
-            ParameterizedType parameterizedType = (ParameterizedType) genericReturnType;
-            if (parameterizedType.getRawType().equals(JAXBElement.class)) {
-                Type[] actualTypeArguments = parameterizedType.getActualTypeArguments();
-                if (actualTypeArguments.length == 1 && actualTypeArguments[0].equals(parameterClass)) {
-                    return true;
+        /**
+         * @return class of the only parameter of {@link XmlElementDecl} method returning {@code JAXBElement} of it
+         */
+        private static Class<?> getParameterClass(Method method) {
+            if (method.getParameterCount() != 1 || isNull(method.getAnnotation(XmlElementDecl.class))) {
+                return null;
+            }
+            Class<?> parameterClass = method.getParameterTypes()[0];
+            Type genericReturnType = method.getGenericReturnType();
+            if (genericReturnType instanceof ParameterizedType) {
+                ParameterizedType parameterizedType = (ParameterizedType) genericReturnType;
+                if (parameterizedType.getRawType().equals(JAXBElement.class)) {
+                    Type[] actualTypeArguments = parameterizedType.getActualTypeArguments();
+                    if (actualTypeArguments.length == 1 && actualTypeArguments[0].equals(parameterClass)) {
+                        return parameterClass;
+                    }
                 }
             }
+            return null;
         }
-        return false;
-    }
-
-    private boolean byAnnotation(Method method) {
-        return nonNull(method.getAnnotation(XmlElementDecl.class));
-    }
-
-    private Object wrap(Object input, Method method) {
-        Class<?> wrapperClass = method.getDeclaringClass();
-        Object wrapper = wrapperCache.computeIfAbsent(wrapperClass, BeanUtils::instantiate);
-        return ReflectionUtils.invokeMethod(method, wrapper, input);
     }
 }
@@ -0,0 +1,418 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.printer.processor;
+
+import java.util.*;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Masks sensitive data in printed strings, e.g. output of {@link ru.tinkoff.eclair.printer.ToStringPrinter}.
+ * Supported rules:
+ * <ul>
+ * <li>literals, masked entirely</li>
+ * <li>prefixes (e.g. {@code Bearer }), the value after them is masked</li>
+ * <li>keys (e.g. {@code password}), the value of {@code key=value}, {@code key: value} or {@code "key":"value"} is masked</li>
+ * <li>runs of digits of the specified length, optionally valid by Luhn algorithm (e.g. card numbers)</li>
+ * </ul>
+ * All literals, prefixes and keys are compiled into the single Aho-Corasick automaton, which is fed by each char once
+ * along with tracking of digit runs. So the string is scanned once regardless of count of rules
+ * and is copied only if a match is found.
+ * <p>
+ * Value after a prefix or a key ends by whitespace or one of {@code ,;&"'()[]{}<>}, quoted value ends by the quote.
+ */
+public class SensitiveDataScrubber implements PrinterPostProcessor {
+
+    private static final String VALUE_DELIMITERS = ",;&\"'()[]{}<>";
+
+    private final List<String> literals = new ArrayList<>();
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private final List<DigitRule> digitRules = new ArrayList<>();
+
+    private String replacement = "********";
+    private Automaton automaton = new Automaton(literals, prefixes, keys);
+
+    public SensitiveDataScrubber maskLiterals(String... literals) {
+        this.literals.addAll(validate(literals));
+        return compile();
+    }
+
+    public SensitiveDataScrubber maskAfterPrefixes(String... prefixes) {
+        this.prefixes.addAll(validate(prefixes));
+        return compile();
+    }
+
+    public SensitiveDataScrubber maskValuesOfKeys(String... keys) {
+        this.keys.addAll(validate(keys));
+        return compile();
+    }
+
+    /**
+     * Masks runs of 13-19 digits valid by Luhn algorithm.
+     */
+    public SensitiveDataScrubber maskCardNumbers() {
+        return maskDigits(13, 19, true);
+    }
+
+    /**
+     * @param luhn whether the run should be valid by Luhn algorithm
+     */
+    public SensitiveDataScrubber maskDigits(int minLength, int maxLength, boolean luhn) {
+        if (minLength < 1 || maxLength < minLength) {
+            throw new IllegalArgumentException(String.format("Invalid length of digits: %d..%d", minLength, maxLength));
+        }
+        digitRules.add(new DigitRule(minLength, maxLength, luhn));
+        return this;
+    }
+
+    public SensitiveDataScrubber setReplacement(String replacement) {
+        this.replacement = replacement;
+        return this;
+    }
+
+    private static List<String> validate(String... patterns) {
+        for (String pattern : patterns) {
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Pattern should not be empty");
+            }
+        }
+        return Arrays.asList(patterns);
+    }
+
+    private SensitiveDataScrubber compile() {
+        automaton = new Automaton(literals, prefixes, keys);
+        return this;
+    }
+
+    @Override
+    public String process(String string) {
+        Automaton automaton = this.automaton;
+        boolean digitsMasked = !digitRules.isEmpty();
+        StringBuilder builder = null;
+        int copied = 0;
+        int state = 0;
+        int digitsStart = -1;
+        int length = string.length();
+        for (int a = 0; a <= length; a++) {
+            char c = a < length ? string.charAt(a) : 0;
+            if (digitsMasked) {
+                if (a < length && c >= '0' && c <= '9') {
+                    if (digitsStart < 0) {
+                        digitsStart = a;
+                    }
+                } else if (digitsStart >= 0) {
+                    if (digitsStart >= copied && isMaskedDigits(string, digitsStart, a)) {
+                        builder = mask(builder, string, copied, digitsStart);
+                        copied = a;
+                    }
+                    digitsStart = -1;
+                }
+            }
+            if (a == length || automaton.isEmpty()) {
+                continue;
+            }
+            state = automaton.next(state, c);
+            for (int node = automaton.getMatch(state); node > 0; node = automaton.getNextMatch(node)) {
+                int pattern = automaton.getPattern(node);
+                int start = a + 1 - automaton.getLength(pattern);
+                if (start < copied) {
+                    continue;
+                }
+                int valueStart;
+                int valueEnd;
+                switch (automaton.getKind(pattern)) {
+                    case LITERAL:
+                        valueStart = start;
+                        valueEnd = a + 1;
+                        break;
+                    case PREFIX:
+                        valueStart = a + 1;
+                        valueEnd = findValueEnd(string, valueStart, (char) 0);
+                        break;
+                    case KEY:
+                        if (start > 0 && isIdentifierPart(string.charAt(start - 1))) {
+                            continue;
+                        }
+                        valueStart = findKeyValueStart(string, a + 1);
+                        if (valueStart < 0) {
+                            continue;
+                        }
+                        char quote = valueStart > 0 ? string.charAt(valueStart - 1) : 0;
+                        valueEnd = findValueEnd(string, valueStart, quote == '"' || quote == '\'' ? quote : 0);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unexpected kind of pattern: " + automaton.getKind(pattern));
+                }
+                if (valueEnd == valueStart) {
+                    continue;
+                }
+                builder = mask(builder, string, copied, valueStart);
+                copied = valueEnd;
+                // continue after the value, its content is not a subject of other rules
+                a = valueEnd - 1;
+                state = 0;
+                digitsStart = -1;
+                break;
+            }
+        }
+        if (isNull(builder)) {
+            return string;
+        }
+        return builder.append(string, copied, length).toString();
+    }
+
+    private StringBuilder mask(StringBuilder builder, String string, int copied, int valueStart) {
+        if (isNull(builder)) {
+            builder = new StringBuilder(string.length() + (isNull(replacement) ? 0 : replacement.length()));
+        }
+        builder.append(string, copied, valueStart);
+        if (!isNull(replacement)) {
+            builder.append(replacement);
+        }
+        return builder;
+    }
+
+    private boolean isMaskedDigits(String string, int start, int end) {
+        int length = end - start;
+        for (DigitRule rule : digitRules) {
+            if (length >= rule.minLength && length <= rule.maxLength && (!rule.luhn || isLuhnValid(string, start, end))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLuhnValid(String string, int start, int end) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int a = end - 1; a >= start; a--) {
+            int digit = string.charAt(a) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * Skips optional closing quote of the key, separator {@code =} or {@code :}, whitespaces and opening quote.
+     *
+     * @return start of the value or {@code -1} if the key is not followed by separator
+     */
+    private static int findKeyValueStart(String string, int keyEnd) {
+        int length = string.length();
+        int index = keyEnd;
+        if (index < length && (string.charAt(index) == '"' || string.charAt(index) == '\'')) {
+            index++;
+        }
+        index = skipWhitespaces(string, index);
+        if (index == length || (string.charAt(index) != '=' && string.charAt(index) != ':')) {
+            return -1;
+        }
+        index = skipWhitespaces(string, index + 1);
+        if (index < length && (string.charAt(index) == '"' || string.charAt(index) == '\'')) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipWhitespaces(String string, int index) {
+        while (index < string.length() && Character.isWhitespace(string.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @param quote opening quote of the value or {@code 0} if the value is not quoted
+     */
+    private static int findValueEnd(String string, int valueStart, char quote) {
+        int length = string.length();
+        int index = valueStart;
+        if (quote != 0) {
+            while (index < length && string.charAt(index) != quote) {
+                index++;
+            }
+            return index;
+        }
+        while (index < length) {
+            char c = string.charAt(index);
+            if (Character.isWhitespace(c) || VALUE_DELIMITERS.indexOf(c) >= 0) {
+                break;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    private static final class DigitRule {
+
+        private final int minLength;
+        private final int maxLength;
+        private final boolean luhn;
+
+        private DigitRule(int minLength, int maxLength, boolean luhn) {
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.luhn = luhn;
+        }
+    }
+
+    private enum Kind {
+        LITERAL, PREFIX, KEY
+    }
+
+    /**
+     * Aho-Corasick automaton. Transitions of each node are kept in sorted arrays.
+     * Matches ending at the node are listed from the longest one by {@link #getMatch(int)} and {@link #getNextMatch(int)}.
+     */
+    private static final class Automaton {
+
+        private final int[] lengths;
+        private final Kind[] kinds;
+
+        private final char[][] chars;
+        private final int[][] targets;
+        private final int[] failures;
+        private final int[] patterns;
+        private final int[] matches;
+        private final int[] nextMatches;
+
+        Automaton(List<String> literals, List<String> prefixes, List<String> keys) {
+            List<String> all = new ArrayList<>();
+            List<Kind> allKinds = new ArrayList<>();
+            add(all, allKinds, literals, Kind.LITERAL);
+            add(all, allKinds, prefixes, Kind.PREFIX);
+            add(all, allKinds, keys, Kind.KEY);
+            this.lengths = new int[all.size()];
+            this.kinds = allKinds.toArray(new Kind[0]);
+
+            List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+            List<Integer> nodePatterns = new ArrayList<>();
+            trie.add(new TreeMap<>());
+            nodePatterns.add(-1);
+            for (int pattern = 0; pattern < all.size(); pattern++) {
+                String string = all.get(pattern);
+                lengths[pattern] = string.length();
+                int node = 0;
+                for (int a = 0; a < string.length(); a++) {
+                    Integer next = trie.get(node).get(string.charAt(a));
+                    if (isNull(next)) {
+                        next = trie.size();
+                        trie.add(new TreeMap<>());
+                        nodePatterns.add(-1);
+                        trie.get(node).put(string.charAt(a), next);
+                    }
+                    node = next;
+                }
+                if (nodePatterns.get(node) < 0) {
+                    nodePatterns.set(node, pattern);
+                }
+            }
+
+            int size = trie.size();
+            this.chars = new char[size][];
+            this.targets = new int[size][];
+            this.patterns = new int[size];
+            for (int node = 0; node < size; node++) {
+                TreeMap<Character, Integer> transitions = trie.get(node);
+                chars[node] = new char[transitions.size()];
+                targets[node] = new int[transitions.size()];
+                int index = 0;
+                for (Map.Entry<Character, Integer> entry : transitions.entrySet()) {
+                    chars[node][index] = entry.getKey();
+                    targets[node][index++] = entry.getValue();
+                }
+                patterns[node] = nodePatterns.get(node);
+            }
+
+            this.failures = new int[size];
+            this.matches = new int[size];
+            this.nextMatches = new int[size];
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int target : targets[0]) {
+                queue.add(target);
+            }
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                // nodes are visited by breadth, so the failure node is already linked
+                int failure = failures[node];
+                matches[node] = patterns[node] >= 0 ? node : matches[failure];
+                nextMatches[node] = matches[failure];
+                for (int a = 0; a < chars[node].length; a++) {
+                    int child = targets[node][a];
+                    failures[child] = next(failure, chars[node][a]);
+                    queue.add(child);
+                }
+            }
+        }
+
+        private static void add(List<String> all, List<Kind> allKinds, List<String> strings, Kind kind) {
+            all.addAll(strings);
+            allKinds.addAll(Collections.nCopies(strings.size(), kind));
+        }
+
+        boolean isEmpty() {
+            return lengths.length == 0;
+        }
+
+        int next(int state, char c) {
+            while (true) {
+                int index = Arrays.binarySearch(chars[state], c);
+                if (index >= 0) {
+                    return targets[state][index];
+                }
+                if (state == 0) {
+                    return 0;
+                }
+                state = failures[state];
+            }
+        }
+
+        /**
+         * @return node of the longest match ending at the state or {@code 0} if none
+         */
+        int getMatch(int state) {
+            return matches[state];
+        }
+
+        int getNextMatch(int node) {
+            return nextMatches[node];
+        }
+
+        int getPattern(int node) {
+            return patterns[node];
+        }
+
+        int getLength(int pattern) {
+            return lengths[pattern];
+        }
+
+        Kind getKind(int pattern) {
+            return kinds[pattern];
+        }
+    }
+}
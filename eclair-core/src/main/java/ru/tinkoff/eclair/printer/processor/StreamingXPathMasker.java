@@ -0,0 +1,330 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.printer.processor;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.*;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import javax.xml.transform.OutputKeys;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Masks XML like {@link XPathMasker} in a single StAX pass without building of DOM.
+ * Memory consumption depends on the depth of the document, not on its size.
+ * <p>
+ * Supported subset of XPath: absolute paths of elements separated by {@code /} or {@code //},
+ * optionally ended by an attribute, e.g. {@code /envelope/body//card/number}, {@code //password}, {@code //user/@token}.
+ * Name of the step may be {@code *}. Unprefixed names match elements and attributes of any namespace by local part,
+ * prefixed ones match the qualified names as they are written in the document.
+ * <p>
+ * Paths are compiled once into an automaton, whose states are tracked for each open element.
+ * Supported output properties: {@link OutputKeys#OMIT_XML_DECLARATION}, {@link OutputKeys#VERSION},
+ * {@link OutputKeys#ENCODING} and {@link OutputKeys#STANDALONE}.
+ */
+public class StreamingXPathMasker implements PrinterPostProcessor {
+
+    private static final Pattern STEP_PATTERN = Pattern.compile("(//?)(@?)(\\*|[\\w.\\-]+(?::[\\w.\\-]+)?)");
+    private static final Set<String> SUPPORTED_OUTPUT_PROPERTIES = new HashSet<>(Arrays.asList(
+            OutputKeys.OMIT_XML_DECLARATION, OutputKeys.VERSION, OutputKeys.ENCODING, OutputKeys.STANDALONE));
+
+    private final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+    private final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+    private final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+
+    private final Automaton automaton;
+
+    private String replacement;
+    private String declaration;
+
+    /**
+     * @throws IllegalArgumentException if an expression is out of the supported subset of XPath
+     */
+    public StreamingXPathMasker(String... xPathExpressions) {
+        this.automaton = new Automaton(xPathExpressions);
+        this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        setOutputProperties(emptyMap());
+    }
+
+    @Override
+    public String process(String string) {
+        if (automaton.isEmpty()) {
+            return string;
+        }
+        StringWriter writer = new StringWriter(string.length() + declaration.length());
+        XMLEventReader reader = null;
+        try {
+            reader = inputFactory.createXMLEventReader(new StringReader(string));
+            writer.write(declaration);
+            XMLEventWriter eventWriter = outputFactory.createXMLEventWriter(writer);
+            mask(reader, eventWriter);
+            eventWriter.flush();
+            return writer.toString();
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException(e);
+        } finally {
+            close(reader);
+        }
+    }
+
+    private void mask(XMLEventReader reader, XMLEventWriter writer) throws XMLStreamException {
+        Deque<BitSet> states = new ArrayDeque<>();
+        states.push(automaton.getInitialState());
+        while (reader.hasNext()) {
+            XMLEvent event = reader.nextEvent();
+            switch (event.getEventType()) {
+                case XMLStreamConstants.START_DOCUMENT:
+                case XMLStreamConstants.END_DOCUMENT:
+                    break;
+                case XMLStreamConstants.START_ELEMENT:
+                    StartElement startElement = event.asStartElement();
+                    BitSet state = automaton.next(states.peek(), startElement.getName());
+                    writer.add(maskAttributes(startElement, state));
+                    if (automaton.isElementAccepted(state)) {
+                        if (nonNull(replacement) && !replacement.isEmpty()) {
+                            writer.add(eventFactory.createCharacters(replacement));
+                        }
+                        writer.add(skipContent(reader));
+                    } else {
+                        states.push(state);
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    states.pop();
+                    writer.add(event);
+                    break;
+                default:
+                    writer.add(event);
+            }
+        }
+    }
+
+    private StartElement maskAttributes(StartElement startElement, BitSet state) {
+        if (!automaton.isAttributeExpected(state)) {
+            return startElement;
+        }
+        List<Attribute> attributes = new ArrayList<>();
+        boolean masked = false;
+        for (Iterator<?> iterator = startElement.getAttributes(); iterator.hasNext(); ) {
+            Attribute attribute = (Attribute) iterator.next();
+            if (automaton.isAttributeAccepted(state, attribute.getName())) {
+                attributes.add(eventFactory.createAttribute(attribute.getName(), isNull(replacement) ? "" : replacement));
+                masked = true;
+            } else {
+                attributes.add(attribute);
+            }
+        }
+        if (!masked) {
+            return startElement;
+        }
+        return eventFactory.createStartElement(startElement.getName(), attributes.iterator(), startElement.getNamespaces());
+    }
+
+    /**
+     * @return end of the element whose start is read last
+     */
+    private XMLEvent skipContent(XMLEventReader reader) throws XMLStreamException {
+        int depth = 0;
+        while (true) {
+            XMLEvent event = reader.nextEvent();
+            if (event.isStartElement()) {
+                depth++;
+            } else if (event.isEndElement() && depth-- == 0) {
+                return event;
+            }
+        }
+    }
+
+    private void close(XMLEventReader reader) {
+        if (nonNull(reader)) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // nothing to release for in-memory source
+            }
+        }
+    }
+
+    public void setReplacement(String replacement) {
+        this.replacement = replacement;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a property is not supported
+     */
+    public void setOutputProperties(Map<String, String> outputProperties) {
+        for (String key : outputProperties.keySet()) {
+            if (!SUPPORTED_OUTPUT_PROPERTIES.contains(key)) {
+                throw new IllegalArgumentException("Output property is not supported: " + key);
+            }
+        }
+        if ("yes".equals(outputProperties.get(OutputKeys.OMIT_XML_DECLARATION))) {
+            this.declaration = "";
+            return;
+        }
+        this.declaration = String.format("<?xml version=\"%s\" encoding=\"%s\" standalone=\"%s\"?>",
+                outputProperties.getOrDefault(OutputKeys.VERSION, "1.0"),
+                outputProperties.getOrDefault(OutputKeys.ENCODING, "UTF-8"),
+                outputProperties.getOrDefault(OutputKeys.STANDALONE, "no"));
+    }
+
+    /**
+     * Nondeterministic automaton over element names. Each state is a set of positions, every position is a count
+     * of already matched element steps of a path. Descendant steps keep their positions for nested elements.
+     */
+    private static final class Automaton {
+
+        private final int size;
+        private final Step[] steps;
+        private final Step[] attributeSteps;
+        private final boolean[] accepting;
+        private final BitSet initialState;
+        private final BitSet attributeStates;
+
+        Automaton(String... xPathExpressions) {
+            List<Step> stepList = new ArrayList<>();
+            List<Step> attributeStepList = new ArrayList<>();
+            List<Boolean> acceptingList = new ArrayList<>();
+            this.initialState = new BitSet();
+            this.attributeStates = new BitSet();
+            for (String xPathExpression : xPathExpressions) {
+                List<Step> pathSteps = parse(xPathExpression);
+                Step last = pathSteps.get(pathSteps.size() - 1);
+                Step attributeStep = last.attribute ? last : null;
+                int elementSteps = isNull(attributeStep) ? pathSteps.size() : pathSteps.size() - 1;
+                initialState.set(stepList.size());
+                for (int a = 0; a <= elementSteps; a++) {
+                    if (a == elementSteps && nonNull(attributeStep)) {
+                        attributeStates.set(stepList.size());
+                    }
+                    stepList.add(a < elementSteps ? pathSteps.get(a) : null);
+                    attributeStepList.add(a == elementSteps ? attributeStep : null);
+                    acceptingList.add(a == elementSteps && isNull(attributeStep));
+                }
+            }
+            this.size = stepList.size();
+            this.steps = stepList.toArray(new Step[0]);
+            this.attributeSteps = attributeStepList.toArray(new Step[0]);
+            this.accepting = new boolean[size];
+            for (int a = 0; a < size; a++) {
+                accepting[a] = acceptingList.get(a);
+            }
+        }
+
+        private static List<Step> parse(String xPathExpression) {
+            Matcher matcher = STEP_PATTERN.matcher(xPathExpression);
+            List<Step> result = new ArrayList<>();
+            int end = 0;
+            while (matcher.find() && matcher.start() == end) {
+                end = matcher.end();
+                Step step = new Step(matcher.group(1).length() == 2, !matcher.group(2).isEmpty(), matcher.group(3));
+                if (!result.isEmpty() && result.get(result.size() - 1).attribute) {
+                    throw new IllegalArgumentException("Attribute should be the last step of XPath: " + xPathExpression);
+                }
+                result.add(step);
+            }
+            if (result.isEmpty() || end != xPathExpression.length()) {
+                throw new IllegalArgumentException("XPath is not supported: " + xPathExpression);
+            }
+            return result;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        BitSet getInitialState() {
+            return initialState;
+        }
+
+        BitSet next(BitSet state, QName name) {
+            BitSet result = new BitSet(size);
+            for (int position = state.nextSetBit(0); position >= 0; position = state.nextSetBit(position + 1)) {
+                Step step = steps[position];
+                if (isNull(step)) {
+                    // descendant attribute is expected at any depth
+                    Step attributeStep = attributeSteps[position];
+                    if (nonNull(attributeStep) && attributeStep.descendant) {
+                        result.set(position);
+                    }
+                    continue;
+                }
+                if (step.descendant) {
+                    result.set(position);
+                }
+                if (step.matches(name)) {
+                    result.set(position + 1);
+                }
+            }
+            return result;
+        }
+
+        boolean isElementAccepted(BitSet state) {
+            for (int position = state.nextSetBit(0); position >= 0; position = state.nextSetBit(position + 1)) {
+                if (accepting[position]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isAttributeExpected(BitSet state) {
+            return state.intersects(attributeStates);
+        }
+
+        boolean isAttributeAccepted(BitSet state, QName name) {
+            for (int position = state.nextSetBit(0); position >= 0; position = state.nextSetBit(position + 1)) {
+                Step attributeStep = attributeSteps[position];
+                if (nonNull(attributeStep) && attributeStep.matches(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Step {
+
+        private final boolean descendant;
+        private final boolean attribute;
+        private final String prefix;
+        private final String localPart;
+
+        Step(boolean descendant, boolean attribute, String name) {
+            this.descendant = descendant;
+            this.attribute = attribute;
+            int colon = name.indexOf(':');
+            this.prefix = colon < 0 ? null : name.substring(0, colon);
+            this.localPart = colon < 0 ? name : name.substring(colon + 1);
+        }
+
+        boolean matches(QName name) {
+            if (nonNull(prefix) && !prefix.equals(name.getPrefix())) {
+                return false;
+            }
+            return "*".equals(localPart) || localPart.equals(name.getLocalPart());
+        }
+    }
+}
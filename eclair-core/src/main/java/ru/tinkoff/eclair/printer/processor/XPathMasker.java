@@ -41,7 +41,10 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.emptyMap;
 
 /**
+ * Supports any XPath, but builds DOM of the whole document on each call.
+ *
  * @author Vyacheslav Klapatnyuk
+ * @see StreamingXPathMasker
  */
 public class XPathMasker implements PrinterPostProcessor {
 
@@ -18,6 +18,7 @@ package ru.tinkoff.eclair.validate;
 import ru.tinkoff.eclair.annotation.Log;
 import ru.tinkoff.eclair.annotation.Mdc;
 import ru.tinkoff.eclair.core.AnnotationExtractor;
+import ru.tinkoff.eclair.core.MethodMetadata;
 import ru.tinkoff.eclair.validate.log.group.*;
 import ru.tinkoff.eclair.validate.mdc.group.MdcsValidator;
 import ru.tinkoff.eclair.validate.mdc.group.MergedMdcsValidator;
@@ -81,26 +82,40 @@ public class MethodValidator implements AnnotationUsageValidator<Method> {
      */
     @Override
     public void validate(Method method, Method target) throws AnnotationUsageException {
-        Set<Log> logs = annotationExtractor.getLogs(target);
-        boolean methodAnnotationFound = !logs.isEmpty();
-
-        Set<Log.in> logIns = annotationExtractor.getLogIns(target);
-        methodAnnotationFound |= !logIns.isEmpty();
-
-        Set<Log.out> logOuts = annotationExtractor.getLogOuts(target);
-        methodAnnotationFound |= !logOuts.isEmpty();
-
-        Set<Log.error> logErrors = annotationExtractor.getLogErrors(target);
-        methodAnnotationFound |= !logErrors.isEmpty();
-
-        Set<Mdc> mdcs = annotationExtractor.getMdcs(target);
-        methodAnnotationFound |= !mdcs.isEmpty();
+        validate(target,
+                annotationExtractor.getLogs(target),
+                annotationExtractor.getLogIns(target),
+                annotationExtractor.getLogOuts(target),
+                annotationExtractor.getLogErrors(target),
+                annotationExtractor.getMdcs(target),
+                annotationExtractor.getParameterLogs(target),
+                annotationExtractor.getParametersMdcs(target));
+    }
 
-        List<Set<Log>> parameterLogs = annotationExtractor.getParameterLogs(target);
-        boolean argAnnotationFound = !parameterLogs.stream().allMatch(Set::isEmpty);
+    /**
+     * Validates annotations already collected by {@link AnnotationExtractor#getClassMetadata(Class)}.
+     */
+    public void validate(MethodMetadata metadata) throws AnnotationUsageException {
+        validate(metadata.getMethod(),
+                metadata.getLogs(),
+                metadata.getLogIns(),
+                metadata.getLogOuts(),
+                metadata.getLogErrors(),
+                metadata.getMdcs(),
+                metadata.getParameterLogs(),
+                metadata.getParameterMdcs());
+    }
 
-        List<Set<Mdc>> parameterMdcs = annotationExtractor.getParametersMdcs(target);
-        argAnnotationFound |= !parameterMdcs.stream().allMatch(Set::isEmpty);
+    private void validate(Method target,
+                          Set<Log> logs,
+                          Set<Log.in> logIns,
+                          Set<Log.out> logOuts,
+                          Set<Log.error> logErrors,
+                          Set<Mdc> mdcs,
+                          List<Set<Log>> parameterLogs,
+                          List<Set<Mdc>> parameterMdcs) throws AnnotationUsageException {
+        boolean methodAnnotationFound = !(logs.isEmpty() && logIns.isEmpty() && logOuts.isEmpty() && logErrors.isEmpty() && mdcs.isEmpty());
+        boolean argAnnotationFound = !(parameterLogs.stream().allMatch(Set::isEmpty) && parameterMdcs.stream().allMatch(Set::isEmpty));
 
         if (Modifier.isPrivate(target.getModifiers())) {
             if (methodAnnotationFound) {
@@ -28,6 +28,7 @@ import java.lang.reflect.Method;
 
 import static java.lang.String.format;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static org.springframework.boot.logging.LogLevel.OFF;
 
 /**
@@ -55,6 +56,33 @@ public class LogValidator<T extends Annotation> implements AnnotationUsageValida
                     target);
         }
 
+        double sampleRate = AnnotationAttribute.SAMPLE_RATE.extract(target);
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new AnnotationUsageException(method,
+                    format("'sampleRate = %s' should be in range from 0 to 1", sampleRate),
+                    "Correct specified 'sampleRate' value",
+                    target);
+        }
+
+        int rateLimit = AnnotationAttribute.RATE_LIMIT.extract(target);
+        int first = AnnotationAttribute.FIRST.extract(target);
+        int every = AnnotationAttribute.EVERY.extract(target);
+        if (rateLimit < 0 || first < 0 || every < 1) {
+            throw new AnnotationUsageException(method,
+                    format("Invalid sampling 'rateLimit = %d', 'first = %d', 'every = %d'", rateLimit, first, every),
+                    "Use non-negative 'rateLimit' and 'first' and positive 'every' values",
+                    target);
+        }
+
+        // 'error'-events have no printed values
+        Integer maxLength = AnnotationAttribute.MAX_LENGTH.extract(target);
+        if (nonNull(maxLength) && maxLength < 0) {
+            throw new AnnotationUsageException(method,
+                    format("'maxLength = %d' should not be negative", maxLength),
+                    "Use positive 'maxLength' or default value '0' to keep the limit of the printer",
+                    target);
+        }
+
         String printerName = AnnotationAttribute.PRINTER.extract(target);
         if (StringUtils.hasText(printerName)) {
             Printer printer = printerResolver.resolve(printerName);
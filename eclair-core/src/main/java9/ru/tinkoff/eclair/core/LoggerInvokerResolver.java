@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.core;
+
+import ru.tinkoff.eclair.logger.ManualLogger;
+
+/**
+ * Resolves the invoker of {@link ManualLogger} walking only the necessary frames of the current stack.
+ * Note: Java 9+ version of the class, packaged into multi-release jar.
+ */
+final class LoggerInvokerResolver {
+
+    private static final LoggerInvokerResolver instance = new LoggerInvokerResolver();
+
+    private static final ClassValue<Boolean> manualLoggerClasses = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return ManualLogger.class.isAssignableFrom(type);
+        }
+    };
+
+    private final StackWalker stackWalker = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private LoggerInvokerResolver() {
+    }
+
+    static LoggerInvokerResolver getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return first frame invoking the nearest {@link ManualLogger} implementation
+     */
+    StackTraceElement resolve() {
+        StackWalker.StackFrame invoker = stackWalker.walk(frames -> frames
+                .dropWhile(frame -> !isManualLogger(frame))
+                .dropWhile(LoggerInvokerResolver::isManualLogger)
+                .findFirst())
+                .orElseThrow(() -> new IllegalArgumentException("Invalid stacktrace"));
+        return new StackTraceElement(invoker.getClassName(), invoker.getMethodName(), null, -1);
+    }
+
+    private static boolean isManualLogger(StackWalker.StackFrame frame) {
+        return manualLoggerClasses.get(frame.getDeclaringClass());
+    }
+}
@@ -17,16 +17,23 @@ package ru.tinkoff.eclair.aop;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 import ru.tinkoff.eclair.annotation.Log;
+import ru.tinkoff.eclair.annotation.Mdc;
 import ru.tinkoff.eclair.core.AnnotationDefinitionFactory;
 import ru.tinkoff.eclair.core.BeanFactoryHelper;
 import ru.tinkoff.eclair.core.ExpressionEvaluator;
@@ -34,10 +41,19 @@ import ru.tinkoff.eclair.logger.SimpleLogger;
 import ru.tinkoff.eclair.printer.Printer;
 import ru.tinkoff.eclair.printer.ToStringPrinter;
 import ru.tinkoff.eclair.printer.resolver.AliasedPrinterResolver;
+import ru.tinkoff.eclair.printer.resolver.PrinterResolver;
+import ru.tinkoff.eclair.validate.AnnotationUsageException;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -149,4 +165,92 @@ public class EclairProxyCreatorTest {
         assertTrue(beanClassCache.get("parent") == Child.class);
         assertTrue(beanClassCache.get("simpleFactoryBean") == Simple.class);
     }
+
+    @Test
+    public void prepareMdcExpressionsWithWarmUp() {
+        // given
+        AnnotationConfigApplicationContext applicationContext =
+                new AnnotationConfigApplicationContext(MdcTestConfiguration.class, ValidMdcTestConfiguration.class);
+        // when
+        ExpressionEvaluator expressionEvaluator = applicationContext.getBean(ExpressionEvaluator.class);
+        // then
+        assertThat(expressionEvaluator.getInterpretedCount(), is(2L));
+        assertThat(expressionEvaluator.getCompiledCount(), is(1L));
+        assertThat(ValidMdc.ids.get(), is(0));
+        applicationContext.close();
+    }
+
+    @Test
+    public void prepareInvalidMdcExpression() {
+        // given
+        AnnotationUsageException exception = null;
+        // when
+        try {
+            new AnnotationConfigApplicationContext(MdcTestConfiguration.class, InvalidMdcTestConfiguration.class);
+        } catch (BeansException e) {
+            exception = (AnnotationUsageException) NestedExceptionUtils.getRootCause(e);
+        }
+        // then
+        assertThat(exception, notNullValue());
+        assertThat(exception.getMethod().getName(), is("method"));
+        assertThat(exception.getMessage(), startsWith("Invalid expression '1 +' of MDC with 'key = sum'"));
+    }
+
+    @Configuration
+    public static class MdcTestConfiguration {
+
+        @Bean
+        public static ExpressionEvaluator expressionEvaluator() {
+            SpelParserConfiguration configuration = new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, null);
+            return new ExpressionEvaluator(new SpelExpressionParser(configuration), new StandardEvaluationContext());
+        }
+
+        @Bean
+        public static EclairProxyCreator eclairProxyCreator(GenericApplicationContext applicationContext,
+                                                            ExpressionEvaluator expressionEvaluator) {
+            PrinterResolver printerResolver = new AliasedPrinterResolver(emptyMap(), emptyMap());
+            EclairProxyCreator eclairProxyCreator = new EclairProxyCreator(applicationContext,
+                    new AnnotationDefinitionFactory(printerResolver), emptyList(), expressionEvaluator, printerResolver);
+            eclairProxyCreator.setValidate(true);
+            eclairProxyCreator.setMdcWarmUpEvaluations(3);
+            return eclairProxyCreator;
+        }
+    }
+
+    @Configuration
+    public static class ValidMdcTestConfiguration {
+
+        @Bean
+        public ValidMdc validMdc() {
+            return new ValidMdc();
+        }
+    }
+
+    @Configuration
+    public static class InvalidMdcTestConfiguration {
+
+        @Bean
+        public InvalidMdc invalidMdc() {
+            return new InvalidMdc();
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class ValidMdc {
+
+        public static final AtomicInteger ids = new AtomicInteger();
+
+        @Mdc(key = "sum", value = "1 + 1")
+        @Mdc(key = "id", value = "T(ru.tinkoff.eclair.aop.EclairProxyCreatorTest$ValidMdc).ids.incrementAndGet()")
+        public void method(@Mdc(key = "length", value = "length()") String input) {
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class InvalidMdc {
+
+        @Mdc(key = "sum", value = "1 +")
+        public void method() {
+        }
+    }
 }
@@ -18,20 +18,39 @@ package ru.tinkoff.eclair.aop;
 import org.aopalliance.intercept.MethodInvocation;
 import org.junit.Before;
 import org.junit.Test;
+import org.slf4j.MDC;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import ru.tinkoff.eclair.annotation.Log;
+import ru.tinkoff.eclair.core.AnnotationDefinitionFactory;
+import ru.tinkoff.eclair.definition.ErrorLog;
+import ru.tinkoff.eclair.definition.InLog;
+import ru.tinkoff.eclair.definition.OutLog;
+import ru.tinkoff.eclair.definition.Sampling;
 import ru.tinkoff.eclair.definition.method.MethodLog;
+import ru.tinkoff.eclair.definition.method.ResultType;
 import ru.tinkoff.eclair.logger.EclairLogger;
+import ru.tinkoff.eclair.printer.Printer;
+import ru.tinkoff.eclair.printer.resolver.AliasedPrinterResolver;
+import ru.tinkoff.eclair.printer.resolver.PrinterResolver;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
-import static java.util.Collections.emptyList;
-import static java.util.Collections.singletonList;
+import static java.util.Collections.*;
+import static java.util.function.Function.identity;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.boot.logging.LogLevel.DEBUG;
+import static org.springframework.boot.logging.LogLevel.ERROR;
+import static org.springframework.boot.logging.LogLevel.OFF;
 
 /**
  * @author Vyacheslav Klapatnyuk
@@ -118,4 +137,200 @@ public class LogAdvisorTest {
             assertThat(e, is(throwable));
         }
     }
+
+    @Test
+    public void invokeSuppressedBySampling() throws Throwable {
+        // given
+        EclairLogger eclairLogger = mock(EclairLogger.class);
+        MethodLog sampledMethodLog = givenSampledMethodLog();
+        LogAdvisor logAdvisor = LogAdvisor.newInstance(eclairLogger, singletonList(sampledMethodLog));
+
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.proceed()).thenReturn(result);
+        // when
+        assertNotNull(logAdvisor);
+        Object actualResult = logAdvisor.invoke(invocation);
+        // then
+        verify(eclairLogger, never()).logInIfNecessary(any(), any());
+        verify(eclairLogger, never()).logOutIfNecessary(any(), any(), any());
+        assertThat(actualResult, is(result));
+        assertThat(logAdvisor.getMethodSamplers().keySet(), hasSize(1));
+    }
+
+    @Test
+    public void invokeSuppressedBySamplingError() throws Throwable {
+        // given
+        EclairLogger eclairLogger = mock(EclairLogger.class);
+        MethodLog sampledMethodLog = givenSampledMethodLog();
+        LogAdvisor logAdvisor = LogAdvisor.newInstance(eclairLogger, singletonList(sampledMethodLog));
+
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.proceed()).thenThrow(throwable);
+        try {
+            // when
+            assertNotNull(logAdvisor);
+            logAdvisor.invoke(invocation);
+            fail();
+        } catch (Exception e) {
+            // then
+            verify(eclairLogger, never()).logInIfNecessary(any(), any());
+            verify(eclairLogger).logErrorIfNecessary(invocation, sampledMethodLog, throwable);
+            assertThat(e, is(throwable));
+        }
+    }
+
+    @Test
+    public void invokeCompletableFutureLogOutOnCompletion() throws Throwable {
+        // given
+        EclairLogger eclairLogger = mock(EclairLogger.class);
+        when(methodLog.getResultType()).thenReturn(ResultType.COMPLETION_STAGE);
+        LogAdvisor logAdvisor = LogAdvisor.newInstance(eclairLogger, singletonList(methodLog));
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.proceed()).thenReturn(future);
+        // when
+        assertNotNull(logAdvisor);
+        Object actualResult = logAdvisor.invoke(invocation);
+        // then
+        assertThat(actualResult, is(future));
+        verify(eclairLogger).logInIfNecessary(invocation, methodLog);
+        verify(eclairLogger, never()).logOutIfNecessary(any(), any(), any());
+
+        future.complete(result);
+        verify(eclairLogger).logOutIfNecessary(invocation, methodLog, result);
+        verify(eclairLogger, never()).logErrorIfNecessary(any(), any(), any());
+    }
+
+    @Test
+    public void invokeCompletableFutureLogErrorOnCompletion() throws Throwable {
+        // given
+        EclairLogger eclairLogger = mock(EclairLogger.class);
+        when(methodLog.getResultType()).thenReturn(ResultType.COMPLETION_STAGE);
+        LogAdvisor logAdvisor = LogAdvisor.newInstance(eclairLogger, singletonList(methodLog));
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.proceed()).thenReturn(future.thenApply(identity()));
+        // when
+        assertNotNull(logAdvisor);
+        logAdvisor.invoke(invocation);
+        future.completeExceptionally(throwable);
+        // then
+        verify(eclairLogger).logErrorIfNecessary(invocation, methodLog, throwable);
+        verify(eclairLogger, never()).logOutIfNecessary(any(), any(), any());
+    }
+
+    @Test
+    public void invokeListenableFutureLogOutOnCompletion() throws Throwable {
+        // given
+        EclairLogger eclairLogger = mock(EclairLogger.class);
+        when(methodLog.getResultType()).thenReturn(ResultType.LISTENABLE_FUTURE);
+        LogAdvisor logAdvisor = LogAdvisor.newInstance(eclairLogger, singletonList(methodLog));
+
+        SettableListenableFuture<Object> future = new SettableListenableFuture<>();
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.proceed()).thenReturn(future);
+        // when
+        assertNotNull(logAdvisor);
+        logAdvisor.invoke(invocation);
+        verify(eclairLogger, never()).logOutIfNecessary(any(), any(), any());
+        future.set(result);
+        // then
+        verify(eclairLogger).logOutIfNecessary(invocation, methodLog, result);
+    }
+
+    @Test
+    public void invokeCompletableFutureRestoresMdc() throws Throwable {
+        // given
+        EclairLogger eclairLogger = mock(EclairLogger.class);
+        when(methodLog.getResultType()).thenReturn(ResultType.COMPLETION_STAGE);
+        LogAdvisor logAdvisor = LogAdvisor.newInstance(eclairLogger, singletonList(methodLog));
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.proceed()).thenReturn(future);
+
+        Map<String, String> loggedMdc = new HashMap<>();
+        doAnswer(answer -> {
+            loggedMdc.putAll(MDC.getCopyOfContextMap());
+            return null;
+        }).when(eclairLogger).logOutIfNecessary(invocation, methodLog, result);
+        Map<String, String> completingThreadMdc = new HashMap<>();
+        // when
+        assertNotNull(logAdvisor);
+        MDC.put("key", "value");
+        try {
+            logAdvisor.invoke(invocation);
+        } finally {
+            MDC.remove("key");
+        }
+        Thread thread = new Thread(() -> {
+            MDC.put("other", "value");
+            future.complete(result);
+            completingThreadMdc.putAll(MDC.getCopyOfContextMap());
+        });
+        thread.start();
+        thread.join();
+        // then
+        assertThat(loggedMdc, is(singletonMap("key", "value")));
+        assertThat(completingThreadMdc, is(singletonMap("other", "value")));
+    }
+
+    @Test
+    public void invokeCompletableFutureLogOutByPrinterOfValue() throws Throwable {
+        // given
+        Printer dtoPrinter = new Printer() {
+            @Override
+            public boolean supports(Class<?> clazz) {
+                return clazz == Dto.class;
+            }
+
+            @Override
+            protected String serialize(Object input) {
+                return "dto";
+            }
+        };
+        PrinterResolver printerResolver = new AliasedPrinterResolver(singletonMap("dto", dtoPrinter), emptyMap());
+        Method futureMethod = LogAdvisorTest.class.getMethod("future");
+        OutLog outLog = new AnnotationDefinitionFactory(printerResolver).buildOutLog(singleton(""), futureMethod);
+        MethodLog futureMethodLog = new MethodLog(futureMethod, emptyList(), null, emptyList(), outLog, emptySet());
+
+        EclairLogger eclairLogger = mock(EclairLogger.class);
+        List<String> printed = new ArrayList<>();
+        doAnswer(answer -> printed.add(futureMethodLog.getOutLog().getPrinter().print(answer.getArguments()[2])))
+                .when(eclairLogger).logOutIfNecessary(any(), any(), any());
+        LogAdvisor logAdvisor = LogAdvisor.newInstance(eclairLogger, singletonList(futureMethodLog));
+
+        CompletableFuture<Dto> future = new CompletableFuture<>();
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(futureMethod);
+        when(invocation.proceed()).thenReturn(future);
+        // when
+        assertNotNull(logAdvisor);
+        logAdvisor.invoke(invocation);
+        future.complete(new Dto());
+        // then
+        assertThat(printed, is(singletonList("dto")));
+    }
+
+    @Log.out(printer = "dto")
+    public CompletableFuture<Dto> future() {
+        return null;
+    }
+
+    public static class Dto {
+    }
+
+    private MethodLog givenSampledMethodLog() {
+        InLog inLog = new InLog(DEBUG, OFF, DEBUG, emptyList(), new Sampling(0, 0, 0, 1));
+        ErrorLog errorLog = new ErrorLog(ERROR, OFF, ERROR, new ErrorLog.Filter(singleton(Throwable.class), emptySet()));
+        return new MethodLog(method, emptyList(), inLog, emptyList(), null, singleton(errorLog));
+    }
 }
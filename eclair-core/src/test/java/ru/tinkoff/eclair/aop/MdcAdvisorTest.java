@@ -16,29 +16,35 @@
 package ru.tinkoff.eclair.aop;
 
 import org.aopalliance.intercept.MethodInvocation;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.slf4j.MDC;
 import ru.tinkoff.eclair.core.ExpressionEvaluator;
 import ru.tinkoff.eclair.definition.ParameterMdc;
 import ru.tinkoff.eclair.definition.method.MethodMdc;
 
 import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.*;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.*;
-import static org.mockito.Mockito.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Vyacheslav Klapatnyuk
  */
 public class MdcAdvisorTest {
 
-    private final Set<String> localKeys = emptySet();
+    private final List<Set<ParameterMdc>> noParameterDefinitions = asList(emptySet(), emptySet(), emptySet());
 
     private Method method;
 
@@ -47,6 +53,11 @@ public class MdcAdvisorTest {
         method = MdcAdvisorTest.class.getDeclaredMethod("method", String.class, String.class, String.class);
     }
 
+    @After
+    public void clear() {
+        MDC.clear();
+    }
+
     @SuppressWarnings("unused")
     private void method(String a, String b, String c) {
     }
@@ -63,229 +74,156 @@ public class MdcAdvisorTest {
     }
 
     @Test
-    public void processMethodDefinitions() {
+    public void invokeMethodDefinitions() throws Throwable {
         // given
-        MethodMdc methodMdc = mock(MethodMdc.class);
-        ParameterMdc parameterMdc = givenParameterMdc("key", "value");
-        ParameterMdc parameterMdc1 = givenParameterMdc("key1", "value1");
-        when(methodMdc.getMethodDefinitions()).thenReturn(new LinkedHashSet<>(asList(parameterMdc, parameterMdc1)));
-
+        ParameterMdc parameterMdc = new ParameterMdc("key", "value", false);
+        ParameterMdc parameterMdc1 = new ParameterMdc("key1", "value1", false);
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"),
+                new LinkedHashSet<>(asList(parameterMdc, parameterMdc1)), noParameterDefinitions);
         MdcAdvisor mdcAdvisor = MdcAdvisor.newInstance(singletonList(methodMdc), givenExpressionEvaluator("value", "value1"));
         assertNotNull(mdcAdvisor);
-        MdcAdvisor mdcAdvisorStub = spy(mdcAdvisor);
-        doNothing().when(mdcAdvisorStub).putMdc(any(), any(), any(), any());
-
-        // when
-        mdcAdvisorStub.processMethodDefinitions(givenMethodInvocation("0", "1", "2"), methodMdc, localKeys);
-
-        // then
-        verify(mdcAdvisorStub).putMdc("key", "value", parameterMdc, localKeys);
-        verify(mdcAdvisorStub).putMdc("key1", "value1", parameterMdc1, localKeys);
-    }
-
-    @Test
-    public void processMethodDefinitionsEmptyKey() {
-        // given
-        MethodMdc methodMdc = mock(MethodMdc.class);
-        ParameterMdc parameterMdc = givenParameterMdc("", "value");
-        when(methodMdc.getMethodDefinitions()).thenReturn(singleton(parameterMdc));
-
-        MdcAdvisor mdcAdvisor = MdcAdvisor.newInstance(singletonList(methodMdc), givenExpressionEvaluator("value", null));
-        assertNotNull(mdcAdvisor);
-        MdcAdvisor mdcAdvisorStub = spy(mdcAdvisor);
-        doNothing().when(mdcAdvisorStub).putMdc(any(), any(), any(), any());
-
+        MdcCapture capture = new MdcCapture();
         // when
-        mdcAdvisorStub.processMethodDefinitions(givenMethodInvocation("0", "1", "2"), methodMdc, localKeys);
-
+        mdcAdvisor.invoke(givenMethodInvocation(capture, "0", "1", "2"));
         // then
-        verify(mdcAdvisorStub).putMdc("method", "value", parameterMdc, localKeys);
+        assertThat(capture.mdc.get("key"), is("value"));
+        assertThat(capture.mdc.get("key1"), is("value1"));
+        assertNull(MDC.get("key"));
     }
 
     @Test
-    public void processMethodDefinitionsEmptyExpressionString() {
+    public void invokeMethodDefinitionsEmptyExpressionString() throws Throwable {
         // given
-        MethodMdc methodMdc = mock(MethodMdc.class);
-        ParameterMdc parameterMdc = givenParameterMdc("key", "");
-        ParameterMdc parameterMdc1 = givenParameterMdc("key1", "");
-        when(methodMdc.getMethodDefinitions()).thenReturn(new LinkedHashSet<>(asList(parameterMdc, parameterMdc1)));
-        when(methodMdc.getParameterNames()).thenReturn(asList("a", "b", "c"));
-
+        ParameterMdc parameterMdc = new ParameterMdc("key", "", false);
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"), singleton(parameterMdc), noParameterDefinitions);
         MdcAdvisor mdcAdvisor = MdcAdvisor.newInstance(singletonList(methodMdc), mock(ExpressionEvaluator.class));
         assertNotNull(mdcAdvisor);
-        MdcAdvisor mdcAdvisorStub = spy(mdcAdvisor);
-        doNothing().when(mdcAdvisorStub).putMdc(any(), any(), any(), any());
-
+        MdcCapture capture = new MdcCapture();
         // when
-        mdcAdvisorStub.processMethodDefinitions(givenMethodInvocation("0", "1", "2"), methodMdc, localKeys);
-
+        mdcAdvisor.invoke(givenMethodInvocation(capture, "0", "1", "2"));
         // then
-        verify(mdcAdvisorStub).putMdc("key[a]", "0", parameterMdc, localKeys);
-        verify(mdcAdvisorStub).putMdc("key[b]", "1", parameterMdc, localKeys);
-        verify(mdcAdvisorStub).putMdc("key[c]", "2", parameterMdc, localKeys);
-        verify(mdcAdvisorStub).putMdc("key1[a]", "0", parameterMdc1, localKeys);
-        verify(mdcAdvisorStub).putMdc("key1[b]", "1", parameterMdc1, localKeys);
-        verify(mdcAdvisorStub).putMdc("key1[c]", "2", parameterMdc1, localKeys);
+        assertThat(capture.mdc.get("key[a]"), is("0"));
+        assertThat(capture.mdc.get("key[b]"), is("1"));
+        assertThat(capture.mdc.get("key[c]"), is("2"));
     }
 
     @Test
-    public void processMethodDefinitionsEmptyKeyAndExpressionString() {
+    public void invokeParameterDefinitions() throws Throwable {
         // given
-        MethodMdc methodMdc = mock(MethodMdc.class);
-        ParameterMdc parameterMdc = givenParameterMdc("", "");
-        when(methodMdc.getMethodDefinitions()).thenReturn(singleton(parameterMdc));
-        when(methodMdc.getParameterNames()).thenReturn(asList("a", "b", "c"));
-
-        MdcAdvisor mdcAdvisor = MdcAdvisor.newInstance(singletonList(methodMdc), mock(ExpressionEvaluator.class));
+        ParameterMdc parameterMdc = new ParameterMdc("key", "value", false);
+        ParameterMdc parameterMdc1 = new ParameterMdc("key1", "", false);
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"), emptySet(),
+                asList(singleton(parameterMdc), singleton(parameterMdc1), emptySet()));
+        MdcAdvisor mdcAdvisor = MdcAdvisor.newInstance(singletonList(methodMdc), givenExpressionEvaluator("value", null));
         assertNotNull(mdcAdvisor);
-        MdcAdvisor mdcAdvisorStub = spy(mdcAdvisor);
-        doNothing().when(mdcAdvisorStub).putMdc(any(), any(), any(), any());
-
+        MdcCapture capture = new MdcCapture();
         // when
-        mdcAdvisorStub.processMethodDefinitions(givenMethodInvocation("0", "1", "2"), methodMdc, localKeys);
-
+        mdcAdvisor.invoke(givenMethodInvocation(capture, "0", "1", "2"));
         // then
-        verify(mdcAdvisorStub).putMdc("a", "0", parameterMdc, localKeys);
-        verify(mdcAdvisorStub).putMdc("b", "1", parameterMdc, localKeys);
-        verify(mdcAdvisorStub).putMdc("c", "2", parameterMdc, localKeys);
+        assertThat(capture.mdc.get("key"), is("value"));
+        assertThat(capture.mdc.get("key1"), is("1"));
     }
 
     @Test
-    public void processMethodDefinitionsEmptyKeyAndExpressionStringWithoutParameterNames() {
+    public void invokeNullValue() throws Throwable {
         // given
-        MethodMdc methodMdc = mock(MethodMdc.class);
-        ParameterMdc parameterMdc = givenParameterMdc("", "");
-        when(methodMdc.getMethodDefinitions()).thenReturn(singleton(parameterMdc));
-        when(methodMdc.getParameterNames()).thenReturn(asList(null, null, null));
-
+        ParameterMdc parameterMdc = new ParameterMdc("key", "", false);
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"), emptySet(),
+                asList(singleton(parameterMdc), emptySet(), emptySet()));
         MdcAdvisor mdcAdvisor = MdcAdvisor.newInstance(singletonList(methodMdc), mock(ExpressionEvaluator.class));
         assertNotNull(mdcAdvisor);
-        MdcAdvisor mdcAdvisorStub = spy(mdcAdvisor);
-        doNothing().when(mdcAdvisorStub).putMdc(any(), any(), any(), any());
-
+        MdcCapture capture = new MdcCapture();
         // when
-        mdcAdvisorStub.processMethodDefinitions(givenMethodInvocation("0", "1", "2"), methodMdc, localKeys);
-
+        mdcAdvisor.invoke(givenMethodInvocation(capture, null, "1", "2"));
         // then
-        verify(mdcAdvisorStub).putMdc("method[0]", "0", parameterMdc, localKeys);
-        verify(mdcAdvisorStub).putMdc("method[1]", "1", parameterMdc, localKeys);
-        verify(mdcAdvisorStub).putMdc("method[2]", "2", parameterMdc, localKeys);
+        assertTrue(capture.mdc.containsKey("key"));
+        assertNull(capture.mdc.get("key"));
     }
 
     @Test
-    public void processParameterDefinitions() {
+    public void invokeRemovesLocalKeys() throws Throwable {
         // given
-        MethodMdc methodMdc = mock(MethodMdc.class);
-        ParameterMdc parameterMdc = givenParameterMdc("key", "value");
-        ParameterMdc parameterMdc1 = givenParameterMdc("key1", "value1");
-        when(methodMdc.getParameterDefinitions()).thenReturn(asList(new LinkedHashSet<>(asList(parameterMdc, parameterMdc1)), emptySet(), emptySet()));
-
-        MdcAdvisor mdcAdvisor = MdcAdvisor.newInstance(singletonList(methodMdc), givenExpressionEvaluator("value", "value1"));
-        assertNotNull(mdcAdvisor);
-        MdcAdvisor mdcAdvisorStub = spy(mdcAdvisor);
-        doNothing().when(mdcAdvisorStub).putMdc(any(), any(), any(), any());
-
-        // when
-        mdcAdvisorStub.processParameterDefinitions(givenMethodInvocation("0", "1", "2"), methodMdc, localKeys);
-
-        // then
-        verify(mdcAdvisorStub).putMdc("key", "value", parameterMdc, localKeys);
-        verify(mdcAdvisorStub).putMdc("key1", "value1", parameterMdc1, localKeys);
-    }
-
-    @Test
-    public void processParameterDefinitionsEmptyKey() {
-        // given
-        MethodMdc methodMdc = mock(MethodMdc.class);
-        ParameterMdc parameterMdc = givenParameterMdc("", "value");
-        when(methodMdc.getParameterDefinitions()).thenReturn(asList(singleton(parameterMdc), emptySet(), emptySet()));
-        when(methodMdc.getParameterNames()).thenReturn(asList("a", "b", "c"));
-
-        MdcAdvisor mdcAdvisor = MdcAdvisor.newInstance(singletonList(methodMdc), givenExpressionEvaluator("value", null));
-        assertNotNull(mdcAdvisor);
-        MdcAdvisor mdcAdvisorStub = spy(mdcAdvisor);
-        doNothing().when(mdcAdvisorStub).putMdc(any(), any(), any(), any());
-
-        // when
-        mdcAdvisorStub.processParameterDefinitions(givenMethodInvocation("0", "1", "2"), methodMdc, localKeys);
-
-        // then
-        verify(mdcAdvisorStub).putMdc("a", "value", parameterMdc, localKeys);
-    }
-
-    @Test
-    public void processParameterDefinitionsEmptyExpressionString() {
-        // given
-        MethodMdc methodMdc = mock(MethodMdc.class);
-        ParameterMdc parameterMdc = givenParameterMdc("key", "");
-        ParameterMdc parameterMdc1 = givenParameterMdc("key1", "");
-        when(methodMdc.getParameterDefinitions()).thenReturn(asList(new LinkedHashSet<>(asList(parameterMdc, parameterMdc1)), emptySet(), emptySet()));
-
+        ParameterMdc local = new ParameterMdc("local", "", false);
+        ParameterMdc global = new ParameterMdc("global", "", true);
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"), emptySet(),
+                asList(singleton(local), singleton(global), emptySet()));
         MdcAdvisor mdcAdvisor = MdcAdvisor.newInstance(singletonList(methodMdc), mock(ExpressionEvaluator.class));
         assertNotNull(mdcAdvisor);
-        MdcAdvisor mdcAdvisorStub = spy(mdcAdvisor);
-        doNothing().when(mdcAdvisorStub).putMdc(any(), any(), any(), any());
-
         // when
-        mdcAdvisorStub.processParameterDefinitions(givenMethodInvocation("0", "1", "2"), methodMdc, localKeys);
-
+        mdcAdvisor.invoke(givenMethodInvocation(new MdcCapture(), "0", "1", "2"));
         // then
-        verify(mdcAdvisorStub).putMdc("key", "0", parameterMdc, localKeys);
-        verify(mdcAdvisorStub).putMdc("key1", "0", parameterMdc1, localKeys);
+        assertNull(MDC.get("local"));
+        assertThat(MDC.get("global"), is("1"));
     }
 
     @Test
-    public void processParameterDefinitionsEmptyKeyAndExpressionString() {
+    public void invokeRestoresOverwrittenValue() throws Throwable {
         // given
-        MethodMdc methodMdc = mock(MethodMdc.class);
-        ParameterMdc parameterMdc = givenParameterMdc("", "");
-        when(methodMdc.getParameterDefinitions()).thenReturn(asList(singleton(parameterMdc), emptySet(), emptySet()));
-        when(methodMdc.getParameterNames()).thenReturn(asList("a", "b", "c"));
-
+        ParameterMdc parameterMdc = new ParameterMdc("key", "", false);
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"), emptySet(),
+                asList(singleton(parameterMdc), emptySet(), emptySet()));
         MdcAdvisor mdcAdvisor = MdcAdvisor.newInstance(singletonList(methodMdc), mock(ExpressionEvaluator.class));
         assertNotNull(mdcAdvisor);
-        MdcAdvisor mdcAdvisorStub = spy(mdcAdvisor);
-        doNothing().when(mdcAdvisorStub).putMdc(any(), any(), any(), any());
-
+        MDC.put("key", "outer");
+        MdcCapture capture = new MdcCapture();
         // when
-        mdcAdvisorStub.processParameterDefinitions(givenMethodInvocation("0", "1", "2"), methodMdc, localKeys);
-
+        mdcAdvisor.invoke(givenMethodInvocation(capture, "inner", "1", "2"));
         // then
-        verify(mdcAdvisorStub).putMdc("a", "0", parameterMdc, localKeys);
+        assertThat(capture.mdc.get("key"), is("inner"));
+        assertThat(MDC.get("key"), is("outer"));
     }
 
     @Test
-    public void processParameterDefinitionsEmptyKeyAndExpressionStringWithoutParameterNames() {
+    public void invokeRestoresOnException() {
         // given
-        MethodMdc methodMdc = mock(MethodMdc.class);
-        ParameterMdc parameterMdc = givenParameterMdc("", "");
-        when(methodMdc.getParameterDefinitions()).thenReturn(asList(singleton(parameterMdc), emptySet(), emptySet()));
-        when(methodMdc.getParameterNames()).thenReturn(asList(null, null, null));
-
+        ParameterMdc parameterMdc = new ParameterMdc("key", "", false);
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"), emptySet(),
+                asList(singleton(parameterMdc), emptySet(), emptySet()));
         MdcAdvisor mdcAdvisor = MdcAdvisor.newInstance(singletonList(methodMdc), mock(ExpressionEvaluator.class));
         assertNotNull(mdcAdvisor);
-        MdcAdvisor mdcAdvisorStub = spy(mdcAdvisor);
-        doNothing().when(mdcAdvisorStub).putMdc(any(), any(), any(), any());
-
-        // when
-        mdcAdvisorStub.processParameterDefinitions(givenMethodInvocation("0", "1", "2"), methodMdc, localKeys);
-
-        // then
-        verify(mdcAdvisorStub).putMdc("method[0]", "0", parameterMdc, localKeys);
-    }
-
-    private MethodInvocation givenMethodInvocation(Object... arguments) {
-        MethodInvocation invocation = mock(MethodInvocation.class);
-        when(invocation.getMethod()).thenReturn(method);
-        when(invocation.getArguments()).thenReturn(arguments);
-        return invocation;
-    }
-
-    private ParameterMdc givenParameterMdc(String key, String expressionString) {
-        ParameterMdc parameterMdc = mock(ParameterMdc.class);
-        when(parameterMdc.getKey()).thenReturn(key);
-        when(parameterMdc.getExpressionString()).thenReturn(expressionString);
-        return parameterMdc;
+        RuntimeException exception = new RuntimeException();
+        MethodInvocation invocation = givenMethodInvocation(() -> {
+            throw exception;
+        }, "0", "1", "2");
+        try {
+            // when
+            mdcAdvisor.invoke(invocation);
+            fail();
+        } catch (Throwable e) {
+            // then
+            assertThat(e, is(exception));
+            assertNull(MDC.get("key"));
+        }
+    }
+
+    private MethodInvocation givenMethodInvocation(Proceeding proceeding, Object... arguments) {
+        return new MethodInvocation() {
+            @Override
+            public Method getMethod() {
+                return method;
+            }
+
+            @Override
+            public Object[] getArguments() {
+                return arguments;
+            }
+
+            @Override
+            public Object proceed() {
+                proceeding.proceed();
+                return null;
+            }
+
+            @Override
+            public Object getThis() {
+                return null;
+            }
+
+            @Override
+            public java.lang.reflect.AccessibleObject getStaticPart() {
+                return method;
+            }
+        };
     }
 
     private ExpressionEvaluator givenExpressionEvaluator(String value, String value1) {
@@ -295,29 +233,21 @@ public class MdcAdvisorTest {
         return expressionEvaluator;
     }
 
-    @Test
-    public void synthesizeKeyByName() {
-        // given
-        MdcAdvisor mdcAdvisor = MdcAdvisor.newInstance(singletonList(mock(MethodMdc.class)), mock(ExpressionEvaluator.class));
-        String prefix = "prefix";
-        String name = "name";
-        // when
-        assertNotNull(mdcAdvisor);
-        String synthesizedKey = mdcAdvisor.synthesizeKey(prefix, name);
-        // then
-        assertThat(synthesizedKey, is("prefix[name]"));
+    private interface Proceeding {
+
+        void proceed();
     }
 
-    @Test
-    public void synthesizeKeyByInt() {
-        // given
-        MdcAdvisor mdcAdvisor = MdcAdvisor.newInstance(singletonList(mock(MethodMdc.class)), mock(ExpressionEvaluator.class));
-        String prefix = "prefix";
-        int index = 1;
-        // when
-        assertNotNull(mdcAdvisor);
-        String synthesizedKey = mdcAdvisor.synthesizeKey(prefix, index);
-        // then
-        assertThat(synthesizedKey, is("prefix[1]"));
+    private static class MdcCapture implements Proceeding {
+
+        private Map<String, String> mdc = new HashMap<>();
+
+        @Override
+        public void proceed() {
+            Map<String, String> copy = MDC.getCopyOfContextMap();
+            if (copy != null) {
+                mdc = copy;
+            }
+        }
     }
 }
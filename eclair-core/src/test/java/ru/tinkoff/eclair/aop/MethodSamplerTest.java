@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.aop;
+
+import org.junit.Before;
+import org.junit.Test;
+import ru.tinkoff.eclair.definition.ErrorLog;
+import ru.tinkoff.eclair.definition.InLog;
+import ru.tinkoff.eclair.definition.OutLog;
+import ru.tinkoff.eclair.definition.Sampling;
+import ru.tinkoff.eclair.definition.method.MethodLog;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+import static org.springframework.boot.logging.LogLevel.DEBUG;
+import static org.springframework.boot.logging.LogLevel.ERROR;
+import static org.springframework.boot.logging.LogLevel.OFF;
+
+public class MethodSamplerTest {
+
+    private static final Sampling NONE = new Sampling(0, 0, 0, 1);
+
+    private Method method;
+
+    @Before
+    public void init() throws NoSuchMethodException {
+        method = MethodSamplerTest.class.getMethod("init");
+    }
+
+    @Test
+    public void newInstanceNull() {
+        // given
+        MethodLog methodLog = givenMethodLog(Sampling.ALL, Sampling.ALL, Sampling.ALL);
+        // when
+        MethodSampler methodSampler = MethodSampler.newInstance(methodLog);
+        // then
+        assertNull(methodSampler);
+    }
+
+    @Test
+    public void sampleInvocationByInLog() {
+        // given
+        MethodLog methodLog = givenMethodLog(NONE, Sampling.ALL, Sampling.ALL);
+        MethodSampler methodSampler = MethodSampler.newInstance(methodLog);
+        // when
+        assertNotNull(methodSampler);
+        boolean sampled = methodSampler.sampleInvocation();
+        // then
+        assertFalse(sampled);
+        assertEquals(1, methodSampler.getSuppressedCount());
+    }
+
+    @Test
+    public void sampleInvocationByOutLogWithoutInLog() {
+        // given
+        MethodLog methodLog = givenMethodLog(null, NONE, Sampling.ALL);
+        MethodSampler methodSampler = MethodSampler.newInstance(methodLog);
+        // when
+        assertNotNull(methodSampler);
+        boolean sampled = methodSampler.sampleInvocation();
+        // then
+        assertFalse(sampled);
+    }
+
+    @Test
+    public void sampleErrorPairedWithSampledInvocation() {
+        // given
+        MethodLog methodLog = givenMethodLog(Sampling.ALL, Sampling.ALL, NONE);
+        MethodSampler methodSampler = MethodSampler.newInstance(methodLog);
+        // when
+        assertNotNull(methodSampler);
+        boolean sampled = methodSampler.sampleError(methodLog, new RuntimeException(), methodSampler.sampleInvocation());
+        // then
+        assertTrue(sampled);
+        assertEquals(0, methodSampler.getSuppressedCount());
+    }
+
+    @Test
+    public void sampleErrorOfSuppressedInvocation() {
+        // given
+        MethodLog methodLog = givenMethodLog(NONE, Sampling.ALL, Sampling.ALL);
+        MethodSampler methodSampler = MethodSampler.newInstance(methodLog);
+        // when
+        assertNotNull(methodSampler);
+        boolean sampled = methodSampler.sampleError(methodLog, new RuntimeException(), methodSampler.sampleInvocation());
+        // then
+        assertTrue(sampled);
+    }
+
+    @Test
+    public void sampleErrorWithoutInvocationLogs() {
+        // given
+        MethodLog methodLog = givenMethodLog(null, null, NONE);
+        MethodSampler methodSampler = MethodSampler.newInstance(methodLog);
+        // when
+        assertNotNull(methodSampler);
+        boolean sampled = methodSampler.sampleError(methodLog, new RuntimeException(), methodSampler.sampleInvocation());
+        // then
+        assertFalse(sampled);
+        assertEquals(1, methodSampler.getSuppressedCount());
+    }
+
+    @Test
+    public void suppressedCountIsReset() {
+        // given
+        AtomicLong clock = new AtomicLong();
+        MethodLog methodLog = givenMethodLog(NONE, null, Sampling.ALL);
+        MethodSampler methodSampler = MethodSampler.newInstance(methodLog, clock::get);
+        assertNotNull(methodSampler);
+        methodSampler.sampleInvocation();
+        methodSampler.sampleInvocation();
+        assertEquals(2, methodSampler.getSuppressedCount());
+        // when
+        clock.addAndGet(MethodSampler.REPORT_INTERVAL_NANOS);
+        methodSampler.sampleInvocation();
+        // then
+        assertEquals(0, methodSampler.getSuppressedCount());
+    }
+
+    @Test
+    public void suppressedCountIsReported() {
+        // given
+        MethodLog methodLog = givenMethodLog(NONE, null, Sampling.ALL);
+        MethodSampler methodSampler = MethodSampler.newInstance(methodLog);
+        assertNotNull(methodSampler);
+        methodSampler.sampleInvocation();
+        assertEquals(1, methodSampler.getSuppressedCount());
+        // when
+        methodSampler.reportSuppressed();
+        // then
+        assertEquals(0, methodSampler.getSuppressedCount());
+    }
+
+    private MethodLog givenMethodLog(Sampling inSampling, Sampling outSampling, Sampling errorSampling) {
+        InLog inLog = inSampling == null ? null : new InLog(DEBUG, OFF, DEBUG, emptyList(), inSampling);
+        OutLog outLog = outSampling == null ? null : new OutLog(DEBUG, OFF, DEBUG, null, outSampling);
+        ErrorLog errorLog = new ErrorLog(ERROR, OFF, ERROR,
+                new ErrorLog.Filter(singleton(Throwable.class), emptySet()), errorSampling);
+        return new MethodLog(method, emptyList(), inLog, emptyList(), outLog, singleton(errorLog));
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.aop;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.tinkoff.eclair.definition.ErrorLog;
+import ru.tinkoff.eclair.definition.InLog;
+import ru.tinkoff.eclair.definition.Sampling;
+import ru.tinkoff.eclair.definition.method.MethodLog;
+import ru.tinkoff.eclair.definition.method.ResultType;
+import ru.tinkoff.eclair.logger.EclairLogger;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.*;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.boot.logging.LogLevel.DEBUG;
+import static org.springframework.boot.logging.LogLevel.ERROR;
+import static org.springframework.boot.logging.LogLevel.OFF;
+
+public class ReactorResultHandlerTest {
+
+    private final RuntimeException throwable = new RuntimeException();
+
+    private ReactiveResultHandler reactiveResultHandler;
+    private EclairLogger eclairLogger;
+    private MethodInvocation invocation;
+    private MethodLog methodLog;
+
+    @Before
+    public void init() throws NoSuchMethodException {
+        reactiveResultHandler = ReactiveResultHandler.getInstance();
+        eclairLogger = mock(EclairLogger.class);
+        invocation = mock(MethodInvocation.class);
+        Method method = ReactorResultHandlerTest.class.getMethod("init");
+        methodLog = givenMethodLog(method, Sampling.ALL);
+    }
+
+    @After
+    public void clear() {
+        MDC.clear();
+    }
+
+    @Test
+    public void getInstance() {
+        // then
+        assertThat(reactiveResultHandler, is(instanceOf(ReactorResultHandler.class)));
+    }
+
+    @Test
+    public void logMonoValue() {
+        // given
+        Mono<?> mono = (Mono<?>) reactiveResultHandler.log(Mono.just("value"), ResultType.MONO, eclairLogger, invocation, methodLog, null, emptyMap());
+        verifyZeroInteractions(eclairLogger);
+        // when
+        Object value = mono.block();
+        // then
+        assertThat(value, is("value"));
+        verify(eclairLogger).logInIfNecessary(invocation, methodLog);
+        verify(eclairLogger).logOutIfNecessary(invocation, methodLog, "value");
+        verify(eclairLogger, never()).logErrorIfNecessary(any(), any(), any());
+    }
+
+    @Test
+    public void logMonoEmpty() {
+        // given
+        Mono<?> mono = (Mono<?>) reactiveResultHandler.log(Mono.empty(), ResultType.MONO, eclairLogger, invocation, methodLog, null, emptyMap());
+        // when
+        Object value = mono.block();
+        // then
+        assertNull(value);
+        verify(eclairLogger).logInIfNecessary(invocation, methodLog);
+        verify(eclairLogger).logOutIfNecessary(invocation, methodLog, null);
+    }
+
+    @Test
+    public void logMonoError() {
+        // given
+        Mono<?> mono = (Mono<?>) reactiveResultHandler.log(Mono.error(throwable), ResultType.MONO, eclairLogger, invocation, methodLog, null, emptyMap());
+        // when
+        try {
+            mono.block();
+            fail();
+        } catch (RuntimeException e) {
+            assertThat(e, is(throwable));
+        }
+        // then
+        verify(eclairLogger).logInIfNecessary(invocation, methodLog);
+        verify(eclairLogger).logErrorIfNecessary(invocation, methodLog, throwable);
+        verify(eclairLogger, never()).logOutIfNecessary(any(), any(), any());
+    }
+
+    @Test
+    public void logFluxCount() {
+        // given
+        Flux<?> flux = (Flux<?>) reactiveResultHandler.log(Flux.just(1, 2, 3), ResultType.FLUX, eclairLogger, invocation, methodLog, null, emptyMap());
+        // when
+        List<?> elements = flux.collectList().block();
+        // then
+        assertThat(elements.size(), is(3));
+        verify(eclairLogger).logInIfNecessary(invocation, methodLog);
+        verify(eclairLogger).logOutIfNecessary(invocation, methodLog, 3L);
+    }
+
+    @Test
+    public void logCancelledFluxCount() {
+        // given
+        Flux<?> flux = (Flux<?>) reactiveResultHandler.log(Flux.just(1, 2, 3), ResultType.FLUX, eclairLogger, invocation, methodLog, null, emptyMap());
+        // when
+        List<?> elements = flux.take(2).collectList().block();
+        // then
+        assertThat(elements.size(), is(2));
+        verify(eclairLogger).logInIfNecessary(invocation, methodLog);
+        verify(eclairLogger).logOutIfNecessary(invocation, methodLog, 2L);
+    }
+
+    @Test
+    public void logCancelledMono() {
+        // given
+        Mono<?> mono = (Mono<?>) reactiveResultHandler.log(Mono.never(), ResultType.MONO, eclairLogger, invocation, methodLog, null, emptyMap());
+        // when
+        mono.subscribe().dispose();
+        // then
+        verify(eclairLogger).logInIfNecessary(invocation, methodLog);
+        verify(eclairLogger).logOutIfNecessary(invocation, methodLog, null);
+    }
+
+    @Test
+    public void logMonoValueOnceIfCancelledAfterValue() {
+        // given
+        Mono<?> mono = (Mono<?>) reactiveResultHandler.log(Mono.just("value"), ResultType.MONO, eclairLogger, invocation, methodLog, null, emptyMap());
+        // when
+        Object value = Flux.from(mono).take(1).blockFirst();
+        // then
+        assertThat(value, is("value"));
+        verify(eclairLogger).logOutIfNecessary(invocation, methodLog, "value");
+        verify(eclairLogger, never()).logOutIfNecessary(invocation, methodLog, null);
+    }
+
+    @Test
+    public void logEachSubscription() {
+        // given
+        Mono<?> mono = (Mono<?>) reactiveResultHandler.log(Mono.just("value"), ResultType.MONO, eclairLogger, invocation, methodLog, null, emptyMap());
+        // when
+        mono.block();
+        mono.block();
+        // then
+        verify(eclairLogger, times(2)).logInIfNecessary(invocation, methodLog);
+        verify(eclairLogger, times(2)).logOutIfNecessary(invocation, methodLog, "value");
+    }
+
+    @Test
+    public void logSuppressedBySampling() throws NoSuchMethodException {
+        // given
+        MethodLog sampledMethodLog = givenMethodLog(ReactorResultHandlerTest.class.getMethod("init"), new Sampling(0, 0, 0, 1));
+        MethodSampler methodSampler = MethodSampler.newInstance(sampledMethodLog);
+        assertNotNull(methodSampler);
+        Mono<?> mono = (Mono<?>) reactiveResultHandler.log(Mono.just("value"), ResultType.MONO, eclairLogger, invocation, sampledMethodLog, methodSampler, emptyMap());
+        // when
+        mono.block();
+        // then
+        verify(eclairLogger, never()).logInIfNecessary(any(), any());
+        verify(eclairLogger, never()).logOutIfNecessary(any(), any(), any());
+        assertEquals(1, methodSampler.getSuppressedCount());
+    }
+
+    @Test
+    public void logWithInvokerMdc() {
+        // given
+        List<String> loggedMdc = captureLoggedMdc("key");
+        Mono<?> mono = (Mono<?>) reactiveResultHandler.log(Mono.just("value").publishOn(Schedulers.single()), ResultType.MONO,
+                eclairLogger, invocation, methodLog, null, singletonMap("key", "invoker"));
+        // when
+        mono.block();
+        // then
+        assertEquals(singletonList("invoker"), loggedMdc);
+        assertNull(MDC.get("key"));
+    }
+
+    @Test
+    public void withMdcCarriedByContextWrite() {
+        // given
+        List<String> loggedMdc = captureLoggedMdc("key");
+        Mono<?> logged = (Mono<?>) reactiveResultHandler.log(Mono.just("value").publishOn(Schedulers.single()), ResultType.MONO,
+                eclairLogger, invocation, methodLog, null, singletonMap("key", "invoker"));
+        Mono<?> mono = (Mono<?>) reactiveResultHandler.withMdc(logged, ResultType.MONO, singletonMap("key", "context"));
+        // when
+        mono.block();
+        // then
+        assertEquals(singletonList("context"), loggedMdc);
+        assertNull(MDC.get("key"));
+    }
+
+    @Test
+    public void withMdcMergedWithOuterContext() {
+        // given
+        List<Map<String, String>> loggedMdc = new ArrayList<>();
+        doAnswer(answer -> loggedMdc.add(MDC.getCopyOfContextMap())).when(eclairLogger).logOutIfNecessary(any(), any(), any());
+        Flux<?> logged = (Flux<?>) reactiveResultHandler.log(Flux.just(1, 2), ResultType.FLUX, eclairLogger, invocation, methodLog, null, emptyMap());
+        Flux<?> inner = (Flux<?>) reactiveResultHandler.withMdc(logged, ResultType.FLUX, singletonMap("inner", "1"));
+        Flux<?> outer = (Flux<?>) reactiveResultHandler.withMdc(inner, ResultType.FLUX, singletonMap("outer", "2"));
+        // when
+        outer.blockLast();
+        // then
+        Map<String, String> expected = new HashMap<>();
+        expected.put("inner", "1");
+        expected.put("outer", "2");
+        assertEquals(singletonList(expected), loggedMdc);
+    }
+
+    private List<String> captureLoggedMdc(String key) {
+        List<String> loggedMdc = synchronizedList(new ArrayList<>());
+        doAnswer(answer -> loggedMdc.add(MDC.get(key))).when(eclairLogger).logOutIfNecessary(any(), any(), any());
+        return loggedMdc;
+    }
+
+    private MethodLog givenMethodLog(Method method, Sampling inSampling) {
+        InLog inLog = new InLog(DEBUG, OFF, DEBUG, emptyList(), inSampling);
+        ErrorLog errorLog = new ErrorLog(ERROR, OFF, ERROR, new ErrorLog.Filter(singleton(Throwable.class), emptySet()));
+        return new MethodLog(method, emptyList(), inLog, emptyList(), null, singleton(errorLog));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.aop;
+
+import org.junit.Test;
+import ru.tinkoff.eclair.definition.Sampling;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SamplerTest {
+
+    @Test
+    public void sampleAll() {
+        // given
+        Sampler sampler = new Sampler(Sampling.ALL);
+        // when, then
+        for (int a = 0; a < 100; a++) {
+            assertTrue(sampler.sample());
+        }
+    }
+
+    @Test
+    public void sampleRateZero() {
+        // given
+        Sampler sampler = new Sampler(new Sampling(0, 0, 0, 1));
+        // when, then
+        for (int a = 0; a < 100; a++) {
+            assertFalse(sampler.sample());
+        }
+    }
+
+    @Test
+    public void sampleFirstThenEvery() {
+        // given
+        Sampler sampler = new Sampler(new Sampling(1, 0, 2, 3));
+        // when
+        StringBuilder decisions = new StringBuilder();
+        for (int a = 0; a < 10; a++) {
+            decisions.append(sampler.sample() ? '+' : '-');
+        }
+        // then
+        assertEquals("++--+--+--", decisions.toString());
+    }
+
+    @Test
+    public void sampleRateLimit() {
+        // given
+        AtomicLong clock = new AtomicLong();
+        Sampler sampler = new Sampler(new Sampling(1, 4, 0, 1), clock::get);
+        // when
+        int permitted = 0;
+        for (int a = 0; a < 10; a++) {
+            permitted += sampler.sample() ? 1 : 0;
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        int permittedLater = 0;
+        for (int a = 0; a < 10; a++) {
+            permittedLater += sampler.sample() ? 1 : 0;
+        }
+        // then
+        assertEquals(4, permitted);
+        assertEquals(2, permittedLater);
+    }
+}
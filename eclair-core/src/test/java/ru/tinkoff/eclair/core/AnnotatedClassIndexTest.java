@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AnnotatedClassIndexTest {
+
+    private final Set<String> locations =
+            singleton(AnnotatedClassIndex.normalize(AnnotatedClassIndexTest.class.getProtectionDomain().getCodeSource().getLocation().toString()));
+    private final Set<String> classNames = new HashSet<>(asList(Annotated.class.getName(), AnnotatedInterface.class.getName()));
+    private final AnnotatedClassIndex annotatedClassIndex = new AnnotatedClassIndex(locations, classNames);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void mayBeAnnotated() {
+        // when
+        boolean mayBeAnnotated = annotatedClassIndex.mayBeAnnotated(Annotated.class);
+        // then
+        assertTrue(mayBeAnnotated);
+    }
+
+    @Test
+    public void mayBeAnnotatedNotListed() {
+        // when
+        boolean mayBeAnnotated = annotatedClassIndex.mayBeAnnotated(NotAnnotated.class);
+        // then
+        assertFalse(mayBeAnnotated);
+    }
+
+    @Test
+    public void mayBeAnnotatedBySuperclass() {
+        // when
+        boolean mayBeAnnotated = annotatedClassIndex.mayBeAnnotated(AnnotatedSubclass.class);
+        // then
+        assertTrue(mayBeAnnotated);
+    }
+
+    @Test
+    public void mayBeAnnotatedByInterface() {
+        // when
+        boolean mayBeAnnotated = annotatedClassIndex.mayBeAnnotated(AnnotatedImplementation.class);
+        // then
+        assertTrue(mayBeAnnotated);
+    }
+
+    @Test
+    public void mayBeAnnotatedByNotIndexedSuperclass() {
+        // when
+        boolean mayBeAnnotated = annotatedClassIndex.mayBeAnnotated(NotIndexedSubclass.class);
+        // then
+        assertTrue(mayBeAnnotated);
+    }
+
+    @Test
+    public void mayBeAnnotatedBootstrapClass() {
+        // when
+        boolean mayBeAnnotated = annotatedClassIndex.mayBeAnnotated(String.class);
+        // then
+        assertFalse(mayBeAnnotated);
+    }
+
+    @Test
+    public void mayBeAnnotatedEmpty() {
+        // when
+        boolean mayBeAnnotated = AnnotatedClassIndex.empty().mayBeAnnotated(NotAnnotated.class);
+        // then
+        assertTrue(mayBeAnnotated);
+    }
+
+    @Test
+    public void load() throws IOException {
+        // given
+        Path index = temporaryFolder.getRoot().toPath().resolve(AnnotatedClassIndex.INDEX_LOCATION);
+        Files.createDirectories(index.getParent());
+        Files.write(index, asList("# comment", "", Annotated.class.getName()), StandardCharsets.UTF_8);
+        URL[] urls = {temporaryFolder.getRoot().toURI().toURL()};
+        try (URLClassLoader classLoader = new URLClassLoader(urls, ClassUtils.getDefaultClassLoader())) {
+            // when
+            AnnotatedClassIndex loaded = AnnotatedClassIndex.load(classLoader);
+            // then
+            assertTrue(loaded.isPresent());
+            assertFalse(loaded.mayBeAnnotated(String.class));
+            // test classes are located outside of the indexed directory
+            assertTrue(loaded.mayBeAnnotated(NotAnnotated.class));
+        }
+    }
+
+    @Test
+    public void loadAbsent() {
+        // when
+        AnnotatedClassIndex loaded = AnnotatedClassIndex.load(AnnotatedClassIndexTest.class.getClassLoader());
+        // then
+        assertFalse(loaded.isPresent());
+        assertTrue(loaded.mayBeAnnotated(NotAnnotated.class));
+    }
+
+    @Test
+    public void normalize() {
+        // when
+        String jar = AnnotatedClassIndex.normalize("jar:file:/app.jar!/");
+        String nested = AnnotatedClassIndex.normalize("jar:file:/app.jar!/BOOT-INF/classes!/");
+        String directory = AnnotatedClassIndex.normalize("file:/app/classes/");
+        // then
+        assertEquals("file:/app.jar", jar);
+        assertEquals("file:/app.jar!/BOOT-INF/classes", nested);
+        assertEquals("file:/app/classes/", directory);
+    }
+
+    private static class Annotated {
+    }
+
+    private static class AnnotatedSubclass extends Annotated {
+    }
+
+    private interface AnnotatedInterface {
+    }
+
+    private static class AnnotatedImplementation implements Runnable, AnnotatedInterface {
+        @Override
+        public void run() {
+        }
+    }
+
+    private static class NotAnnotated implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+    private static class NotIndexedSubclass extends ClassUtils {
+    }
+}
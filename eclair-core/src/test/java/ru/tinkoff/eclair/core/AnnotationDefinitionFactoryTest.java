@@ -26,6 +26,7 @@ import ru.tinkoff.eclair.definition.*;
 import ru.tinkoff.eclair.printer.JacksonPrinter;
 import ru.tinkoff.eclair.printer.Jaxb2Printer;
 import ru.tinkoff.eclair.printer.Printer;
+import ru.tinkoff.eclair.printer.RuntimeTypePrinter;
 import ru.tinkoff.eclair.printer.resolver.AliasedPrinterResolver;
 import ru.tinkoff.eclair.printer.resolver.PrinterResolver;
 
@@ -34,12 +35,15 @@ import java.util.*;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singleton;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.boot.logging.LogLevel.*;
 
 /**
@@ -145,9 +149,53 @@ public class AnnotationDefinitionFactoryTest {
         assertThat(inLog.getLevel(), is(ERROR));
     }
 
+    @Test
+    public void buildInLogWithRuntimeTypeDispatch() throws NoSuchMethodException {
+        // given
+        Map<String, Printer> printers = new LinkedHashMap<>();
+        printers.put("xml", xmlPrinter);
+        AnnotationDefinitionFactory annotationDefinitionFactory = new AnnotationDefinitionFactory(new AliasedPrinterResolver(printers, emptyMap()));
+        annotationDefinitionFactory.setRuntimeTypeDispatch(true);
+        Set<String> loggerNames = singleton("");
+        Method method = LogInLoggableClass.class.getDeclaredMethod("runtimeType", Object.class, String.class, int.class);
+        Method method2 = LogInLoggableClass.class.getDeclaredMethod("runtimeType", CharSequence.class);
+        // when
+        InLog inLog = annotationDefinitionFactory.buildInLog(loggerNames, method);
+        InLog inLog2 = annotationDefinitionFactory.buildInLog(loggerNames, method2);
+        // then
+        assertTrue(annotationDefinitionFactory.isRuntimeTypeDispatch());
+        List<Printer> inLogPrinters = inLog.getPrinters();
+        assertThat(inLogPrinters.get(0), instanceOf(RuntimeTypePrinter.class));
+        assertThat(inLogPrinters.get(1), is(xmlPrinter));
+        assertThat(inLogPrinters.get(2), is(xmlPrinter));
+        assertThat(inLog2.getPrinters().get(0), is(inLogPrinters.get(0)));
+        assertThat(annotationDefinitionFactory.getRuntimeTypePrinters(), hasSize(1));
+    }
+
+    @Test
+    public void buildInLogWithoutRuntimeTypeDispatch() throws NoSuchMethodException {
+        // given
+        Set<String> loggerNames = singleton("");
+        Method method = LogInLoggableClass.class.getDeclaredMethod("runtimeType", Object.class, String.class, int.class);
+        // when
+        InLog inLog = annotationDefinitionFactory.buildInLog(loggerNames, method);
+        // then
+        assertFalse(annotationDefinitionFactory.isRuntimeTypeDispatch());
+        assertThat(inLog.getPrinters().get(0), is(xmlPrinter));
+        assertThat(annotationDefinitionFactory.getRuntimeTypePrinters(), empty());
+    }
+
     @SuppressWarnings("unused")
     private static class LogInLoggableClass {
 
+        @Log
+        void runtimeType(Object object, String string, int i) {
+        }
+
+        @Log
+        void runtimeType(CharSequence charSequence) {
+        }
+
         @Log.in(INFO)
         @Log(WARN)
         void logIn(String a, String b) {
@@ -250,9 +298,28 @@ public class AnnotationDefinitionFactoryTest {
         assertThat(outLog.getLevel(), is(ERROR));
     }
 
+    @Test
+    public void buildOutLogWithMaxLength() throws NoSuchMethodException {
+        // given
+        Set<String> loggerNames = singleton("");
+        Method method = LogOutLoggableClass.class.getDeclaredMethod("maxLength");
+        // when
+        OutLog outLog = annotationDefinitionFactory.buildOutLog(loggerNames, method);
+        // then
+        assertNotNull(outLog);
+        assertThat(outLog.getPrinter().getMaxLength(), is(10));
+        assertThat(outLog.getPrinter().print("long string"), is("\"long stri...(truncated, 11 chars)"));
+        assertThat(jsonPrinter.getMaxLength(), is(0));
+    }
+
     @SuppressWarnings("unused")
     private static class LogOutLoggableClass {
 
+        @Log.out(maxLength = 10, printer = "json")
+        String maxLength() {
+            return null;
+        }
+
         @Log.out(INFO)
         @Log(WARN)
         void logOut() {
@@ -32,6 +32,7 @@ import java.util.*;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
+import static java.util.Objects.isNull;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.*;
@@ -564,6 +565,59 @@ public class AnnotationExtractorTest {
         }
     }
 
+    @Test
+    public void getClassMetadata() throws NoSuchMethodException {
+        // given
+        Method loggedOverriddenMethod = AnnotatedChild.class.getMethod("loggedOverriddenMethod", String.class);
+        Method overriddenMethod = AnnotatedChild.class.getMethod("overriddenMethod", String.class);
+        // when
+        ClassMetadata classMetadata = annotationExtractor.getClassMetadata(AnnotatedChild.class);
+        // then
+        assertTrue(classMetadata.isAnnotated());
+        assertEquals(AnnotatedChild.class, classMetadata.getClazz());
+        Map<Method, MethodMetadata> methods = new HashMap<>();
+        classMetadata.getMethods().forEach(metadata -> methods.put(metadata.getMethod(), metadata));
+        assertThat(methods.keySet(), is(annotationExtractor.getCandidateMethods(AnnotatedChild.class)));
+
+        MethodMetadata logged = methods.get(loggedOverriddenMethod);
+        assertTrue(logged.isAnnotated());
+        assertThat(logged.getBridgeMethod(), nullValue());
+        assertThat(logged.getLogs(), is(annotationExtractor.getLogs(loggedOverriddenMethod)));
+        assertThat(logged.getLogErrors(), is(annotationExtractor.getLogErrors(loggedOverriddenMethod)));
+        assertThat(logged.getParameterLogs(), is(annotationExtractor.getParameterLogs(loggedOverriddenMethod)));
+        assertThat(logged.getParameterNames(), contains("input"));
+
+        MethodMetadata bridged = methods.get(overriddenMethod);
+        assertFalse(bridged.isAnnotated());
+        assertThat(bridged.getBridgeMethod(), notNullValue());
+        assertThat(bridged.getLogs(), is(annotationExtractor.getLogs(overriddenMethod)));
+        assertThat(bridged.getLogIns().iterator().next().level(), is(INFO));
+        assertThat(bridged.getMdcs(), is(annotationExtractor.getMdcs(overriddenMethod)));
+        assertThat(bridged.getParameterMdcs(), is(annotationExtractor.getParametersMdcs(overriddenMethod)));
+    }
+
+    @Test
+    public void getClassMetadataNotAnnotated() {
+        // when
+        ClassMetadata classMetadata = annotationExtractor.getClassMetadata(Child.class);
+        // then
+        assertFalse(classMetadata.isAnnotated());
+        assertThat(classMetadata.getMethods(), hasSize(3));
+        assertTrue(classMetadata.getMethods().stream().allMatch(metadata -> isNull(metadata.getBridgeMethod())));
+    }
+
+    @Test
+    public void getMethodMetadata() throws NoSuchMethodException {
+        // given
+        Method overriddenMethod = AnnotatedChild.class.getMethod("overriddenMethod", String.class);
+        // when
+        MethodMetadata metadata = annotationExtractor.getMethodMetadata(overriddenMethod);
+        // then
+        assertThat(metadata.getMethod(), is(overriddenMethod));
+        assertThat(metadata.getLogOuts(), is(annotationExtractor.getLogOuts(overriddenMethod)));
+        assertThat(metadata.getLogOuts(), hasSize(1));
+    }
+
     @Test
     public void findLog() throws NoSuchMethodException {
         // given
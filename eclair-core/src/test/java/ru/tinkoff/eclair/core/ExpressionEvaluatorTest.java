@@ -21,12 +21,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.context.expression.MapAccessor;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.Map;
+
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
@@ -196,6 +204,155 @@ public class ExpressionEvaluatorTest {
         assertThat(argument.getPublicField(), is("123"));
     }
 
+    @Test
+    public void evaluatePropertyChainByFastPath() {
+        // given
+        StandardEvaluationContext evaluationContext = new StandardEvaluationContext();
+        ExpressionEvaluator expressionEvaluator = new ExpressionEvaluator(expressionParser, evaluationContext);
+
+        String string = "publicField.length()";
+        String string2 = "getPublicField().toUpperCase()";
+        String string3 = "publicField.empty";
+        Argument argument = new Argument();
+        // when
+        Object result = expressionEvaluator.evaluate(string, argument);
+        Object result2 = expressionEvaluator.evaluate(string2, argument);
+        Object result3 = expressionEvaluator.evaluate(string3, argument);
+        // then
+        assertThat(result, is(6));
+        assertThat(result2, is("PUBLIC"));
+        assertThat(result3, is(false));
+        assertThat(expressionEvaluator.getFastPathCount(), is(3L));
+        assertThat(expressionEvaluator.getInterpretedCount(), is(0L));
+    }
+
+    @Test
+    public void evaluatePropertyChainWithNullIntermediate() {
+        // given
+        StandardEvaluationContext evaluationContext = new StandardEvaluationContext();
+        ExpressionEvaluator expressionEvaluator = new ExpressionEvaluator(expressionParser, evaluationContext);
+
+        String string = "nullField.length()";
+        Argument argument = new Argument();
+        // when
+        Object result = expressionEvaluator.evaluate(string, argument);
+        // then
+        assertThat(result, is("nullField.length()"));
+        assertThat(expressionEvaluator.getFastPathCount(), is(1L));
+    }
+
+    @Test
+    public void evaluatePropertyChainWithNullResult() {
+        // given
+        StandardEvaluationContext evaluationContext = new StandardEvaluationContext();
+        ExpressionEvaluator expressionEvaluator = new ExpressionEvaluator(expressionParser, evaluationContext);
+
+        String string = "nullField";
+        Argument argument = new Argument();
+        // when
+        Object result = expressionEvaluator.evaluate(string, argument);
+        // then
+        assertThat(result, nullValue());
+        assertThat(expressionEvaluator.getFastPathCount(), is(1L));
+    }
+
+    @Test
+    public void evaluateNotPropertyChainBySpel() {
+        // given
+        StandardEvaluationContext evaluationContext = new StandardEvaluationContext();
+        ExpressionEvaluator expressionEvaluator = new ExpressionEvaluator(expressionParser, evaluationContext);
+
+        String string = "publicField + '!'";
+        String string2 = "privateField";
+        Argument argument = new Argument();
+        // when
+        Object result = expressionEvaluator.evaluate(string, argument);
+        Object result2 = expressionEvaluator.evaluate(string2, argument);
+        // then
+        assertThat(result, is("public!"));
+        assertThat(result2, is("privateField"));
+        assertThat(expressionEvaluator.getFastPathCount(), is(0L));
+        assertThat(expressionEvaluator.getInterpretedCount(), is(2L));
+    }
+
+    @Test
+    public void evaluateCompiledSpel() {
+        // given
+        SpelExpressionParser expressionParser = new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, null));
+        StandardEvaluationContext evaluationContext = new StandardEvaluationContext();
+        ExpressionEvaluator expressionEvaluator = new ExpressionEvaluator(expressionParser, evaluationContext);
+
+        String string = "1 + 1";
+        // when
+        expressionEvaluator.evaluate(string);
+        expressionEvaluator.evaluate(string);
+        Object result = expressionEvaluator.evaluate(string);
+        // then
+        assertThat(result, is(2));
+        assertThat(expressionEvaluator.getInterpretedCount(), is(2L));
+        assertThat(expressionEvaluator.getCompiledCount(), is(1L));
+    }
+
+    @Test
+    public void isSideEffectFree() {
+        // given
+        ExpressionEvaluator expressionEvaluator = new ExpressionEvaluator(expressionParser, new StandardEvaluationContext());
+        // when, then
+        assertThat(expressionEvaluator.isSideEffectFree("1 + 1"), is(true));
+        assertThat(expressionEvaluator.isSideEffectFree("@bean.id"), is(true));
+        assertThat(expressionEvaluator.isSideEffectFree("T(java.lang.Integer).MAX_VALUE"), is(true));
+        assertThat(expressionEvaluator.isSideEffectFree("1 +"), is(true));
+        assertThat(expressionEvaluator.isSideEffectFree("@bean.nextId()"), is(false));
+        assertThat(expressionEvaluator.isSideEffectFree("T(java.util.UUID).randomUUID()"), is(false));
+        assertThat(expressionEvaluator.isSideEffectFree("new Object()"), is(false));
+        assertThat(expressionEvaluator.isSideEffectFree("#counter++"), is(false));
+        assertThat(expressionEvaluator.isSideEffectFree("#value = 1"), is(false));
+    }
+
+    @Test
+    public void evaluatePropertyChainWithCustomPropertyAccessor() {
+        // given
+        StandardEvaluationContext evaluationContext = new StandardEvaluationContext();
+        evaluationContext.addPropertyAccessor(new MapAccessor());
+        ExpressionEvaluator expressionEvaluator = new ExpressionEvaluator(expressionParser, evaluationContext);
+
+        String string = "key";
+        Map<String, String> argument = singletonMap("key", "value");
+        // when
+        Object result = expressionEvaluator.evaluate(string, argument);
+        // then
+        assertThat(result, is("value"));
+        assertThat(expressionEvaluator.getFastPathCount(), is(0L));
+    }
+
+    @Test
+    public void prepare() {
+        // given
+        String string = "1 + 1";
+        // when
+        expressionEvaluator.prepare(string);
+        Object result = expressionEvaluator.evaluate(string);
+        // then
+        assertThat(result, is(2));
+    }
+
+    @Test
+    public void prepareInvalid() {
+        // given
+        String string = "1 +";
+        ParseException exception = null;
+        // when
+        try {
+            expressionEvaluator.prepare(string);
+        } catch (ParseException e) {
+            exception = e;
+        }
+        Object result = expressionEvaluator.evaluate(string);
+        // then
+        assertThat(exception, notNullValue());
+        assertThat(result, is("1 +"));
+    }
+
     @SuppressWarnings("unused")
     private static class Argument {
 
@@ -203,6 +360,8 @@ public class ExpressionEvaluatorTest {
 
         private String publicField = "public";
 
+        private String nullField;
+
         public String getPublicField() {
             return publicField;
         }
@@ -211,6 +370,10 @@ public class ExpressionEvaluatorTest {
             this.publicField = publicField;
         }
 
+        public String getNullField() {
+            return nullField;
+        }
+
         @Override
         public String toString() {
             return "!";
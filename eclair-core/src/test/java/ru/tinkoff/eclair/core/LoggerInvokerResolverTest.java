@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.core;
+
+import org.junit.Test;
+import org.springframework.boot.logging.LogLevel;
+import ru.tinkoff.eclair.logger.ManualLogger;
+
+import java.util.Arrays;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Executed by Java 9+ against multi-release jar as well, see 'multi-release' profile.
+ */
+public class LoggerInvokerResolverTest {
+
+    @Test
+    public void resolveThroughDelegatingLoggers() {
+        // given
+        ManualLogger logger = new DelegatingLogger(new TestLogger());
+        // when
+        logger.info("message");
+        // then
+        assertThat(TestLogger.invoker.getClassName(), is("ru.tinkoff.eclair.core.LoggerInvokerResolverTest"));
+        assertThat(TestLogger.invoker.getMethodName(), is("resolveThroughDelegatingLoggers"));
+    }
+
+    @Test
+    public void resolveByStackWalkerOnJava9() {
+        // given
+        assumeFalse(System.getProperty("java.specification.version").startsWith("1."));
+        assumeTrue(LoggerInvokerResolver.class.getProtectionDomain().getCodeSource().getLocation().getPath().endsWith(".jar"));
+        // when
+        boolean stackWalking = Arrays.stream(LoggerInvokerResolver.class.getDeclaredFields())
+                .anyMatch(field -> field.getType().getName().equals("java.lang.StackWalker"));
+        // then
+        assertThat(stackWalking, is(true));
+    }
+
+    private static class DelegatingLogger implements ManualLogger {
+
+        private final ManualLogger delegate;
+
+        private DelegatingLogger(ManualLogger delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean isLogEnabled(LogLevel level) {
+            return delegate.isLogEnabled(level);
+        }
+
+        @Override
+        public void log(LogLevel level, LogLevel ifEnabledLevel, String format, Object... arguments) {
+            delegate.log(level, ifEnabledLevel, format, arguments);
+        }
+    }
+
+    private static class TestLogger implements ManualLogger {
+
+        private static StackTraceElement invoker;
+
+        @Override
+        public boolean isLogEnabled(LogLevel level) {
+            return true;
+        }
+
+        @Override
+        public void log(LogLevel level, LogLevel ifEnabledLevel, String format, Object... arguments) {
+            invoker = LoggerInvokerResolver.getInstance().resolve();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.core;
+
+import org.junit.Test;
+
+import java.lang.invoke.MethodHandle;
+
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class PropertyChainTest {
+
+    @Test
+    public void parse() {
+        // given
+        String string = "client.getInn().length()";
+        // when
+        PropertyChain propertyChain = PropertyChain.parse(string);
+        // then
+        assertThat(propertyChain.getSegments().size(), is(3));
+        assertThat(propertyChain.getSegments().get(0).getName(), is("client"));
+        assertThat(propertyChain.getSegments().get(0).isMethod(), is(false));
+        assertThat(propertyChain.getSegments().get(1).getName(), is("getInn"));
+        assertThat(propertyChain.getSegments().get(1).isMethod(), is(true));
+        assertThat(propertyChain.getSegments().get(2).getName(), is("length"));
+        assertThat(propertyChain.getSegments().get(2).isMethod(), is(true));
+    }
+
+    @Test
+    public void parseNotChain() {
+        assertThat(PropertyChain.parse(null), is(PropertyChain.NONE));
+        assertThat(PropertyChain.parse(""), is(PropertyChain.NONE));
+        assertThat(PropertyChain.parse("client."), is(PropertyChain.NONE));
+        assertThat(PropertyChain.parse("client?.inn"), is(PropertyChain.NONE));
+        assertThat(PropertyChain.parse("client.inn + 1"), is(PropertyChain.NONE));
+        assertThat(PropertyChain.parse("getInn(1)"), is(PropertyChain.NONE));
+        assertThat(PropertyChain.parse("#this"), is(PropertyChain.NONE));
+        assertThat(PropertyChain.parse("@bean.inn"), is(PropertyChain.NONE));
+        assertThat(PropertyChain.parse("items[0]"), is(PropertyChain.NONE));
+        assertThat(PropertyChain.parse("null"), is(PropertyChain.NONE));
+        assertThat(PropertyChain.parse("TRUE"), is(PropertyChain.NONE));
+    }
+
+    @Test
+    public void getAccessor() throws Throwable {
+        // given
+        PropertyChain propertyChain = PropertyChain.parse("client.active");
+        // when
+        MethodHandle accessor = propertyChain.getAccessor(Dto.class);
+        // then
+        assertThat(accessor, notNullValue());
+        assertThat((Object) accessor.invokeExact((Object) new Dto()), is(true));
+    }
+
+    @Test
+    public void getAccessorCached() {
+        // given
+        PropertyChain propertyChain = PropertyChain.parse("client.inn");
+        // when
+        MethodHandle accessor = propertyChain.getAccessor(Dto.class);
+        MethodHandle accessor2 = propertyChain.getAccessor(Dto.class);
+        // then
+        assertThat(accessor == accessor2, is(true));
+    }
+
+    @Test
+    public void getAccessorNotResolved() {
+        assertThat(PropertyChain.parse("client.unknown").getAccessor(Dto.class), nullValue());
+        assertThat(PropertyChain.parse("client.name").getAccessor(Dto.class), nullValue());
+        assertThat(PropertyChain.parse("client.update()").getAccessor(Dto.class), nullValue());
+        assertThat(PropertyChain.parse("client.staticValue()").getAccessor(Dto.class), nullValue());
+        assertThat(PropertyChain.parse("name").getAccessor(Class.class), nullValue());
+        assertThat(PropertyChain.NONE.getAccessor(Dto.class), nullValue());
+    }
+
+    @SuppressWarnings("unused")
+    public static class Dto {
+
+        public Client getClient() {
+            return new Client();
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class Client {
+
+        public String name = "name";
+
+        public String getInn() {
+            return "inn";
+        }
+
+        public boolean isActive() {
+            return true;
+        }
+
+        public void update() {
+        }
+
+        public static String staticValue() {
+            return "static";
+        }
+    }
+}
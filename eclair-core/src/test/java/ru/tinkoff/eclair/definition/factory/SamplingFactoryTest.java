@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.definition.factory;
+
+import org.junit.Test;
+import ru.tinkoff.eclair.annotation.Log;
+import ru.tinkoff.eclair.definition.Sampling;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.core.annotation.AnnotationUtils.synthesizeAnnotation;
+
+public class SamplingFactoryTest {
+
+    @Test
+    public void newInstance() {
+        // given
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("sampleRate", 0.5);
+        attributes.put("rateLimit", 10);
+        attributes.put("first", 3);
+        attributes.put("every", 100);
+        Log.error logError = synthesizeAnnotation(attributes, Log.error.class, null);
+        // when
+        Sampling sampling = SamplingFactory.newInstance(logError);
+        // then
+        assertThat(sampling.getRate(), is(0.5));
+        assertThat(sampling.getRateLimit(), is(10));
+        assertThat(sampling.getFirst(), is(3));
+        assertThat(sampling.getEvery(), is(100));
+    }
+
+    @Test
+    public void newInstanceByDefault() {
+        // given
+        Log log = synthesizeAnnotation(Log.class);
+        // when
+        Sampling sampling = SamplingFactory.newInstance(log);
+        // then
+        assertTrue(sampling.isAll());
+        assertThat(sampling, is(Sampling.ALL));
+    }
+}
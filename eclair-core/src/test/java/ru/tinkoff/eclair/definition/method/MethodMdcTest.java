@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.definition.method;
+
+import org.junit.Before;
+import org.junit.Test;
+import ru.tinkoff.eclair.definition.ParameterMdc;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.*;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class MethodMdcTest {
+
+    private final List<Set<ParameterMdc>> noParameterDefinitions = asList(emptySet(), emptySet(), emptySet());
+
+    private Method method;
+
+    @Before
+    public void init() throws NoSuchMethodException {
+        method = MethodMdcTest.class.getDeclaredMethod("method", String.class, String.class, String.class);
+    }
+
+    @SuppressWarnings("unused")
+    private void method(String a, String b, String c) {
+    }
+
+    @Test
+    public void entriesByMethodDefinitions() {
+        // given
+        ParameterMdc parameterMdc = new ParameterMdc("key", "value", false);
+        ParameterMdc parameterMdc1 = new ParameterMdc("key1", "value1", true);
+        // when
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"),
+                new LinkedHashSet<>(asList(parameterMdc, parameterMdc1)), noParameterDefinitions);
+        // then
+        List<MethodMdc.Entry> entries = methodMdc.getEntries();
+        assertThat(keys(entries), contains("key", "key1"));
+        assertThat(entries.get(0).getExpressionString(), is("value"));
+        assertThat(entries.get(0).getArgumentIndex(), is(MethodMdc.Entry.NO_ARGUMENT));
+        assertThat(entries.get(0).isGlobal(), is(false));
+        assertThat(entries.get(1).isGlobal(), is(true));
+    }
+
+    @Test
+    public void entriesByMethodDefinitionsEmptyKey() {
+        // given
+        ParameterMdc parameterMdc = new ParameterMdc("", "value", false);
+        // when
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"), singleton(parameterMdc), noParameterDefinitions);
+        // then
+        assertThat(keys(methodMdc.getEntries()), contains("method"));
+    }
+
+    @Test
+    public void entriesByMethodDefinitionsEmptyExpressionString() {
+        // given
+        ParameterMdc parameterMdc = new ParameterMdc("key", "", false);
+        ParameterMdc parameterMdc1 = new ParameterMdc("key1", "", false);
+        // when
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"),
+                new LinkedHashSet<>(asList(parameterMdc, parameterMdc1)), noParameterDefinitions);
+        // then
+        List<MethodMdc.Entry> entries = methodMdc.getEntries();
+        assertThat(keys(entries), contains("key[a]", "key[b]", "key[c]", "key1[a]", "key1[b]", "key1[c]"));
+        assertThat(argumentIndexes(entries), contains(0, 1, 2, 0, 1, 2));
+    }
+
+    @Test
+    public void entriesByMethodDefinitionsEmptyKeyAndExpressionString() {
+        // given
+        ParameterMdc parameterMdc = new ParameterMdc("", "", false);
+        // when
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"), singleton(parameterMdc), noParameterDefinitions);
+        // then
+        assertThat(keys(methodMdc.getEntries()), contains("a", "b", "c"));
+    }
+
+    @Test
+    public void entriesByMethodDefinitionsEmptyKeyAndExpressionStringWithoutParameterNames() {
+        // given
+        ParameterMdc parameterMdc = new ParameterMdc("", "", false);
+        // when
+        MethodMdc methodMdc = new MethodMdc(method, asList(null, null, null), singleton(parameterMdc), noParameterDefinitions);
+        // then
+        assertThat(keys(methodMdc.getEntries()), contains("method[0]", "method[1]", "method[2]"));
+    }
+
+    @Test
+    public void entriesByParameterDefinitions() {
+        // given
+        ParameterMdc parameterMdc = new ParameterMdc("key", "value", false);
+        ParameterMdc parameterMdc1 = new ParameterMdc("key1", "value1", false);
+        // when
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"), emptySet(),
+                asList(new LinkedHashSet<>(asList(parameterMdc, parameterMdc1)), emptySet(), emptySet()));
+        // then
+        List<MethodMdc.Entry> entries = methodMdc.getEntries();
+        assertThat(keys(entries), contains("key", "key1"));
+        assertThat(argumentIndexes(entries), contains(0, 0));
+    }
+
+    @Test
+    public void entriesByParameterDefinitionsEmptyKey() {
+        // given
+        ParameterMdc parameterMdc = new ParameterMdc("", "value", false);
+        // when
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"), emptySet(),
+                asList(emptySet(), singleton(parameterMdc), emptySet()));
+        // then
+        assertThat(keys(methodMdc.getEntries()), contains("b"));
+        assertThat(argumentIndexes(methodMdc.getEntries()), contains(1));
+    }
+
+    @Test
+    public void entriesByParameterDefinitionsEmptyKeyAndExpressionStringWithoutParameterNames() {
+        // given
+        ParameterMdc parameterMdc = new ParameterMdc("", "", false);
+        // when
+        MethodMdc methodMdc = new MethodMdc(method, emptyList(), emptySet(),
+                asList(singleton(parameterMdc), emptySet(), emptySet()));
+        // then
+        assertThat(keys(methodMdc.getEntries()), contains("method[0]"));
+    }
+
+    @Test
+    public void entriesOrder() {
+        // given
+        ParameterMdc methodDefinition = new ParameterMdc("method", "value", false);
+        ParameterMdc parameterDefinition = new ParameterMdc("parameter", "", false);
+        // when
+        MethodMdc methodMdc = new MethodMdc(method, asList("a", "b", "c"), singleton(methodDefinition),
+                asList(emptySet(), emptySet(), singleton(parameterDefinition)));
+        // then
+        assertThat(keys(methodMdc.getEntries()), contains("method", "parameter"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void entriesImmutable() {
+        // given
+        MethodMdc methodMdc = new MethodMdc(method, emptyList(), singleton(new ParameterMdc("key", "value", false)), noParameterDefinitions);
+        // when
+        methodMdc.getEntries().clear();
+        // then expected exception
+    }
+
+    private List<String> keys(List<MethodMdc.Entry> entries) {
+        return entries.stream().map(MethodMdc.Entry::getKey).collect(toList());
+    }
+
+    private List<Integer> argumentIndexes(List<MethodMdc.Entry> entries) {
+        return entries.stream().map(MethodMdc.Entry::getArgumentIndex).collect(toList());
+    }
+}
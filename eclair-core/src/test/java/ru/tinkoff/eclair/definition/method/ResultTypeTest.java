@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.definition.method;
+
+import org.junit.Test;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class ResultTypeTest {
+
+    @Test
+    public void resolve() {
+        assertThat(ResultType.resolve(CompletableFuture.class), is(ResultType.COMPLETION_STAGE));
+        assertThat(ResultType.resolve(CompletionStage.class), is(ResultType.COMPLETION_STAGE));
+        assertThat(ResultType.resolve(ListenableFuture.class), is(ResultType.LISTENABLE_FUTURE));
+        assertThat(ResultType.resolve(SettableListenableFuture.class), is(ResultType.LISTENABLE_FUTURE));
+        assertThat(ResultType.resolve(Future.class), is(ResultType.SYNCHRONOUS));
+        assertThat(ResultType.resolve(Object.class), is(ResultType.SYNCHRONOUS));
+        assertThat(ResultType.resolve(void.class), is(ResultType.SYNCHRONOUS));
+    }
+
+    @Test
+    public void isAsync() {
+        assertThat(ResultType.SYNCHRONOUS.isAsync(), is(false));
+        assertThat(ResultType.COMPLETION_STAGE.isAsync(), is(true));
+        assertThat(ResultType.LISTENABLE_FUTURE.isAsync(), is(true));
+        assertThat(ResultType.MONO.isAsync(), is(true));
+        assertThat(ResultType.FLUX.isAsync(), is(true));
+    }
+
+    @Test
+    public void isReactive() {
+        assertThat(ResultType.SYNCHRONOUS.isReactive(), is(false));
+        assertThat(ResultType.COMPLETION_STAGE.isReactive(), is(false));
+        assertThat(ResultType.LISTENABLE_FUTURE.isReactive(), is(false));
+        assertThat(ResultType.MONO.isReactive(), is(true));
+        assertThat(ResultType.FLUX.isReactive(), is(true));
+    }
+
+    @Test
+    public void resolveLoggedType() throws NoSuchMethodException {
+        assertEquals(String.class, ResultType.resolveLoggedType(getMethod("string")));
+        assertEquals(String.class, ResultType.resolveLoggedType(getMethod("completableFuture")));
+        assertEquals(List.class, ResultType.resolveLoggedType(getMethod("completionStage")));
+        assertEquals(Integer.class, ResultType.resolveLoggedType(getMethod("listenableFuture")));
+        assertEquals(String.class, ResultType.resolveLoggedType(getMethod("mono")));
+        assertEquals(Long.class, ResultType.resolveLoggedType(getMethod("flux")));
+        assertEquals(Object.class, ResultType.resolveLoggedType(getMethod("raw")));
+    }
+
+    private static Method getMethod(String name) throws NoSuchMethodException {
+        return LoggedTypes.class.getMethod(name);
+    }
+
+    @SuppressWarnings({"unused", "rawtypes"})
+    public interface LoggedTypes {
+
+        String string();
+
+        CompletableFuture<String> completableFuture();
+
+        CompletionStage<List<String>> completionStage();
+
+        SettableListenableFuture<Integer> listenableFuture();
+
+        Mono<String> mono();
+
+        Flux<String> flux();
+
+        CompletableFuture raw();
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Test;
+import org.slf4j.MDC;
+import ru.tinkoff.eclair.definition.method.MethodLog;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.synchronizedList;
+import static java.util.Objects.isNull;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class AsyncLoggerTest {
+
+    @Test
+    public void logInByBackgroundThread() throws InterruptedException {
+        // given
+        SimpleLogger simpleLogger = mock(SimpleLogger.class);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        AtomicReference<Object[]> arguments = new AtomicReference<>();
+        doAnswer(invocation -> {
+            threadName.set(Thread.currentThread().getName());
+            arguments.set(((MethodInvocation) invocation.getArguments()[0]).getArguments());
+            return null;
+        }).when(simpleLogger).logIn(any(), any());
+        AsyncLogger asyncLogger = new AsyncLogger(simpleLogger);
+        MethodInvocation invocation = givenInvocation("a");
+        MethodLog methodLog = mock(MethodLog.class);
+        // when
+        asyncLogger.logIn(invocation, methodLog);
+        asyncLogger.destroy();
+        // then
+        verify(simpleLogger).logIn(any(InvocationSnapshot.class), eq(methodLog));
+        assertEquals("eclair-async-logger-0", threadName.get());
+        assertArrayEquals(new Object[]{"a"}, arguments.get());
+    }
+
+    @Test
+    public void logOutAndLogErrorByBackgroundThread() throws InterruptedException {
+        // given
+        SimpleLogger simpleLogger = mock(SimpleLogger.class);
+        AsyncLogger asyncLogger = new AsyncLogger(simpleLogger);
+        MethodLog methodLog = mock(MethodLog.class);
+        Throwable throwable = new RuntimeException();
+        // when
+        asyncLogger.logOut(givenInvocation(), methodLog, "result");
+        asyncLogger.logError(givenInvocation(), methodLog, throwable);
+        asyncLogger.destroy();
+        // then
+        verify(simpleLogger).logOut(any(InvocationSnapshot.class), eq(methodLog), eq("result"));
+        verify(simpleLogger).logError(any(InvocationSnapshot.class), eq(methodLog), eq(throwable));
+        assertEquals(0, asyncLogger.getSynchronousCount());
+    }
+
+    @Test
+    public void mdcIsPropagated() throws InterruptedException {
+        // given
+        SimpleLogger simpleLogger = mock(SimpleLogger.class);
+        AtomicReference<String> value = new AtomicReference<>();
+        doAnswer(invocation -> {
+            value.set(MDC.get("key"));
+            return null;
+        }).when(simpleLogger).logIn(any(), any());
+        AsyncLogger asyncLogger = new AsyncLogger(simpleLogger);
+        // when
+        MDC.put("key", "value");
+        try {
+            asyncLogger.logIn(givenInvocation(), mock(MethodLog.class));
+        } finally {
+            MDC.remove("key");
+        }
+        asyncLogger.destroy();
+        // then
+        assertEquals("value", value.get());
+    }
+
+    @Test
+    public void timestampOfEventIsPutIntoMdc() throws InterruptedException {
+        // given
+        SimpleLogger simpleLogger = mock(SimpleLogger.class);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        List<String> timestamps = synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            timestamps.add(MDC.get(AsyncLogger.DEFAULT_TIMESTAMP_MDC_KEY));
+            started.countDown();
+            released.await();
+            return null;
+        }).when(simpleLogger).logIn(any(), any());
+        AsyncLogger asyncLogger = new AsyncLogger(simpleLogger);
+        long before = System.currentTimeMillis();
+        asyncLogger.logIn(givenInvocation(), mock(MethodLog.class));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        // when
+        asyncLogger.logIn(givenInvocation(), mock(MethodLog.class));
+        long after = System.currentTimeMillis();
+        Thread.sleep(50);
+        released.countDown();
+        asyncLogger.destroy();
+        // then
+        assertEquals(2, timestamps.size());
+        long timestamp = Instant.parse(timestamps.get(1)).toEpochMilli();
+        assertTrue(timestamp >= before && timestamp <= after);
+    }
+
+    @Test
+    public void timestampIsOmitted() throws InterruptedException {
+        // given
+        SimpleLogger simpleLogger = mock(SimpleLogger.class);
+        AtomicReference<Map<String, String>> mdc = new AtomicReference<>();
+        doAnswer(invocation -> {
+            mdc.set(MDC.getCopyOfContextMap());
+            return null;
+        }).when(simpleLogger).logIn(any(), any());
+        AsyncLogger asyncLogger = new AsyncLogger(simpleLogger);
+        asyncLogger.setTimestampMdcKey(null);
+        // when
+        asyncLogger.logIn(givenInvocation(), mock(MethodLog.class));
+        asyncLogger.destroy();
+        // then
+        assertTrue(isNull(mdc.get()) || mdc.get().isEmpty());
+    }
+
+    @Test
+    public void levelsAreCheckedByDelegate() {
+        // given
+        SimpleLogger simpleLogger = mock(SimpleLogger.class);
+        MethodInvocation invocation = givenInvocation();
+        MethodLog methodLog = mock(MethodLog.class);
+        Throwable throwable = new RuntimeException();
+        when(simpleLogger.isLogInEnabled(invocation, methodLog)).thenReturn(true);
+        when(simpleLogger.isLogErrorEnabled(invocation, methodLog, throwable)).thenReturn(true);
+        AsyncLogger asyncLogger = new AsyncLogger(simpleLogger);
+        // when, then
+        assertTrue(asyncLogger.isLogInNecessary(invocation, methodLog));
+        assertFalse(asyncLogger.isLogOutNecessary(invocation, methodLog));
+        assertTrue(asyncLogger.isLogErrorNecessary(invocation, methodLog, throwable));
+    }
+
+    @Test
+    public void overflowIsLoggedSynchronously() throws InterruptedException {
+        // given
+        SimpleLogger simpleLogger = mock(SimpleLogger.class);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        MethodLog blockingMethodLog = mock(MethodLog.class);
+        doAnswer(invocation -> {
+            started.countDown();
+            released.await();
+            return null;
+        }).when(simpleLogger).logIn(any(), eq(blockingMethodLog));
+        AsyncLogger asyncLogger = new AsyncLogger(simpleLogger, 1, 1, AsyncLogger.OverflowPolicy.SYNCHRONOUS);
+        MethodInvocation invocation = givenInvocation();
+        MethodLog methodLog = mock(MethodLog.class);
+        asyncLogger.logIn(givenInvocation(), blockingMethodLog);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        asyncLogger.logIn(givenInvocation(), methodLog);
+        // when
+        asyncLogger.logIn(invocation, methodLog);
+        // then
+        verify(simpleLogger).logIn(invocation, methodLog);
+        assertEquals(1, asyncLogger.getSynchronousCount());
+        released.countDown();
+        asyncLogger.destroy();
+    }
+
+    @Test
+    public void overflowIsDropped() throws InterruptedException {
+        // given
+        SimpleLogger simpleLogger = mock(SimpleLogger.class);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        MethodLog blockingMethodLog = mock(MethodLog.class);
+        doAnswer(invocation -> {
+            started.countDown();
+            released.await();
+            return null;
+        }).when(simpleLogger).logIn(any(), eq(blockingMethodLog));
+        AsyncLogger asyncLogger = new AsyncLogger(simpleLogger, 1, 1, AsyncLogger.OverflowPolicy.DROP_NEWEST);
+        MethodLog methodLog = mock(MethodLog.class);
+        asyncLogger.logIn(givenInvocation(), blockingMethodLog);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        asyncLogger.logIn(givenInvocation(), methodLog);
+        // when
+        asyncLogger.logIn(givenInvocation(), methodLog);
+        released.countDown();
+        asyncLogger.destroy();
+        // then
+        verify(simpleLogger, times(1)).logIn(any(InvocationSnapshot.class), eq(methodLog));
+        assertEquals(1, asyncLogger.getDroppedCount());
+    }
+
+    @Test
+    public void failureIsCounted() throws InterruptedException {
+        // given
+        SimpleLogger simpleLogger = mock(SimpleLogger.class);
+        doThrow(new IllegalStateException()).when(simpleLogger).logIn(any(), any());
+        AsyncLogger asyncLogger = new AsyncLogger(simpleLogger);
+        // when
+        asyncLogger.logIn(givenInvocation(), mock(MethodLog.class));
+        asyncLogger.logIn(givenInvocation(), mock(MethodLog.class));
+        asyncLogger.destroy();
+        // then
+        assertEquals(2, asyncLogger.getFailedCount());
+    }
+
+    @Test(timeout = 10000)
+    public void errorDoesNotStopBackgroundThread() throws InterruptedException {
+        // given
+        SimpleLogger simpleLogger = mock(SimpleLogger.class);
+        MethodLog failingMethodLog = mock(MethodLog.class);
+        doThrow(new StackOverflowError()).when(simpleLogger).logIn(any(), eq(failingMethodLog));
+        AsyncLogger asyncLogger = new AsyncLogger(simpleLogger, 1, 1, AsyncLogger.OverflowPolicy.BLOCK);
+        MethodLog methodLog = mock(MethodLog.class);
+        // when
+        asyncLogger.logIn(givenInvocation(), failingMethodLog);
+        for (int a = 0; a < 3; a++) {
+            asyncLogger.logIn(givenInvocation(), methodLog);
+        }
+        asyncLogger.destroy();
+        // then
+        verify(simpleLogger, times(3)).logIn(any(InvocationSnapshot.class), eq(methodLog));
+        assertEquals(1, asyncLogger.getFailedCount());
+        assertEquals(0, asyncLogger.getSynchronousCount());
+    }
+
+    @Test
+    public void loggedSynchronouslyAfterDestroy() throws InterruptedException {
+        // given
+        SimpleLogger simpleLogger = mock(SimpleLogger.class);
+        AsyncLogger asyncLogger = new AsyncLogger(simpleLogger);
+        asyncLogger.destroy();
+        MethodInvocation invocation = givenInvocation();
+        MethodLog methodLog = mock(MethodLog.class);
+        // when
+        asyncLogger.logIn(invocation, methodLog);
+        // then
+        verify(simpleLogger).logIn(invocation, methodLog);
+        assertEquals(1, asyncLogger.getSynchronousCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bufferSizeIsNotPositive() {
+        // given, when
+        new AsyncLogger(mock(SimpleLogger.class), 0, 1, AsyncLogger.OverflowPolicy.BLOCK);
+        // then expected exception
+    }
+
+    private MethodInvocation givenInvocation(Object... arguments) {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getArguments()).thenReturn(arguments);
+        return invocation;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger;
+
+import org.junit.Test;
+import ru.tinkoff.eclair.printer.Printer;
+import ru.tinkoff.eclair.printer.ToStringPrinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class DeferredArgumentTest {
+
+    @Test
+    public void toStringOnce() {
+        // given
+        Printer printer = spy(new ToStringPrinter());
+        DeferredArgument argument = new DeferredArgument(printer, "s");
+        // when
+        argument.toString();
+        String printed = argument.toString();
+        // then
+        assertEquals("\"s\"", printed);
+        verify(printer).print(any());
+    }
+
+    @Test
+    public void printerThrowsException() {
+        // given
+        Printer printer = mock(Printer.class);
+        when(printer.print(any())).thenThrow(new RuntimeException());
+        DeferredArgument argument = new DeferredArgument(printer, 1);
+        // when
+        String printed = argument.toString();
+        // then
+        assertEquals("1", printed);
+    }
+}
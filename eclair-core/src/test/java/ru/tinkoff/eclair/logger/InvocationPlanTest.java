@@ -0,0 +1,192 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Test;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import ru.tinkoff.eclair.definition.InLog;
+import ru.tinkoff.eclair.definition.OutLog;
+import ru.tinkoff.eclair.definition.ParameterLog;
+import ru.tinkoff.eclair.definition.method.MethodLog;
+import ru.tinkoff.eclair.logger.facade.LoggerFacade;
+import ru.tinkoff.eclair.logger.facade.LoggerFacadeFactory;
+import ru.tinkoff.eclair.logger.level.EffectiveLevelCache;
+import ru.tinkoff.eclair.printer.Printer;
+import ru.tinkoff.eclair.printer.ToStringPrinter;
+
+import java.lang.reflect.Method;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.boot.logging.LogLevel.*;
+
+public class InvocationPlanTest {
+
+    @SuppressWarnings("unused")
+    private String method(String s, Integer i, String t) {
+        return s;
+    }
+
+    @SuppressWarnings("unused")
+    private void voidMethod() {
+    }
+
+    @Test
+    public void compile() throws NoSuchMethodException {
+        // given
+        Method method = InvocationPlanTest.class.getDeclaredMethod("method", String.class, Integer.class, String.class);
+        Printer printer = new ToStringPrinter();
+        Printer parameterPrinter = new ToStringPrinter();
+        InLog inLog = new InLog(INFO, DEBUG, TRACE, asList(printer, printer, printer));
+        ParameterLog parameterLog = new ParameterLog(WARN, OFF, DEBUG, parameterPrinter);
+        OutLog outLog = new OutLog(DEBUG, TRACE, DEBUG, printer);
+        MethodLog methodLog = new MethodLog(method, asList("s", null, "t"), inLog, asList(null, parameterLog, null), outLog, emptySet());
+        LoggerFacade loggerFacade = mock(LoggerFacade.class);
+        // when
+        InvocationPlan plan = InvocationPlan.compile("logger", loggerFacade, null, methodLog, method);
+        // then
+        assertEquals("logger", plan.getLoggerName());
+        assertSame(loggerFacade, plan.getLoggerFacade());
+        assertSame(inLog, plan.getInLog());
+        assertEquals(DEBUG, plan.getInLogExpectedLevel());
+        assertArrayEquals(new int[]{0, 1, 2}, plan.getLoggableParameterIndexes());
+        assertTrue(plan.isParameterLogFound());
+        assertNull(plan.getParameterLog(0));
+        assertSame(parameterLog, plan.getParameterLog(1));
+        assertEquals(WARN, plan.getParameterLogExpectedLevel(1));
+        assertSame(printer, plan.getPrinter(0));
+        assertSame(parameterPrinter, plan.getPrinter(1));
+        assertEquals("s", plan.getParameterName(0));
+        assertNull(plan.getParameterName(1));
+        assertEquals("1", plan.getParameterIndex(1));
+        assertSame(outLog, plan.getOutLog());
+        assertEquals(TRACE, plan.getOutLogExpectedLevel());
+        assertFalse(plan.isVoidReturnType());
+    }
+
+    @Test
+    public void compileWithoutInLog() throws NoSuchMethodException {
+        // given
+        Method method = InvocationPlanTest.class.getDeclaredMethod("method", String.class, Integer.class, String.class);
+        ParameterLog parameterLog = new ParameterLog(DEBUG, OFF, DEBUG, new ToStringPrinter());
+        MethodLog methodLog = new MethodLog(method, asList("s", "i", "t"), null, asList(null, parameterLog, null), null, emptySet());
+        // when
+        InvocationPlan plan = InvocationPlan.compile("logger", mock(LoggerFacade.class), null, methodLog, method);
+        // then
+        assertNull(plan.getInLog());
+        assertNull(plan.getInLogExpectedLevel());
+        assertArrayEquals(new int[]{1}, plan.getLoggableParameterIndexes());
+        assertNull(plan.getOutLog());
+        assertNull(plan.getOutLogExpectedLevel());
+    }
+
+    @Test
+    public void compileVoidMethod() throws NoSuchMethodException {
+        // given
+        Method method = InvocationPlanTest.class.getDeclaredMethod("voidMethod");
+        InLog inLog = new InLog(DEBUG, OFF, DEBUG, asList());
+        MethodLog methodLog = new MethodLog(method, asList(), inLog, asList(), null, emptySet());
+        // when
+        InvocationPlan plan = InvocationPlan.compile("logger", mock(LoggerFacade.class), null, methodLog, method);
+        // then
+        assertEquals(0, plan.getLoggableParameterIndexes().length);
+        assertFalse(plan.isParameterLogFound());
+        assertTrue(plan.isVoidReturnType());
+    }
+
+    @Test
+    public void compiledOncePerMethodLog() throws NoSuchMethodException {
+        // given
+        Method method = InvocationPlanTest.class.getDeclaredMethod("voidMethod");
+        MethodLog methodLog = new MethodLog(method, asList(), new InLog(DEBUG, OFF, DEBUG, asList()), asList(),
+                new OutLog(DEBUG, OFF, DEBUG, new ToStringPrinter()), emptySet());
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.getArguments()).thenReturn(new Object[0]);
+        LoggerFacadeFactory loggerFacadeFactory = mock(LoggerFacadeFactory.class, RETURNS_DEEP_STUBS);
+        LoggingSystem loggingSystem = mock(LoggingSystem.class);
+        when(loggingSystem.getLoggerConfiguration(any())).thenReturn(new LoggerConfiguration("", null, DEBUG));
+        SimpleLogger logger = new SimpleLogger(loggerFacadeFactory, loggingSystem);
+        // when
+        for (int a = 0; a < 3; a++) {
+            logger.logInIfNecessary(invocation, methodLog);
+            logger.logOutIfNecessary(invocation, methodLog, null);
+        }
+        // then
+        verify(loggerFacadeFactory).getLoggerFacade("ru.tinkoff.eclair.logger.InvocationPlanTest.voidMethod");
+        verify(loggerFacadeFactory.getLoggerFacade(any()), times(3)).log(DEBUG, ">");
+        verify(loggerFacadeFactory.getLoggerFacade(any()), times(3)).log(DEBUG, "<");
+    }
+
+    @Test
+    public void compiledWithEffectiveLevelEntry() throws NoSuchMethodException {
+        // given
+        Method method = InvocationPlanTest.class.getDeclaredMethod("voidMethod");
+        MethodLog methodLog = new MethodLog(method, asList(), new InLog(DEBUG, OFF, DEBUG, asList()), asList(),
+                new OutLog(DEBUG, OFF, DEBUG, new ToStringPrinter()), emptySet());
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.getArguments()).thenReturn(new Object[0]);
+        LoggerFacadeFactory loggerFacadeFactory = mock(LoggerFacadeFactory.class, RETURNS_DEEP_STUBS);
+        LoggingSystem loggingSystem = mock(LoggingSystem.class);
+        when(loggingSystem.getLoggerConfiguration(any())).thenReturn(new LoggerConfiguration("", null, DEBUG));
+        SimpleLogger logger = new SimpleLogger(loggerFacadeFactory, loggingSystem);
+        EffectiveLevelCache effectiveLevelCache = new EffectiveLevelCache(loggingSystem);
+        logger.setEffectiveLevelCache(effectiveLevelCache);
+        // when
+        for (int a = 0; a < 3; a++) {
+            logger.logInIfNecessary(invocation, methodLog);
+            logger.logOutIfNecessary(invocation, methodLog, null);
+        }
+        when(loggingSystem.getLoggerConfiguration(any())).thenReturn(new LoggerConfiguration("", null, INFO));
+        effectiveLevelCache.invalidate();
+        logger.logInIfNecessary(invocation, methodLog);
+        // then
+        verify(loggingSystem, times(2)).getLoggerConfiguration("ru.tinkoff.eclair.logger.InvocationPlanTest.voidMethod");
+        verify(loggerFacadeFactory.getLoggerFacade(any()), times(3)).log(DEBUG, ">");
+        verify(loggerFacadeFactory.getLoggerFacade(any()), times(3)).log(DEBUG, "<");
+    }
+
+    @Test
+    public void compiledWithLoggerFacadeLevelCheck() throws NoSuchMethodException {
+        // given
+        Method method = InvocationPlanTest.class.getDeclaredMethod("voidMethod");
+        MethodLog methodLog = new MethodLog(method, asList(), new InLog(DEBUG, OFF, DEBUG, asList()), asList(),
+                new OutLog(INFO, OFF, INFO, new ToStringPrinter()), emptySet());
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.getArguments()).thenReturn(new Object[0]);
+        LoggerFacade loggerFacade = mock(LoggerFacade.class);
+        when(loggerFacade.isEnabled(INFO)).thenReturn(true);
+        LoggerFacadeFactory loggerFacadeFactory = mock(LoggerFacadeFactory.class);
+        when(loggerFacadeFactory.getLoggerFacade(any())).thenReturn(loggerFacade);
+        LoggingSystem loggingSystem = mock(LoggingSystem.class);
+        SimpleLogger logger = new SimpleLogger(loggerFacadeFactory, loggingSystem);
+        logger.setLoggerFacadeLevelCheck(true);
+        // when
+        logger.logInIfNecessary(invocation, methodLog);
+        logger.logOutIfNecessary(invocation, methodLog, null);
+        // then
+        verify(loggerFacade, never()).log(DEBUG, ">");
+        verify(loggerFacade).log(INFO, "<");
+        verifyZeroInteractions(loggingSystem);
+    }
+}
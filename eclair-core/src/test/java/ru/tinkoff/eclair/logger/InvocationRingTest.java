@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Test;
+import ru.tinkoff.eclair.definition.method.MethodLog;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InvocationRingTest {
+
+    @Test
+    public void offerAndTake() throws InterruptedException {
+        // given
+        InvocationRing ring = new InvocationRing(2, AsyncLogger.OverflowPolicy.BLOCK, new LongAdder());
+        MethodInvocation invocation = givenInvocation("a");
+        MethodLog methodLog = mock(MethodLog.class);
+        InvocationSnapshot snapshot = new InvocationSnapshot();
+        // when
+        InvocationRing.Offer offer = ring.offer(InvocationSnapshot.Event.IN, invocation, methodLog, null, null, singletonMap("key", "value"));
+        boolean taken = ring.take(snapshot);
+        // then
+        assertEquals(InvocationRing.Offer.ACCEPTED, offer);
+        assertTrue(taken);
+        assertEquals(InvocationSnapshot.Event.IN, snapshot.getEvent());
+        assertArrayEquals(new Object[]{"a"}, snapshot.getArguments());
+        assertSame(methodLog, snapshot.getMethodLog());
+        assertEquals(singletonMap("key", "value"), snapshot.getMdc());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    public void argumentsAreCopied() throws InterruptedException {
+        // given
+        InvocationRing ring = new InvocationRing(1, AsyncLogger.OverflowPolicy.BLOCK, new LongAdder());
+        MethodInvocation invocation = givenInvocation("a");
+        InvocationSnapshot snapshot = new InvocationSnapshot();
+        // when
+        ring.offer(InvocationSnapshot.Event.IN, invocation, mock(MethodLog.class), null, null, null);
+        invocation.getArguments()[0] = "b";
+        ring.take(snapshot);
+        // then
+        assertArrayEquals(new Object[]{"a"}, snapshot.getArguments());
+    }
+
+    @Test
+    public void dropNewest() throws InterruptedException {
+        // given
+        LongAdder droppedCounter = new LongAdder();
+        InvocationRing ring = new InvocationRing(1, AsyncLogger.OverflowPolicy.DROP_NEWEST, droppedCounter);
+        InvocationSnapshot snapshot = new InvocationSnapshot();
+        ring.offer(InvocationSnapshot.Event.IN, givenInvocation("a"), mock(MethodLog.class), null, null, null);
+        // when
+        InvocationRing.Offer offer = ring.offer(InvocationSnapshot.Event.IN, givenInvocation("b"), mock(MethodLog.class), null, null, null);
+        // then
+        assertEquals(InvocationRing.Offer.DROPPED, offer);
+        assertEquals(1, droppedCounter.sum());
+        ring.take(snapshot);
+        assertArrayEquals(new Object[]{"a"}, snapshot.getArguments());
+    }
+
+    @Test
+    public void dropOldest() throws InterruptedException {
+        // given
+        LongAdder droppedCounter = new LongAdder();
+        InvocationRing ring = new InvocationRing(1, AsyncLogger.OverflowPolicy.DROP_OLDEST, droppedCounter);
+        InvocationSnapshot snapshot = new InvocationSnapshot();
+        ring.offer(InvocationSnapshot.Event.IN, givenInvocation("a"), mock(MethodLog.class), null, null, null);
+        // when
+        InvocationRing.Offer offer = ring.offer(InvocationSnapshot.Event.IN, givenInvocation("b"), mock(MethodLog.class), null, null, null);
+        // then
+        assertEquals(InvocationRing.Offer.ACCEPTED, offer);
+        assertEquals(1, droppedCounter.sum());
+        ring.take(snapshot);
+        assertArrayEquals(new Object[]{"b"}, snapshot.getArguments());
+    }
+
+    @Test
+    public void synchronous() {
+        // given
+        LongAdder droppedCounter = new LongAdder();
+        InvocationRing ring = new InvocationRing(1, AsyncLogger.OverflowPolicy.SYNCHRONOUS, droppedCounter);
+        ring.offer(InvocationSnapshot.Event.IN, givenInvocation("a"), mock(MethodLog.class), null, null, null);
+        // when
+        InvocationRing.Offer offer = ring.offer(InvocationSnapshot.Event.IN, givenInvocation("b"), mock(MethodLog.class), null, null, null);
+        // then
+        assertEquals(InvocationRing.Offer.REJECTED, offer);
+        assertEquals(0, droppedCounter.sum());
+        assertEquals(1, ring.size());
+    }
+
+    @Test
+    public void closedIsDrained() throws InterruptedException {
+        // given
+        InvocationRing ring = new InvocationRing(2, AsyncLogger.OverflowPolicy.BLOCK, new LongAdder());
+        InvocationSnapshot snapshot = new InvocationSnapshot();
+        ring.offer(InvocationSnapshot.Event.IN, givenInvocation("a"), mock(MethodLog.class), null, null, null);
+        // when
+        ring.close();
+        InvocationRing.Offer offer = ring.offer(InvocationSnapshot.Event.IN, givenInvocation("b"), mock(MethodLog.class), null, null, null);
+        // then
+        assertEquals(InvocationRing.Offer.REJECTED, offer);
+        assertTrue(ring.take(snapshot));
+        assertFalse(ring.take(snapshot));
+    }
+
+    private MethodInvocation givenInvocation(Object... arguments) {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getArguments()).thenReturn(arguments);
+        return invocation;
+    }
+}
@@ -26,6 +26,11 @@ import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import ru.tinkoff.eclair.definition.InLog;
 import ru.tinkoff.eclair.definition.ParameterLog;
 import ru.tinkoff.eclair.definition.method.MethodLog;
+import ru.tinkoff.eclair.logger.collector.LogInCollector;
+import ru.tinkoff.eclair.logger.collector.LogInCollectorFactory;
+import ru.tinkoff.eclair.logger.collector.StringJoinerLogInCollectorFactory;
+import ru.tinkoff.eclair.logger.collector.ThreadLocalLogInCollectorFactory;
+import ru.tinkoff.eclair.logger.collector.ToStringLogOutCollector;
 import ru.tinkoff.eclair.logger.facade.LoggerFacadeFactory;
 import ru.tinkoff.eclair.printer.JacksonPrinter;
 import ru.tinkoff.eclair.printer.Jaxb2Printer;
@@ -35,15 +40,21 @@ import ru.tinkoff.eclair.printer.resolver.PrinterResolver;
 
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.nCopies;
+import static org.hamcrest.Matchers.*;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.boot.logging.LogLevel.*;
 
@@ -488,6 +499,139 @@ public class LogInSimpleLoggerTest {
         verify(logger.getLoggerFacadeFactory().getLoggerFacade(any())).log(DEBUG, "> s=\"s\", i=1, dto=Dto{i=0, s='null'}");
     }
 
+    @Test
+    public void printersThreadLocalCollector() {
+        // given
+        Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
+        marshaller.setClassesToBeBound(Dto.class);
+        // when
+        SimpleLogger logger = new SimpleLoggerBuilder()
+                .method(methodWithParameters)
+                .parameterNames("s", "i", "dto")
+                .arguments("s", null, new Dto())
+                .levels(DEBUG, OFF, DEBUG)
+                .parameterLog(DEBUG, OFF, DEBUG, new JacksonPrinter(new ObjectMapper()))
+                .parameterLog(null)
+                .parameterLog(DEBUG, OFF, DEBUG, new Jaxb2Printer(marshaller))
+                .effectiveLevel(DEBUG)
+                .logInCollectorFactory(new ThreadLocalLogInCollectorFactory())
+                .buildAndInvokeAndGet();
+        // then
+        verify(logger.getLoggerFacadeFactory().getLoggerFacade(any())).log(DEBUG, "> s=\"s\", i=null, dto=<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><dto><i>0</i></dto>");
+    }
+
+    @Test
+    public void printerThrowsExceptionThreadLocalCollector() {
+        // given
+        Printer printer = new Printer() {
+            @Override
+            protected String serialize(Object input) {
+                throw new RuntimeException();
+            }
+
+            @Override
+            protected void serialize(Object input, Appendable target) {
+                try {
+                    target.append("partial");
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+                throw new RuntimeException();
+            }
+        };
+        // when
+        SimpleLogger logger = new SimpleLoggerBuilder()
+                .method(methodWithParameters)
+                .parameterNames("s", "i", "dto")
+                .arguments("s", 1, new Dto())
+                .levels(DEBUG, OFF, DEBUG)
+                .parameterLog(DEBUG, OFF, DEBUG, printer)
+                .parameterLog(DEBUG, OFF, DEBUG, printer)
+                .parameterLog(DEBUG, OFF, DEBUG, printer)
+                .effectiveLevel(TRACE)
+                .logInCollectorFactory(new ThreadLocalLogInCollectorFactory())
+                .buildAndInvokeAndGet();
+        // then
+        verify(logger.getLoggerFacadeFactory().getLoggerFacade(any())).log(DEBUG, "> s=\"s\", i=1, dto=Dto{i=0, s='null'}");
+    }
+
+    @Test
+    public void deferredRendering() {
+        // given
+        Printer printer = spy(new ToStringPrinter());
+        // when
+        SimpleLogger logger = new SimpleLoggerBuilder()
+                .method(methodWithParameters)
+                .parameterNames("s", "i", "dto")
+                .arguments("s", null, new Dto())
+                .levels(DEBUG, OFF, DEBUG)
+                .printers(nCopies(3, printer))
+                .parameterLogs(null, null, null)
+                .effectiveLevel(DEBUG)
+                .deferredRendering()
+                .buildAndInvokeAndGet();
+        // then
+        verify(printer, never()).print(any());
+        verify(logger.getLoggerFacadeFactory().getLoggerFacade(any())).log(eq(DEBUG), eq("> s={}, i=null, dto={}"),
+                argThat(allOf(not(instanceOf(String.class)), hasToString("\"s\""))),
+                argThat(allOf(not(instanceOf(String.class)), hasToString("Dto{i=0, s='null'}"))));
+    }
+
+    @Test
+    public void deferredRenderingEagerlyRenderedType() {
+        // given, when
+        SimpleLogger logger = new SimpleLoggerBuilder()
+                .method(methodWithParameters)
+                .parameterNames("s", "i", "dto")
+                .arguments("s", 1, new Dto())
+                .levels(DEBUG, OFF, DEBUG)
+                .parameterLogs(null, null, null)
+                .effectiveLevel(DEBUG)
+                .deferredRendering(Dto.class)
+                .buildAndInvokeAndGet();
+        // then
+        verify(logger.getLoggerFacadeFactory().getLoggerFacade(any())).log(eq(DEBUG), eq("> s={}, i={}, dto={}"),
+                argThat(hasToString("\"s\"")),
+                argThat(hasToString("1")),
+                eq("Dto{i=0, s='null'}"));
+    }
+
+    @Test
+    public void deferredRenderingNotCharSequenceCollector() {
+        // given
+        LogInCollectorFactory<Map<String, String>> logInCollectorFactory = () -> new LogInCollector<Map<String, String>>() {
+
+            private final Map<String, String> parameters = new LinkedHashMap<>();
+
+            @Override
+            public void addParameter(String parameterName, String value) {
+                parameters.put(parameterName, value);
+            }
+
+            @Override
+            public Map<String, String> collect() {
+                return parameters;
+            }
+        };
+        // when
+        SimpleLogger logger = new SimpleLoggerBuilder()
+                .method(methodWithParameters)
+                .parameterNames("s", "i", "dto")
+                .arguments("s", null, new Dto())
+                .levels(DEBUG, OFF, DEBUG)
+                .parameterLogs(null, null, null)
+                .effectiveLevel(DEBUG)
+                .logInCollectorFactory(logInCollectorFactory)
+                .deferredRendering()
+                .buildAndInvokeAndGet();
+        // then
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("s", "\"s\"");
+        expected.put("i", null);
+        expected.put("dto", "Dto{i=0, s='null'}");
+        verify(logger.getLoggerFacadeFactory().getLoggerFacade(any())).log(DEBUG, ">", expected);
+    }
+
     private static class SimpleLoggerBuilder {
 
         private final List<ParameterLog> parameterLogs = new ArrayList<>();
@@ -500,6 +644,9 @@ public class LogInSimpleLoggerTest {
         private List<Printer> printers = emptyList();
         private LogLevel effectiveLevel;
         private List<String> parameterNames;
+        private LogInCollectorFactory<?> logInCollectorFactory = StringJoinerLogInCollectorFactory.INSTANCE;
+        private boolean deferredRendering;
+        private List<Class<?>> eagerlyRenderedTypes = emptyList();
 
         private SimpleLoggerBuilder method(Method method) {
             this.method = method;
@@ -553,6 +700,17 @@ public class LogInSimpleLoggerTest {
             return this;
         }
 
+        private SimpleLoggerBuilder logInCollectorFactory(LogInCollectorFactory<?> logInCollectorFactory) {
+            this.logInCollectorFactory = logInCollectorFactory;
+            return this;
+        }
+
+        private SimpleLoggerBuilder deferredRendering(Class<?>... eagerlyRenderedTypes) {
+            this.deferredRendering = true;
+            this.eagerlyRenderedTypes = asList(eagerlyRenderedTypes);
+            return this;
+        }
+
         private SimpleLogger buildAndInvokeAndGet() {
             List<Printer> printers = this.printers.isEmpty() ? nCopies(arguments.size(), PrinterResolver.defaultPrinter) : this.printers;
             InLog inLog = new InLog(level, ifEnabledLevel, verboseLevel, printers);
@@ -561,7 +719,10 @@ public class LogInSimpleLoggerTest {
 
         private SimpleLogger buildAndInvokeAndGet(InLog inLog) {
             MethodInvocation invocation = methodInvocation(method, arguments.toArray());
-            SimpleLogger simpleLogger = new SimpleLogger(loggerFacadeFactory(), loggingSystem(effectiveLevel));
+            SimpleLogger simpleLogger = new SimpleLogger(loggerFacadeFactory(), loggingSystem(effectiveLevel),
+                    logInCollectorFactory, ToStringLogOutCollector.INSTANCE);
+            simpleLogger.setDeferredRendering(deferredRendering);
+            simpleLogger.setEagerlyRenderedTypes(eagerlyRenderedTypes);
             simpleLogger.logInIfNecessary(invocation, methodLog(inLog, parameterLogs, parameterNames));
             return simpleLogger;
         }
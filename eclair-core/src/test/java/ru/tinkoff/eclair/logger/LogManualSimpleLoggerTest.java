@@ -20,10 +20,14 @@ import org.springframework.boot.logging.LogLevel;
 import org.springframework.boot.logging.LoggerConfiguration;
 import org.springframework.boot.logging.LoggingSystem;
 import ru.tinkoff.eclair.logger.facade.LoggerFacadeFactory;
+import ru.tinkoff.eclair.logger.level.EffectiveLevelCache;
 
 import java.math.BigDecimal;
 import java.util.function.Supplier;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.boot.logging.LogLevel.*;
@@ -128,6 +132,39 @@ public class LogManualSimpleLoggerTest {
         verify(logger.getLoggerFacadeFactory().getLoggerFacade(any())).log(DEBUG, "- {} {} {}", "0", 1, BigDecimal.ONE);
     }
 
+    @Test
+    public void levelIsBelowLowestEffectiveLevel() {
+        // given
+        LoggingSystem loggingSystem = mock(LoggingSystem.class);
+        when(loggingSystem.getLoggerConfigurations()).thenReturn(asList(
+                new LoggerConfiguration("ROOT", null, WARN),
+                new LoggerConfiguration("logger", null, INFO)
+        ));
+        SimpleLogger logger = new SimpleLogger(mock(LoggerFacadeFactory.class, RETURNS_DEEP_STUBS), loggingSystem);
+        logger.setEffectiveLevelCache(new EffectiveLevelCache(loggingSystem));
+        // when
+        logger.log(DEBUG, DEBUG, "format");
+        boolean enabled = logger.isLogEnabled(DEBUG);
+        // then
+        assertFalse(enabled);
+        verify(loggingSystem, never()).getLoggerConfiguration(any());
+        verify(logger.getLoggerFacadeFactory().getLoggerFacade(any()), never()).log(any(), any());
+    }
+
+    @Test
+    public void levelIsNotBelowLowestEffectiveLevel() {
+        // given
+        LoggingSystem loggingSystem = mock(LoggingSystem.class);
+        when(loggingSystem.getLoggerConfigurations()).thenReturn(singletonList(new LoggerConfiguration("ROOT", null, INFO)));
+        when(loggingSystem.getLoggerConfiguration(any())).thenReturn(new LoggerConfiguration("", null, INFO));
+        SimpleLogger logger = new SimpleLogger(mock(LoggerFacadeFactory.class, RETURNS_DEEP_STUBS), loggingSystem);
+        logger.setEffectiveLevelCache(new EffectiveLevelCache(loggingSystem));
+        // when
+        logger.log(INFO, INFO, "format");
+        // then
+        verify(logger.getLoggerFacadeFactory().getLoggerFacade(any())).log(INFO, "- format");
+    }
+
     private static class SimpleLoggerBuilder {
 
         private LogLevel level;
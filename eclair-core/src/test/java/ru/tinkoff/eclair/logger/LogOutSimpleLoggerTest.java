@@ -23,14 +23,23 @@ import org.springframework.boot.logging.LoggerConfiguration;
 import org.springframework.boot.logging.LoggingSystem;
 import ru.tinkoff.eclair.definition.OutLog;
 import ru.tinkoff.eclair.definition.method.MethodLog;
+import ru.tinkoff.eclair.logger.collector.LogOutCollector;
+import ru.tinkoff.eclair.logger.collector.StringJoinerLogInCollectorFactory;
+import ru.tinkoff.eclair.logger.collector.ToStringLogOutCollector;
 import ru.tinkoff.eclair.logger.facade.LoggerFacadeFactory;
 import ru.tinkoff.eclair.printer.Printer;
 import ru.tinkoff.eclair.printer.ToStringPrinter;
 
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
 
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.*;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.boot.logging.LogLevel.*;
 
@@ -247,6 +256,56 @@ public class LogOutSimpleLoggerTest {
         verify(logger.getLoggerFacadeFactory().getLoggerFacade(any())).log(DEBUG, "< 123.456");
     }
 
+    @Test
+    public void deferredRendering() {
+        // given
+        Printer printer = spy(new ToStringPrinter());
+        // when
+        SimpleLogger logger = new SimpleLoggerBuilder()
+                .method(method)
+                .printer(printer)
+                .result(new BigDecimal("123.456"))
+                .levels(DEBUG, OFF, DEBUG)
+                .effectiveLevel(DEBUG)
+                .deferredRendering()
+                .buildAndInvokeAndGet();
+        // then
+        verify(printer, never()).print(any());
+        verify(logger.getLoggerFacadeFactory().getLoggerFacade(any()))
+                .log(eq(DEBUG), eq("< {}"), (Object) argThat(allOf(not(instanceOf(String.class)), hasToString("123.456"))));
+    }
+
+    @Test
+    public void deferredRenderingVerboseLevelIsOff() {
+        // given, when
+        SimpleLogger logger = new SimpleLoggerBuilder()
+                .method(method)
+                .result(new BigDecimal("123.456"))
+                .levels(DEBUG, OFF, OFF)
+                .effectiveLevel(TRACE)
+                .deferredRendering()
+                .buildAndInvokeAndGet();
+        // then
+        verify(logger.getLoggerFacadeFactory().getLoggerFacade(any())).log(DEBUG, "<");
+    }
+
+    @Test
+    public void deferredRenderingNotCharSequenceCollector() {
+        // given
+        LogOutCollector<List<String>> logOutCollector = Collections::singletonList;
+        // when
+        SimpleLogger logger = new SimpleLoggerBuilder()
+                .method(method)
+                .result(new BigDecimal("123.456"))
+                .levels(DEBUG, OFF, DEBUG)
+                .effectiveLevel(DEBUG)
+                .logOutCollector(logOutCollector)
+                .deferredRendering()
+                .buildAndInvokeAndGet();
+        // then
+        verify(logger.getLoggerFacadeFactory().getLoggerFacade(any())).log(DEBUG, "<", singletonList("123.456"));
+    }
+
     private static class SimpleLoggerBuilder {
 
         private Method method;
@@ -256,6 +315,8 @@ public class LogOutSimpleLoggerTest {
         private LogLevel verboseLevel = DEBUG;
         private Printer printer = new ToStringPrinter();
         private LogLevel effectiveLevel;
+        private LogOutCollector<?> logOutCollector = ToStringLogOutCollector.INSTANCE;
+        private boolean deferredRendering;
 
         private SimpleLoggerBuilder method(Method method) {
             this.method = method;
@@ -284,6 +345,16 @@ public class LogOutSimpleLoggerTest {
             return this;
         }
 
+        private SimpleLoggerBuilder logOutCollector(LogOutCollector<?> logOutCollector) {
+            this.logOutCollector = logOutCollector;
+            return this;
+        }
+
+        private SimpleLoggerBuilder deferredRendering() {
+            this.deferredRendering = true;
+            return this;
+        }
+
         private SimpleLogger buildAndInvokeAndGet() {
             OutLog outLog = new OutLog(level, ifEnabledLevel, verboseLevel, printer);
             return buildAndInvokeAndGet(outLog);
@@ -291,7 +362,9 @@ public class LogOutSimpleLoggerTest {
 
         private SimpleLogger buildAndInvokeAndGet(OutLog outLog) {
             MethodInvocation invocation = methodInvocation(method);
-            SimpleLogger simpleLogger = new SimpleLogger(loggerFacadeFactory(), loggingSystem(effectiveLevel));
+            SimpleLogger simpleLogger = new SimpleLogger(loggerFacadeFactory(), loggingSystem(effectiveLevel),
+                    StringJoinerLogInCollectorFactory.INSTANCE, logOutCollector);
+            simpleLogger.setDeferredRendering(deferredRendering);
             simpleLogger.logOutIfNecessary(invocation, methodLog(outLog), result);
             return simpleLogger;
         }
@@ -0,0 +1,99 @@
+package ru.tinkoff.eclair.logger.collector;
+
+import org.junit.Test;
+import ru.tinkoff.eclair.printer.Printer;
+import ru.tinkoff.eclair.printer.ToStringPrinter;
+
+import static org.junit.Assert.*;
+
+public class ThreadLocalLogInCollectorFactoryTest {
+
+    @Test
+    public void collect() {
+        // given
+        LogInCollector<String> collector = new ThreadLocalLogInCollectorFactory().create();
+        // when
+        collector.addParameter("a", "1");
+        collector.addParameter(null, "2");
+        collector.addParameter("c", null);
+        collector.addParameter("d", new ToStringPrinter(), "4");
+        // then
+        assertEquals("a=1, 2, c=null, d=\"4\"", collector.collect());
+    }
+
+    @Test
+    public void collectEmpty() {
+        assertEquals("", new ThreadLocalLogInCollectorFactory().create().collect());
+    }
+
+    @Test
+    public void reuse() {
+        // given
+        ThreadLocalLogInCollectorFactory factory = new ThreadLocalLogInCollectorFactory();
+        LogInCollector<String> collector = factory.create();
+        collector.addParameter("a", "1");
+        collector.collect();
+        // when
+        LogInCollector<String> reused = factory.create();
+        // then
+        assertSame(collector, reused);
+        assertEquals("", reused.collect());
+    }
+
+    @Test
+    public void reentrant() {
+        // given
+        ThreadLocalLogInCollectorFactory factory = new ThreadLocalLogInCollectorFactory();
+        factory.create().collect();
+        LogInCollector<String> outer = factory.create();
+        outer.addParameter("a", "1");
+        // when
+        LogInCollector<String> inner = factory.create();
+        inner.addParameter("b", "2");
+        // then
+        assertNotSame(outer, inner);
+        assertEquals("b=2", inner.collect());
+        outer.addParameter("c", "3");
+        assertEquals("a=1, c=3", outer.collect());
+    }
+
+    @Test
+    public void shrink() {
+        // given
+        ThreadLocalLogInCollectorFactory factory = new ThreadLocalLogInCollectorFactory(4, 16);
+        StringBuilderLogInCollector collector = (StringBuilderLogInCollector) factory.create();
+        collector.addParameter("a", "0123456789012345678901234567890123456789");
+        // when
+        collector.collect();
+        // then
+        collector.addParameter("a", "1");
+        assertEquals("a=1", collector.collect());
+        assertSame(collector, factory.create());
+    }
+
+    @Test
+    public void printerThrowsException() {
+        // given
+        LogInCollector<String> collector = new ThreadLocalLogInCollectorFactory().create();
+        collector.addParameter("a", "1");
+        Printer printer = new Printer() {
+            @Override
+            protected String serialize(Object input) {
+                throw new IllegalArgumentException();
+            }
+        };
+        // when
+        try {
+            collector.addParameter("b", printer, "2");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // then
+            assertEquals("a=1", collector.collect());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCapacities() {
+        new ThreadLocalLogInCollectorFactory(16, 4);
+    }
+}
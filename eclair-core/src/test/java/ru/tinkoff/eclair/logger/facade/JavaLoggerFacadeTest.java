@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger.facade;
+
+import org.junit.Test;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+import static org.springframework.boot.logging.LogLevel.*;
+
+public class JavaLoggerFacadeTest {
+
+    @Test
+    public void isEnabled() {
+        // given
+        Logger logger = Logger.getLogger("ru.tinkoff.eclair.logger.facade.JavaLoggerFacadeTest.isEnabled");
+        logger.setLevel(Level.INFO);
+        JavaLoggerFacade loggerFacade = new JavaLoggerFacade(logger);
+        // then
+        assertFalse(loggerFacade.isEnabled(TRACE));
+        assertFalse(loggerFacade.isEnabled(DEBUG));
+        assertTrue(loggerFacade.isEnabled(INFO));
+        assertTrue(loggerFacade.isEnabled(WARN));
+        assertTrue(loggerFacade.isEnabled(ERROR));
+        assertTrue(loggerFacade.isEnabled(FATAL));
+        assertFalse(loggerFacade.isEnabled(OFF));
+    }
+
+    @Test
+    public void getLoggerFacade() {
+        // given
+        JavaLoggerFacadeFactory loggerFacadeFactory = new JavaLoggerFacadeFactory();
+        // when
+        LoggerFacade loggerFacade = loggerFacadeFactory.getLoggerFacade("logger");
+        // then
+        assertSame(loggerFacade, loggerFacadeFactory.getLoggerFacade("logger"));
+        assertNotSame(loggerFacade, loggerFacadeFactory.getLoggerFacade("another"));
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger.facade;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.boot.logging.LogLevel.*;
+
+public class LoggerFacadeTest {
+
+    @Test
+    public void isEnabledByDefault() {
+        // given
+        LoggerFacade loggerFacade = (level, format, arguments) -> {
+        };
+        // then
+        assertTrue(loggerFacade.isEnabled(TRACE));
+        assertTrue(loggerFacade.isEnabled(ERROR));
+        assertFalse(loggerFacade.isEnabled(OFF));
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger.facade;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.boot.logging.LogLevel.*;
+
+public class Slf4JLoggerFacadeTest {
+
+    @Test
+    public void isEnabled() {
+        // given
+        Logger logger = mock(Logger.class);
+        when(logger.isErrorEnabled()).thenReturn(true);
+        when(logger.isWarnEnabled()).thenReturn(true);
+        when(logger.isInfoEnabled()).thenReturn(true);
+        Slf4JLoggerFacade loggerFacade = new Slf4JLoggerFacade(logger);
+        // then
+        assertFalse(loggerFacade.isEnabled(TRACE));
+        assertFalse(loggerFacade.isEnabled(DEBUG));
+        assertTrue(loggerFacade.isEnabled(INFO));
+        assertTrue(loggerFacade.isEnabled(WARN));
+        assertTrue(loggerFacade.isEnabled(ERROR));
+        assertTrue(loggerFacade.isEnabled(FATAL));
+        assertFalse(loggerFacade.isEnabled(OFF));
+    }
+
+    @Test
+    public void getLoggerFacade() {
+        // given
+        Slf4JLoggerFacadeFactory loggerFacadeFactory = new Slf4JLoggerFacadeFactory();
+        // when
+        LoggerFacade loggerFacade = loggerFacadeFactory.getLoggerFacade("logger");
+        // then
+        assertSame(loggerFacade, loggerFacadeFactory.getLoggerFacade("logger"));
+        assertNotSame(loggerFacade, loggerFacadeFactory.getLoggerFacade("another"));
+    }
+}
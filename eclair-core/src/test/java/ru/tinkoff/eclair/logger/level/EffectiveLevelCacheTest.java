@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger.level;
+
+import org.junit.Test;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+import static org.springframework.boot.logging.LogLevel.*;
+
+public class EffectiveLevelCacheTest {
+
+    @Test
+    public void getEffectiveLevel() {
+        // given
+        LoggingSystem loggingSystem = mock(LoggingSystem.class);
+        when(loggingSystem.getLoggerConfiguration("logger")).thenReturn(new LoggerConfiguration("logger", null, INFO));
+        EffectiveLevelCache effectiveLevelCache = new EffectiveLevelCache(loggingSystem);
+        // when
+        effectiveLevelCache.getEffectiveLevel("logger");
+        effectiveLevelCache.getEffectiveLevel("logger");
+        // then
+        assertEquals(INFO, effectiveLevelCache.getEffectiveLevel("logger"));
+        verify(loggingSystem).getLoggerConfiguration("logger");
+    }
+
+    @Test
+    public void getEntry() {
+        // given
+        EffectiveLevelCache effectiveLevelCache = new EffectiveLevelCache(mock(LoggingSystem.class));
+        // when
+        EffectiveLevelCache.Entry entry = effectiveLevelCache.getEntry("logger");
+        // then
+        assertSame(entry, effectiveLevelCache.getEntry("logger"));
+    }
+
+    @Test
+    public void invalidate() {
+        // given
+        LoggingSystem loggingSystem = mock(LoggingSystem.class);
+        when(loggingSystem.getLoggerConfiguration("logger"))
+                .thenReturn(new LoggerConfiguration("logger", null, INFO))
+                .thenReturn(new LoggerConfiguration("logger", null, TRACE));
+        EffectiveLevelCache effectiveLevelCache = new EffectiveLevelCache(loggingSystem);
+        EffectiveLevelCache.Entry entry = effectiveLevelCache.getEntry("logger");
+        assertEquals(INFO, entry.getEffectiveLevel());
+        // when
+        effectiveLevelCache.invalidate();
+        // then
+        assertEquals(TRACE, entry.getEffectiveLevel());
+        assertEquals(TRACE, entry.getEffectiveLevel());
+        assertEquals(1, effectiveLevelCache.getEpoch());
+        verify(loggingSystem, times(2)).getLoggerConfiguration("logger");
+    }
+
+    @Test
+    public void getLowestEffectiveLevel() {
+        // given
+        LoggingSystem loggingSystem = mock(LoggingSystem.class);
+        when(loggingSystem.getLoggerConfigurations())
+                .thenReturn(asList(new LoggerConfiguration("ROOT", null, WARN), new LoggerConfiguration("logger", INFO, INFO)))
+                .thenReturn(singletonList(new LoggerConfiguration("ROOT", null, ERROR)));
+        EffectiveLevelCache effectiveLevelCache = new EffectiveLevelCache(loggingSystem);
+        // when
+        LogLevel lowest = effectiveLevelCache.getLowestEffectiveLevel();
+        LogLevel cached = effectiveLevelCache.getLowestEffectiveLevel();
+        effectiveLevelCache.invalidate();
+        LogLevel invalidated = effectiveLevelCache.getLowestEffectiveLevel();
+        // then
+        assertEquals(INFO, lowest);
+        assertEquals(INFO, cached);
+        assertEquals(ERROR, invalidated);
+        verify(loggingSystem, times(2)).getLoggerConfigurations();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.logger.level;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.LoggingSystem;
+import ru.tinkoff.eclair.logger.SimpleLogger;
+
+import static org.junit.Assert.*;
+import static org.springframework.boot.logging.LogLevel.*;
+
+public class LogbackLevelChangeListenerTest {
+
+    private static final String LOGGER_NAME = "ru.tinkoff.eclair.logger.level.LogbackLevelChangeListenerTest.logger";
+
+    private final LoggingSystem loggingSystem = LoggingSystem.get(LogbackLevelChangeListenerTest.class.getClassLoader());
+    private final LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    @Before
+    public void init() {
+        loggingSystem.setLogLevel(LOGGER_NAME, INFO);
+    }
+
+    @After
+    public void destroy() {
+        loggingSystem.setLogLevel(LOGGER_NAME, null);
+        loggerContext.getCopyOfListenerList().stream()
+                .filter(listener -> listener instanceof LogbackLevelChangeListener)
+                .forEach(loggerContext::removeListener);
+    }
+
+    @Test
+    public void registerCache() {
+        // when
+        EffectiveLevelCache effectiveLevelCache = LogbackLevelChangeListener.registerCache(loggingSystem);
+        // then
+        assertNotNull(effectiveLevelCache);
+        assertTrue(loggerContext.getCopyOfListenerList().stream()
+                .anyMatch(listener -> listener instanceof LogbackLevelChangeListener));
+    }
+
+    @Test
+    public void setLogLevel() {
+        // given
+        EffectiveLevelCache effectiveLevelCache = LogbackLevelChangeListener.registerCache(loggingSystem);
+        assertNotNull(effectiveLevelCache);
+        assertEquals(INFO, effectiveLevelCache.getEffectiveLevel(LOGGER_NAME));
+        // when
+        loggingSystem.setLogLevel(LOGGER_NAME, TRACE);
+        // then
+        assertEquals(TRACE, effectiveLevelCache.getEffectiveLevel(LOGGER_NAME));
+    }
+
+    @Test
+    public void setLevelByParent() {
+        // given
+        EffectiveLevelCache effectiveLevelCache = LogbackLevelChangeListener.registerCache(loggingSystem);
+        assertNotNull(effectiveLevelCache);
+        loggingSystem.setLogLevel(LOGGER_NAME, null);
+        Logger parent = loggerContext.getLogger("ru.tinkoff.eclair.logger.level");
+        Level parentLevel = parent.getLevel();
+        parent.setLevel(Level.WARN);
+        try {
+            assertEquals(WARN, effectiveLevelCache.getEffectiveLevel(LOGGER_NAME));
+            // when
+            parent.setLevel(Level.DEBUG);
+            // then
+            assertEquals(DEBUG, effectiveLevelCache.getEffectiveLevel(LOGGER_NAME));
+        } finally {
+            parent.setLevel(parentLevel);
+        }
+    }
+
+    @Test
+    public void closeCache() {
+        // given
+        EffectiveLevelCache effectiveLevelCache = LogbackLevelChangeListener.registerCache(loggingSystem);
+        assertNotNull(effectiveLevelCache);
+        // when
+        effectiveLevelCache.close();
+        loggingSystem.setLogLevel(LOGGER_NAME, TRACE);
+        // then
+        assertFalse(loggerContext.getCopyOfListenerList().stream()
+                .anyMatch(listener -> listener instanceof LogbackLevelChangeListener));
+        assertEquals(0, effectiveLevelCache.getEpoch());
+    }
+
+    @Test
+    public void closeCacheByLoggerDestruction() {
+        // given
+        SimpleLogger simpleLogger = new SimpleLogger();
+        simpleLogger.setEffectiveLevelCache(LogbackLevelChangeListener.registerCache(loggingSystem));
+        SimpleLogger anotherLogger = new SimpleLogger();
+        anotherLogger.setEffectiveLevelCache(LogbackLevelChangeListener.registerCache(loggingSystem));
+        // when
+        simpleLogger.destroy();
+        // then
+        assertEquals(1, loggerContext.getCopyOfListenerList().stream()
+                .filter(listener -> listener instanceof LogbackLevelChangeListener)
+                .count());
+    }
+
+    @Test
+    public void isResetResistant() {
+        assertTrue(new LogbackLevelChangeListener(null).isResetResistant());
+    }
+}
@@ -15,22 +15,33 @@
 
 package ru.tinkoff.eclair.printer;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.core.JsonGenerationException;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationModule;
 import org.junit.Before;
 import org.junit.Test;
+import ru.tinkoff.eclair.annotation.Masked;
 
 import javax.xml.bind.annotation.*;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.*;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Vyacheslav Klapatnyuk
@@ -106,6 +117,179 @@ public class JacksonPrinterTest {
         assertThat(xml, is("<Empty><value>value</value></Empty>"));
     }
 
+    @Test
+    public void serializeAppendable() {
+        // given
+        JacksonPrinter jacksonPrinter = new JacksonPrinter(new ObjectMapper());
+        Empty empty = new Empty();
+        empty.setValue("value");
+        StringBuilder target = new StringBuilder("e=");
+        // when
+        jacksonPrinter.print(empty, target);
+        // then
+        assertThat(target.toString(), is("e={\"value\":\"value\"}"));
+    }
+
+    @Test
+    public void serializeWriter() throws IOException {
+        // given
+        JacksonPrinter jacksonPrinter = new JacksonPrinter(new ObjectMapper());
+        Empty empty = new Empty();
+        empty.setValue("value");
+        Writer target = spy(new StringWriter());
+        // when
+        jacksonPrinter.print(empty, target);
+        // then
+        assertThat(target.toString(), is("{\"value\":\"value\"}"));
+        verify(target, never()).close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void serializeAppendableException() throws IOException {
+        // given
+        ObjectMapper objectMapper = mock(ObjectMapper.class);
+        doThrow(new JsonGenerationException("", (JsonGenerator) null)).when(objectMapper).writeValue(any(Writer.class), any());
+        JacksonPrinter jacksonPrinter = new JacksonPrinter(objectMapper);
+        // when
+        jacksonPrinter.print("string", new StringBuilder());
+        // then expected exception
+    }
+
+    @Test
+    public void serializeMaskedByAnnotation() {
+        // given
+        ObjectMapper objectMapper = new ObjectMapper();
+        JacksonPrinter jacksonPrinter = new JacksonPrinter(objectMapper, new JacksonMasking());
+        Credentials credentials = new Credentials("login", "password");
+        // when
+        String json = jacksonPrinter.serialize(credentials);
+        // then
+        assertThat(json, is("{\"login\":\"login\",\"password\":\"********\"}"));
+        assertThat(credentials.passwordReads, is(0));
+    }
+
+    @Test
+    public void serializeMaskedByName() {
+        // given
+        JacksonMasking masking = new JacksonMasking().maskProperties("value").setReplacement(null);
+        JacksonPrinter jacksonPrinter = new JacksonPrinter(new ObjectMapper(), masking);
+        Empty empty = new Empty();
+        empty.setValue("value");
+        // when
+        String json = jacksonPrinter.serialize(singletonList(empty));
+        // then
+        assertThat(json, is("[{\"value\":null}]"));
+    }
+
+    @Test
+    public void serializeMaskedByPath() {
+        // given
+        JacksonMasking masking = new JacksonMasking().maskPaths("/owner/login", "/members/*/login").setReplacement("***");
+        JacksonPrinter jacksonPrinter = new JacksonPrinter(new ObjectMapper(), masking);
+        Group group = new Group();
+        group.owner = new Credentials("owner", "1");
+        group.members = asList(new Credentials("first", "2"), new Credentials("second", "3"));
+        group.login = "group";
+        // when
+        String json = jacksonPrinter.serialize(group);
+        // then
+        assertThat(json, is("{\"owner\":{\"login\":\"***\",\"password\":\"***\"}," +
+                "\"members\":[{\"login\":\"***\",\"password\":\"***\"},{\"login\":\"***\",\"password\":\"***\"}]," +
+                "\"login\":\"group\"}"));
+    }
+
+    @Test
+    public void serializeMaskedByIndexedPath() {
+        // given
+        JacksonMasking masking = new JacksonMasking().maskPaths("/1/login");
+        JacksonPrinter jacksonPrinter = new JacksonPrinter(new ObjectMapper(), masking);
+        // when
+        String json = jacksonPrinter.serialize(asList(new Credentials("first", "1"), new Credentials("second", "2")));
+        // then
+        assertThat(json, is("[{\"login\":\"first\",\"password\":\"********\"},{\"login\":\"********\",\"password\":\"********\"}]"));
+    }
+
+    @Test
+    public void serializeMaskedMapEntries() {
+        // given
+        JacksonMasking masking = new JacksonMasking().maskProperties("password").maskPaths("/user/login", "/users/*/token");
+        JacksonPrinter jacksonPrinter = new JacksonPrinter(new ObjectMapper(), masking);
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("login", "login");
+        user.put("password", "password");
+        user.put("token", "token");
+        Map<String, Object> input = new LinkedHashMap<>();
+        input.put("user", user);
+        input.put("users", singletonList(user));
+        input.put("login", "root");
+        // when
+        String json = jacksonPrinter.serialize(input);
+        // then
+        assertThat(json, is("{\"user\":{\"login\":\"********\",\"password\":\"********\",\"token\":\"token\"}," +
+                "\"users\":[{\"login\":\"login\",\"password\":\"********\",\"token\":\"********\"}]," +
+                "\"login\":\"root\"}"));
+    }
+
+    @Test
+    public void serializeMaskedMapEntriesKeepsFilters() {
+        // given
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setFilterProvider(new SimpleFilterProvider().addFilter("login", SimpleBeanPropertyFilter.serializeAllExcept("login")));
+        JacksonPrinter jacksonPrinter = new JacksonPrinter(objectMapper, new JacksonMasking().maskProperties("password"));
+        Filtered filtered = new Filtered();
+        filtered.login = "login";
+        filtered.password = "password";
+        // when
+        String json = jacksonPrinter.serialize(Collections.singletonMap("filtered", filtered));
+        // then
+        assertThat(json, is("{\"filtered\":{\"password\":\"********\"}}"));
+    }
+
+    @Test
+    public void serializeMaskedXml() {
+        // given
+        JacksonPrinter jacksonPrinter = new JacksonPrinter(xmlMapper, new JacksonMasking().maskPaths("/value"));
+        Root input = new Root();
+        input.setValue("value");
+        // when
+        String xml = jacksonPrinter.serialize(input);
+        // then
+        assertThat(xml, is("<someName><value>********</value></someName>"));
+    }
+
+    @Test
+    public void serializeMaskedLeavesMapperUntouched() throws JsonProcessingException {
+        // given
+        ObjectMapper objectMapper = new ObjectMapper();
+        new JacksonPrinter(objectMapper, new JacksonMasking().maskProperties("login")).serialize(new Credentials("login", "password"));
+        // when
+        String json = objectMapper.writeValueAsString(new Credentials("login", "password"));
+        // then
+        assertThat(json, is("{\"login\":\"login\",\"password\":\"password\"}"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maskInvalidPath() {
+        // when
+        new JacksonMasking().maskPaths("owner/login");
+        // then expected exception
+    }
+
+    @Test
+    public void printLimited() {
+        // given
+        JacksonPrinter jacksonPrinter = new JacksonPrinter(new ObjectMapper());
+        jacksonPrinter.setMaxLength(20);
+        Credentials credentials = new Credentials("login", "password");
+        List<Credentials> list = new ArrayList<>(Collections.nCopies(100_000, credentials));
+        StringBuilder target = new StringBuilder("l=");
+        // when
+        jacksonPrinter.print(list, target);
+        // then
+        assertThat(target.toString(), is("l=[{\"login\":\"login\",\"p...(truncated, 100000 elements)"));
+        assertTrue(credentials.passwordReads < 1000);
+    }
+
     @XmlAccessorType(XmlAccessType.FIELD)
     @XmlType(name = "", propOrder = "value")
     @XmlRootElement(name = "someName")
@@ -151,4 +335,42 @@ public class JacksonPrinterTest {
             this.value = value;
         }
     }
+
+    @JsonFilter("login")
+    public static class Filtered {
+
+        public String login;
+        public String password;
+    }
+
+    @JsonPropertyOrder({"login", "password"})
+    public static class Credentials {
+
+        private final String login;
+        @Masked
+        private final String password;
+        private int passwordReads;
+
+        Credentials(String login, String password) {
+            this.login = login;
+            this.password = password;
+        }
+
+        public String getLogin() {
+            return login;
+        }
+
+        public String getPassword() {
+            passwordReads++;
+            return password;
+        }
+    }
+
+    @JsonPropertyOrder({"owner", "members", "login"})
+    public static class Group {
+
+        public Credentials owner;
+        public List<Credentials> members;
+        public String login;
+    }
 }
@@ -21,14 +21,18 @@ import org.springframework.oxm.XmlMappingException;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 
 import javax.xml.bind.JAXBElement;
+import javax.xml.bind.Marshaller;
 import javax.xml.bind.annotation.*;
 import javax.xml.namespace.QName;
+import javax.xml.transform.Result;
+import java.lang.reflect.Method;
+import java.util.Collections;
 
 import static org.hamcrest.core.Is.is;
-import static org.junit.Assert.assertThat;
+import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
-import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Vyacheslav Klapatnyuk
@@ -103,6 +107,146 @@ public class Jaxb2PrinterTest {
         assertThat(xml, is("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><localPart><value>value</value></localPart>"));
     }
 
+    @Test
+    public void serializeRootAppendable() {
+        // given
+        Jaxb2Marshaller jaxb2Marshaller = new Jaxb2Marshaller();
+        jaxb2Marshaller.setClassesToBeBound(Root.class);
+        Jaxb2Printer jaxb2Printer = new Jaxb2Printer(jaxb2Marshaller);
+        Root root = new Root();
+        root.setValue("value");
+        StringBuilder target = new StringBuilder("r=");
+        // when
+        jaxb2Printer.print(root, target);
+        // then
+        assertThat(target.toString(), is("r=<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><someName><value>value</value></someName>"));
+    }
+
+    @Test
+    public void printLimited() {
+        // given
+        Jaxb2Marshaller jaxb2Marshaller = new Jaxb2Marshaller();
+        jaxb2Marshaller.setClassesToBeBound(Root.class);
+        Printer jaxb2Printer = new Jaxb2Printer(jaxb2Marshaller).withMaxLength(60);
+        Root root = new Root();
+        root.setValue(String.join("", Collections.nCopies(100_000, "value")));
+        StringBuilder target = new StringBuilder();
+        // when
+        jaxb2Printer.print(root, target);
+        // then
+        assertThat(target.toString(), is("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><some...(truncated)"));
+    }
+
+    @Test
+    public void serializeRootByReusedMarshaller() {
+        // given
+        Jaxb2Marshaller jaxb2Marshaller = new Jaxb2Marshaller();
+        jaxb2Marshaller.setClassesToBeBound(Root.class);
+        Jaxb2Printer jaxb2Printer = new Jaxb2Printer(jaxb2Marshaller);
+        jaxb2Printer.setReuseMarshallers(true);
+        Root root = new Root();
+        root.setValue("value");
+        Root root2 = new Root();
+        root2.setValue("value2");
+        StringBuilder target = new StringBuilder("r=");
+        // when
+        String xml = jaxb2Printer.serialize(root);
+        String xml2 = jaxb2Printer.serialize(root2);
+        jaxb2Printer.print(root, target);
+        // then
+        assertThat(xml, is("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><someName><value>value</value></someName>"));
+        assertThat(xml2, is("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><someName><value>value2</value></someName>"));
+        assertThat(target.toString(), is("r=" + xml));
+    }
+
+    @Test
+    public void serializeByReusedMarshallerAfterFailureAndLimit() {
+        // given
+        Jaxb2Marshaller jaxb2Marshaller = new Jaxb2Marshaller();
+        jaxb2Marshaller.setClassesToBeBound(Root.class);
+        Jaxb2Printer jaxb2Printer = new Jaxb2Printer(jaxb2Marshaller);
+        jaxb2Printer.setReuseMarshallers(true);
+        jaxb2Printer.setFragment(true);
+        NotRoot notRoot = new NotRoot();
+        Root large = new Root();
+        large.setValue(String.join("", Collections.nCopies(100_000, "value")));
+        Root root = new Root();
+        root.setValue("value");
+        // when
+        try {
+            jaxb2Printer.serialize(notRoot);
+            fail();
+        } catch (XmlMappingException e) {
+            // expected
+        }
+        String limited = jaxb2Printer.withMaxLength(15).print(large);
+        String xml = jaxb2Printer.serialize(root);
+        // then
+        assertThat(limited, is("<someName><valu...(truncated)"));
+        assertThat(xml, is("<someName><value>value</value></someName>"));
+    }
+
+    @Test
+    public void serializeFragment() {
+        // given
+        Jaxb2Marshaller jaxb2Marshaller = new Jaxb2Marshaller();
+        jaxb2Marshaller.setClassesToBeBound(Root.class);
+        Jaxb2Printer jaxb2Printer = new Jaxb2Printer(jaxb2Marshaller);
+        jaxb2Printer.setFragment(true);
+        Root root = new Root();
+        root.setValue("value");
+        // when
+        String xml = jaxb2Printer.serialize(root);
+        // then
+        assertThat(xml, is("<someName><value>value</value></someName>"));
+    }
+
+    @Test
+    public void serializeFormattedOutput() {
+        // given
+        Jaxb2Marshaller jaxb2Marshaller = new Jaxb2Marshaller();
+        jaxb2Marshaller.setClassesToBeBound(Root.class);
+        jaxb2Marshaller.setMarshallerProperties(Collections.singletonMap(Marshaller.JAXB_FORMATTED_OUTPUT, true));
+        Jaxb2Printer jaxb2Printer = new Jaxb2Printer(jaxb2Marshaller);
+        jaxb2Printer.setFormattedOutput(false);
+        Root root = new Root();
+        root.setValue("value");
+        // when
+        String xml = jaxb2Printer.serialize(root);
+        // then
+        assertThat(xml, is("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><someName><value>value</value></someName>"));
+    }
+
+    @Test
+    public void findCreateMarshallerMethod() {
+        // given, when
+        Method method = Jaxb2Printer.findCreateMarshallerMethod(Jaxb2Marshaller.class);
+        Method absentMethod = Jaxb2Printer.findCreateMarshallerMethod(Object.class);
+        // then
+        assertNotNull(method);
+        assertNull(absentMethod);
+    }
+
+    @Test
+    public void serializeByJaxb2MarshallerIfCreateMarshallerMethodIsAbsent() {
+        // given
+        Jaxb2Marshaller jaxb2Marshaller = spy(new Jaxb2Marshaller());
+        jaxb2Marshaller.setClassesToBeBound(Root.class);
+        Jaxb2Printer jaxb2Printer = new Jaxb2Printer(jaxb2Marshaller, null);
+        jaxb2Printer.setReuseMarshallers(true);
+        jaxb2Printer.setFragment(true);
+        Root root = new Root();
+        root.setValue("value");
+        StringBuilder target = new StringBuilder();
+        // when
+        String xml = jaxb2Printer.serialize(root);
+        jaxb2Printer.print(root, target);
+        // then
+        assertThat(xml, is("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><someName><value>value</value></someName>"));
+        assertThat(target.toString(), is(xml));
+        verify(jaxb2Marshaller, times(2)).marshal(eq(root), any(Result.class));
+    }
+
     @XmlAccessorType(XmlAccessType.FIELD)
     @XmlType(name = "", propOrder = "value")
     @XmlRootElement(name = "someName")
@@ -19,9 +19,12 @@ import org.junit.Test;
 import ru.tinkoff.eclair.printer.processor.PrinterPostProcessor;
 import ru.tinkoff.eclair.printer.processor.PrinterPreProcessor;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
@@ -73,6 +76,138 @@ public class PrinterTest {
         assertThat(string, is(""));
     }
 
+    @Test
+    public void printAppendable() {
+        // given
+        Printer printer = spy(new NoOpPrinter());
+        PrinterPreProcessor preProcessor = mock(PrinterPreProcessor.class);
+        Object input = new Object();
+        Object processed = new Object();
+        when(preProcessor.process(input)).thenReturn(processed);
+        printer.addPreProcessor(preProcessor);
+        StringBuilder target = new StringBuilder();
+        // when
+        printer.print(input, target);
+        // then
+        verify(printer).serialize(processed, target);
+        verify(printer, never()).print(input);
+        assertThat(target.toString(), is(""));
+    }
+
+    @Test
+    public void printAppendableWithPostProcessor() {
+        // given
+        Printer printer = new NoOpPrinter();
+        PrinterPostProcessor postProcessor = mock(PrinterPostProcessor.class);
+        when(postProcessor.process("")).thenReturn("processed");
+        printer.addPostProcessor(postProcessor);
+        StringBuilder target = new StringBuilder("s=");
+        // when
+        printer.print(new Object(), target);
+        // then
+        assertThat(target.toString(), is("s=processed"));
+    }
+
+    @Test
+    public void printLimited() {
+        // given
+        Printer printer = new ToStringPrinter();
+        printer.setMaxLength(5);
+        // when
+        String string = printer.print("string");
+        // then
+        assertThat(string, is("\"stri...(truncated, 6 chars)"));
+    }
+
+    @Test
+    public void printLimitedFitting() {
+        // given
+        Printer printer = new ToStringPrinter();
+        printer.setMaxLength(8);
+        // when
+        String string = printer.print("string");
+        // then
+        assertThat(string, is("\"string\""));
+    }
+
+    @Test
+    public void printAppendableLimited() {
+        // given
+        Printer printer = new ToStringPrinter();
+        printer.setMaxLength(4);
+        StringBuilder target = new StringBuilder("s=");
+        // when
+        printer.print(new Object() {
+            @Override
+            public String toString() {
+                return "object";
+            }
+        }, target);
+        // then
+        assertThat(target.toString(), is("s=obje...(truncated)"));
+    }
+
+    @Test
+    public void printLimitedWithPostProcessor() {
+        // given
+        Printer printer = new ToStringPrinter();
+        printer.setMaxLength(3);
+        PrinterPostProcessor postProcessor = mock(PrinterPostProcessor.class);
+        when(postProcessor.process(any())).thenReturn("processed");
+        printer.addPostProcessor(postProcessor);
+        StringBuilder target = new StringBuilder();
+        // when
+        printer.print(asList(1, 2, 3), target);
+        // then
+        verify(postProcessor).process("[1,...(truncated, 3 elements)");
+        assertThat(target.toString(), is("processed"));
+    }
+
+    @Test
+    public void withMaxLength() {
+        // given
+        Printer printer = new ToStringPrinter();
+        printer.setMaxLength(3);
+        PrinterPreProcessor preProcessor = mock(PrinterPreProcessor.class);
+        when(preProcessor.process(any())).thenReturn(singletonMap("k", "v"));
+        printer.addPreProcessor(preProcessor);
+        // when
+        Printer limited = printer.withMaxLength(2);
+        Printer unlimited = printer.withMaxLength(0);
+        // then
+        assertThat(limited.print(singletonMap("a", "b")), is("{k...(truncated, 1 entries)"));
+        assertThat(unlimited.print(singletonMap("a", "b")), is("{k=v}"));
+        assertThat(printer.print(singletonMap("a", "b")), is("{k=...(truncated, 1 entries)"));
+        assertThat(printer.getMaxLength(), is(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setNegativeMaxLength() {
+        // when
+        new ToStringPrinter().setMaxLength(-1);
+        // then expected exception
+    }
+
+    @Test
+    public void printLimitedException() {
+        // given
+        Printer printer = new NoOpPrinter() {
+            @Override
+            protected String serialize(Object input) throws RuntimeException {
+                throw new IllegalStateException();
+            }
+        };
+        printer.setMaxLength(1);
+        // when
+        try {
+            printer.print(new Object(), new StringBuilder());
+        } catch (IllegalStateException e) {
+            // then
+            return;
+        }
+        fail();
+    }
+
     private static class NoOpPrinter extends Printer {
 
         @Override
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.printer;
+
+import org.junit.Test;
+import ru.tinkoff.eclair.printer.resolver.AliasedPrinterResolver;
+import ru.tinkoff.eclair.printer.resolver.PrinterResolver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class RuntimeTypePrinterTest {
+
+    private final Printer overriddenToStringPrinter = new OverriddenToStringPrinter();
+    private final Printer classNamePrinter = new Printer() {
+        @Override
+        protected String serialize(Object input) {
+            return input.getClass().getSimpleName();
+        }
+    };
+
+    private final PrinterResolver printerResolver = initPrinterResolver();
+
+    private PrinterResolver initPrinterResolver() {
+        Map<String, Printer> printers = new LinkedHashMap<>();
+        printers.put("overriddenToStringPrinter", overriddenToStringPrinter);
+        printers.put("classNamePrinter", classNamePrinter);
+        return new AliasedPrinterResolver(printers, emptyMap());
+    }
+
+    @Test
+    public void printByRuntimeTypeWithCache() {
+        // given
+        RuntimeTypePrinter printer = new RuntimeTypePrinter(printerResolver, "");
+        // when
+        String string = printer.print("string");
+        String string2 = printer.print("string2");
+        String object = printer.print(new Object());
+        // then
+        assertThat(string, is("\"string\""));
+        assertThat(string2, is("\"string2\""));
+        assertThat(object, is("Object"));
+        assertThat(printer.getLookupCount(), is(3L));
+        assertThat(printer.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void printByPreferredPrinter() {
+        // given
+        RuntimeTypePrinter printer = new RuntimeTypePrinter(printerResolver, "classNamePrinter");
+        // when
+        String string = printer.print("string");
+        // then
+        assertThat(string, is("String"));
+    }
+
+    @Test
+    public void printLimited() {
+        // given
+        Printer printer = new RuntimeTypePrinter(printerResolver, "").withMaxLength(4);
+        // when
+        String string = printer.print("string");
+        // then
+        assertThat(string, is("\"str...(truncated, 6 chars)"));
+    }
+}
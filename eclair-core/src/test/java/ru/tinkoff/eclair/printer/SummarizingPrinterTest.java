@@ -0,0 +1,200 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.printer;
+
+import org.junit.Test;
+import ru.tinkoff.eclair.printer.resolver.AliasedPrinterResolver;
+import ru.tinkoff.eclair.printer.resolver.PrinterResolver;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static java.util.Collections.emptyMap;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class SummarizingPrinterTest {
+
+    private final SummarizingPrinter printer = new SummarizingPrinter(() -> null);
+
+    @Test
+    public void supports() {
+        assertTrue(printer.supports(int[].class));
+        assertTrue(printer.supports(Object[].class));
+        assertTrue(printer.supports(List.class));
+        assertTrue(printer.supports(HashSet.class));
+        assertTrue(printer.supports(Map.class));
+        assertFalse(printer.supports(String.class));
+        assertFalse(printer.supports(Object.class));
+    }
+
+    @Test
+    public void printSmallCollectionEntirely() {
+        // given
+        List<Integer> list = Arrays.asList(1, 2, 3);
+        // when
+        String result = printer.print(list);
+        // then
+        assertThat(result, is(list.toString()));
+    }
+
+    @Test
+    public void printLargeCollection() {
+        // given
+        List<Integer> list = IntStream.range(0, 1000).boxed().collect(toList());
+        printer.setMaxElements(3);
+        // when
+        String result = printer.print(list);
+        // then
+        assertThat(result, is("[0, 1, 2, ...](1000 elements)"));
+    }
+
+    @Test
+    public void printLargeIntArray() {
+        // given
+        int[] ints = new int[100];
+        printer.setMaxElements(2);
+        // when
+        String result = printer.print(ints);
+        // then
+        assertThat(result, is("[0, 0, ...](100 elements)"));
+    }
+
+    @Test
+    public void printEmptyArrayAndCollection() {
+        assertThat(printer.print(new Object[0]), is("[]"));
+        assertThat(printer.print(new ArrayList<>()), is("[]"));
+        assertThat(printer.print(emptyMap()), is("{}"));
+    }
+
+    @Test
+    public void printZeroElements() {
+        // given
+        printer.setMaxElements(0);
+        // when
+        String result = printer.print(Arrays.asList(1, 2));
+        // then
+        assertThat(result, is("[...](2 elements)"));
+    }
+
+    @Test
+    public void printLargeMap() {
+        // given
+        Map<String, Integer> map = new LinkedHashMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+        printer.setMaxElements(2);
+        // when
+        String result = printer.print(map);
+        // then
+        assertThat(result, is("{\"a\"=1, \"b\"=2, ...}(3 entries)"));
+    }
+
+    @Test
+    public void printBytes() {
+        // given
+        byte[] bytes = new byte[]{0x0a, 0x1b, (byte) 0xff, 0};
+        printer.setMaxBytes(3);
+        // when
+        String result = printer.print(bytes);
+        // then
+        assertThat(result, is("0x0a1bff...(4 bytes)"));
+    }
+
+    @Test
+    public void printSmallBytesEntirely() {
+        assertThat(printer.print(new byte[]{1, 2}), is("0x0102"));
+    }
+
+    @Test
+    public void printNullsAndSelfReference() {
+        // given
+        List<Object> list = new ArrayList<>();
+        list.add(null);
+        list.add(list);
+        // when
+        String result = printer.print(list);
+        // then
+        assertThat(result, is("[null, (this Collection)]"));
+    }
+
+    @Test
+    public void printNestedByResolvedPrinters() {
+        // given
+        Map<String, Printer> printers = new LinkedHashMap<>();
+        printers.put("summarizingPrinter", printer);
+        PrinterResolver printerResolver = new AliasedPrinterResolver(printers, emptyMap());
+        SummarizingPrinter printer = new SummarizingPrinter(() -> printerResolver);
+        printer.setMaxElements(2);
+        this.printer.setMaxElements(1);
+        List<List<String>> lists = Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c"), Arrays.asList("d"));
+        // when
+        String result = printer.print(lists);
+        // then
+        assertThat(result, is("[[\"a\", ...](2 elements), [\"c\"], ...](3 elements)"));
+    }
+
+    @Test
+    public void printRuntimeTypeByResolvedPrinter() {
+        // given
+        Printer elementPrinter = new ToStringPrinter() {
+            @Override
+            protected void serialize(Object input, Appendable target) {
+                append(target, "printed");
+            }
+        };
+        PrinterResolver printerResolver = new AliasedPrinterResolver(Collections.singletonMap("elementPrinter", elementPrinter), emptyMap());
+        SummarizingPrinter printer = new SummarizingPrinter(() -> printerResolver);
+        // when
+        String result = printer.print((Object) "value");
+        // then
+        assertThat(result, is("printed"));
+    }
+
+    @Test
+    public void printFailedElementByDefaultPrinter() {
+        // given
+        Printer failingPrinter = new ToStringPrinter() {
+            @Override
+            protected void serialize(Object input, Appendable target) {
+                throw new IllegalStateException();
+            }
+        };
+        PrinterResolver printerResolver = new AliasedPrinterResolver(Collections.singletonMap("failingPrinter", failingPrinter), emptyMap());
+        SummarizingPrinter printer = new SummarizingPrinter(() -> printerResolver);
+        // when
+        String result = printer.print(Arrays.asList(1, 2));
+        // then
+        assertThat(result, is("[1, 2]"));
+    }
+
+    @Test
+    public void printLimitedLength() {
+        // given
+        List<Integer> list = IntStream.range(0, 1000).boxed().collect(toList());
+        printer.setMaxElements(1000);
+        printer.setMaxLength(10);
+        // when
+        String result = printer.print(list);
+        // then
+        assertThat(result.startsWith("[0, 1, 2, "), is(true));
+        assertThat(result.contains("truncated"), is(true));
+    }
+}
@@ -17,6 +17,15 @@ package ru.tinkoff.eclair.printer;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.nCopies;
+import static java.util.Collections.singletonMap;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
@@ -137,6 +146,44 @@ public class ToStringPrinterTest {
         assertThat(result, is("!"));
     }
 
+    @Test
+    public void serializeStringAppendable() {
+        // given
+        StringBuilder target = new StringBuilder("s=");
+        // when
+        printer.print("string", target);
+        // then
+        assertThat(target.toString(), is("s=\"string\""));
+    }
+
+    @Test
+    public void serializeObjectAppendable() {
+        // given
+        StringBuilder target = new StringBuilder();
+        // when
+        printer.print(new int[]{1, 2}, target);
+        printer.print(new TestObject(), target);
+        // then
+        assertThat(target.toString(), is("[1, 2]!"));
+    }
+
+    @Test
+    public void printAppendableBySubclassSerialization() {
+        // given
+        ToStringPrinter printer = new ToStringPrinter() {
+            @Override
+            protected String serialize(Object input) {
+                return "custom";
+            }
+        };
+        StringBuilder target = new StringBuilder();
+        // when
+        printer.print("string", target);
+        printer.print(new int[]{1, 2}, target);
+        // then
+        assertThat(target.toString(), is("customcustom"));
+    }
+
     private static class TestObject {
 
         @Override
@@ -144,4 +191,100 @@ public class ToStringPrinterTest {
             return "!";
         }
     }
+
+    @Test
+    public void printLimitedArray() {
+        // given
+        ToStringPrinter printer = new ToStringPrinter();
+        printer.setMaxLength(10);
+        long[] array = new long[1_000_000];
+        StringBuilder target = new StringBuilder();
+        // when
+        printer.print(array, target);
+        // then
+        assertThat(target.toString(), is("[0, 0, 0, ...(truncated, 1000000 elements)"));
+    }
+
+    @Test
+    public void printLimitedArrayFitting() {
+        // given
+        ToStringPrinter printer = new ToStringPrinter();
+        printer.setMaxLength(100);
+        Object[] array = {1, null, "s", 'c'};
+        StringBuilder target = new StringBuilder();
+        // when
+        printer.print(array, target);
+        // then
+        assertThat(target.toString(), is("[1, null, s, c]"));
+    }
+
+    @Test
+    public void printLimitedCollectionAbortedEarly() {
+        // given
+        ToStringPrinter printer = new ToStringPrinter();
+        printer.setMaxLength(10);
+        AtomicInteger toStringCount = new AtomicInteger();
+        Object element = new Object() {
+            @Override
+            public String toString() {
+                toStringCount.incrementAndGet();
+                return "e";
+            }
+        };
+        List<Object> list = new ArrayList<>(nCopies(1_000_000, element));
+        StringBuilder target = new StringBuilder();
+        // when
+        printer.print(list, target);
+        // then
+        assertThat(target.toString(), is("[e, e, e, ...(truncated, 1000000 elements)"));
+        assertThat(toStringCount.get(), is(4));
+    }
+
+    @Test
+    public void printLimitedMap() {
+        // given
+        ToStringPrinter printer = new ToStringPrinter();
+        printer.setMaxLength(12);
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", asList(1, 2));
+        map.put("self", map);
+        map.put("b", "value");
+        StringBuilder target = new StringBuilder();
+        // when
+        printer.print(map, target);
+        // then
+        assertThat(target.toString(), is("{a=[1, 2], s...(truncated, 3 entries)"));
+    }
+
+    @Test
+    public void printLimitedCollectionFitting() {
+        // given
+        ToStringPrinter printer = new ToStringPrinter();
+        printer.setMaxLength(100);
+        List<Object> list = new ArrayList<>(asList(1, null, "s", singletonMap("k", "v")));
+        list.add(list);
+        StringBuilder target = new StringBuilder();
+        // when
+        printer.print(list, target);
+        // then
+        assertThat(target.toString(), is(list.toString()));
+    }
+
+    @Test
+    public void printLimitedCollectionWithOverriddenToString() {
+        // given
+        ToStringPrinter printer = new ToStringPrinter();
+        printer.setMaxLength(100);
+        List<Object> list = new ArrayList<Object>(asList(1, 2)) {
+            @Override
+            public String toString() {
+                return "custom";
+            }
+        };
+        StringBuilder target = new StringBuilder();
+        // when
+        printer.print(list, target);
+        // then
+        assertThat(target.toString(), is("custom"));
+    }
 }
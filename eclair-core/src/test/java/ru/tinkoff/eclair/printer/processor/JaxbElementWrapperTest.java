@@ -68,6 +68,24 @@ public class JaxbElementWrapperTest {
         assertThat(processed, is(input));
     }
 
+    @Test
+    public void processEmptyWithIndexSharedByMarshaller() {
+        // given
+        Jaxb2Marshaller marshaller = mock(Jaxb2Marshaller.class);
+        when(marshaller.getClassesToBeBound()).thenReturn(new Class[]{Registry.class});
+        JaxbElementWrapper jaxbElementWrapper = new JaxbElementWrapper(marshaller);
+        JaxbElementWrapper jaxbElementWrapper2 = new JaxbElementWrapper(marshaller);
+        Object input = new Empty();
+        // when
+        Object processed = jaxbElementWrapper.process(input);
+        Object processed2 = jaxbElementWrapper2.process(input);
+        // then
+        verify(marshaller).getClassesToBeBound();
+        assertTrue(processed instanceof JAXBElement);
+        assertTrue(processed2 instanceof JAXBElement);
+        assertThat(jaxbElementWrapper2.getWrapperCache(), is(jaxbElementWrapper.getWrapperCache()));
+    }
+
     @Test
     public void processEmptyWithRegistry() {
         // given
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.printer.processor;
+
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class SensitiveDataScrubberTest {
+
+    @Test
+    public void processWithoutMatches() {
+        // given
+        SensitiveDataScrubber scrubber = new SensitiveDataScrubber()
+                .maskCardNumbers()
+                .maskValuesOfKeys("password")
+                .maskAfterPrefixes("Bearer ");
+        String input = "Dto(login=login, passwd=1234567890123456, pass=word)";
+        // when
+        String actual = scrubber.process(input);
+        // then
+        assertThat(actual, sameInstance(input));
+    }
+
+    @Test
+    public void processCardNumbers() {
+        // given
+        SensitiveDataScrubber scrubber = new SensitiveDataScrubber().maskCardNumbers().setReplacement("*");
+        // when
+        String actual = scrubber.process("4111111111111111,4111111111111112;a5555555555554444b 12345 411111111111111111111");
+        // then
+        assertThat(actual, is("*,4111111111111112;a*b 12345 411111111111111111111"));
+    }
+
+    @Test
+    public void processDigits() {
+        // given
+        SensitiveDataScrubber scrubber = new SensitiveDataScrubber().maskDigits(10, 11, false).setReplacement("*");
+        // when
+        String actual = scrubber.process("phone=+79001234567, id=123456789, code=9001234567");
+        // then
+        assertThat(actual, is("phone=+*, id=123456789, code=*"));
+    }
+
+    @Test
+    public void processLiterals() {
+        // given
+        SensitiveDataScrubber scrubber = new SensitiveDataScrubber().maskLiterals("secret", "cret", "top").setReplacement("*");
+        // when
+        String actual = scrubber.process("topsecret secre ecret");
+        // then
+        assertThat(actual, is("** secre e*"));
+    }
+
+    @Test
+    public void processPrefixes() {
+        // given
+        SensitiveDataScrubber scrubber = new SensitiveDataScrubber().maskAfterPrefixes("Bearer ", "token=");
+        // when
+        String actual = scrubber.process("Authorization: Bearer abc.def.ghi; url?token=xyz&page=1, token=");
+        // then
+        assertThat(actual, is("Authorization: Bearer ********; url?token=********&page=1, token="));
+    }
+
+    @Test
+    public void processKeys() {
+        // given
+        SensitiveDataScrubber scrubber = new SensitiveDataScrubber().maskValuesOfKeys("password", "token").setReplacement("***");
+        String input = "Dto(password=a b, newpassword=c, token : d)" +
+                " {\"password\":\"e, f\",\"password_hint\":\"g\",\"token\": 'h'} token";
+        // when
+        String actual = scrubber.process(input);
+        // then
+        assertThat(actual, is("Dto(password=*** b, newpassword=c, token : ***)" +
+                " {\"password\":\"***\",\"password_hint\":\"g\",\"token\": '***'} token"));
+    }
+
+    @Test
+    public void processValueOnce() {
+        // given
+        SensitiveDataScrubber scrubber = new SensitiveDataScrubber()
+                .maskCardNumbers()
+                .maskLiterals("secret")
+                .maskValuesOfKeys("card")
+                .setReplacement(null);
+        // when
+        String actual = scrubber.process("card=4111111111111111secret 4111111111111111 secret");
+        // then
+        assertThat(actual, is("card=  "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maskEmptyLiteral() {
+        // when
+        new SensitiveDataScrubber().maskLiterals("");
+        // then expected exception
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maskInvalidDigits() {
+        // when
+        new SensitiveDataScrubber().maskDigits(5, 4, false);
+        // then expected exception
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.printer.processor;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.xmlunit.matchers.CompareMatcher;
+import org.xmlunit.matchers.EvaluateXPathMatcher;
+import org.xmlunit.matchers.HasXPathMatcher;
+
+import javax.xml.transform.OutputKeys;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringStartsWith.startsWith;
+import static org.junit.Assert.assertThat;
+
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = StreamingXPathMaskerTest.class)
+public class StreamingXPathMaskerTest {
+
+    @Value("classpath:ru/tinkoff/eclair/printer/processor/single.xml")
+    private Resource single;
+    @Value("classpath:ru/tinkoff/eclair/printer/processor/multiple.xml")
+    private Resource multiple;
+    @Value("classpath:ru/tinkoff/eclair/printer/processor/none.xml")
+    private Resource none;
+
+    @Test
+    public void replaceOneInSingleByNull() throws IOException {
+        // given
+        StreamingXPathMasker masker = new StreamingXPathMasker("/container/user/password");
+        String input = getResourceContent(single);
+        // when
+        String actual = masker.process(input);
+        // then
+        assertThat(actual, HasXPathMatcher.hasXPath("/container/user/password"));
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/container/user/password/text()", is("")));
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/container/user/login/text()", is("login")));
+    }
+
+    @Test
+    public void replaceAllInMultipleByReplacement() throws IOException {
+        // given
+        StreamingXPathMasker masker = new StreamingXPathMasker("//password");
+        String replacement = "********";
+        masker.setReplacement(replacement);
+        String input = getResourceContent(multiple);
+        // when
+        String actual = masker.process(input);
+        // then
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/container/user/password/text()", is(replacement)));
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/container/payload/payload/password/text()", is(replacement)));
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("count(//password)", is("2")));
+    }
+
+    @Test
+    public void replaceSeveralInMultipleByReplacement() throws IOException {
+        // given
+        StreamingXPathMasker masker = new StreamingXPathMasker("/container/user/password", "/container//payload/password");
+        String replacement = "********";
+        masker.setReplacement(replacement);
+        String input = getResourceContent(multiple);
+        // when
+        String actual = masker.process(input);
+        // then
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/container/user/password/text()", is(replacement)));
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/container/payload/payload/password/text()", is(replacement)));
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/container/payload/string/text()", is("string")));
+    }
+
+    @Test
+    public void replaceNestedContent() throws IOException {
+        // given
+        StreamingXPathMasker masker = new StreamingXPathMasker("/container/*");
+        masker.setReplacement("***");
+        String input = getResourceContent(multiple);
+        // when
+        String actual = masker.process(input);
+        // then
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/container/user", is("***")));
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/container/payload", is("***")));
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("count(//password)", is("0")));
+    }
+
+    @Test
+    public void replaceAttributes() {
+        // given
+        StreamingXPathMasker masker = new StreamingXPathMasker("/a/b/@token", "//@secret");
+        masker.setReplacement("***");
+        String input = "<a secret=\"1\"><b token=\"2\" id=\"3\"><c token=\"4\" secret=\"5\"/></b></a>";
+        // when
+        String actual = masker.process(input);
+        // then
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/a/@secret", is("***")));
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/a/b/@token", is("***")));
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/a/b/@id", is("3")));
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/a/b/c/@token", is("4")));
+        assertThat(actual, EvaluateXPathMatcher.hasXPath("/a/b/c/@secret", is("***")));
+    }
+
+    @Test
+    public void replaceInNamespaces() {
+        // given
+        StreamingXPathMasker masker = new StreamingXPathMasker("//password", "/soap:Envelope/soap:Body/login");
+        masker.setReplacement("***");
+        String input = "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\"><soap:Body>" +
+                "<login xmlns=\"urn:a\">login</login><ns:password xmlns:ns=\"urn:b\">password</ns:password>" +
+                "</soap:Body></soap:Envelope>";
+        // when
+        String actual = masker.process(input);
+        // then
+        assertThat(actual, CompareMatcher.isSimilarTo("<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\"><soap:Body>" +
+                "<login xmlns=\"urn:a\">***</login><ns:password xmlns:ns=\"urn:b\">***</ns:password>" +
+                "</soap:Body></soap:Envelope>"));
+    }
+
+    @Test
+    public void replaceSeveralInNoneByNull() throws IOException {
+        // given
+        StreamingXPathMasker masker = new StreamingXPathMasker("/container/user/password", "/container/payload/payload/password");
+        String input = getResourceContent(none);
+        // when
+        String actual = masker.process(input);
+        // then
+        assertThat(actual, CompareMatcher.isSimilarTo(input));
+    }
+
+    @Test
+    public void replaceAsXPathMasker() throws IOException {
+        // given
+        StreamingXPathMasker masker = new StreamingXPathMasker("//password");
+        masker.setReplacement("********");
+        XPathMasker xPathMasker = new XPathMasker("//password");
+        xPathMasker.setReplacement("********");
+        String input = getResourceContent(multiple);
+        // when
+        String actual = masker.process(input);
+        // then
+        assertThat(actual, CompareMatcher.isIdenticalTo(xPathMasker.process(input)).ignoreWhitespace());
+        assertThat(actual, startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?><container>"));
+    }
+
+    @Test
+    public void omitXmlDeclaration() {
+        // given
+        StreamingXPathMasker masker = new StreamingXPathMasker("//b");
+        masker.setOutputProperties(singletonMap(OutputKeys.OMIT_XML_DECLARATION, "yes"));
+        String input = "<?xml version=\"1.0\"?><a><b>1</b><!-- comment --><![CDATA[<c>]]>&amp;</a>";
+        // when
+        String actual = masker.process(input);
+        // then
+        assertThat(actual, is("<a><b/><!-- comment --><![CDATA[<c>]]>&amp;</a>"));
+    }
+
+    @Test
+    public void replaceNothing() throws IOException {
+        // given
+        StreamingXPathMasker masker = new StreamingXPathMasker();
+        String input = getResourceContent(multiple);
+        // when
+        String actual = masker.process(input);
+        // then
+        assertThat(actual, is(input));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void replaceInInvalidXml() {
+        // given
+        StreamingXPathMasker masker = new StreamingXPathMasker("//password");
+        String input = "Invalid XML";
+        // when
+        masker.process(input);
+        // then expected exception
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedXPath() {
+        // when
+        new StreamingXPathMasker("//password[text() = 'secret']");
+        // then expected exception
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void attributeNotLast() {
+        // when
+        new StreamingXPathMasker("/a/@b/c");
+        // then expected exception
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedOutputProperty() {
+        // given
+        StreamingXPathMasker masker = new StreamingXPathMasker("//password");
+        // when
+        masker.setOutputProperties(singletonMap(OutputKeys.INDENT, "yes"));
+        // then expected exception
+    }
+
+    private String getResourceContent(Resource resource) throws IOException {
+        try (InputStream stream = resource.getInputStream()) {
+            return IOUtils.toString(stream, Charset.defaultCharset());
+        }
+    }
+}
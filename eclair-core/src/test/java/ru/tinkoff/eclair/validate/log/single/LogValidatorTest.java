@@ -24,6 +24,8 @@ import ru.tinkoff.eclair.printer.resolver.PrinterResolver;
 import ru.tinkoff.eclair.validate.AnnotationUsageException;
 
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
@@ -62,4 +64,53 @@ public class LogValidatorTest {
         logValidator.validate(method, log);
         // then expected exception
     }
+
+    @Test(expected = AnnotationUsageException.class)
+    public void validateMaxLength() {
+        // given
+        PrinterResolver printerResolver = new AliasedPrinterResolver(emptyMap(), emptyMap());
+        LogValidator<Log.out> logValidator = new LogValidator<>(printerResolver);
+        Log.out log = AnnotationUtils.synthesizeAnnotation(singletonMap("maxLength", -1), Log.out.class, null);
+        // when
+        logValidator.validate(method, log);
+        // then expected exception
+    }
+
+    @Test(expected = AnnotationUsageException.class)
+    public void validateSampleRate() {
+        // given
+        PrinterResolver printerResolver = new AliasedPrinterResolver(emptyMap(), emptyMap());
+        LogValidator<Log> logValidator = new LogValidator<>(printerResolver);
+        Log log = AnnotationUtils.synthesizeAnnotation(singletonMap("sampleRate", 1.5), Log.class, null);
+        // when
+        logValidator.validate(method, log);
+        // then expected exception
+    }
+
+    @Test(expected = AnnotationUsageException.class)
+    public void validateEvery() {
+        // given
+        PrinterResolver printerResolver = new AliasedPrinterResolver(emptyMap(), emptyMap());
+        LogValidator<Log.in> logValidator = new LogValidator<>(printerResolver);
+        Log.in logIn = AnnotationUtils.synthesizeAnnotation(singletonMap("every", 0), Log.in.class, null);
+        // when
+        logValidator.validate(method, logIn);
+        // then expected exception
+    }
+
+    @Test
+    public void validateSampling() {
+        // given
+        PrinterResolver printerResolver = new AliasedPrinterResolver(emptyMap(), emptyMap());
+        LogValidator<Log.out> logValidator = new LogValidator<>(printerResolver);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("sampleRate", 0.5);
+        attributes.put("rateLimit", 10);
+        attributes.put("first", 5);
+        attributes.put("every", 100);
+        Log.out logOut = AnnotationUtils.synthesizeAnnotation(attributes, Log.out.class, null);
+        // when
+        logValidator.validate(method, logOut);
+        // then no exception
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Writes binary names of classes declaring methods or parameters annotated by Eclair into {@value #INDEX_LOCATION}.
+ * Annotations meta-annotated by Eclair ones are taken into account if their declarations are available to compiler.
+ * <p>
+ * Classes compiled without the processor are still scanned at runtime, as the index covers only its own jar or directory.
+ */
+@SupportedAnnotationTypes("*")
+public class EclairIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_LOCATION = "META-INF/eclair.index";
+
+    private static final String ANNOTATION_PACKAGE = "ru.tinkoff.eclair.annotation.";
+    private static final Set<String> ANNOTATIONS = new HashSet<>(asList(
+            ANNOTATION_PACKAGE + "Log",
+            ANNOTATION_PACKAGE + "Logs",
+            ANNOTATION_PACKAGE + "Log.in",
+            ANNOTATION_PACKAGE + "Log.ins",
+            ANNOTATION_PACKAGE + "Log.out",
+            ANNOTATION_PACKAGE + "Log.outs",
+            ANNOTATION_PACKAGE + "Log.error",
+            ANNOTATION_PACKAGE + "Log.errors",
+            ANNOTATION_PACKAGE + "Mdc",
+            ANNOTATION_PACKAGE + "Mdcs"
+    ));
+
+    private final Set<String> annotatedClasses = new TreeSet<>();
+    private final Map<String, Boolean> annotationCache = new HashMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        } else {
+            ElementFilter.typesIn(roundEnv.getRootElements()).forEach(this::collect);
+        }
+        // annotations are not claimed to leave them for other processors
+        return false;
+    }
+
+    private void collect(TypeElement type) {
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (isAnnotated(method) || method.getParameters().stream().anyMatch(this::isAnnotated)) {
+                annotatedClasses.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+                break;
+            }
+        }
+        ElementFilter.typesIn(type.getEnclosedElements()).forEach(this::collect);
+    }
+
+    private boolean isAnnotated(Element element) {
+        return element.getAnnotationMirrors().stream()
+                .map(annotationMirror -> annotationMirror.getAnnotationType().asElement())
+                .anyMatch(annotationType -> annotationType instanceof TypeElement
+                        && isEclairAnnotation((TypeElement) annotationType, new HashSet<>()));
+    }
+
+    /**
+     * @param visited names of annotations already checked on the way, e.g. of self-annotated ones.
+     *                Only results of complete traversals are cached, intermediate ones may be cut by cycles.
+     */
+    private boolean isEclairAnnotation(TypeElement annotationType, Set<String> visited) {
+        String name = annotationType.getQualifiedName().toString();
+        if (ANNOTATIONS.contains(name)) {
+            return true;
+        }
+        Boolean cached = annotationCache.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        if (name.startsWith("java.lang.annotation.")) {
+            return false;
+        }
+        boolean complete = visited.isEmpty();
+        if (!visited.add(name)) {
+            return false;
+        }
+        boolean metaAnnotated = annotationType.getAnnotationMirrors().stream()
+                .map(annotationMirror -> annotationMirror.getAnnotationType().asElement())
+                .anyMatch(metaAnnotationType -> metaAnnotationType instanceof TypeElement
+                        && isEclairAnnotation((TypeElement) metaAnnotationType, visited));
+        if (complete) {
+            annotationCache.put(name, metaAnnotated);
+        }
+        return metaAnnotated;
+    }
+
+    /**
+     * Keeps the entries of the previous compilation, so incremental builds do not lose classes left intact.
+     * Stale entries are harmless: the listed classes are just scanned at runtime.
+     */
+    private void writeIndex() {
+        Set<String> classNames = new TreeSet<>(readIndex());
+        classNames.addAll(annotatedClasses);
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8))) {
+                for (String className : classNames) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + INDEX_LOCATION + ": " + e);
+        }
+    }
+
+    private List<String> readIndex() {
+        List<String> classNames = new ArrayList<>();
+        try {
+            FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        classNames.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // there is no previous index
+        }
+        return classNames;
+    }
+}
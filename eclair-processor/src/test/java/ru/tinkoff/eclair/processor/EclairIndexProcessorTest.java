@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 Tinkoff Bank
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.tinkoff.eclair.processor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EclairIndexProcessorTest {
+
+    private static final JavaFileObject LOG = source("ru.tinkoff.eclair.annotation.Log",
+            "package ru.tinkoff.eclair.annotation;\n" +
+                    "@java.lang.annotation.Target({java.lang.annotation.ElementType.METHOD, java.lang.annotation.ElementType.PARAMETER, java.lang.annotation.ElementType.ANNOTATION_TYPE})\n" +
+                    "public @interface Log { @interface in {} }");
+    private static final JavaFileObject MDC = source("ru.tinkoff.eclair.annotation.Mdc",
+            "package ru.tinkoff.eclair.annotation;\n" +
+                    "public @interface Mdc {}");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void process() throws IOException {
+        // given
+        List<JavaFileObject> sources = asList(LOG, MDC,
+                source("a.Logged", "package a; public class Logged { @ru.tinkoff.eclair.annotation.Log public void m() {} }"),
+                source("a.Parameter", "package a; public class Parameter { public void m(@ru.tinkoff.eclair.annotation.Mdc String s) {} }"),
+                source("a.Plain", "package a; @Deprecated public class Plain { @Deprecated public void m(String s) {} }"),
+                source("a.Outer", "package a; public class Outer { public static class Inner { @ru.tinkoff.eclair.annotation.Log.in public void m() {} } }"));
+        // when
+        List<String> index = compile(sources);
+        // then
+        assertEquals(asList("a.Logged", "a.Outer$Inner", "a.Parameter"), index);
+    }
+
+    @Test
+    public void processMetaAnnotated() throws IOException {
+        // given
+        List<JavaFileObject> sources = asList(LOG, MDC,
+                source("a.Audit", "package a; @ru.tinkoff.eclair.annotation.Log public @interface Audit {}"),
+                source("a.Cyclic", "package a; @Cyclic public @interface Cyclic {}"),
+                source("a.Audited", "package a; public class Audited { @Audit public void m() {} }"),
+                source("a.NotAudited", "package a; public class NotAudited { @Cyclic public void m() {} }"));
+        // when
+        List<String> index = compile(sources);
+        // then
+        assertEquals(singletonList("a.Audited"), index);
+    }
+
+    @Test
+    public void processWithPreviousIndex() throws IOException {
+        // given
+        Path previousIndex = temporaryFolder.getRoot().toPath().resolve(EclairIndexProcessor.INDEX_LOCATION);
+        Files.createDirectories(previousIndex.getParent());
+        Files.write(previousIndex, asList("a.Previous", ""), StandardCharsets.UTF_8);
+        List<JavaFileObject> sources = asList(LOG, MDC,
+                source("a.Logged", "package a; public class Logged { @ru.tinkoff.eclair.annotation.Log public void m() {} }"));
+        // when
+        List<String> index = compile(sources);
+        // then
+        assertEquals(asList("a.Logged", "a.Previous"), index);
+    }
+
+    @Test
+    public void processWithoutAnnotated() throws IOException {
+        // given
+        List<JavaFileObject> sources = singletonList(source("a.Plain", "package a; public class Plain { public void m() {} }"));
+        // when
+        List<String> index = compile(sources);
+        // then
+        assertTrue(index.isEmpty());
+    }
+
+    private List<String> compile(List<JavaFileObject> sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        File output = temporaryFolder.getRoot();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, singletonList(output));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, null, null, sources);
+            task.setProcessors(singletonList(new EclairIndexProcessor()));
+            assertTrue(task.call());
+        }
+        return Files.readAllLines(output.toPath().resolve(EclairIndexProcessor.INDEX_LOCATION), StandardCharsets.UTF_8);
+    }
+
+    private static JavaFileObject source(String className, String code) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
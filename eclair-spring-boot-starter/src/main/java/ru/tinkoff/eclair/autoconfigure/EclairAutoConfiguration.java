@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.logging.LoggingSystem;
@@ -34,14 +35,19 @@ import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
 import ru.tinkoff.eclair.aop.EclairProxyCreator;
+import ru.tinkoff.eclair.core.AnnotatedClassIndex;
 import ru.tinkoff.eclair.core.AnnotationDefinitionFactory;
 import ru.tinkoff.eclair.core.BeanFactoryHelper;
 import ru.tinkoff.eclair.core.ExpressionEvaluator;
+import ru.tinkoff.eclair.logger.AsyncLogger;
 import ru.tinkoff.eclair.logger.EclairLogger;
 import ru.tinkoff.eclair.logger.SimpleLogger;
 import ru.tinkoff.eclair.logger.collector.*;
 import ru.tinkoff.eclair.logger.facade.Slf4JLoggerFacadeFactory;
+import ru.tinkoff.eclair.logger.level.LogbackLevelChangeListener;
 import ru.tinkoff.eclair.printer.*;
 import ru.tinkoff.eclair.printer.processor.JaxbElementWrapper;
 import ru.tinkoff.eclair.printer.resolver.AliasedPrinterResolver;
@@ -59,12 +65,22 @@ import static java.util.Objects.isNull;
 @EnableConfigurationProperties(EclairProperties.class)
 public class EclairAutoConfiguration {
 
+    private static final boolean LOGBACK_PRESENT =
+            ClassUtils.isPresent("ch.qos.logback.classic.LoggerContext", EclairAutoConfiguration.class.getClassLoader());
+
     private final GenericApplicationContext applicationContext;
 
     public EclairAutoConfiguration(GenericApplicationContext applicationContext) {
         this.applicationContext = applicationContext;
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "eclair", name = "reuse-buffers", havingValue = "true")
+    public LogInCollectorFactory<?> threadLocalLogInCollectorFactory() {
+        return new ThreadLocalLogInCollectorFactory();
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public LogInCollectorFactory<?> stringJoinerLogInCollectorFactory() {
@@ -79,13 +95,31 @@ public class EclairAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public EclairLogger simpleLogger(LogInCollectorFactory<?> logInCollectorFactory, LogOutCollector<?> logOutCollector) {
-        return new SimpleLogger(
+    public EclairLogger simpleLogger(LogInCollectorFactory<?> logInCollectorFactory,
+                                     LogOutCollector<?> logOutCollector,
+                                     EclairProperties eclairProperties) {
+        LoggingSystem loggingSystem = LoggingSystem.get(SimpleLogger.class.getClassLoader());
+        SimpleLogger simpleLogger = new SimpleLogger(
                 new Slf4JLoggerFacadeFactory(),
-                LoggingSystem.get(SimpleLogger.class.getClassLoader()),
+                loggingSystem,
                 logInCollectorFactory,
                 logOutCollector
         );
+        if (eclairProperties.isCacheLevels() && LOGBACK_PRESENT) {
+            // cache is not registered if Logback is not bound to Slf4J
+            simpleLogger.setEffectiveLevelCache(LogbackLevelChangeListener.registerCache(loggingSystem));
+        }
+        simpleLogger.setLoggerFacadeLevelCheck(eclairProperties.isLoggerFacadeLevelCheck());
+        simpleLogger.setDeferredRendering(eclairProperties.isDeferredRendering());
+        simpleLogger.setEagerlyRenderedTypes(eclairProperties.getEagerlyRenderedTypes());
+        EclairProperties.Async async = eclairProperties.getAsync();
+        if (async.isEnabled()) {
+            AsyncLogger asyncLogger = new AsyncLogger(simpleLogger, async.getBufferSize(), async.getThreads(), async.getOverflowPolicy());
+            asyncLogger.setShutdownTimeoutMillis(async.getShutdownTimeoutMillis());
+            asyncLogger.setTimestampMdcKey(StringUtils.hasText(async.getTimestampMdcKey()) ? async.getTimestampMdcKey() : null);
+            return asyncLogger;
+        }
+        return simpleLogger;
     }
 
     @Bean
@@ -97,28 +131,57 @@ public class EclairAutoConfiguration {
         return new ExpressionEvaluator(expressionParser, evaluationContext);
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    public AnnotationDefinitionFactory annotationDefinitionFactory(PrinterResolver printerResolver,
+                                                                   EclairProperties eclairProperties) {
+        AnnotationDefinitionFactory annotationDefinitionFactory = new AnnotationDefinitionFactory(printerResolver);
+        annotationDefinitionFactory.setRuntimeTypeDispatch(eclairProperties.isRuntimeTypeDispatch());
+        return annotationDefinitionFactory;
+    }
+
     @Bean
     public EclairProxyCreator eclairProxyCreator(PrinterResolver printerResolver,
+                                                 AnnotationDefinitionFactory annotationDefinitionFactory,
                                                  List<EclairLogger> orderedLoggers,
                                                  EclairProperties eclairProperties,
                                                  ExpressionEvaluator expressionEvaluator) {
-        AnnotationDefinitionFactory annotationDefinitionFactory = new AnnotationDefinitionFactory(printerResolver);
         EclairProxyCreator eclairProxyCreator =
                 new EclairProxyCreator(applicationContext, annotationDefinitionFactory, orderedLoggers, expressionEvaluator, printerResolver);
         eclairProxyCreator.setOrder(Ordered.HIGHEST_PRECEDENCE);
         eclairProxyCreator.setFrozen(false);
         eclairProxyCreator.setValidate(eclairProperties.isValidate());
+        eclairProxyCreator.setMdcWarmUpEvaluations(eclairProperties.getMdcWarmUpEvaluations());
+        if (!eclairProperties.isAnnotationIndex()) {
+            eclairProxyCreator.setAnnotatedClassIndex(AnnotatedClassIndex.empty());
+        }
         return eclairProxyCreator;
     }
 
     @Configuration
     static class PrinterConfiguration {
 
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "eclair", name = "summarizing-printer.enabled", havingValue = "true")
+        @Order(-100)
+        public SummarizingPrinter summarizingPrinter(ObjectProvider<PrinterResolver> printerResolver,
+                                                     EclairProperties eclairProperties) {
+            SummarizingPrinter printer = new SummarizingPrinter(printerResolver::getIfAvailable);
+            EclairProperties.SummarizingPrinter properties = eclairProperties.getSummarizingPrinter();
+            printer.setMaxElements(properties.getMaxElements());
+            printer.setMaxBytes(properties.getMaxBytes());
+            printer.setMaxLength(eclairProperties.getPrinterMaxLength());
+            return printer;
+        }
+
         @Bean
         @ConditionalOnMissingBean
         @Order(0)
-        public OverriddenToStringPrinter overriddenToStringPrinter() {
-            return new OverriddenToStringPrinter();
+        public OverriddenToStringPrinter overriddenToStringPrinter(EclairProperties eclairProperties) {
+            OverriddenToStringPrinter printer = new OverriddenToStringPrinter();
+            printer.setMaxLength(eclairProperties.getPrinterMaxLength());
+            return printer;
         }
 
         @Configuration
@@ -129,10 +192,15 @@ public class EclairAutoConfiguration {
             @ConditionalOnSingleCandidate(Jaxb2Marshaller.class)
             @ConditionalOnMissingBean(Jaxb2Printer.class)
             @Order(100)
-            public Printer jaxb2Printer(ObjectProvider<Jaxb2Marshaller> jaxb2Marshaller) {
+            public Printer jaxb2Printer(ObjectProvider<Jaxb2Marshaller> jaxb2Marshaller, EclairProperties eclairProperties) {
                 Jaxb2Marshaller marshaller = jaxb2Marshaller.getObject();
-                return new Jaxb2Printer(marshaller)
-                        .addPreProcessor(new JaxbElementWrapper(marshaller));
+                Jaxb2Printer printer = new Jaxb2Printer(marshaller);
+                EclairProperties.Jaxb2Printer properties = eclairProperties.getJaxb2Printer();
+                printer.setReuseMarshallers(properties.isReuseMarshallers());
+                printer.setFragment(properties.isFragment());
+                printer.setFormattedOutput(properties.getFormattedOutput());
+                printer.setMaxLength(eclairProperties.getPrinterMaxLength());
+                return printer.addPreProcessor(new JaxbElementWrapper(marshaller));
             }
         }
 
@@ -144,16 +212,20 @@ public class EclairAutoConfiguration {
             @ConditionalOnSingleCandidate(ObjectMapper.class)
             @ConditionalOnMissingBean
             @Order(200)
-            public JacksonPrinter jacksonPrinter(ObjectProvider<ObjectMapper> objectMapper) {
-                return new JacksonPrinter(objectMapper.getObject());
+            public JacksonPrinter jacksonPrinter(ObjectProvider<ObjectMapper> objectMapper, EclairProperties eclairProperties) {
+                JacksonPrinter printer = new JacksonPrinter(objectMapper.getObject());
+                printer.setMaxLength(eclairProperties.getPrinterMaxLength());
+                return printer;
             }
         }
 
         @Bean
         @ConditionalOnMissingBean(ignored = OverriddenToStringPrinter.class)
         @Order(300)
-        public ToStringPrinter toStringPrinter() {
-            return new ToStringPrinter();
+        public ToStringPrinter toStringPrinter(EclairProperties eclairProperties) {
+            ToStringPrinter printer = new ToStringPrinter();
+            printer.setMaxLength(eclairProperties.getPrinterMaxLength());
+            return printer;
         }
 
         @Bean
@@ -16,6 +16,10 @@
 package ru.tinkoff.eclair.autoconfigure;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import ru.tinkoff.eclair.logger.AsyncLogger;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Vyacheslav Klapatnyuk
@@ -24,6 +28,57 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 class EclairProperties {
 
     private boolean validate = true;
+    /**
+     * Cache effective levels of loggers. Applied only to Logback, which notifies about level changes.
+     */
+    private boolean cacheLevels = true;
+    /**
+     * Check levels by underlying loggers natively instead of 'LoggingSystem'. Takes precedence over 'cache-levels'.
+     */
+    private boolean loggerFacadeLevelCheck;
+    /**
+     * Collect 'in'-event parameters into buffers reused by each thread.
+     */
+    private boolean reuseBuffers;
+    /**
+     * Print arguments and results only when logging events are formatted, so filtered out events are never printed.
+     * Events are still formatted by invoking threads, unless 'eclair.async.enabled' is set.
+     */
+    private boolean deferredRendering;
+    /**
+     * Mutable types printed immediately even if rendering is deferred.
+     */
+    private List<Class<?>> eagerlyRenderedTypes = new ArrayList<>();
+    /**
+     * Evaluations of each MDC expression independent of arguments at startup, so SpEL compiles it in advance.
+     * Expressions calling methods or constructors are skipped, since they may have side effects.
+     * Compiler mode 'MIXED' requires more than 100 evaluations.
+     */
+    private int mdcWarmUpEvaluations;
+    /**
+     * Maximum length of values printed by auto-configured printers, the rest is truncated. Unlimited by default.
+     */
+    private int printerMaxLength;
+    /**
+     * Resolve printers of values declared as 'Object', interface or non-final class by their runtime class.
+     */
+    private boolean runtimeTypeDispatch;
+    /**
+     * Skip scanning of classes absent in 'META-INF/eclair.index' of their jar or directory generated by 'eclair-processor'.
+     */
+    private boolean annotationIndex = true;
+    /**
+     * Printing of arrays, collections and maps by the first elements.
+     */
+    private final SummarizingPrinter summarizingPrinter = new SummarizingPrinter();
+    /**
+     * Printing by auto-configured 'Jaxb2Printer'.
+     */
+    private final Jaxb2Printer jaxb2Printer = new Jaxb2Printer();
+    /**
+     * Logging of 'in'-, 'out'- and 'error'-events by background threads.
+     */
+    private final Async async = new Async();
 
     public boolean isValidate() {
         return validate;
@@ -32,4 +87,245 @@ class EclairProperties {
     public void setValidate(boolean validate) {
         this.validate = validate;
     }
+
+    public boolean isCacheLevels() {
+        return cacheLevels;
+    }
+
+    public void setCacheLevels(boolean cacheLevels) {
+        this.cacheLevels = cacheLevels;
+    }
+
+    public boolean isLoggerFacadeLevelCheck() {
+        return loggerFacadeLevelCheck;
+    }
+
+    public void setLoggerFacadeLevelCheck(boolean loggerFacadeLevelCheck) {
+        this.loggerFacadeLevelCheck = loggerFacadeLevelCheck;
+    }
+
+    public boolean isReuseBuffers() {
+        return reuseBuffers;
+    }
+
+    public void setReuseBuffers(boolean reuseBuffers) {
+        this.reuseBuffers = reuseBuffers;
+    }
+
+    public boolean isDeferredRendering() {
+        return deferredRendering;
+    }
+
+    public void setDeferredRendering(boolean deferredRendering) {
+        this.deferredRendering = deferredRendering;
+    }
+
+    public List<Class<?>> getEagerlyRenderedTypes() {
+        return eagerlyRenderedTypes;
+    }
+
+    public void setEagerlyRenderedTypes(List<Class<?>> eagerlyRenderedTypes) {
+        this.eagerlyRenderedTypes = eagerlyRenderedTypes;
+    }
+
+    public int getMdcWarmUpEvaluations() {
+        return mdcWarmUpEvaluations;
+    }
+
+    public void setMdcWarmUpEvaluations(int mdcWarmUpEvaluations) {
+        this.mdcWarmUpEvaluations = mdcWarmUpEvaluations;
+    }
+
+    public int getPrinterMaxLength() {
+        return printerMaxLength;
+    }
+
+    public void setPrinterMaxLength(int printerMaxLength) {
+        this.printerMaxLength = printerMaxLength;
+    }
+
+    public boolean isRuntimeTypeDispatch() {
+        return runtimeTypeDispatch;
+    }
+
+    public void setRuntimeTypeDispatch(boolean runtimeTypeDispatch) {
+        this.runtimeTypeDispatch = runtimeTypeDispatch;
+    }
+
+    public boolean isAnnotationIndex() {
+        return annotationIndex;
+    }
+
+    public void setAnnotationIndex(boolean annotationIndex) {
+        this.annotationIndex = annotationIndex;
+    }
+
+    public SummarizingPrinter getSummarizingPrinter() {
+        return summarizingPrinter;
+    }
+
+    public Jaxb2Printer getJaxb2Printer() {
+        return jaxb2Printer;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    static class Async {
+
+        /**
+         * Log events by background threads instead of invoking ones.
+         */
+        private boolean enabled;
+        /**
+         * Capacity of the ring of events of each background thread.
+         */
+        private int bufferSize = 1024;
+        /**
+         * Count of background threads.
+         */
+        private int threads = 1;
+        /**
+         * Behavior of invoking threads when the ring is full.
+         */
+        private AsyncLogger.OverflowPolicy overflowPolicy = AsyncLogger.OverflowPolicy.SYNCHRONOUS;
+        /**
+         * Maximum time to log already accepted events on shutdown.
+         */
+        private long shutdownTimeoutMillis = 10000;
+        /**
+         * MDC key of the time of the event captured by the invoking thread. Omitted if empty.
+         */
+        private String timestampMdcKey = AsyncLogger.DEFAULT_TIMESTAMP_MDC_KEY;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public AsyncLogger.OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(AsyncLogger.OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public long getShutdownTimeoutMillis() {
+            return shutdownTimeoutMillis;
+        }
+
+        public void setShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+            this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        }
+
+        public String getTimestampMdcKey() {
+            return timestampMdcKey;
+        }
+
+        public void setTimestampMdcKey(String timestampMdcKey) {
+            this.timestampMdcKey = timestampMdcKey;
+        }
+    }
+
+    static class SummarizingPrinter {
+
+        /**
+         * Register printer of arrays, collections and maps preceding all the other auto-configured printers.
+         */
+        private boolean enabled;
+        /**
+         * Count of printed elements of arrays, collections and maps.
+         */
+        private int maxElements = 10;
+        /**
+         * Count of printed bytes of byte arrays.
+         */
+        private int maxBytes = 32;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxElements() {
+            return maxElements;
+        }
+
+        public void setMaxElements(int maxElements) {
+            this.maxElements = maxElements;
+        }
+
+        public int getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(int maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+    }
+
+    static class Jaxb2Printer {
+
+        /**
+         * Keep configured marshaller and buffer for each thread instead of creating new ones for each printing.
+         * Ignored if internals of Jaxb2Marshaller are not accessible.
+         */
+        private boolean reuseMarshallers = true;
+        /**
+         * Print XML without declaration.
+         */
+        private boolean fragment;
+        /**
+         * Print XML with line feeds and indentation. Configured by 'Jaxb2Marshaller' if not set.
+         */
+        private Boolean formattedOutput;
+
+        public boolean isReuseMarshallers() {
+            return reuseMarshallers;
+        }
+
+        public void setReuseMarshallers(boolean reuseMarshallers) {
+            this.reuseMarshallers = reuseMarshallers;
+        }
+
+        public boolean isFragment() {
+            return fragment;
+        }
+
+        public void setFragment(boolean fragment) {
+            this.fragment = fragment;
+        }
+
+        public Boolean getFormattedOutput() {
+            return formattedOutput;
+        }
+
+        public void setFormattedOutput(Boolean formattedOutput) {
+            this.formattedOutput = formattedOutput;
+        }
+    }
 }